@@ -1,6 +1,6 @@
 package com.ClinicaDeYmid.admissions_service.infra.config;
 
-import com.ClinicaDeYmid.admissions_service.infra.security.UserContextHolder;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,18 +13,11 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
@@ -55,41 +48,6 @@ public class RedisCacheConfig {
         return mapper;
     }
 
-    @Bean
-    public RedisCacheManager cacheManager(
-            RedisConnectionFactory connectionFactory,
-            @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
-
-        // Configuración por defecto (10 minutos)
-        RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration
-                .defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues()
-                .serializeKeysWith(
-                        RedisSerializationContext.SerializationPair
-                                .fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair
-                                .fromSerializer(new GenericJackson2JsonRedisSerializer(redisObjectMapper)));
-
-        // Configuraciones específicas por caché
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-
-        // Cache de entidades Attention: 15 minutos
-        cacheConfigurations.put("attention-entities",
-                defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
-
-        // Cache de búsquedas: 5 minutos (cambian más frecuentemente)
-        cacheConfigurations.put("attention-searches",
-                defaultCacheConfig.entryTtl(Duration.ofMinutes(5)));
-
-        return RedisCacheManager
-                .builder(connectionFactory)
-                .cacheDefaults(defaultCacheConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .build();
-    }
-
     @Bean
     public RedisTemplate<String, Object> redisTemplate(
             RedisConnectionFactory connectionFactory,
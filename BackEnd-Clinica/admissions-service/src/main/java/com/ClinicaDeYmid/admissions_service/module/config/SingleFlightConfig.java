@@ -0,0 +1,24 @@
+package com.ClinicaDeYmid.admissions_service.module.config;
+
+import com.ClinicaDeYmid.cache_starter.concurrent.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Agrupa las llamadas Feign idénticas que lanzan a la vez varias peticiones de enriquecimiento
+ * (p. ej. muchos puestos consultando la misma atención activa al cambio de turno).
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, Object> enrichmentSingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${admissions.enrichment.single-flight-max-wait:2s}") Duration maxWait) {
+        return new SingleFlight<>("admissions-enrichment", maxWait, meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ClinicaDeYmid.admissions_service.module.dto.cache;
+
+import com.ClinicaDeYmid.admissions_service.module.dto.attention.AuthorizationResponseDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.attention.CompanionDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.attention.ConfigurationServiceResponseDto;
+import com.ClinicaDeYmid.admissions_service.module.enums.AttentionStatus;
+import com.ClinicaDeYmid.admissions_service.module.enums.Cause;
+import com.ClinicaDeYmid.admissions_service.module.enums.TriageLevel;
+import com.ClinicaDeYmid.admissions_service.module.enums.UserActionType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Copia inmutable de una atención, con sus colecciones ya resueltas, pensada para la caché.
+ * Contiene sólo datos propios de admisiones: paciente, doctor, prestadores y usuarios se
+ * guardan por referencia y se enriquecen al construir la respuesta.
+ *
+ * <p>Cualquier cambio en la forma de este record requiere subir
+ * {@code cache.codec.schema-version}.</p>
+ */
+public record AttentionSnapshot(
+        Long id,
+        boolean active,
+        boolean hasMovements,
+        boolean activeAttention,
+        boolean preAdmission,
+        boolean invoiced,
+        Long patientId,
+        Long doctorId,
+        List<HealthProviderRef> healthProviders,
+        Long invoiceNumber,
+        List<UserAction> userHistory,
+        List<AuthorizationResponseDto> authorizations,
+        ConfigurationServiceResponseDto configurationService,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime dischargeDateTime,
+        AttentionStatus status,
+        Cause cause,
+        String entryMethod,
+        List<String> diagnosticCodes,
+        TriageLevel triageLevel,
+        CompanionDto companion,
+        String observations
+) {
+
+    public AttentionSnapshot {
+        healthProviders = healthProviders != null ? List.copyOf(healthProviders) : List.of();
+        userHistory = userHistory != null ? List.copyOf(userHistory) : List.of();
+        authorizations = authorizations != null ? List.copyOf(authorizations) : List.of();
+        diagnosticCodes = diagnosticCodes != null ? List.copyOf(diagnosticCodes) : null;
+    }
+
+    public record HealthProviderRef(String nit, Long contractId) {}
+
+    public record UserAction(
+            Long id,
+            Long userId,
+            UserActionType actionType,
+            LocalDateTime actionTimestamp,
+            String observations
+    ) {}
+}
@@ -0,0 +1,9 @@
+package com.ClinicaDeYmid.admissions_service.module.dto.clients;
+
+import com.ClinicaDeYmid.admissions_service.module.dto.attention.HealthProviderRequestDto;
+
+import java.util.List;
+
+public record HealthProviderBatchRequestDto(
+        List<HealthProviderRequestDto> items
+) {}
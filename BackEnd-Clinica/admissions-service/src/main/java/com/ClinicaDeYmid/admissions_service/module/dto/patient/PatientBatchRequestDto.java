@@ -0,0 +1,7 @@
+package com.ClinicaDeYmid.admissions_service.module.dto.patient;
+
+import java.util.List;
+
+public record PatientBatchRequestDto(
+        List<String> identificationNumbers
+) {}
@@ -0,0 +1,7 @@
+package com.ClinicaDeYmid.admissions_service.module.dto.suppliers;
+
+import java.util.List;
+
+public record DoctorBatchRequestDto(
+        List<Long> ids
+) {}
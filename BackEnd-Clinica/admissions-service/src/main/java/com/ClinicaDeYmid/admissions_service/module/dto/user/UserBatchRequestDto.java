@@ -0,0 +1,7 @@
+package com.ClinicaDeYmid.admissions_service.module.dto.user;
+
+import java.util.List;
+
+public record UserBatchRequestDto(
+        List<Long> ids
+) {}
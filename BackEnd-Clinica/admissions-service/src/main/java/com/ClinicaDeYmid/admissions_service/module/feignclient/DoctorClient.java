@@ -1,13 +1,21 @@
 package com.ClinicaDeYmid.admissions_service.module.feignclient;
 
+import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.DoctorBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.GetDoctorDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
 
 @FeignClient(name = "suppliers-service", path = "/api/v1/suppliers/doctors")
 public interface DoctorClient {
 
     @GetMapping("/{doctorId}")
     GetDoctorDto getDoctorById(@PathVariable("doctorId") Long id);
-}
\ No newline at end of file
+
+    @PostMapping("/batch")
+    Map<Long, GetDoctorDto> getDoctorsByIds(@RequestBody DoctorBatchRequestDto request);
+}
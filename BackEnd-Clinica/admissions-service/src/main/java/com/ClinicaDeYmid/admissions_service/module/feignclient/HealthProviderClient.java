@@ -1,9 +1,14 @@
 package com.ClinicaDeYmid.admissions_service.module.feignclient;
 
 import com.ClinicaDeYmid.admissions_service.module.dto.clients.GetHealthProviderDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.clients.HealthProviderBatchRequestDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
 
 @FeignClient(name = "clients-service", path = "/api/v1/billing-service/health-providers")
 public interface HealthProviderClient {
@@ -12,4 +17,10 @@ public interface HealthProviderClient {
     GetHealthProviderDto getHealthProviderByNitAndContract(
             @PathVariable("nit") String nit,
             @PathVariable("contractId") Long contractId);
-}
\ No newline at end of file
+
+    /**
+     * Devuelve los prestadores indexados por "nit:contractId".
+     */
+    @PostMapping("/batch")
+    Map<String, GetHealthProviderDto> getHealthProvidersByNitAndContract(@RequestBody HealthProviderBatchRequestDto request);
+}
@@ -1,13 +1,21 @@
 package com.ClinicaDeYmid.admissions_service.module.feignclient;
 
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.GetPatientDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.patient.PatientBatchRequestDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
 
 @FeignClient(name = "patient-service", path = "/api/v1/patients")
 public interface PatientClient {
 
     @GetMapping("/{identificationNumber}")
     GetPatientDto getPatientByIdentificationNumber(@PathVariable("identificationNumber") String identificationNumber);
-}
\ No newline at end of file
+
+    @PostMapping("/batch")
+    Map<String, GetPatientDto> getPatientsByIdentificationNumbers(@RequestBody PatientBatchRequestDto request);
+}
@@ -1,13 +1,21 @@
 package com.ClinicaDeYmid.admissions_service.module.feignclient;
 
 import com.ClinicaDeYmid.admissions_service.module.dto.user.GetUserDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.user.UserBatchRequestDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
 
 @FeignClient(name = "auth-service", path = "/api/v1/auth/users")
 public interface UserClient {
 
     @GetMapping("/{id}")
     GetUserDto getUserById(@PathVariable("id") Long id);
-}
\ No newline at end of file
+
+    @PostMapping("/batch")
+    Map<Long, GetUserDto> getUsersByIds(@RequestBody UserBatchRequestDto request);
+}
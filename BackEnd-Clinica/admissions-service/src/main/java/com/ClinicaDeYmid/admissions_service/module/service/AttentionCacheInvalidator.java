@@ -0,0 +1,62 @@
+package com.ClinicaDeYmid.admissions_service.module.service;
+
+import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalida sólo la entrada de caché de la atención modificada, en lugar de vaciar la caché
+ * completa.
+ *
+ * <p>Los listados por paciente, doctor y prestador no se cachean: incluyen datos de otros
+ * servicios que aquí no se pueden invalidar. Dentro de una transacción la invalidación se difiere
+ * al commit para que ninguna lectura concurrente vuelva a cachear el estado anterior.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttentionCacheInvalidator {
+
+    public static final String ATTENTION_ENTITIES = "attention-entities";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Invalida el snapshot cacheado de la atención.
+     */
+    public void invalidate(Attention attention) {
+        Long attentionId = attention.getId();
+        if (attentionId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(attentionId);
+                }
+            });
+        } else {
+            evict(attentionId);
+        }
+    }
+
+    private void evict(Long attentionId) {
+        try {
+            Cache cache = cacheManager.getCache(ATTENTION_ENTITIES);
+            if (cache != null) {
+                cache.evict(attentionId);
+            }
+            log.debug("🧹 Caché de atenciones invalidado para la atención {}", attentionId);
+        } catch (Exception e) {
+            // La entrada expirará por TTL
+            log.warn("No se pudo invalidar la caché de la atención {}: {}", attentionId, e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.ClinicaDeYmid.admissions_service.module.service;
 
-import com.ClinicaDeYmid.admissions_service.infra.exception.ExternalServiceUnavailableException;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.*;
+import com.ClinicaDeYmid.admissions_service.module.dto.cache.AttentionSnapshot;
 import com.ClinicaDeYmid.admissions_service.module.dto.clients.GetHealthProviderDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.clients.HealthProviderBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.GetPatientDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.patient.PatientBatchRequestDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.DoctorBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.GetDoctorDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.user.GetUserDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.user.UserBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
 import com.ClinicaDeYmid.admissions_service.module.entity.HealthProviderInfo;
 import com.ClinicaDeYmid.admissions_service.module.feignclient.DoctorClient;
@@ -14,13 +18,28 @@ import com.ClinicaDeYmid.admissions_service.module.feignclient.PatientClient;
 import com.ClinicaDeYmid.admissions_service.module.feignclient.UserClient;
 import com.ClinicaDeYmid.admissions_service.module.mapper.AttentionMapper;
 import com.ClinicaDeYmid.admissions_service.module.mapper.AuthorizationMapper;
+import com.ClinicaDeYmid.cache_starter.concurrent.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -35,6 +54,13 @@ public class AttentionEnrichmentService {
     private final UserClient userClient;
     private final AttentionMapper attentionMapper;
     private final AuthorizationMapper authorizationMapper;
+    private final SingleFlight<String, Object> enrichmentSingleFlight;
+
+    @Value("${admissions.enrichment.max-concurrency:16}")
+    private int maxConcurrency = 16;
+
+    @Value("${admissions.enrichment.batch-size:100}")
+    private int batchSize = 100;
 
     private <T> T fetchExternalResource(Supplier<T> supplier, String resourceName, Object id) {
         try {
@@ -56,78 +82,328 @@ public class AttentionEnrichmentService {
     }
 
     public AttentionResponseDto enrichAttentionResponseDto(Attention attention) {
+        return enrichAttentionResponseDto(toSnapshot(attention));
+    }
 
-        GetPatientDto patientDetails = null;
-        if (attention.getPatientId() != null) {
-            try {
-                patientDetails = patientClient.getPatientByIdentificationNumber(attention.getPatientId().toString());
-            } catch (Exception e) {
-                log.warn("No se pudo obtener paciente con patientId {}: {}. PatientId es un ID interno, se necesita identificationNumber", attention.getPatientId(), e.getMessage());
-            }
-        }
-
-        // Obtención de detalles del doctor
-        GetDoctorDto doctorDetails = (attention.getDoctorId() != null) ?
-                fetchExternalResource(() -> doctorClient.getDoctorById(attention.getDoctorId()), "doctor", attention.getDoctorId()) : null;
+    public AttentionResponseDto enrichAttentionResponseDto(AttentionSnapshot snapshot) {
+        return assembleResponseDto(snapshot, resolveExternalData(List.of(snapshot)));
+    }
 
-        // Obtención de prestadores de salud
-        List<GetHealthProviderDto> healthProviderDetails = (attention.getHealthProviderNit() != null && !attention.getHealthProviderNit().isEmpty()) ?
+    /**
+     * Copia la atención a un snapshot inmutable. Debe invocarse dentro de la transacción que
+     * cargó la entidad, ya que recorre sus colecciones y relaciones lazy.
+     */
+    public AttentionSnapshot toSnapshot(Attention attention) {
+        List<AttentionSnapshot.HealthProviderRef> healthProviders = attention.getHealthProviderNit() != null ?
                 attention.getHealthProviderNit().stream()
-                        .map(healthProviderInfo -> {
-                            String nit = healthProviderInfo.getHealthProviderNit();
-                            Long contractId = healthProviderInfo.getContractId();
-                            try {
-                                return healthProviderClient.getHealthProviderByNitAndContract(nit, contractId);
-                            } catch (Exception e) {
-                                log.warn("No se encontró proveedor para NIT {} y contrato {}: {}", nit, contractId, e.getMessage());
-                                return null;
-                            }
-                        })
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()) : Collections.emptyList();
-
-        // Obtención de historial de usuario
-        List<AttentionUserHistoryResponseDto> userHistory = (attention.getUserHistory() != null) ?
-                attention.getUserHistory().stream()
-                        .map(history -> {
-                            GetUserDto userDetails = fetchExternalResource(() -> userClient.getUserById(history.getUserId()), "usuario", history.getUserId());
-                            return new AttentionUserHistoryResponseDto(history.getId(), userDetails, history.getActionType(), history.getActionTimestamp(), history.getObservations());
-                        })
-                        .collect(Collectors.toList()) : Collections.emptyList();
+                        .map(info -> new AttentionSnapshot.HealthProviderRef(info.getHealthProviderNit(), info.getContractId()))
+                        .toList() : List.of();
 
-        // Mapeos que no requieren llamadas externas
-        List<AuthorizationResponseDto> authorizations = authorizationMapper.toResponseDtoList(attention.getAuthorizations());
-        ConfigurationServiceResponseDto configServiceDto = attentionMapper.mapConfigurationServiceToResponseDto(attention.getConfigurationService());
-        CompanionDto companionDto = attentionMapper.toCompanionDto(attention.getCompanion());
+        List<AttentionSnapshot.UserAction> userHistory = attention.getUserHistory() != null ?
+                attention.getUserHistory().stream()
+                        .map(history -> new AttentionSnapshot.UserAction(
+                                history.getId(),
+                                history.getUserId(),
+                                history.getActionType(),
+                                history.getActionTimestamp(),
+                                history.getObservations()))
+                        .toList() : List.of();
 
-        // Construcción final del DTO de respuesta
-        return new AttentionResponseDto(
+        return new AttentionSnapshot(
                 attention.getId(),
                 attention.isActive(),
                 attention.isHasMovements(),
                 attention.isActiveAttention(),
                 attention.isPreAdmission(),
                 attention.isInvoiced(),
-                configServiceDto,
-                patientDetails,
-                doctorDetails,
-                healthProviderDetails,
+                attention.getPatientId(),
+                attention.getDoctorId(),
+                healthProviders,
                 attention.getInvoiceNumber(),
                 userHistory,
-                authorizations,
+                authorizationMapper.toResponseDtoList(attention.getAuthorizations()),
+                attentionMapper.mapConfigurationServiceToResponseDto(attention.getConfigurationService()),
                 attention.getCreatedAt(),
-                attention.getDischargeDateTime(),
                 attention.getUpdatedAt(),
+                attention.getDischargeDateTime(),
                 attention.getStatus(),
                 attention.getCause(),
                 attention.getEntryMethod(),
-                attention.getDiagnosticCodes(),
+                attention.getDiagnosticCodes() != null ? new ArrayList<>(attention.getDiagnosticCodes()) : null,
                 attention.getTriageLevel(),
-                companionDto,
+                attentionMapper.toCompanionDto(attention.getCompanion()),
                 attention.getObservations()
         );
     }
 
+    /**
+     * Enriquece un lote de atenciones resolviendo cada paciente, doctor, prestador y usuario
+     * distinto una sola vez mediante los endpoints batch de cada servicio, en paralelo y con
+     * concurrencia acotada. Las atenciones cuyo ensamblado falla se omiten del resultado.
+     */
+    public List<AttentionResponseDto> enrichAttentionResponseDtos(List<Attention> attentions) {
+        if (attentions == null || attentions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<AttentionSnapshot> snapshots = new ArrayList<>(attentions.size());
+        for (Attention attention : attentions) {
+            try {
+                snapshots.add(toSnapshot(attention));
+            } catch (Exception e) {
+                log.warn("Error enriching attention ID {}: {}. Skipping this record.", attention.getId(), e.getMessage());
+            }
+        }
+
+        ResolvedExternalData resolved = resolveExternalData(snapshots);
+
+        List<AttentionResponseDto> result = new ArrayList<>(snapshots.size());
+        for (AttentionSnapshot snapshot : snapshots) {
+            try {
+                result.add(assembleResponseDto(snapshot, resolved));
+            } catch (Exception e) {
+                log.warn("Error enriching attention ID {}: {}. Skipping this record.", snapshot.id(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resuelve en lote los pacientes indicados. Los que no se pueden obtener no aparecen en el mapa.
+     */
+    public Map<Long, GetPatientDto> resolvePatients(Collection<Long> patientIds) {
+        if (patientIds == null || patientIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return resolveAll(new LinkedHashSet<>(patientIds), this::fetchPatients, this::fetchPatient, "pacientes",
+                    executor, permits, requestAttributes).join();
+        }
+    }
+
+    private ResolvedExternalData resolveExternalData(List<AttentionSnapshot> attentions) {
+        Set<Long> patientIds = new LinkedHashSet<>();
+        Set<Long> doctorIds = new LinkedHashSet<>();
+        Set<HealthProviderKey> healthProviderKeys = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+
+        for (AttentionSnapshot attention : attentions) {
+            if (attention.patientId() != null) {
+                patientIds.add(attention.patientId());
+            }
+            if (attention.doctorId() != null) {
+                doctorIds.add(attention.doctorId());
+            }
+            attention.healthProviders().forEach(ref ->
+                    healthProviderKeys.add(new HealthProviderKey(ref.nit(), ref.contractId())));
+            attention.userHistory().stream()
+                    .map(AttentionSnapshot.UserAction::userId)
+                    .filter(Objects::nonNull)
+                    .forEach(userIds::add);
+        }
+
+        log.debug("Resolviendo datos externos para {} atenciones: {} pacientes, {} doctores, {} prestadores, {} usuarios",
+                attentions.size(), patientIds.size(), doctorIds.size(), healthProviderKeys.size(), userIds.size());
+
+        // Las llamadas Feign se ejecutan en hilos virtuales: se propaga el contexto de la petición
+        // para que FeignClientInterceptor pueda reenviar el header Authorization.
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Map<Long, GetPatientDto>> patients = resolveAll(patientIds,
+                    this::fetchPatients, this::fetchPatient, "pacientes", executor, permits, requestAttributes);
+            CompletableFuture<Map<Long, GetDoctorDto>> doctors = resolveAll(doctorIds,
+                    ids -> doctorClient.getDoctorsByIds(new DoctorBatchRequestDto(ids)),
+                    id -> fetchExternalResource(() -> doctorClient.getDoctorById(id), "doctor", id),
+                    "doctores", executor, permits, requestAttributes);
+            CompletableFuture<Map<HealthProviderKey, GetHealthProviderDto>> healthProviders = resolveAll(healthProviderKeys,
+                    this::fetchHealthProviders, this::fetchHealthProvider, "prestadores", executor, permits, requestAttributes);
+            CompletableFuture<Map<Long, GetUserDto>> users = resolveAll(userIds,
+                    ids -> userClient.getUsersByIds(new UserBatchRequestDto(ids)),
+                    id -> fetchExternalResource(() -> userClient.getUserById(id), "usuario", id),
+                    "usuarios", executor, permits, requestAttributes);
+
+            return new ResolvedExternalData(patients.join(), doctors.join(), healthProviders.join(), users.join());
+        }
+    }
+
+    /**
+     * Divide las claves en lotes de {@code batchSize} y resuelve cada lote con una llamada batch.
+     * Si la llamada batch falla (p. ej. el servicio remoto aún no expone el endpoint), el lote
+     * se resuelve clave por clave con {@code singleLoader}. Las llamadas batch idénticas que estén
+     * en curso a la vez desde otras peticiones se comparten ({@link SingleFlight}).
+     */
+    private <K, V> CompletableFuture<Map<K, V>> resolveAll(Set<K> keys, Function<List<K>, Map<K, V>> batchLoader,
+                                                           Function<K, V> singleLoader, String resourceName,
+                                                           ExecutorService executor, Semaphore permits,
+                                                           RequestAttributes requestAttributes) {
+        List<K> keyList = new ArrayList<>(keys);
+        List<CompletableFuture<Map<K, V>>> futures = new ArrayList<>();
+        for (int from = 0; from < keyList.size(); from += batchSize) {
+            List<K> chunk = keyList.subList(from, Math.min(from + batchSize, keyList.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> loadWithPermit(
+                    () -> loadChunk(chunk, batchLoader, singleLoader, resourceName), permits, requestAttributes), executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<K, V> resolved = new HashMap<>();
+                    futures.forEach(future -> resolved.putAll(future.join()));
+                    return resolved;
+                });
+    }
+
+    private <K, V> Map<K, V> loadChunk(List<K> chunk, Function<List<K>, Map<K, V>> batchLoader,
+                                       Function<K, V> singleLoader, String resourceName) {
+        try {
+            Map<K, V> result = coalesce(resourceName, chunk, batchLoader);
+            return result != null ? result : Collections.emptyMap();
+        } catch (Exception e) {
+            log.warn("Batch lookup of {} {} failed: {}. Falling back to individual lookups.",
+                    chunk.size(), resourceName, e.getMessage());
+            Map<K, V> result = new HashMap<>();
+            for (K key : chunk) {
+                V value = singleLoader.apply(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * La clave es el recurso y los ids del lote: los datos de referencia no dependen del usuario,
+     * que ya ha sido autorizado al leer la atención.
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> coalesce(String resourceName, List<K> chunk, Function<List<K>, Map<K, V>> batchLoader) {
+        return (Map<K, V>) enrichmentSingleFlight.execute(resourceName + ":" + chunk, () -> batchLoader.apply(chunk));
+    }
+
+    private <K, V> Map<K, V> loadWithPermit(Supplier<Map<K, V>> loader, Semaphore permits,
+                                            RequestAttributes requestAttributes) {
+        boolean acquired = false;
+        try {
+            permits.acquire();
+            acquired = true;
+            if (requestAttributes != null) {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+            }
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while resolving external data. Returning empty result.");
+            return Collections.emptyMap();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    private Map<Long, GetPatientDto> fetchPatients(List<Long> patientIds) {
+        Map<String, GetPatientDto> response = patientClient.getPatientsByIdentificationNumbers(
+                new PatientBatchRequestDto(patientIds.stream().map(String::valueOf).toList()));
+        return remapKeys(patientIds, response, String::valueOf);
+    }
+
+    private GetPatientDto fetchPatient(Long patientId) {
+        try {
+            return patientClient.getPatientByIdentificationNumber(patientId.toString());
+        } catch (Exception e) {
+            log.warn("No se pudo obtener paciente con patientId {}: {}. PatientId es un ID interno, se necesita identificationNumber", patientId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<HealthProviderKey, GetHealthProviderDto> fetchHealthProviders(List<HealthProviderKey> keys) {
+        Map<String, GetHealthProviderDto> response = healthProviderClient.getHealthProvidersByNitAndContract(
+                new HealthProviderBatchRequestDto(keys.stream()
+                        .map(key -> new HealthProviderRequestDto(key.nit(), key.contractId()))
+                        .toList()));
+        return remapKeys(keys, response, HealthProviderKey::batchKey);
+    }
+
+    private GetHealthProviderDto fetchHealthProvider(HealthProviderKey key) {
+        try {
+            return healthProviderClient.getHealthProviderByNitAndContract(key.nit(), key.contractId());
+        } catch (Exception e) {
+            log.warn("No se encontró proveedor para NIT {} y contrato {}: {}", key.nit(), key.contractId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private <K, V> Map<K, V> remapKeys(List<K> keys, Map<String, V> response, Function<K, String> keyMapper) {
+        if (response == null || response.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = response.get(keyMapper.apply(key));
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private AttentionResponseDto assembleResponseDto(AttentionSnapshot attention, ResolvedExternalData resolved) {
+
+        GetPatientDto patientDetails = (attention.patientId() != null) ?
+                resolved.patients().get(attention.patientId()) : null;
+
+        GetDoctorDto doctorDetails = (attention.doctorId() != null) ?
+                resolved.doctors().get(attention.doctorId()) : null;
+
+        List<GetHealthProviderDto> healthProviderDetails = attention.healthProviders().stream()
+                .map(ref -> resolved.healthProviders().get(new HealthProviderKey(ref.nit(), ref.contractId())))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        List<AttentionUserHistoryResponseDto> userHistory = attention.userHistory().stream()
+                .map(history -> new AttentionUserHistoryResponseDto(
+                        history.id(),
+                        history.userId() != null ? resolved.users().get(history.userId()) : null,
+                        history.actionType(),
+                        history.actionTimestamp(),
+                        history.observations()))
+                .collect(Collectors.toList());
+
+        // Construcción final del DTO de respuesta
+        return new AttentionResponseDto(
+                attention.id(),
+                attention.active(),
+                attention.hasMovements(),
+                attention.activeAttention(),
+                attention.preAdmission(),
+                attention.invoiced(),
+                attention.configurationService(),
+                patientDetails,
+                doctorDetails,
+                healthProviderDetails,
+                attention.invoiceNumber(),
+                userHistory,
+                attention.authorizations(),
+                attention.createdAt(),
+                attention.dischargeDateTime(),
+                attention.updatedAt(),
+                attention.status(),
+                attention.cause(),
+                attention.entryMethod(),
+                attention.diagnosticCodes(),
+                attention.triageLevel(),
+                attention.companion(),
+                attention.observations()
+        );
+    }
+
     public List<Long> extractContractIdsFromHealthProviderInfo(List<HealthProviderInfo> healthProviderInfoList) {
         if (healthProviderInfoList == null || healthProviderInfoList.isEmpty()) {
             return Collections.emptyList();
@@ -138,4 +414,17 @@ public class AttentionEnrichmentService {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private record HealthProviderKey(String nit, Long contractId) {
+        String batchKey() {
+            return nit + ":" + contractId;
+        }
+    }
+
+    private record ResolvedExternalData(
+            Map<Long, GetPatientDto> patients,
+            Map<Long, GetDoctorDto> doctors,
+            Map<HealthProviderKey, GetHealthProviderDto> healthProviders,
+            Map<Long, GetUserDto> users
+    ) {}
+}
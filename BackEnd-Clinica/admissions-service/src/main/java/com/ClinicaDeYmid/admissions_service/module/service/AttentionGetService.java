@@ -4,6 +4,7 @@ import com.ClinicaDeYmid.admissions_service.infra.exception.EntityNotFoundExcept
 import com.ClinicaDeYmid.admissions_service.infra.exception.ValidationException;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionResponseDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionSearchRequest;
+import com.ClinicaDeYmid.admissions_service.module.dto.cache.AttentionSnapshot;
 import com.ClinicaDeYmid.admissions_service.module.dto.clients.GetHealthProviderDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.clients.HealthProviderWithAttentionsResponse;
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.GetPatientDto;
@@ -21,7 +22,6 @@ import com.ClinicaDeYmid.admissions_service.module.repository.AttentionRepositor
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +33,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -45,36 +47,20 @@ public class AttentionGetService {
 
     private final AttentionRepository attentionRepository;
     private final AttentionEnrichmentService attentionEnrichmentService;
+    private final AttentionSnapshotService attentionSnapshotService;
     private final AttentionMapper attentionMapper;
     private final PatientClient patientClient;
     private final DoctorClient doctorClient;
     private final HealthProviderClient healthProviderClient;
 
-    @Cacheable(value = "attention-entities", key = "#id")
-    @Transactional(readOnly = true)
-    public Attention findEntityById(Long id) {
-        log.debug("🔍 Cache MISS - Consultando DB para attention: {}", id);
-
-        Attention attention = attentionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Attention not found with ID: " + id));
-
-        // Inicializar colecciones lazy
-        if (attention != null) {
-            Hibernate.initialize(attention.getAuthorizations());
-            Hibernate.initialize(attention.getDiagnosticCodes());
-        }
-
-        return attention;
-    }
-
     @Transactional(readOnly = true)
     public AttentionResponseDto getAttentionById(Long id) {
         log.info("📦 Construyendo AttentionResponseDto completo para attention: {}", id);
 
-        // Usa caché de entidad (rápido si está en Redis)
-        Attention attention = findEntityById(id);
+        // Usa el snapshot cacheado (L1 en memoria / Redis)
+        AttentionSnapshot snapshot = attentionSnapshotService.getSnapshot(id);
 
-        return attentionEnrichmentService.enrichAttentionResponseDto(attention);
+        return attentionEnrichmentService.enrichAttentionResponseDto(snapshot);
     }
 
     @Transactional(readOnly = true)
@@ -160,16 +146,17 @@ public class AttentionGetService {
             log.error("Error fetching doctor name for id {}: {}", doctorId, e.getMessage());
         }
 
-        // Resolver nombres de pacientes para cada atención
+        // Resolver cada paciente distinto una sola vez, en paralelo
+        Map<Long, GetPatientDto> patients = attentionEnrichmentService.resolvePatients(
+                attentions == null ? Collections.emptyList() : attentions.stream()
+                        .map(Attention::getPatientId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
+
         Function<Long, String> patientNameResolver = (id) -> {
-            try {
-                GetPatientDto patient = patientClient.getPatientByIdentificationNumber(id.toString());
-                if (patient == null) return "";
-                return patient.name() + (patient.lastName() != null ? " " + patient.lastName() : "");
-            } catch (Exception e) {
-                log.error("Error fetching patient name for id {}: {}", id, e.getMessage());
-                return "";
-            }
+            GetPatientDto patient = patients.get(id);
+            if (patient == null) return "";
+            return patient.name() + (patient.lastName() != null ? " " + patient.lastName() : "");
         };
 
         // Agrupar atenciones por paciente
@@ -242,10 +229,8 @@ public class AttentionGetService {
             attentions = Collections.emptyList();
         }
 
-        // Enriquecer cada atención con datos externos
-        return attentions.stream()
-                .map(attentionEnrichmentService::enrichAttentionResponseDto)
-                .collect(Collectors.toList());
+        // Enriquecer el lote completo de atenciones con datos externos
+        return attentionEnrichmentService.enrichAttentionResponseDtos(attentions);
     }
 
     /**
@@ -261,20 +246,9 @@ public class AttentionGetService {
 
         Page<Attention> attentionPage = attentionRepository.findAll(spec, pageable);
 
-        // Para búsquedas, usamos enriquecimiento con mejor manejo de errores
-        List<AttentionResponseDto> content = attentionPage.getContent().stream()
-                .map(attention -> {
-                    try {
-                        return attentionEnrichmentService.enrichAttentionResponseDto(attention);
-                    } catch (Exception e) {
-                        log.warn("Error enriching attention ID {}: {}. Skipping this record in search results.", 
-                                attention.getId(), e.getMessage());
-                        // Si falla el enriquecimiento, retornamos null y lo filtramos después
-                        return null;
-                    }
-                })
-                .filter(java.util.Objects::nonNull) // Filtramos los que fallaron
-                .collect(Collectors.toList());
+        // Enriquecimiento por lotes: los registros que fallan se omiten del resultado
+        List<AttentionResponseDto> content =
+                attentionEnrichmentService.enrichAttentionResponseDtos(attentionPage.getContent());
 
         // Ajustamos el total si algunos registros fallaron
         long adjustedTotal = attentionPage.getTotalElements() - (attentionPage.getContent().size() - content.size());
@@ -20,7 +20,6 @@ import com.ClinicaDeYmid.admissions_service.module.repository.AttentionRepositor
 import com.ClinicaDeYmid.admissions_service.module.repository.ConfigurationServiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -48,6 +47,7 @@ public class AttentionRecordService {
     private final AttentionMapper attentionMapper;
     private final AuthorizationMapper authorizationMapper;
     private final AttentionEnrichmentService attentionEnrichmentService;
+    private final AttentionCacheInvalidator attentionCacheInvalidator;
     private final PatientClient patientClient;
     private final DoctorClient doctorClient;
     private final HealthProviderClient healthProviderClient;
@@ -57,12 +57,6 @@ public class AttentionRecordService {
      * Crea una nueva atención (INVALIDA CACHÉS RELACIONADOS)
      */
     @Transactional
-    @CacheEvict(value = {
-            "attention-entities",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public AttentionResponseDto createAttention(AttentionRequestDto requestDto) {
         log.info("Creating new attention for patient ID: {}", requestDto.patientId());
 
@@ -92,6 +86,7 @@ public class AttentionRecordService {
         }
 
         attention = attentionRepository.save(attention);
+        attentionCacheInvalidator.invalidate(attention);
 
         AttentionResponseDto responseDto;
         try {
@@ -112,12 +107,6 @@ public class AttentionRecordService {
      * Actualiza una atención existente (INVALIDA CACHÉS)
      */
     @Transactional
-    @CacheEvict(value = {
-            "attention-entities",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public AttentionResponseDto updateAttention(Long id, AttentionRequestDto request) {
         log.info("Updating attention with ID: {}", id);
 
@@ -155,6 +144,7 @@ public class AttentionRecordService {
         }
 
         Attention savedAttention = attentionRepository.save(existingAttention);
+        attentionCacheInvalidator.invalidate(savedAttention);
 
         log.info("Attention with ID {} updated successfully", id);
         return attentionEnrichmentService.enrichAttentionResponseDto(savedAttention);
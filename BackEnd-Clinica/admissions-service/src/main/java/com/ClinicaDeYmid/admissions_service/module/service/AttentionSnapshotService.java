@@ -0,0 +1,35 @@
+package com.ClinicaDeYmid.admissions_service.module.service;
+
+import com.ClinicaDeYmid.admissions_service.infra.exception.EntityNotFoundException;
+import com.ClinicaDeYmid.admissions_service.module.dto.cache.AttentionSnapshot;
+import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
+import com.ClinicaDeYmid.admissions_service.module.repository.AttentionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Carga y cachea snapshots inmutables de atenciones. Vive en un bean propio para que
+ * {@code @Cacheable} se aplique a través del proxy también desde {@link AttentionGetService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttentionSnapshotService {
+
+    private final AttentionRepository attentionRepository;
+    private final AttentionEnrichmentService attentionEnrichmentService;
+
+    @Cacheable(value = "attention-entities", key = "#id")
+    @Transactional(readOnly = true)
+    public AttentionSnapshot getSnapshot(Long id) {
+        log.debug("🔍 Cache MISS - Consultando DB para attention: {}", id);
+
+        Attention attention = attentionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Attention not found with ID: " + id));
+
+        return attentionEnrichmentService.toSnapshot(attention);
+    }
+}
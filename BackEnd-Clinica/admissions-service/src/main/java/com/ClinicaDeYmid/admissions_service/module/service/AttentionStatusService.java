@@ -2,12 +2,11 @@ package com.ClinicaDeYmid.admissions_service.module.service;
 
 import com.ClinicaDeYmid.admissions_service.infra.exception.EntityNotFoundException;
 import com.ClinicaDeYmid.admissions_service.infra.exception.ValidationException;
-import com.ClinicaDeYmid.admissions_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
 import com.ClinicaDeYmid.admissions_service.module.repository.AttentionRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,17 +16,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class AttentionStatusService {
 
     private final AttentionRepository attentionRepository;
+    private final AttentionCacheInvalidator attentionCacheInvalidator;
 
     /**
      * Activa una atención
      */
     @Transactional
-    @CacheEvict(value = {
-            "attentions",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public void activateAttention(Long id) {
         log.info("Activating attention with ID: {}", id);
 
@@ -40,6 +34,7 @@ public class AttentionStatusService {
 
         attention.setActive(true);
         attentionRepository.save(attention);
+        attentionCacheInvalidator.invalidate(attention);
 
         log.info("Attention with ID {} activated successfully", id);
     }
@@ -48,12 +43,6 @@ public class AttentionStatusService {
      * Desactiva una atención
      */
     @Transactional
-    @CacheEvict(value = {
-            "attentions",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public void deactivateAttention(Long id) {
         log.info("Deactivating attention with ID: {}", id);
 
@@ -66,6 +55,7 @@ public class AttentionStatusService {
 
         attention.setActive(false);
         attentionRepository.save(attention);
+        attentionCacheInvalidator.invalidate(attention);
 
         log.info("Attention with ID {} deactivated successfully", id);
     }
@@ -74,12 +64,6 @@ public class AttentionStatusService {
      * Soft delete de una atención
      */
     @Transactional
-    @CacheEvict(value = {
-            "attentions",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public void softDeleteAttention(Long id, String reason) {
         log.info("Soft deleting attention with ID: {} for reason: {}", id, reason);
 
@@ -103,6 +87,7 @@ public class AttentionStatusService {
 
         attention.softDelete(currentUserId, reason);
         attentionRepository.save(attention);
+        attentionCacheInvalidator.invalidate(attention);
 
         log.info("Attention with ID {} soft deleted successfully by user {}", id, currentUserId);
     }
@@ -111,12 +96,6 @@ public class AttentionStatusService {
      * Restaura una atención soft-deleted
      */
     @Transactional
-    @CacheEvict(value = {
-            "attentions",
-            "attentionsByPatient",
-            "attentionsByDoctor",
-            "attentionsByHealthProvider"
-    }, allEntries = true)
     public void restoreAttention(Long id) {
         log.info("Restoring soft-deleted attention with ID: {}", id);
 
@@ -130,6 +109,7 @@ public class AttentionStatusService {
 
         attention.restore();
         attentionRepository.save(attention);
+        attentionCacheInvalidator.invalidate(attention);
 
         log.info("Attention with ID {} restored successfully", id);
     }
@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.admissions_service.module.controller;
 
-import com.ClinicaDeYmid.admissions_service.infra.security.JwtAuthenticationFilter;
 import com.ClinicaDeYmid.admissions_service.infra.security.SecurityConfig;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionResponseDto;
@@ -18,6 +17,7 @@ import com.ClinicaDeYmid.admissions_service.module.service.AttentionEnrichmentSe
 import com.ClinicaDeYmid.admissions_service.module.service.AttentionGetService;
 import com.ClinicaDeYmid.admissions_service.module.service.AttentionRecordService;
 import com.ClinicaDeYmid.admissions_service.module.service.AttentionStatusService;
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -59,7 +59,7 @@ class AttentionControllerIntegrationTest {
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     @MockBean
-    private com.ClinicaDeYmid.admissions_service.infra.security.JwtTokenProvider jwtTokenProvider;
+    private com.ClinicaDeYmid.security_starter.jwt.JwtTokenProvider jwtTokenProvider;
 
     private ObjectMapper objectMapper;
 
@@ -52,10 +52,10 @@ class AttentionControllerTest {
     private ObjectMapper objectMapper;
 
     @MockBean
-    private com.ClinicaDeYmid.admissions_service.infra.security.JwtAuthenticationFilter jwtAuthenticationFilter;
+    private com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @MockBean
-    private com.ClinicaDeYmid.admissions_service.infra.security.JwtTokenProvider jwtTokenProvider;
+    private com.ClinicaDeYmid.security_starter.jwt.JwtTokenProvider jwtTokenProvider;
 
     private AttentionRequestDto attentionRequestDto;
     private AttentionResponseDto attentionResponseDto;
@@ -0,0 +1,84 @@
+package com.ClinicaDeYmid.admissions_service.module.service;
+
+import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttentionCacheInvalidatorTest {
+
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache attentionEntities;
+
+    @InjectMocks
+    private AttentionCacheInvalidator invalidator;
+
+    private Attention attention;
+
+    @BeforeEach
+    void setUp() {
+        attention = new Attention();
+        attention.setId(1L);
+        attention.setPatientId(10L);
+        attention.setDoctorId(20L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_WithoutTransaction_EvictsOnlyTheAttention() {
+        // Arrange
+        when(cacheManager.getCache("attention-entities")).thenReturn(attentionEntities);
+
+        // Act
+        invalidator.invalidate(attention);
+
+        // Assert
+        verify(attentionEntities).evict(1L);
+        verify(attentionEntities, never()).clear();
+        verifyNoMoreInteractions(cacheManager);
+    }
+
+    @Test
+    void invalidate_InsideTransaction_DefersUntilCommit() {
+        // Arrange
+        when(cacheManager.getCache("attention-entities")).thenReturn(attentionEntities);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        invalidator.invalidate(attention);
+
+        // Assert
+        verifyNoInteractions(attentionEntities);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(attentionEntities).evict(1L);
+    }
+
+    @Test
+    void invalidate_UnsavedAttention_DoesNothing() {
+        // Act
+        invalidator.invalidate(new Attention());
+
+        // Assert
+        verifyNoInteractions(cacheManager);
+    }
+}
@@ -3,9 +3,13 @@ package com.ClinicaDeYmid.admissions_service.module.service;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionResponseDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.ConfigurationServiceResponseDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.clients.GetHealthProviderDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.clients.HealthProviderBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.GetPatientDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.patient.PatientBatchRequestDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.DoctorBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.suppliers.GetDoctorDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.user.GetUserDto;
+import com.ClinicaDeYmid.admissions_service.module.dto.user.UserBatchRequestDto;
 import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
 import com.ClinicaDeYmid.admissions_service.module.entity.AttentionUserHistory;
 import com.ClinicaDeYmid.admissions_service.module.entity.ConfigurationService;
@@ -17,21 +21,26 @@ import com.ClinicaDeYmid.admissions_service.module.feignclient.PatientClient;
 import com.ClinicaDeYmid.admissions_service.module.feignclient.UserClient;
 import com.ClinicaDeYmid.admissions_service.module.mapper.AttentionMapper;
 import com.ClinicaDeYmid.admissions_service.module.mapper.AuthorizationMapper;
+import com.ClinicaDeYmid.cache_starter.concurrent.SingleFlight;
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AttentionEnrichmentServiceTest {
@@ -48,6 +57,9 @@ class AttentionEnrichmentServiceTest {
     private AttentionMapper attentionMapper;
     @Mock
     private AuthorizationMapper authorizationMapper;
+    @Spy
+    private SingleFlight<String, Object> enrichmentSingleFlight =
+            new SingleFlight<>("admissions-enrichment", Duration.ofSeconds(1), new SimpleMeterRegistry());
 
     @InjectMocks
     private AttentionEnrichmentService attentionEnrichmentService;
@@ -81,10 +93,10 @@ class AttentionEnrichmentServiceTest {
     @Test
     void enrichAttentionResponseDto_Success() {
         // Arrange
-        when(patientClient.getPatientByIdentificationNumber(anyString())).thenReturn(new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null));
-        when(doctorClient.getDoctorById(anyLong())).thenReturn(new GetDoctorDto("123", "Dr", "House", null));
-        when(healthProviderClient.getHealthProviderByNitAndContract(anyString(), anyLong())).thenReturn(new GetHealthProviderDto("NIT", "SocialReason", "Type", null));
-        when(userClient.getUserById(anyLong())).thenReturn(new GetUserDto("uuid", "user", "email", true, null));
+        when(patientClient.getPatientsByIdentificationNumbers(any(PatientBatchRequestDto.class))).thenReturn(Map.of("1", new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null)));
+        when(doctorClient.getDoctorsByIds(any(DoctorBatchRequestDto.class))).thenReturn(Map.of(1L, new GetDoctorDto("123", "Dr", "House", null)));
+        when(healthProviderClient.getHealthProvidersByNitAndContract(any(HealthProviderBatchRequestDto.class))).thenReturn(Map.of("123456789:1", new GetHealthProviderDto("NIT", "SocialReason", "Type", null)));
+        when(userClient.getUsersByIds(any(UserBatchRequestDto.class))).thenReturn(Map.of(1L, new GetUserDto("uuid", "user", "email", true, null)));
         
         when(authorizationMapper.toResponseDtoList(anyList())).thenReturn(Collections.emptyList());
         when(attentionMapper.mapConfigurationServiceToResponseDto(any(ConfigurationService.class))).thenReturn(new ConfigurationServiceResponseDto(1L, "Service", "Care", "Loc", true));
@@ -104,7 +116,8 @@ class AttentionEnrichmentServiceTest {
     @Test
     void enrichAttentionResponseDto_ServiceUnavailable() {
         // Arrange
-        when(patientClient.getPatientByIdentificationNumber(anyString())).thenReturn(new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null));
+        when(patientClient.getPatientsByIdentificationNumbers(any(PatientBatchRequestDto.class))).thenReturn(Map.of("1", new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null)));
+        when(doctorClient.getDoctorsByIds(any(DoctorBatchRequestDto.class))).thenThrow(FeignException.ServiceUnavailable.class);
         when(doctorClient.getDoctorById(anyLong())).thenThrow(FeignException.ServiceUnavailable.class);
         
         when(attentionMapper.mapConfigurationServiceToResponseDto(any(ConfigurationService.class))).thenReturn(new ConfigurationServiceResponseDto(1L, "Service", "Care", "Loc", true));
@@ -118,6 +131,65 @@ class AttentionEnrichmentServiceTest {
         assertNotNull(result.patientDetails()); // Should still be present
     }
 
+    @Test
+    void enrichAttentionResponseDtos_ResolvesEachDistinctIdOnce() {
+        // Arrange
+        Attention second = new Attention();
+        second.setId(2L);
+        second.setPatientId(1L);
+        second.setDoctorId(1L);
+        second.setHealthProviderNit(attention.getHealthProviderNit());
+        second.setUserHistory(attention.getUserHistory());
+
+        when(patientClient.getPatientsByIdentificationNumbers(new PatientBatchRequestDto(List.of("1")))).thenReturn(Map.of("1", new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null)));
+        when(doctorClient.getDoctorsByIds(new DoctorBatchRequestDto(List.of(1L)))).thenReturn(Map.of(1L, new GetDoctorDto("123", "Dr", "House", null)));
+        when(healthProviderClient.getHealthProvidersByNitAndContract(any(HealthProviderBatchRequestDto.class))).thenReturn(Map.of("123456789:1", new GetHealthProviderDto("NIT", "SocialReason", "Type", null)));
+        when(userClient.getUsersByIds(new UserBatchRequestDto(List.of(1L)))).thenReturn(Map.of(1L, new GetUserDto("uuid", "user", "email", true, null)));
+
+        // Act
+        List<AttentionResponseDto> result = attentionEnrichmentService.enrichAttentionResponseDtos(List.of(attention, second));
+
+        // Assert
+        assertEquals(2, result.size());
+        result.forEach(dto -> {
+            assertNotNull(dto.patientDetails());
+            assertNotNull(dto.doctorDetails());
+            assertEquals(1, dto.healthProviderDetails().size());
+            assertNotNull(dto.userHistory().get(0).user());
+        });
+        verify(patientClient, times(1)).getPatientsByIdentificationNumbers(any());
+        verify(doctorClient, times(1)).getDoctorsByIds(any());
+        verify(healthProviderClient, times(1)).getHealthProvidersByNitAndContract(any());
+        verify(userClient, times(1)).getUsersByIds(any());
+        verify(patientClient, never()).getPatientByIdentificationNumber(anyString());
+        verify(doctorClient, never()).getDoctorById(anyLong());
+    }
+
+    @Test
+    void enrichAttentionResponseDtos_FallsBackToSingleLookupsWhenBatchFails() {
+        // Arrange
+        when(patientClient.getPatientsByIdentificationNumbers(any(PatientBatchRequestDto.class))).thenThrow(FeignException.NotFound.class);
+        when(patientClient.getPatientByIdentificationNumber("1")).thenReturn(new GetPatientDto("123", "John", "Doe", null, null, null, null, null, null, null));
+
+        // Act
+        List<AttentionResponseDto> result = attentionEnrichmentService.enrichAttentionResponseDtos(List.of(attention));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertNotNull(result.get(0).patientDetails());
+        verify(patientClient, times(1)).getPatientByIdentificationNumber("1");
+    }
+
+    @Test
+    void enrichAttentionResponseDtos_CoalescesByResourceAndIds() {
+        // Act
+        attentionEnrichmentService.enrichAttentionResponseDtos(List.of(attention));
+
+        // Assert
+        verify(enrichmentSingleFlight).execute(eq("pacientes:[1]"), any());
+        verify(enrichmentSingleFlight).execute(eq("doctores:[1]"), any());
+    }
+
     @Test
     void extractContractIdsFromHealthProviderInfo_Success() {
         // Arrange
@@ -3,6 +3,7 @@ package com.ClinicaDeYmid.admissions_service.module.service;
 import com.ClinicaDeYmid.admissions_service.infra.exception.EntityNotFoundException;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionResponseDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.attention.AttentionSearchRequest;
+import com.ClinicaDeYmid.admissions_service.module.dto.cache.AttentionSnapshot;
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.GetPatientDto;
 import com.ClinicaDeYmid.admissions_service.module.dto.patient.PatientWithAttentionsResponse;
 import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
@@ -42,6 +43,9 @@ class AttentionGetServiceTest {
     @Mock
     private AttentionEnrichmentService attentionEnrichmentService;
 
+    @Mock
+    private AttentionSnapshotService attentionSnapshotService;
+
     @Mock
     private AttentionMapper attentionMapper;
 
@@ -76,8 +80,9 @@ class AttentionGetServiceTest {
     @Test
     void getAttentionById_Success() {
         // Arrange
-        when(attentionRepository.findById(1L)).thenReturn(Optional.of(attention));
-        when(attentionEnrichmentService.enrichAttentionResponseDto(attention)).thenReturn(attentionResponseDto);
+        AttentionSnapshot snapshot = mock(AttentionSnapshot.class);
+        when(attentionSnapshotService.getSnapshot(1L)).thenReturn(snapshot);
+        when(attentionEnrichmentService.enrichAttentionResponseDto(snapshot)).thenReturn(attentionResponseDto);
 
         // Act
         AttentionResponseDto result = attentionGetService.getAttentionById(1L);
@@ -90,7 +95,7 @@ class AttentionGetServiceTest {
     @Test
     void getAttentionById_NotFound() {
         // Arrange
-        when(attentionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(attentionSnapshotService.getSnapshot(1L)).thenThrow(new EntityNotFoundException("Attention not found with ID: 1"));
 
         // Act & Assert
         assertThrows(EntityNotFoundException.class, () -> attentionGetService.getAttentionById(1L));
@@ -147,7 +152,7 @@ class AttentionGetServiceTest {
         Page<Attention> attentionPage = new PageImpl<>(Collections.singletonList(attention));
         
         when(attentionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(attentionPage);
-        when(attentionEnrichmentService.enrichAttentionResponseDto(any(Attention.class))).thenReturn(attentionResponseDto);
+        when(attentionEnrichmentService.enrichAttentionResponseDtos(anyList())).thenReturn(List.of(attentionResponseDto));
 
         // Act
         Page<AttentionResponseDto> result = attentionGetService.searchAttentions(searchRequest);
@@ -60,6 +60,8 @@ class AttentionRecordServiceTest {
     private HealthProviderClient healthProviderClient;
     @Mock
     private UserClient userClient;
+    @Mock
+    private AttentionCacheInvalidator attentionCacheInvalidator;
 
     @InjectMocks
     private AttentionRecordService attentionRecordService;
@@ -168,6 +170,7 @@ class AttentionRecordServiceTest {
         // Assert
         assertNotNull(result);
         verify(attentionRepository, times(1)).save(any(Attention.class));
+        verify(attentionCacheInvalidator).invalidate(attention);
     }
 
     @Test
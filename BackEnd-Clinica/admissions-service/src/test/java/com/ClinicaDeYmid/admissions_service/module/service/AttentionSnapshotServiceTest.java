@@ -0,0 +1,55 @@
+package com.ClinicaDeYmid.admissions_service.module.service;
+
+import com.ClinicaDeYmid.admissions_service.infra.exception.EntityNotFoundException;
+import com.ClinicaDeYmid.admissions_service.module.dto.cache.AttentionSnapshot;
+import com.ClinicaDeYmid.admissions_service.module.entity.Attention;
+import com.ClinicaDeYmid.admissions_service.module.repository.AttentionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttentionSnapshotServiceTest {
+
+    @Mock
+    private AttentionRepository attentionRepository;
+
+    @Mock
+    private AttentionEnrichmentService attentionEnrichmentService;
+
+    @InjectMocks
+    private AttentionSnapshotService attentionSnapshotService;
+
+    @Test
+    void getSnapshot_Success() {
+        // Arrange
+        Attention attention = new Attention();
+        attention.setId(1L);
+        AttentionSnapshot snapshot = mock(AttentionSnapshot.class);
+        when(attentionRepository.findById(1L)).thenReturn(Optional.of(attention));
+        when(attentionEnrichmentService.toSnapshot(attention)).thenReturn(snapshot);
+
+        // Act
+        AttentionSnapshot result = attentionSnapshotService.getSnapshot(1L);
+
+        // Assert
+        assertSame(snapshot, result);
+    }
+
+    @Test
+    void getSnapshot_NotFound() {
+        // Arrange
+        when(attentionRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> attentionSnapshotService.getSnapshot(1L));
+        verifyNoInteractions(attentionEnrichmentService);
+    }
+}
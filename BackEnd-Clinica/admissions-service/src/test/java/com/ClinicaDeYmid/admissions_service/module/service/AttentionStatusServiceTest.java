@@ -22,6 +22,9 @@ class AttentionStatusServiceTest {
     @Mock
     private AttentionRepository attentionRepository;
 
+    @Mock
+    private AttentionCacheInvalidator attentionCacheInvalidator;
+
     @InjectMocks
     private AttentionStatusService attentionStatusService;
 
@@ -46,6 +49,7 @@ class AttentionStatusServiceTest {
         // Assert
         assertTrue(attention.isActive());
         verify(attentionRepository, times(1)).save(attention);
+        verify(attentionCacheInvalidator).invalidate(attention);
     }
 
     @Test
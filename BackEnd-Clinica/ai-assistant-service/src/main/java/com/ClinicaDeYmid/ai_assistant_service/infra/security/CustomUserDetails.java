@@ -1,77 +0,0 @@
-package com.ClinicaDeYmid.ai_assistant_service.infra.security;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@Data
-@Builder
-@AllArgsConstructor
-@NoArgsConstructor
-public class CustomUserDetails implements UserDetails {
-
-    private Long userId;
-    private String uuid;
-    private String email;
-    private String role;
-    private List<String> permissions;
-
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> authorities = new java.util.ArrayList<>();
-        
-        // Agregar rol como autoridad
-        if (role != null) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-        }
-        
-        // Agregar permisos como autoridades
-        if (permissions != null && !permissions.isEmpty()) {
-            authorities.addAll(
-                permissions.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList())
-            );
-        }
-        
-        return authorities;
-    }
-
-    @Override
-    public String getPassword() {
-        return null; // No necesitamos password aquí, ya viene autenticado desde auth-service
-    }
-
-    @Override
-    public String getUsername() {
-        return email; // Usamos email como username
-    }
-
-    @Override
-    public boolean isAccountNonExpired() {
-        return true;
-    }
-
-    @Override
-    public boolean isAccountNonLocked() {
-        return true;
-    }
-
-    @Override
-    public boolean isCredentialsNonExpired() {
-        return true;
-    }
-
-    @Override
-    public boolean isEnabled() {
-        return true;
-    }
-}
\ No newline at end of file
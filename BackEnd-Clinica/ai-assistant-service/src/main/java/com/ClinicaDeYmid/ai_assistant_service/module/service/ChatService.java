@@ -1,12 +1,12 @@
 package com.ClinicaDeYmid.ai_assistant_service.module.service;
 
-import com.ClinicaDeYmid.ai_assistant_service.infra.security.CustomUserDetails;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ChatRequestDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ChatResponseDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ConversationHistoryDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.entity.ConversationHistory;
 import com.ClinicaDeYmid.ai_assistant_service.module.entity.ConversationMessage;
-import com.ClinicaDeYmid.ai_assistant_service.infra.security.UserContextHolder;
+import com.ClinicaDeYmid.security_starter.user.CustomUserDetails;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -36,10 +36,10 @@ class AgentControllerTest {
     private ObjectMapper objectMapper;
 
     @MockBean
-    private com.ClinicaDeYmid.ai_assistant_service.infra.security.JwtAuthenticationFilter jwtAuthenticationFilter;
+    private com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @MockBean
-    private com.ClinicaDeYmid.ai_assistant_service.infra.security.JwtTokenProvider jwtTokenProvider;
+    private com.ClinicaDeYmid.security_starter.jwt.JwtTokenProvider jwtTokenProvider;
 
     @org.junit.jupiter.api.BeforeEach
     void setUp() throws Exception {
@@ -1,11 +1,11 @@
 package com.ClinicaDeYmid.ai_assistant_service.module.service;
 
-import com.ClinicaDeYmid.ai_assistant_service.infra.security.CustomUserDetails;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ChatRequestDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ChatResponseDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.dto.ConversationHistoryDto;
 import com.ClinicaDeYmid.ai_assistant_service.module.entity.ConversationHistory;
 import com.ClinicaDeYmid.ai_assistant_service.module.entity.ConversationMessage;
+import com.ClinicaDeYmid.security_starter.user.CustomUserDetails;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -0,0 +1,25 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+/**
+ * Elemento frecuente de un resumen Space-Saving.
+ *
+ * @param detail         dato asociado (email del usuario); puede ser {@code null}
+ * @param hits           apariciones estimadas (cota superior)
+ * @param error          sobreestimación máxima de {@code hits}
+ * @param latencySumMs   suma de latencias de las apariciones propias ({@code hits - error})
+ * @param lastSeenMillis última aparición, en milisegundos epoch
+ */
+public record HeavyHitter(
+        String item,
+        String detail,
+        long hits,
+        long error,
+        long latencySumMs,
+        long lastSeenMillis
+) {
+
+    public double averageLatencyMs() {
+        long ownHits = hits - error;
+        return ownHits > 0 ? (double) latencySumMs / ownHits : 0.0;
+    }
+}
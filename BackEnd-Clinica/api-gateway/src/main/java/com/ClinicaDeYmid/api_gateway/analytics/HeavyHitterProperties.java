@@ -0,0 +1,38 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Seguimiento en memoria de los usuarios, IPs y endpoints más activos.
+ *
+ * <pre>
+ * gateway:
+ *   analytics:
+ *     heavy-hitters:
+ *       capacity: 256
+ *       bucket: 1h
+ *       window: 7d
+ *       snapshot-interval: 1m
+ *       instance-id: ${GATEWAY_INSTANCE_ID:api-gateway}
+ * </pre>
+ *
+ * @param capacity         elementos seguidos por dimensión y bucket
+ * @param bucket           duración de cada bucket; las consultas se resuelven con esta granularidad
+ * @param window           buckets que se conservan en memoria y en los snapshots
+ * @param snapshotInterval cada cuánto se guardan en BD los buckets modificados
+ * @param instanceId       identifica los snapshots de esta instancia; se configura por réplica y
+ *                         no se deriva del host (un contenedor recreado cambia de nombre), porque
+ *                         debe mantenerse entre reinicios para poder restaurarlos
+ */
+@ConfigurationProperties(prefix = "gateway.analytics.heavy-hitters")
+public record HeavyHitterProperties(
+        @DefaultValue("256") int capacity,
+        @DefaultValue("1h") Duration bucket,
+        @DefaultValue("7d") Duration window,
+        @DefaultValue("1m") Duration snapshotInterval,
+        @DefaultValue("api-gateway") String instanceId
+) {
+}
@@ -0,0 +1,286 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.HeavyHitterSnapshotRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Usuarios, IPs y endpoints más activos, calculados en memoria a partir de cada petición.
+ *
+ * <p>El tiempo se divide en buckets de {@code bucket} (alineados a UTC) y cada bucket guarda un
+ * {@link SpaceSavingSummary} por dimensión. Una consulta fusiona los resúmenes de los buckets que
+ * tocan el rango; la fusión de los buckets ya cerrados se memoriza, así que en la práctica solo se
+ * recorre el bucket en curso. Se conservan los buckets de la última {@code window}.</p>
+ *
+ * <p>Cada {@code snapshot-interval} los buckets modificados se guardan en BD y al arrancar se
+ * restauran, de modo que los rankings sobreviven a un reinicio. Cada instancia del gateway
+ * cuenta solo su propio tráfico y guarda y restaura solo sus snapshots ({@code instance-id}); las
+ * consultas suman además los snapshots de las demás instancias, releídos de BD como mucho cada
+ * {@code snapshot-interval}, para que el ranking cubra todo el tráfico.</p>
+ */
+@Component
+public class HeavyHitterTracker {
+
+    private static final Logger logger = Logger.getLogger(HeavyHitterTracker.class.getName());
+
+    public enum Dimension {
+        USER,
+        IP,
+        ENDPOINT
+    }
+
+    private static final Comparator<HeavyHitter> BY_HITS_DESC =
+            Comparator.comparingLong(HeavyHitter::hits).reversed();
+
+    private final HeavyHitterSnapshotRepository snapshotRepository;
+    private final PathTemplateNormalizer pathTemplateNormalizer;
+    private final int capacity;
+    private final long bucketMillis;
+    private final long windowMillis;
+    private final String instanceId;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    /** Fusión de buckets cerrados; caduca con el bucket para no crecer sin límite. */
+    private final Cache<ClosedRange, List<HeavyHitter>> closedRanges;
+    /** Suma de los snapshots de las demás instancias; no cambia hasta su siguiente snapshot. */
+    private final Cache<ClosedRange, List<HeavyHitter>> otherInstances;
+    private volatile boolean restored;
+
+    public HeavyHitterTracker(HeavyHitterSnapshotRepository snapshotRepository,
+                              PathTemplateNormalizer pathTemplateNormalizer,
+                              HeavyHitterProperties properties) {
+        this.snapshotRepository = snapshotRepository;
+        this.pathTemplateNormalizer = pathTemplateNormalizer;
+        this.capacity = properties.capacity();
+        this.bucketMillis = properties.bucket().toMillis();
+        this.windowMillis = properties.window().toMillis();
+        this.instanceId = properties.instanceId();
+        this.closedRanges = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterWrite(properties.bucket())
+                .build();
+        this.otherInstances = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterWrite(properties.snapshotInterval())
+                .build();
+    }
+
+    /**
+     * Cuenta una petición. {@code userId} nulo (petición anónima) solo cuenta para IP y endpoint.
+     */
+    public void record(String userId, String userEmail, String ipAddress, String httpMethod,
+                       String endpoint, long durationMs) {
+        record(userId, userEmail, ipAddress, httpMethod, endpoint, durationMs, System.currentTimeMillis());
+    }
+
+    void record(String userId, String userEmail, String ipAddress, String httpMethod,
+                String endpoint, long durationMs, long nowMillis) {
+        Bucket bucket = buckets.computeIfAbsent(floor(nowMillis), start -> new Bucket(capacity));
+        if (userId != null) {
+            bucket.summary(Dimension.USER).offer(userId, userEmail, durationMs, nowMillis);
+        }
+        if (ipAddress != null) {
+            bucket.summary(Dimension.IP).offer(ipAddress, null, durationMs, nowMillis);
+        }
+        bucket.summary(Dimension.ENDPOINT)
+                .offer(endpointKey(httpMethod, pathTemplateNormalizer.normalize(endpoint)), null, durationMs, nowMillis);
+        bucket.dirty.set(true);
+    }
+
+    /**
+     * Clave de la dimensión {@link Dimension#ENDPOINT}: {@code "GET /api/v1/patients/{id}"}.
+     */
+    public static String endpointKey(String httpMethod, String endpointTemplate) {
+        return httpMethod + " " + endpointTemplate;
+    }
+
+    /**
+     * Los {@code limit} elementos más frecuentes de los buckets que solapan con {@code [start, end)},
+     * contando el tráfico de todas las instancias.
+     */
+    public List<HeavyHitter> top(Dimension dimension, LocalDateTime start, LocalDateTime end, int limit) {
+        return top(dimension, toMillis(start), toMillis(end), limit, System.currentTimeMillis());
+    }
+
+    List<HeavyHitter> top(Dimension dimension, long startMillis, long endMillis, int limit, long nowMillis) {
+        long first = floor(startMillis);
+        long current = floor(nowMillis);
+        // Fin del rango redondeado al bucket: la clave no cambia en cada consulta
+        long closedEnd = Math.min(floor(endMillis - 1) + bucketMillis, current);
+
+        List<List<HeavyHitter>> parts = new ArrayList<>(2);
+        if (first < closedEnd) {
+            parts.add(closedRanges.get(new ClosedRange(dimension, first, closedEnd),
+                    range -> merge(range.dimension(), buckets.subMap(range.from(), range.to()).values())));
+        }
+        Bucket open = buckets.get(current);
+        if (open != null && first <= current && endMillis > current) {
+            parts.add(open.summary(dimension).snapshot());
+        }
+        List<HeavyHitter> others = otherInstances.get(
+                new ClosedRange(dimension, first, floor(endMillis - 1) + bucketMillis), this::loadOtherInstances);
+        if (others != null && !others.isEmpty()) {
+            parts.add(others);
+        }
+
+        List<HeavyHitter> result = parts.size() == 1 ? parts.getFirst() : combine(parts);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Snapshots de las demás instancias en el rango; {@code null} (no se memoriza) si la BD falla,
+     * en cuyo caso la consulta se resuelve solo con esta instancia.
+     */
+    private List<HeavyHitter> loadOtherInstances(ClosedRange range) {
+        try {
+            return snapshotRepository.sumOtherInstances(instanceId, range.dimension().name(),
+                    toLocalDateTime(range.from()), toLocalDateTime(range.to()), capacity);
+        } catch (Exception e) {
+            logger.warning("Error loading heavy hitters of other instances: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<HeavyHitter> merge(Dimension dimension, Iterable<Bucket> selected) {
+        List<List<HeavyHitter>> parts = new ArrayList<>();
+        for (Bucket bucket : selected) {
+            parts.add(bucket.summary(dimension).snapshot());
+        }
+        return combine(parts);
+    }
+
+    /**
+     * Suma los resúmenes elemento a elemento y conserva los {@code capacity} mayores.
+     */
+    private List<HeavyHitter> combine(List<List<HeavyHitter>> parts) {
+        Map<String, HeavyHitter> merged = new HashMap<>();
+        for (List<HeavyHitter> part : parts) {
+            for (HeavyHitter hitter : part) {
+                merged.merge(hitter.item(), hitter, HeavyHitterTracker::sum);
+            }
+        }
+        return merged.values().stream()
+                .sorted(BY_HITS_DESC)
+                .limit(capacity)
+                .toList();
+    }
+
+    private static HeavyHitter sum(HeavyHitter a, HeavyHitter b) {
+        boolean bIsLatest = b.lastSeenMillis() >= a.lastSeenMillis();
+        String detail = bIsLatest && b.detail() != null ? b.detail() : (a.detail() != null ? a.detail() : b.detail());
+        return new HeavyHitter(a.item(), detail, a.hits() + b.hits(), a.error() + b.error(),
+                a.latencySumMs() + b.latencySumMs(), Math.max(a.lastSeenMillis(), b.lastSeenMillis()));
+    }
+
+    /**
+     * Restaura los buckets de la ventana desde el último snapshot. Lo contado desde el arranque
+     * se suma a lo restaurado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            List<HeavyHitterSnapshotRepository.Row> rows = snapshotRepository.findSince(instanceId,
+                    toLocalDateTime(System.currentTimeMillis() - windowMillis));
+            for (HeavyHitterSnapshotRepository.Row row : rows) {
+                Dimension dimension = Dimension.valueOf(row.dimension());
+                Bucket bucket = buckets.computeIfAbsent(toMillis(row.bucketStart()), start -> new Bucket(capacity));
+                bucket.summary(dimension).merge(row.hitter());
+                bucket.dirty.set(true);
+            }
+            closedRanges.invalidateAll();
+            logger.info("📈 Heavy hitters restaurados: " + rows.size() + " elementos");
+        } catch (Exception e) {
+            logger.warning("Error restoring heavy hitters: " + e.getMessage());
+        } finally {
+            // Sin restaurar, un snapshot sobrescribiría lo guardado del bucket en curso
+            restored = true;
+        }
+    }
+
+    /**
+     * Guarda los buckets modificados desde el último snapshot y descarta los que salen de la ventana.
+     */
+    @Scheduled(fixedDelayString = "${gateway.analytics.heavy-hitters.snapshot-interval:1m}")
+    public void snapshot() {
+        if (!restored) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        buckets.headMap(floor(cutoff)).clear();
+
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (!bucket.dirty.getAndSet(false)) {
+                continue;
+            }
+            try {
+                for (Dimension dimension : Dimension.values()) {
+                    snapshotRepository.replace(instanceId, dimension.name(), toLocalDateTime(entry.getKey()),
+                            bucket.summary(dimension).snapshot());
+                }
+            } catch (Exception e) {
+                bucket.dirty.set(true);
+                logger.warning("Error saving heavy hitters snapshot: " + e.getMessage());
+                return;
+            }
+        }
+        try {
+            snapshotRepository.deleteBefore(toLocalDateTime(floor(cutoff)));
+        } catch (Exception e) {
+            logger.warning("Error deleting expired heavy hitters: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        snapshot();
+    }
+
+    private long floor(long millis) {
+        return Math.floorDiv(millis, bucketMillis) * bucketMillis;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private record ClosedRange(Dimension dimension, long from, long to) {}
+
+    private static final class Bucket {
+        private final Map<Dimension, SpaceSavingSummary> summaries = new EnumMap<>(Dimension.class);
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Bucket(int capacity) {
+            for (Dimension dimension : Dimension.values()) {
+                summaries.put(dimension, new SpaceSavingSummary(capacity));
+            }
+        }
+
+        SpaceSavingSummary summary(Dimension dimension) {
+            return summaries.get(dimension);
+        }
+    }
+}
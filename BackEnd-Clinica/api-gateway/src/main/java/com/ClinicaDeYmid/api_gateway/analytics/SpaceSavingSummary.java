@@ -0,0 +1,109 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Resumen Space-Saving (Metwally et al.): sigue como mucho {@code capacity} elementos y, con el
+ * resumen lleno, un elemento nuevo sustituye al de menor conteo heredando ese conteo como error.
+ *
+ * <p>Garantías: todo elemento con más de {@code N / capacity} apariciones está en el resumen, y
+ * para cada elemento {@code hits - error <= real <= hits}. Cada actualización cuesta
+ * {@code O(log capacity)}. Seguro entre hilos.</p>
+ */
+public final class SpaceSavingSummary {
+
+    private static final Comparator<Entry> BY_HITS = Comparator
+            .comparingLong((Entry entry) -> entry.hits)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final int capacity;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byHits = new TreeSet<>(BY_HITS);
+    private long sequence;
+
+    public SpaceSavingSummary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity debe ser positiva");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Cuenta una aparición de {@code item}.
+     *
+     * @param detail dato asociado que se conserva (el último no nulo), p. ej. el email del usuario
+     */
+    public synchronized void offer(String item, String detail, long latencyMs, long timestampMillis) {
+        add(item, detail, 1, 0, latencyMs, timestampMillis);
+    }
+
+    /**
+     * Suma un elemento ya agregado, p. ej. restaurado de un snapshot.
+     */
+    public synchronized void merge(HeavyHitter hitter) {
+        add(hitter.item(), hitter.detail(), hitter.hits(), hitter.error(), hitter.latencySumMs(),
+                hitter.lastSeenMillis());
+    }
+
+    private void add(String item, String detail, long hits, long error, long latencyMs, long timestampMillis) {
+        Entry entry = entries.get(item);
+        if (entry != null) {
+            byHits.remove(entry);
+        } else if (entries.size() < capacity) {
+            entry = new Entry(item, sequence++);
+            entries.put(item, entry);
+        } else {
+            // Sustituye al mínimo: el nuevo elemento hereda su conteo como cota de error
+            Entry min = byHits.pollFirst();
+            entries.remove(min.item);
+            entry = new Entry(item, sequence++);
+            entry.hits = min.hits;
+            entry.error = min.hits;
+            entries.put(item, entry);
+        }
+        entry.hits += hits;
+        entry.error += error;
+        entry.latencySumMs += latencyMs;
+        entry.lastSeenMillis = Math.max(entry.lastSeenMillis, timestampMillis);
+        if (detail != null) {
+            entry.detail = detail;
+        }
+        byHits.add(entry);
+    }
+
+    /**
+     * Elementos seguidos, del más al menos frecuente.
+     */
+    public synchronized List<HeavyHitter> snapshot() {
+        List<HeavyHitter> result = new ArrayList<>(entries.size());
+        for (Entry entry : byHits.descendingSet()) {
+            result.add(new HeavyHitter(entry.item, entry.detail, entry.hits, entry.error,
+                    entry.latencySumMs, entry.lastSeenMillis));
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final String item;
+        private final long sequence;
+        private String detail;
+        private long hits;
+        private long error;
+        private long latencySumMs;
+        private long lastSeenMillis;
+
+        private Entry(String item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+}
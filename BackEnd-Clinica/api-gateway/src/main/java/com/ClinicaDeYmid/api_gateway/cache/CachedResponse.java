@@ -0,0 +1,34 @@
+package com.ClinicaDeYmid.api_gateway.cache;
+
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Respuesta 200 cacheada.
+ *
+ * @param body        cuerpo completo
+ * @param contentType tipo del cuerpo; puede ser {@code null}
+ * @param etag        ETag entre comillas, del servicio o calculado por el gateway
+ * @param ttl         vida de la entrada
+ */
+public record CachedResponse(byte[] body, MediaType contentType, String etag, Duration ttl) {
+
+    /**
+     * Indica si alguno de los valores de {@code If-None-Match} coincide con el ETag
+     * (comparación débil, RFC 9110 §13.1.2).
+     */
+    public boolean matches(List<String> ifNoneMatch) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
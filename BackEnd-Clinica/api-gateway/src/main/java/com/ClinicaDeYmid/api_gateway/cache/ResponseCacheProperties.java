@@ -0,0 +1,78 @@
+package com.ClinicaDeYmid.api_gateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caché de respuestas del gateway para lecturas GET que cambian poco.
+ *
+ * <pre>
+ * gateway:
+ *   response-cache:
+ *     enabled: true
+ *     maximum-size: 64MB
+ *     max-entry-size: 1MB
+ *     rules:
+ *       - pattern: /api/v1/suppliers/doctors/search/by-specialty/**
+ *         ttl: 5m
+ *         scope: ROLE
+ *       - pattern: /api/v1/attentions/patient/{id}/active
+ *         ttl: 0s
+ *         scope: ROLE
+ *         coalesce: true
+ *         max-wait: 2s
+ * </pre>
+ *
+ * <p>Solo se cachean las rutas con regla. {@code scope} decide con quién se comparte una entrada:
+ * {@code PUBLIC} con todos, {@code ROLE} con los usuarios del mismo rol y {@code USER} solo con el
+ * propio usuario. Con {@code coalesce} las peticiones idénticas concurrentes comparten una única
+ * llamada al servicio; con {@code ttl: 0s} la regla solo agrupa peticiones, sin guardar nada. Si el
+ * servicio autoriza por usuario, la regla debe usar {@code USER} para no compartir respuestas.</p>
+ *
+ * @param maximumSize  tamaño máximo de todas las entradas (cuerpo y clave)
+ * @param maxEntrySize respuestas mayores no se cachean
+ */
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("64MB") DataSize maximumSize,
+        @DefaultValue("1MB") DataSize maxEntrySize,
+        List<Rule> rules
+) {
+
+    public ResponseCacheProperties {
+        rules = rules != null ? List.copyOf(rules) : List.of();
+    }
+
+    public enum Scope {
+        PUBLIC,
+        ROLE,
+        USER
+    }
+
+    /**
+     * @param pattern    patrón {@code PathPattern} de las rutas cacheables
+     * @param ttl        vida de cada entrada; {@code 0s} para no guardar respuestas
+     * @param scope      ámbito de autorización con el que se comparte la entrada
+     * @param coalesce   agrupar peticiones idénticas en curso en una sola llamada
+     * @param maxWait    espera máxima por la llamada en curso antes de hacer la propia
+     * @param keyHeaders cabeceras de la petición que también forman parte de la clave
+     */
+    public record Rule(
+            String pattern,
+            @DefaultValue("60s") Duration ttl,
+            @DefaultValue("USER") Scope scope,
+            @DefaultValue("false") boolean coalesce,
+            @DefaultValue("2s") Duration maxWait,
+            List<String> keyHeaders
+    ) {
+
+        public Rule {
+            keyHeaders = keyHeaders != null ? List.copyOf(keyHeaders) : List.of();
+        }
+    }
+}
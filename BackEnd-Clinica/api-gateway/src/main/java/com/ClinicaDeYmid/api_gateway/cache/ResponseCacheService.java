@@ -0,0 +1,207 @@
+package com.ClinicaDeYmid.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Almacén en memoria de respuestas GET cacheables, acotado por tamaño en bytes.
+ *
+ * <p>Las entradas se indexan por ruta del gateway, path, query (con los parámetros ordenados) y
+ * ámbito de autorización, y caducan según el TTL de su regla. Al llenarse se expulsan las menos
+ * usadas. Publica {@code gateway.response_cache.requests} con {@code rule} y
+ * {@code result=hit|miss|not_modified}, {@code gateway.response_cache.evictions} y el tamaño
+ * ocupado en {@code gateway.response_cache.bytes}.</p>
+ *
+ * <p>Para las reglas con {@code coalesce} mantiene también las llamadas en curso: la primera
+ * petición de una clave la registra y las idénticas que llegan mientras tanto esperan su respuesta
+ * ({@code result=coalesced}, o {@code coalesce_timeout} si la espera supera {@code max-wait}).</p>
+ */
+@Service
+public class ResponseCacheService {
+
+    private static final Logger logger = Logger.getLogger(ResponseCacheService.class.getName());
+    private static final String REQUESTS_METRIC = "gateway.response_cache.requests";
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final CacheRule[] rules;
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheService(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.maxEntryBytes = properties.maxEntrySize().toBytes();
+        this.rules = compile(properties, meterRegistry);
+
+        Counter evictions = Counter.builder("gateway.response_cache.evictions")
+                .description("Respuestas expulsadas de la caché por falta de espacio")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maximumSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() * 2 + value.body().length)
+                .expireAfter(Expiry.creating((String key, CachedResponse value) -> value.ttl()))
+                .removalListener((String key, CachedResponse value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        Gauge.builder("gateway.response_cache.bytes", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("🗃️ Caché de respuestas: " + (enabled ? rules.length + " reglas" : "desactivada")
+                + ", máximo " + properties.maximumSize());
+    }
+
+    private static CacheRule[] compile(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        CacheRule[] compiled = properties.rules().stream()
+                .map(rule -> {
+                    PathPattern pattern = parser.parse(rule.pattern());
+                    return new CacheRule(pattern, rule.ttl(), rule.scope(), rule.coalesce(), rule.maxWait(),
+                            rule.keyHeaders().toArray(String[]::new),
+                            requestCounter(meterRegistry, pattern, "hit"),
+                            requestCounter(meterRegistry, pattern, "miss"),
+                            requestCounter(meterRegistry, pattern, "not_modified"),
+                            requestCounter(meterRegistry, pattern, "coalesced"),
+                            requestCounter(meterRegistry, pattern, "coalesce_timeout"));
+                })
+                .toArray(CacheRule[]::new);
+        Arrays.sort(compiled, (a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern(), b.pattern()));
+        return compiled;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, PathPattern pattern, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Peticiones GET atendidas por la caché de respuestas")
+                .tag("rule", pattern.getPatternString())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Regla que cubre la petición, o {@code null} si no es un GET cacheable.
+     */
+    public CacheRule ruleFor(ServerHttpRequest request) {
+        if (!enabled || rules.length == 0 || request.getMethod() != HttpMethod.GET) {
+            return null;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (CacheRule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clave de la entrada: ruta, ámbito, path, query con los parámetros ordenados (para que
+     * {@code ?a=1&b=2} y {@code ?b=2&a=1} compartan entrada) y las {@code key-headers} de la regla.
+     */
+    public static String keyFor(CacheRule rule, String routeId, String scope, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId).append('|')
+                .append(scope).append('|')
+                .append(request.getPath().pathWithinApplication().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            key.append('?').append(String.join("&", params));
+        }
+        for (String header : rule.keyHeaders()) {
+            key.append('|').append(header).append('=').append(request.getHeaders().getFirst(header));
+        }
+        return key.toString();
+    }
+
+    public CachedResponse get(CacheRule rule, String key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        (cached != null ? rule.hits() : rule.misses()).increment();
+        return cached;
+    }
+
+    /**
+     * Guarda la respuesta si la regla tiene TTL y cabe, y la entrega a las peticiones que esperan
+     * la misma clave. Devuelve {@code false} si no se ha guardado.
+     */
+    public boolean put(String key, CachedResponse response) {
+        complete(key, response);
+        if (!response.ttl().isPositive() || response.body().length > maxEntryBytes) {
+            return false;
+        }
+        cache.put(key, response);
+        return true;
+    }
+
+    /**
+     * Registra la llamada en curso de {@code key}. Devuelve {@code null} si esta petición es la
+     * primera (y debe llamar al servicio), o la llamada en curso a la que esperar.
+     */
+    public CompletableFuture<CachedResponse> joinInFlight(String key) {
+        return inFlight.putIfAbsent(key, new CompletableFuture<>());
+    }
+
+    /**
+     * Cierra la llamada en curso sin respuesta compartible (error, estado distinto de 200...):
+     * las peticiones que esperaban llaman al servicio por su cuenta. No hace nada si ya se cerró.
+     */
+    public void abandon(String key) {
+        complete(key, null);
+    }
+
+    private void complete(String key, CachedResponse response) {
+        CompletableFuture<CachedResponse> flight = inFlight.remove(key);
+        if (flight != null) {
+            flight.complete(response);
+        }
+    }
+
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Regla compilada con sus contadores.
+     */
+    public record CacheRule(
+            PathPattern pattern,
+            Duration ttl,
+            ResponseCacheProperties.Scope scope,
+            boolean coalesce,
+            Duration maxWait,
+            String[] keyHeaders,
+            Counter hits,
+            Counter misses,
+            Counter notModified,
+            Counter coalesced,
+            Counter coalesceTimeouts
+    ) {
+
+        /** Indica si la regla guarda respuestas, además de agrupar peticiones. */
+        public boolean stores() {
+            return ttl.isPositive();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.ClinicaDeYmid.api_gateway.config;
 
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterProperties;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateProperties;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -11,9 +14,12 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * - Habilita métricas de Micrometer
  * - Configura etiquetas comunes
  * - Habilita procesamiento asíncrono
+ * - Normalización de rutas para acotar la cardinalidad de etiquetas
+ * - Heavy hitters (usuarios, IPs y endpoints más activos)
  */
 @Configuration
 @EnableAsync
+@EnableConfigurationProperties({PathTemplateProperties.class, HeavyHitterProperties.class})
 public class MetricsConfiguration {
 
     @Bean
@@ -0,0 +1,75 @@
+package com.ClinicaDeYmid.api_gateway.config;
+
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitProperties;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.redis.lettuce.Bucket4jLettuce;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+
+/**
+ * Buckets de rate limiting compartidos por todas las instancias del gateway.
+ *
+ * <p>El estado de cada bucket vive en Redis y se actualiza con compare-and-swap mediante un
+ * script Lua, por lo que el límite es global aunque haya varias réplicas detrás del balanceador.
+ * Cada clave expira en Redis en cuanto su bucket se habría rellenado por completo.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    /**
+     * Margen sobre el tiempo de rellenado antes de borrar la clave en Redis.
+     */
+    private static final Duration EXPIRATION_MARGIN = Duration.ofSeconds(10);
+
+    /**
+     * Conexión dedicada, reutilizando el cliente Lettuce de Spring: bucket4j necesita valores
+     * binarios y la conexión compartida de Spring Data usa otro codec. Según la configuración de
+     * Spring el cliente es standalone/sentinel ({@link RedisClient}) o cluster
+     * ({@link RedisClusterClient}).
+     */
+    @Bean(destroyMethod = "close")
+    public StatefulConnection<String, byte[]> rateLimitRedisConnection(LettuceConnectionFactory connectionFactory) {
+        RedisCodec<String, byte[]> codec = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+        AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+        if (client instanceof RedisClusterClient clusterClient) {
+            return clusterClient.connect(codec);
+        }
+        if (client instanceof RedisClient redisClient) {
+            return redisClient.connect(codec);
+        }
+        throw new IllegalStateException("Cliente Redis no soportado para rate limiting: " + client.getClass().getName());
+    }
+
+    @Bean
+    public AsyncProxyManager<String> rateLimitProxyManager(StatefulConnection<String, byte[]> rateLimitRedisConnection) {
+        Bucket4jLettuce.LettuceBasedProxyManagerBuilder<String> builder;
+        if (rateLimitRedisConnection instanceof StatefulRedisClusterConnection<String, byte[]> cluster) {
+            builder = Bucket4jLettuce.casBasedBuilder(cluster);
+        } else if (rateLimitRedisConnection instanceof StatefulRedisConnection<String, byte[]> standalone) {
+            builder = Bucket4jLettuce.casBasedBuilder(standalone);
+        } else {
+            throw new IllegalStateException(
+                    "Conexión Redis no soportada para rate limiting: " + rateLimitRedisConnection.getClass().getName());
+        }
+        return builder
+                .expirationAfterWrite(ExpirationAfterWriteStrategy
+                        .basedOnTimeForRefillingBucketUpToMax(EXPIRATION_MARGIN))
+                .build()
+                .asAsync();
+    }
+}
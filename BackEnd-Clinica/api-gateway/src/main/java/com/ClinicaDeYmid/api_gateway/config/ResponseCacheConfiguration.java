@@ -0,0 +1,13 @@
+package com.ClinicaDeYmid.api_gateway.config;
+
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caché de respuestas GET por ruta (ver {@link ResponseCacheProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfiguration {
+}
@@ -113,10 +113,11 @@ public class AnalyticsController {
     }
 
     /**
-     * Obtiene latencia promedio por servicio
+     * Obtiene percentiles de latencia por servicio
      */
     @GetMapping("/latency")
-    @Operation(summary = "Latencia por servicio", description = "Métricas de latencia promedio")
+    @Operation(summary = "Latencia por servicio",
+            description = "Percentiles p50/p90/p99/p999 por servicio, o por endpoint si se indica el servicio")
     public ResponseEntity<?> getLatencyStats(
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) 
@@ -124,7 +125,11 @@ public class AnalyticsController {
             
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) 
-            LocalDateTime endDate
+            LocalDateTime endDate,
+
+            @Parameter(description = "Servicio cuyo desglose por endpoint se quiere obtener")
+            @RequestParam(required = false)
+            String service
     ) {
         if (startDate == null) {
             startDate = LocalDateTime.now().minusDays(7);
@@ -133,7 +138,7 @@ public class AnalyticsController {
             endDate = LocalDateTime.now();
         }
         
-        return ResponseEntity.ok(analyticsService.getLatencyByService(startDate, endDate));
+        return ResponseEntity.ok(analyticsService.getLatencyPercentiles(startDate, endDate, service));
     }
 
     /**
@@ -162,4 +167,31 @@ public class AnalyticsController {
         
         return ResponseEntity.ok(analyticsService.getTopUsers(limit, startDate, endDate));
     }
+
+    /**
+     * Obtiene las IPs con más peticiones
+     */
+    @GetMapping("/top-ips")
+    @Operation(summary = "IPs más activas", description = "Lista de IPs cliente con más peticiones")
+    public ResponseEntity<?> getTopIps(
+            @Parameter(description = "Número de resultados")
+            @RequestParam(defaultValue = "10") int limit,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime startDate,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime endDate
+    ) {
+        if (startDate == null) {
+            startDate = LocalDateTime.now().minusDays(7);
+        }
+        if (endDate == null) {
+            endDate = LocalDateTime.now();
+        }
+
+        return ResponseEntity.ok(analyticsService.getTopIps(limit, startDate, endDate));
+    }
 }
@@ -50,6 +50,31 @@ public class AnalyticsResponse {
         private LocalDateTime lastRequest;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClientStats {
+        private String ipAddress;
+        private Long requestCount;
+        private LocalDateTime lastRequest;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LatencyStats {
+        private String name;
+        private Long requestCount;
+        private Double averageLatencyMs;
+        private Long p50LatencyMs;
+        private Long p90LatencyMs;
+        private Long p99LatencyMs;
+        private Long p999LatencyMs;
+        private Long maxLatencyMs;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,18 @@
+package com.ClinicaDeYmid.api_gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record PublicKeyEntry(
+        @JsonProperty("keyId")
+        String keyId,
+
+        @JsonProperty("publicKey")
+        String publicKey,
+
+        @JsonProperty("algorithm")
+        String algorithm,
+
+        @JsonProperty("keyType")
+        String keyType
+) {
+}
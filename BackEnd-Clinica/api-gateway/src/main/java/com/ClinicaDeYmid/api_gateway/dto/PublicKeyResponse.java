@@ -2,6 +2,12 @@ package com.ClinicaDeYmid.api_gateway.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
+/**
+ * Conjunto de claves publicado por auth-service. Una versión anterior de auth-service solo envía
+ * {@code publicKey}, sin {@code keyId}, {@code version} ni {@code keys}.
+ */
 public record PublicKeyResponse(
         @JsonProperty("publicKey")
         String publicKey,
@@ -10,6 +16,15 @@ public record PublicKeyResponse(
         String algorithm,
 
         @JsonProperty("keyType")
-        String keyType
+        String keyType,
+
+        @JsonProperty("keyId")
+        String keyId,
+
+        @JsonProperty("version")
+        String version,
+
+        @JsonProperty("keys")
+        List<PublicKeyEntry> keys
 ) {
 }
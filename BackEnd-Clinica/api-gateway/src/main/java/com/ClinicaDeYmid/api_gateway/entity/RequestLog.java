@@ -11,15 +11,12 @@ import java.time.LocalDateTime;
 /**
  * Entidad para almacenar logs de peticiones en la base de datos
  * Permite realizar analytics y auditoría de todas las peticiones al API Gateway
+ *
+ * <p>La tabla está particionada por rango de {@code timestamp} y su esquema (índices incluidos)
+ * lo gestiona Flyway; ver {@code RequestLogPartitionService}.</p>
  */
 @Entity
-@Table(name = "request_logs", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_timestamp", columnList = "timestamp"),
-        @Index(name = "idx_endpoint", columnList = "endpoint"),
-        @Index(name = "idx_status", columnList = "status_code"),
-        @Index(name = "idx_ip_address", columnList = "ip_address")
-})
+@Table(name = "request_logs")
 @Data
 @Builder
 @NoArgsConstructor
@@ -2,7 +2,10 @@ package com.ClinicaDeYmid.api_gateway.filter;
 
 import com.ClinicaDeYmid.api_gateway.security.JwtValidatorService;
 import com.ClinicaDeYmid.api_gateway.security.TokenBlacklistServiceGateway;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -20,6 +23,17 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
     private static final Logger logger = Logger.getLogger(AuthenticationFilter.class.getName());
 
+    /** Atributos del exchange con el usuario autenticado (sub, rol y email del token). */
+    public static final String USER_ID_ATTR = AuthenticationFilter.class.getName() + ".userId";
+    public static final String USER_ROLE_ATTR = AuthenticationFilter.class.getName() + ".userRole";
+    public static final String USER_EMAIL_ATTR = AuthenticationFilter.class.getName() + ".userEmail";
+
+    /**
+     * Orden del filtro en la cadena. Fijo, y no la posición en {@code filters} de la ruta, para que los
+     * filtros globales que leen el usuario ({@link RateLimitFilter}, {@link ResponseCacheFilter}) corran después.
+     */
+    public static final int ORDER = -1;
+
     private final RouteValidator routeValidator;
     private final JwtValidatorService jwtValidatorService;
     private final TokenBlacklistServiceGateway tokenBlacklistServiceGateway;
@@ -35,19 +49,20 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return new OrderedGatewayFilter((exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             String path = request.getURI().getPath();
 
-            logger.info("Processing request to path: " + path);
+            logger.fine(() -> "Processing request to path: " + path);
 
             // Si la ruta NO requiere autenticación, permitir el paso
-            if (!routeValidator.isSecured(request)) {
-                logger.info("Path is not secured, allowing request: " + path);
+            RoutePolicy policy = routeValidator.policyFor(request);
+            if (policy.isPublic()) {
+                logger.fine(() -> "Path is not secured, allowing request: " + path);
                 return chain.filter(exchange);
             }
 
-            logger.info("Path requires authentication: " + path);
+            logger.fine(() -> "Path requires authentication: " + path);
 
             // Verificar si existe el header Authorization
             if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
@@ -70,10 +85,24 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                                         return onError(exchange, "Token inválido (revocado o en blacklist)", HttpStatus.UNAUTHORIZED);
                                     }
 
+                                    String role = claimAsString(decodedJWT, "role");
+                                    if (!policy.allows(role)) {
+                                        return onError(exchange, "No tiene permisos para acceder a este recurso", HttpStatus.FORBIDDEN);
+                                    }
+
                                     String userId = decodedJWT.getSubject();
                                     String userEmail = decodedJWT.getClaim("email").asString();
+                                    if (userId != null) {
+                                        exchange.getAttributes().put(USER_ID_ATTR, userId);
+                                    }
+                                    if (role != null) {
+                                        exchange.getAttributes().put(USER_ROLE_ATTR, role);
+                                    }
+                                    if (userEmail != null) {
+                                        exchange.getAttributes().put(USER_EMAIL_ATTR, userEmail);
+                                    }
 
-                                    logger.info("Token validado exitosamente para usuario: " + userEmail);
+                                    logger.fine(() -> "Token validado exitosamente para usuario: " + userEmail);
 
                                     // Crear el request mutado con los headers adicionales
                                     ServerHttpRequest mutatedRequest = request.mutate()
@@ -90,14 +119,19 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                                 });
                     })
                     .onErrorResume(e -> {
-                        logger.warning("Error de validación de token: " + e.getMessage());
+                        logger.fine(() -> "Error de validación de token: " + e.getMessage());
                         // Si el mensaje contiene "no se pudo inicializar el algoritmo" o "Auth-Service está disponible", responde 503
                         if (e.getMessage() != null && e.getMessage().toLowerCase().contains("auth-service")) {
                             return onError(exchange, "El sistema de autenticación está temporalmente fuera de servicio. Intenta más tarde.", HttpStatus.SERVICE_UNAVAILABLE);
                         }
                         return onError(exchange, "Token de autenticación inválido", HttpStatus.UNAUTHORIZED);
                     });
-        };
+        }, ORDER);
+    }
+
+    private static String claimAsString(DecodedJWT decodedJWT, String name) {
+        Claim claim = decodedJWT.getClaim(name);
+        return claim != null ? claim.asString() : null;
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
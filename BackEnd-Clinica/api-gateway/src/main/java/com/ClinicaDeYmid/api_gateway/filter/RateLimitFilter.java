@@ -1,91 +1,105 @@
 package com.ClinicaDeYmid.api_gateway.filter;
 
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitProperties;
 import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitService;
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitService.RateLimitResult;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 /**
  * Filtro global para implementar rate limiting
- * Limita las peticiones por usuario (100/min) e IP (1000/min)
+ * Limita las peticiones por IP y por usuario (configurable por ruta en gateway.rate-limit).
+ * El usuario sale del token validado por {@link AuthenticationFilter}, que se ejecuta antes (ver {@link #getOrder()});
+ * sin él sólo aplica el límite por IP. La IP es la de la conexión, o la que añadió el último proxy de confianza
+ * ({@code gateway.rate-limit.trusted-proxies}); nunca la primera entrada de X-Forwarded-For, que pone el cliente.
+ * Informa X-RateLimit-Limit/X-RateLimit-Remaining y, al rechazar, Retry-After con la espera real.
  */
 @Component
 public class RateLimitFilter implements GlobalFilter, Ordered {
 
     private static final Logger logger = Logger.getLogger(RateLimitFilter.class.getName());
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
     private final RateLimitService rateLimitService;
+    private final RemoteAddressResolver clientAddressResolver;
 
-    public RateLimitFilter(RateLimitService rateLimitService) {
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitProperties properties) {
         this.rateLimitService = rateLimitService;
+        this.clientAddressResolver = properties.trustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.trustedProxies())
+                : new RemoteAddressResolver() { };
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-
-        // Obtener información del usuario y la IP
-        String userId = request.getHeaders().getFirst("X-User-ID");
-        String ipAddress = getClientIp(request);
+        // Usuario validado por AuthenticationFilter (nunca la cabecera del cliente), la IP y la ruta
+        String userId = exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR);
+        String ipAddress = getClientIp(exchange);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
 
-        logger.info("Rate limit check - User: " + userId + ", IP: " + ipAddress);
+        logger.fine(() -> "Rate limit check - User: " + userId + ", IP: " + ipAddress + ", Route: " + routeId);
 
         // Verificar límite por IP (siempre se aplica)
-        if (!rateLimitService.allowIp(ipAddress)) {
-            logger.warning("Rate limit exceeded for IP: " + ipAddress);
-            return handleRateLimitExceeded(
-                    exchange,
-                    "Límite de peticiones por IP excedido (máx: 1000/min)",
-                    rateLimitService.getRemainingSecondsForIp(ipAddress)
-            );
-        }
+        return rateLimitService.tryConsumeForIp(ipAddress).flatMap(ipResult -> {
+            if (!ipResult.allowed()) {
+                logger.warning("Rate limit exceeded for IP: " + ipAddress);
+                return handleRateLimitExceeded(exchange, "Límite de peticiones por IP excedido", ipResult);
+            }
 
-        // Verificar límite por usuario (solo si está autenticado)
-        if (userId != null && !userId.isEmpty()) {
-            if (!rateLimitService.allowUser(userId)) {
-                logger.warning("Rate limit exceeded for user: " + userId);
-                return handleRateLimitExceeded(
-                        exchange,
-                        "Límite de peticiones por usuario excedido (máx: 100/min)",
-                        rateLimitService.getRemainingSecondsForUser(userId)
-                );
+            // Verificar límite por usuario (solo si está autenticado)
+            if (userId == null || userId.isEmpty()) {
+                addRateLimitHeaders(exchange.getResponse(), ipResult);
+                return chain.filter(exchange);
             }
-        }
 
-        return chain.filter(exchange);
+            return rateLimitService.tryConsumeForUser(userId, routeId).flatMap(userResult -> {
+                if (!userResult.allowed()) {
+                    logger.warning("Rate limit exceeded for user: " + userId);
+                    return handleRateLimitExceeded(exchange, "Límite de peticiones por usuario excedido", userResult);
+                }
+                // El límite por usuario es el más restrictivo: es el que se informa al cliente
+                addRateLimitHeaders(exchange.getResponse(), userResult.isLimited() ? userResult : ipResult);
+                return chain.filter(exchange);
+            });
+        });
     }
 
-    /**
-     * Obtiene la IP del cliente, considerando proxies
-     */
-    private String getClientIp(ServerHttpRequest request) {
-        String ip = request.getHeaders().getFirst("X-Forwarded-For");
-        if (ip != null && !ip.isEmpty()) {
-            // X-Forwarded-For puede contener múltiples IPs, tomamos la primera
-            return ip.split(",")[0].trim();
-        }
-
-        ip = request.getHeaders().getFirst("X-Real-IP");
-        if (ip != null && !ip.isEmpty()) {
-            return ip;
+    private void addRateLimitHeaders(ServerHttpResponse response, RateLimitResult result) {
+        if (result.isLimited()) {
+            response.getHeaders().set(LIMIT_HEADER, String.valueOf(result.limit()));
+            response.getHeaders().set(REMAINING_HEADER, String.valueOf(result.remaining()));
         }
+    }
 
-        // Fallback a la IP remota
-        if (request.getRemoteAddress() != null) {
-            return request.getRemoteAddress().getAddress().getHostAddress();
+    /**
+     * Obtiene la IP del cliente: la dirección remota o, detrás de proxies de confianza, la entrada de
+     * X-Forwarded-For que añadió el más externo de ellos
+     */
+    private String getClientIp(ServerWebExchange exchange) {
+        InetSocketAddress address = clientAddressResolver.resolve(exchange);
+        if (address == null) {
+            return "unknown";
         }
-
-        return "unknown";
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
     }
 
     /**
@@ -94,19 +108,20 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     private Mono<Void> handleRateLimitExceeded(
             ServerWebExchange exchange,
             String message,
-            long remainingTokens
+            RateLimitResult result
     ) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        response.getHeaders().add("X-RateLimit-Remaining", String.valueOf(remainingTokens));
-        response.getHeaders().add("Retry-After", "60"); // Reintentar después de 60 segundos
+        addRateLimitHeaders(response, result);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(result.retryAfterSeconds()));
 
         String errorResponse = String.format(
-                "{\"error\":\"%s\",\"status\":429,\"timestamp\":\"%s\",\"remainingTokens\":%d}",
+                "{\"error\":\"%s (máx: %d)\",\"status\":429,\"timestamp\":\"%s\",\"retryAfterSeconds\":%d}",
                 message,
+                result.limit(),
                 java.time.Instant.now().toString(),
-                remainingTokens
+                result.retryAfterSeconds()
         );
 
         DataBuffer buffer = response.bufferFactory()
@@ -117,7 +132,8 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
 
     @Override
     public int getOrder() {
-        // Ejecutar después de la autenticación (-1) pero antes del logging (1)
-        return 0;
+        // Después de AuthenticationFilter (orden fijo -1), que deja el usuario en el exchange,
+        // y antes del logging (1)
+        return AuthenticationFilter.ORDER + 1;
     }
 }
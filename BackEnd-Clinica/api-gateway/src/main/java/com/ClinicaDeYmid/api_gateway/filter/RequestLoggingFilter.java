@@ -1,6 +1,9 @@
 package com.ClinicaDeYmid.api_gateway.filter;
 
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterTracker;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
 import com.ClinicaDeYmid.api_gateway.service.RequestLogService;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -14,13 +17,17 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * Filtro global para logging de peticiones y métricas de latencia
- * - Registra todas las peticiones en la base de datos
+ * - Registra todas las peticiones en la base de datos (por lotes, fuera del hilo de la petición)
  * - Captura métricas de latencia usando Micrometer
- * - Registra percentiles (p50, p90, p99) por endpoint y servicio
+ * - Registra percentiles (p50, p90, p99) por plantilla de endpoint y servicio
+ * - Alimenta los heavy hitters (usuarios, IPs y endpoints más activos)
  */
 @Component
 public class RequestLoggingFilter implements GlobalFilter, Ordered {
@@ -29,13 +36,22 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
 
     private final RequestLogService requestLogService;
     private final MeterRegistry meterRegistry;
+    private final PathTemplateNormalizer pathTemplateNormalizer;
+    private final HeavyHitterTracker heavyHitterTracker;
+
+    /** Acotado: las plantillas de endpoint están limitadas por {@link PathTemplateNormalizer}. */
+    private final Map<MeterKey, RequestMeters> meters = new ConcurrentHashMap<>();
 
     public RequestLoggingFilter(
             RequestLogService requestLogService,
-            MeterRegistry meterRegistry
+            MeterRegistry meterRegistry,
+            PathTemplateNormalizer pathTemplateNormalizer,
+            HeavyHitterTracker heavyHitterTracker
     ) {
         this.requestLogService = requestLogService;
         this.meterRegistry = meterRegistry;
+        this.pathTemplateNormalizer = pathTemplateNormalizer;
+        this.heavyHitterTracker = heavyHitterTracker;
     }
 
     @Override
@@ -52,7 +68,7 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
         String userAgent = request.getHeaders().getFirst("User-Agent");
         String serviceName = extractServiceName(endpoint);
 
-        logger.info(String.format(
+        logger.fine(() -> String.format(
                 "Request: %s %s | User: %s | IP: %s",
                 httpMethod, endpoint, userId != null ? userId : "anonymous", ipAddress
         ));
@@ -68,8 +84,9 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
 
                     // Registrar métricas de latencia con Micrometer
                     recordMetrics(endpoint, httpMethod, serviceName, statusCode, durationMs);
+                    recordHeavyHitters(exchange, endpoint, httpMethod, ipAddress, durationMs);
 
-                    // Guardar log en base de datos (async)
+                    // Encolar log para escritura por lotes (no bloquea)
                     requestLogService.logRequest(
                             userId,
                             userEmail,
@@ -83,7 +100,7 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
                             null
                     );
 
-                    logger.info(String.format(
+                    logger.fine(() -> String.format(
                             "Response: %s %s | Status: %d | Duration: %dms",
                             httpMethod, endpoint, statusCode, durationMs
                     ));
@@ -98,6 +115,7 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
 
                     // Registrar métricas incluso en caso de error
                     recordMetrics(endpoint, httpMethod, serviceName, statusCode, durationMs);
+                    recordHeavyHitters(exchange, endpoint, httpMethod, ipAddress, durationMs);
 
                     // Guardar log de error
                     requestLogService.logRequest(
@@ -121,7 +139,9 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * Registra métricas de latencia con percentiles usando Micrometer
+     * Registra métricas de latencia con percentiles usando Micrometer.
+     * El endpoint se etiqueta con su plantilla y los meters se reutilizan por combinación de
+     * etiquetas, en lugar de construirse en cada petición.
      */
     private void recordMetrics(
             String endpoint,
@@ -131,36 +151,84 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
             long durationMs
     ) {
         try {
-            // Timer con percentiles para latencia por endpoint
-            Timer.builder("gateway.request.duration")
-                    .tag("endpoint", endpoint)
-                    .tag("method", httpMethod)
-                    .tag("service", serviceName)
-                    .tag("status", String.valueOf(statusCode))
-                    .publishPercentiles(0.5, 0.9, 0.99) // p50, p90, p99
-                    .publishPercentileHistogram()
-                    .register(meterRegistry)
-                    .record(Duration.ofMillis(durationMs));
-
-            // Contador de peticiones por servicio
-            meterRegistry.counter("gateway.requests.total",
-                    "service", serviceName,
-                    "method", httpMethod,
-                    "status", String.valueOf(statusCode)
-            ).increment();
-
-            // Contador específico de errores
-            if (statusCode >= 400) {
-                meterRegistry.counter("gateway.requests.errors",
-                        "service", serviceName,
-                        "status", String.valueOf(statusCode)
-                ).increment();
-            }
+            String template = pathTemplateNormalizer.normalize(endpoint);
+            // El servicio también sale de la ruta: si la ruta no es conocida tampoco se etiqueta
+            String service = PathTemplateNormalizer.OTHER.equals(template) ? PathTemplateNormalizer.OTHER : serviceName;
+            MeterKey key = new MeterKey(template, httpMethod, service, statusCode);
+            meters.computeIfAbsent(key, this::registerMeters).record(durationMs);
         } catch (Exception e) {
             logger.warning("Error recording metrics: " + e.getMessage());
         }
     }
 
+    /**
+     * El usuario sale de los atributos que deja {@link AuthenticationFilter} tras validar el token,
+     * no de la cabecera {@code X-User-ID} que envía el cliente.
+     */
+    private void recordHeavyHitters(
+            ServerWebExchange exchange,
+            String endpoint,
+            String httpMethod,
+            String ipAddress,
+            long durationMs
+    ) {
+        try {
+            heavyHitterTracker.record(
+                    exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR),
+                    exchange.getAttribute(AuthenticationFilter.USER_EMAIL_ATTR),
+                    ipAddress,
+                    httpMethod,
+                    endpoint,
+                    durationMs
+            );
+        } catch (Exception e) {
+            logger.warning("Error recording heavy hitters: " + e.getMessage());
+        }
+    }
+
+    private RequestMeters registerMeters(MeterKey key) {
+        String status = String.valueOf(key.statusCode());
+
+        // Timer con percentiles para latencia por endpoint
+        Timer duration = Timer.builder("gateway.request.duration")
+                .tag("endpoint", key.endpointTemplate())
+                .tag("method", key.httpMethod())
+                .tag("service", key.serviceName())
+                .tag("status", status)
+                .publishPercentiles(0.5, 0.9, 0.99) // p50, p90, p99
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        // Contador de peticiones por servicio
+        Counter total = meterRegistry.counter("gateway.requests.total",
+                "service", key.serviceName(),
+                "method", key.httpMethod(),
+                "status", status
+        );
+
+        // Contador específico de errores
+        Counter errors = key.statusCode() >= 400
+                ? meterRegistry.counter("gateway.requests.errors",
+                        "service", key.serviceName(),
+                        "status", status)
+                : null;
+
+        return new RequestMeters(duration, total, errors);
+    }
+
+    private record MeterKey(String endpointTemplate, String httpMethod, String serviceName, int statusCode) {}
+
+    private record RequestMeters(Timer duration, Counter total, Counter errors) {
+
+        void record(long durationMs) {
+            duration.record(durationMs, TimeUnit.MILLISECONDS);
+            total.increment();
+            if (errors != null) {
+                errors.increment();
+            }
+        }
+    }
+
     /**
      * Extrae el nombre del servicio desde el endpoint
      */
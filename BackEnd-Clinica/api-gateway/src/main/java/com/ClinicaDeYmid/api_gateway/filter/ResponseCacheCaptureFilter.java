@@ -0,0 +1,131 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import com.ClinicaDeYmid.api_gateway.cache.CachedResponse;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService.CacheRule;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Primera mitad de la caché de respuestas: captura el cuerpo de las respuestas que
+ * {@link ResponseCacheFilter} ha marcado como fallo de caché.
+ *
+ * <p>Tiene que ejecutarse antes de {@link NettyWriteResponseFilter}, que es quien escribe el
+ * cuerpo del servicio en la respuesta de este exchange, y por tanto antes de la autenticación.
+ * Por eso aquí solo se decora la respuesta; la consulta a la caché, que depende del usuario
+ * autenticado, la hace {@link ResponseCacheFilter}.</p>
+ *
+ * <p>Solo se guardan respuestas 200 sin {@code Set-Cookie}, sin {@code Content-Encoding} y sin
+ * {@code Cache-Control: no-store|private}. Si el servicio no envía ETag se calcula uno a partir
+ * del cuerpo, y si coincide con el {@code If-None-Match} del cliente se responde 304.</p>
+ */
+@Component
+public class ResponseCacheCaptureFilter implements GlobalFilter, Ordered {
+
+    /** Regla de caché que cubre la petición. */
+    static final String RULE_ATTR = ResponseCacheCaptureFilter.class.getName() + ".rule";
+
+    private final ResponseCacheService cacheService;
+
+    public ResponseCacheCaptureFilter(ResponseCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CacheRule rule = cacheService.ruleFor(exchange.getRequest());
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+        exchange.getAttributes().put(RULE_ATTR, rule);
+        return chain.filter(exchange.mutate()
+                        .response(new CapturingResponse(exchange, rule))
+                        .build())
+                // Aquí ya se ha escrito (y capturado) la respuesta: si la llamada en curso sigue
+                // abierta es que no era compartible, y las peticiones que esperan deben seguir solas
+                .doFinally(signal -> {
+                    String inFlightKey = exchange.getAttribute(ResponseCacheFilter.IN_FLIGHT_KEY_ATTR);
+                    if (inFlightKey != null) {
+                        cacheService.abandon(inFlightKey);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final CacheRule rule;
+
+        CapturingResponse(ServerWebExchange exchange, CacheRule rule) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.rule = rule;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            String key = exchange.getAttribute(ResponseCacheFilter.PENDING_KEY_ATTR);
+            if (key == null || getStatusCode() != HttpStatus.OK || !isStorable(getHeaders())) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return store(key, bytes);
+                    });
+        }
+
+        private Mono<Void> store(String key, byte[] bytes) {
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag() != null
+                    ? headers.getETag()
+                    : "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+            headers.setETag(etag);
+
+            CachedResponse cached = new CachedResponse(bytes, headers.getContentType(), etag, rule.ttl());
+            cacheService.put(key, cached);
+
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            if (cached.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+                rule.notModified().increment();
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return setComplete();
+            }
+            headers.setContentLength(bytes.length);
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+
+        private boolean isStorable(HttpHeaders headers) {
+            if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+                return false;
+            }
+            // Sin Content-Length (chunked) el tamaño se comprueba al guardar
+            return headers.getContentLength() <= cacheService.maxEntryBytes();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import com.ClinicaDeYmid.api_gateway.cache.CachedResponse;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService.CacheRule;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Segunda mitad de la caché de respuestas: sirve desde la caché los GET con regla en
+ * {@code gateway.response-cache.rules}, ya autenticados.
+ *
+ * <ul>
+ *     <li>Acierto con {@code If-None-Match} coincidente: 304 sin llamar al servicio.</li>
+ *     <li>Acierto: el cuerpo cacheado con su ETag.</li>
+ *     <li>Petición idéntica en curso (reglas con {@code coalesce}): se espera su respuesta hasta
+ *     {@code max-wait}; si no llega a tiempo o no es compartible, se llama al servicio.</li>
+ *     <li>Fallo: se reenvía sin cabeceras condicionales para obtener el cuerpo completo, que
+ *     guarda {@link ResponseCacheCaptureFilter}.</li>
+ * </ul>
+ *
+ * <p>Informa el resultado en {@code X-Cache}. Las reglas con ámbito {@code ROLE} o {@code USER}
+ * solo se aplican a peticiones autenticadas por {@link AuthenticationFilter}.</p>
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    /** Clave con la que guardar la respuesta del servicio. */
+    static final String PENDING_KEY_ATTR = ResponseCacheFilter.class.getName() + ".pendingKey";
+    /** Clave de la llamada en curso que esta petición debe cerrar. */
+    static final String IN_FLIGHT_KEY_ATTR = ResponseCacheFilter.class.getName() + ".inFlightKey";
+
+    private static final String CACHE_HEADER = "X-Cache";
+
+    private final ResponseCacheService cacheService;
+
+    public ResponseCacheFilter(ResponseCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CacheRule rule = exchange.getAttribute(ResponseCacheCaptureFilter.RULE_ATTR);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+        String scope = scopeOf(rule, exchange);
+        if (scope == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String key = ResponseCacheService.keyFor(rule, route != null ? route.getId() : "", scope, request);
+        CachedResponse cached = rule.stores() ? cacheService.get(rule, key) : null;
+        if (cached != null) {
+            return writeCached(exchange, rule, cached, "HIT");
+        }
+
+        CompletableFuture<CachedResponse> inFlight = rule.coalesce() ? cacheService.joinInFlight(key) : null;
+        if (inFlight == null) {
+            return forward(exchange, chain, key, rule.coalesce());
+        }
+        // Otra petición idéntica ya está llamando al servicio: esperar su respuesta
+        return Mono.fromFuture(inFlight, true)
+                .timeout(rule.maxWait())
+                .map(Optional::of)
+                .onErrorResume(TimeoutException.class, e -> {
+                    rule.coalesceTimeouts().increment();
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isPresent()) {
+                        rule.coalesced().increment();
+                        return writeCached(exchange, rule, shared.get(), "COALESCED");
+                    }
+                    return forward(exchange, chain, key, false);
+                });
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CacheRule rule, CachedResponse cached, String result) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.etag());
+        response.getHeaders().set(CACHE_HEADER, result);
+        if (cached.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+            rule.notModified().increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(cached.contentType());
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Reenvía la petición sin cabeceras condicionales; {@link ResponseCacheCaptureFilter} guarda
+     * la respuesta con {@code key}. Si {@code leader}, la llamada queda registrada como en curso
+     * y la captura la cierra al terminar.
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key, boolean leader) {
+        exchange.getAttributes().put(PENDING_KEY_ATTR, key);
+        if (leader) {
+            exchange.getAttributes().put(IN_FLIGHT_KEY_ATTR, key);
+        }
+        exchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+        ServerHttpRequest forwarded = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    private static String scopeOf(CacheRule rule, ServerWebExchange exchange) {
+        return switch (rule.scope()) {
+            case PUBLIC -> "public";
+            case ROLE -> prefixed("role:", exchange.getAttribute(AuthenticationFilter.USER_ROLE_ATTR));
+            case USER -> prefixed("user:", exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR));
+        };
+    }
+
+    private static String prefixed(String prefix, String value) {
+        return value != null ? prefix + value : null;
+    }
+
+    @Override
+    public int getOrder() {
+        // Después de AuthenticationFilter (orden fijo -1) y de los default-filters (órdenes 1..n)
+        return 10;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Política de acceso de una ruta.
+ *
+ * @param access nivel de acceso exigido
+ * @param roles  roles admitidos cuando {@code access} es {@link Access#ROLE}
+ */
+public record RoutePolicy(Access access, Set<String> roles) {
+
+    public enum Access {
+        /** Sin token. */
+        PUBLIC,
+        /** Cualquier token válido. */
+        AUTHENTICATED,
+        /** Token válido con alguno de los roles indicados. */
+        ROLE
+    }
+
+    public static final RoutePolicy PUBLIC = new RoutePolicy(Access.PUBLIC, Set.of());
+    public static final RoutePolicy AUTHENTICATED = new RoutePolicy(Access.AUTHENTICATED, Set.of());
+
+    public RoutePolicy {
+        roles = roles != null ? Set.copyOf(roles) : Set.of();
+    }
+
+    public static RoutePolicy of(Access access, Collection<String> roles) {
+        return switch (access) {
+            case PUBLIC -> PUBLIC;
+            case AUTHENTICATED -> AUTHENTICATED;
+            case ROLE -> new RoutePolicy(Access.ROLE, roles != null ? Set.copyOf(roles) : Set.of());
+        };
+    }
+
+    public boolean isPublic() {
+        return access == Access.PUBLIC;
+    }
+
+    /**
+     * Indica si un usuario autenticado con el rol indicado puede acceder.
+     */
+    public boolean allows(String role) {
+        return access != Access.ROLE || (role != null && roles.contains(role));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Tabla de políticas de acceso por ruta, bajo {@code gateway.security}.
+ *
+ * <pre>
+ * gateway:
+ *   security:
+ *     routes:
+ *       - pattern: /api/v1/auth/login
+ *         access: PUBLIC
+ *       - pattern: /api/v1/analytics/**
+ *         access: ROLE
+ *         roles: [ADMIN]
+ *       - pattern: /api/v1/auth/users/**
+ *         methods: [DELETE]
+ *         access: ROLE
+ *         roles: [ADMIN]
+ * </pre>
+ *
+ * <p>Las rutas sin regla exigen autenticación. Sin reglas configuradas se usan
+ * {@link RouteValidator#openApiEndpoints} como rutas públicas.</p>
+ */
+public record RouteSecurityProperties(List<Rule> routes) {
+
+    public RouteSecurityProperties {
+        routes = routes != null ? List.copyOf(routes) : List.of();
+    }
+
+    /**
+     * @param pattern patrón {@code PathPattern}
+     * @param methods métodos HTTP a los que aplica; vacío para todos
+     * @param access  nivel de acceso exigido
+     * @param roles   roles admitidos con {@code access: ROLE}
+     */
+    public record Rule(
+            String pattern,
+            List<String> methods,
+            @DefaultValue("AUTHENTICATED") RoutePolicy.Access access,
+            List<String> roles
+    ) {}
+}
@@ -1,17 +1,39 @@
 package com.ClinicaDeYmid.api_gateway.filter;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
+/**
+ * Decide la política de acceso de cada petición a partir de la tabla {@code gateway.security.routes}.
+ *
+ * <p>La tabla se compila una vez a {@link PathPattern} (y al cambiar la configuración, vía
+ * {@link EnvironmentChangeEvent}) en un array inmutable ordenado del patrón más específico al más
+ * general. {@link #policyFor} solo recorre ese array y, para reglas literales o de prefijo,
+ * compara texto: no crea objetos ni escribe logs.</p>
+ */
 @Component
 public class RouteValidator {
 
     private static final Logger logger = Logger.getLogger(RouteValidator.class.getName());
 
+    static final String PROPERTIES_PREFIX = "gateway.security";
+
+    /** Rutas públicas por defecto, cuando no hay reglas configuradas. */
     public static final List<String> openApiEndpoints = List.of(
             "/api/v1/auth/login",
             "/api/v1/auth/public-key",
@@ -21,27 +43,122 @@ public class RouteValidator {
             "/swagger-ui/**"
     );
 
+    private final Environment environment;
+    private volatile CompiledRule[] rules;
+
+    /**
+     * Validador con la tabla por defecto.
+     */
+    public RouteValidator() {
+        this.environment = null;
+        this.rules = compile(new RouteSecurityProperties(List.of()));
+    }
+
+    @Autowired
+    public RouteValidator(Environment environment) {
+        this.environment = environment;
+        reload();
+    }
+
+    /**
+     * Política de la primera regla que encaja; {@link RoutePolicy#AUTHENTICATED} si ninguna.
+     */
+    public RoutePolicy policyFor(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        String value = path.value();
+        HttpMethod method = request.getMethod();
+        for (CompiledRule rule : rules) {
+            if (rule.matches(method, value, path)) {
+                return rule.policy();
+            }
+        }
+        return RoutePolicy.AUTHENTICATED;
+    }
+
     public boolean isSecured(ServerHttpRequest request) {
-        String requestPath = request.getURI().getPath();
+        return !policyFor(request).isPublic();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTIES_PREFIX))) {
+            reload();
+        }
+    }
+
+    /**
+     * Vuelve a leer y compilar la tabla de rutas desde la configuración.
+     */
+    public void reload() {
+        RouteSecurityProperties properties = environment == null
+                ? new RouteSecurityProperties(List.of())
+                : Binder.get(environment)
+                        .bind(PROPERTIES_PREFIX, RouteSecurityProperties.class)
+                        .orElseGet(() -> new RouteSecurityProperties(List.of()));
+        CompiledRule[] compiled = compile(properties);
+        rules = compiled;
+        logger.info("🛡️ Tabla de rutas compilada: " + compiled.length + " reglas");
+    }
 
-        boolean secured = openApiEndpoints.stream()
-                .noneMatch(endpoint -> matchesEndpoint(requestPath, endpoint));
+    static CompiledRule[] compile(RouteSecurityProperties properties) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<RouteSecurityProperties.Rule> configured = properties.routes().isEmpty()
+                ? openApiEndpoints.stream()
+                        .map(pattern -> new RouteSecurityProperties.Rule(pattern, List.of(), RoutePolicy.Access.PUBLIC, List.of()))
+                        .toList()
+                : properties.routes();
 
-        logger.info("Path: " + requestPath + " - Is secured: " + secured);
-        return secured;
+        CompiledRule[] compiled = configured.stream()
+                .map(rule -> CompiledRule.of(
+                        parser.parse(rule.pattern()),
+                        rule.methods() == null ? Set.of() : rule.methods().stream()
+                                .map(HttpMethod::valueOf)
+                                .collect(Collectors.toUnmodifiableSet()),
+                        RoutePolicy.of(rule.access(), rule.roles())))
+                .toArray(CompiledRule[]::new);
+        // Orden estable: a igual especificidad se respeta el orden de la configuración
+        Arrays.sort(compiled, (a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern(), b.pattern()));
+        return compiled;
     }
 
-    private boolean matchesEndpoint(String requestPath, String endpoint) {
-        if (endpoint.endsWith("/**")) {
-            // Para patrones como /eureka/**
-            String prefix = endpoint.substring(0, endpoint.length() - 3);
-            boolean matches = requestPath.startsWith(prefix);
-            return matches;
-        } else {
-            // Para rutas exactas
-            boolean matches = requestPath.equals(endpoint);
-            return matches;
+    /**
+     * Regla compilada. Los patrones literales ({@code /api/v1/auth/login}) y de prefijo
+     * ({@code /eureka/**}) se comparan como texto; el resto usa {@link PathPattern}.
+     *
+     * @param literal ruta exacta o prefijo sin {@code /**}; {@code null} para patrones generales
+     */
+    record CompiledRule(PathPattern pattern, Set<HttpMethod> methods, RoutePolicy policy,
+                        String literal, boolean prefix) {
+
+        private static final String ANY_SUFFIX = "/**";
+
+        static CompiledRule of(PathPattern pattern, Set<HttpMethod> methods, RoutePolicy policy) {
+            String source = pattern.getPatternString();
+            boolean prefix = source.endsWith(ANY_SUFFIX);
+            String literal = prefix ? source.substring(0, source.length() - ANY_SUFFIX.length()) : source;
+            if (hasWildcards(literal)) {
+                return new CompiledRule(pattern, methods, policy, null, false);
+            }
+            return new CompiledRule(pattern, methods, policy, literal, prefix);
+        }
+
+        private static boolean hasWildcards(String value) {
+            return value.indexOf('{') >= 0 || value.indexOf('*') >= 0 || value.indexOf('?') >= 0;
+        }
+
+        boolean matches(HttpMethod method, String value, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            if (literal == null) {
+                return pattern.matches(path);
+            }
+            if (!prefix) {
+                return value.equals(literal);
+            }
+            // "/eureka/**" cubre "/eureka" y todo lo que cuelga de "/eureka/"
+            return value.startsWith(literal)
+                    && (value.length() == literal.length() || value.charAt(literal.length()) == '/');
         }
     }
 }
-
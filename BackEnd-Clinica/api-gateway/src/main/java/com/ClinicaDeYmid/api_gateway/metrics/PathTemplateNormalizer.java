@@ -0,0 +1,164 @@
+package com.ClinicaDeYmid.api_gateway.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte rutas concretas ({@code /api/v1/attentions/123}) en plantillas
+ * ({@code /api/v1/attentions/{id}}) para usarlas como etiqueta de métricas y clave de rollups.
+ *
+ * <p>Orden de resolución:</p>
+ * <ol>
+ *     <li>Patrones configurados en {@code gateway.metrics.path-templates}, del más específico al
+ *     más general.</li>
+ *     <li>Rutas que no encajan en ninguna ruta del gateway: {@value #OTHER}. Así el tráfico
+ *     basura (escáneres, 404) no consume plantillas.</li>
+ *     <li>Heurística: los segmentos que parecen identificadores (números, UUID, hashes) se
+ *     sustituyen por {@code {id}}.</li>
+ * </ol>
+ *
+ * <p>Las plantillas deducidas por heurística están limitadas a {@code max-path-templates}. Al
+ * superar el límite se usa el patrón de la ruta del gateway ({@code /api/v1/patients/**}) o
+ * {@value #OTHER}, y se cuenta en {@code gateway.metrics.path_overflow}.</p>
+ */
+@Component
+public class PathTemplateNormalizer {
+
+    private static final Logger logger = Logger.getLogger(PathTemplateNormalizer.class.getName());
+
+    public static final String OTHER = "other";
+    private static final String ID_PLACEHOLDER = "{id}";
+
+    private static final Pattern NUMERIC = Pattern.compile("\\d+");
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern HEX = Pattern.compile("[0-9a-fA-F]{16,}");
+    private static final Pattern ALPHANUMERIC_CODE = Pattern.compile("(?=.*\\d)[A-Za-z0-9_.@-]{8,}");
+
+    private final List<PathPattern> configuredPatterns;
+    private final List<PathPattern> routePatterns;
+    private final int maxTemplates;
+    private final Set<String> admittedTemplates = ConcurrentHashMap.newKeySet();
+    private final Cache<String, String> resolved;
+    private final Counter overflowCounter;
+
+    public PathTemplateNormalizer(PathTemplateProperties properties,
+                                  ObjectProvider<GatewayProperties> gatewayProperties,
+                                  MeterRegistry meterRegistry) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.configuredPatterns = properties.pathTemplates().stream()
+                .map(parser::parse)
+                .sorted(PathPattern.SPECIFICITY_COMPARATOR)
+                .toList();
+        this.routePatterns = routePatterns(parser, gatewayProperties.getIfAvailable());
+        this.maxTemplates = properties.maxPathTemplates();
+        this.resolved = Caffeine.newBuilder()
+                .maximumSize(properties.pathCacheSize())
+                .build();
+        this.overflowCounter = Counter.builder("gateway.metrics.path_overflow")
+                .description("Rutas agrupadas por superar el límite de plantillas")
+                .register(meterRegistry);
+
+        logger.info("🧭 Normalizador de rutas: " + configuredPatterns.size() + " patrones configurados, "
+                + routePatterns.size() + " patrones de rutas del gateway, máximo " + maxTemplates + " plantillas");
+    }
+
+    private static List<PathPattern> routePatterns(PathPatternParser parser, GatewayProperties gatewayProperties) {
+        if (gatewayProperties == null) {
+            return List.of();
+        }
+        List<PathPattern> patterns = new ArrayList<>();
+        gatewayProperties.getRoutes().forEach(route -> route.getPredicates().stream()
+                .filter(predicate -> "Path".equalsIgnoreCase(predicate.getName()))
+                .map(PredicateDefinition::getArgs)
+                .flatMap(args -> args.values().stream())
+                .forEach(pattern -> patterns.add(parser.parse(pattern))));
+        patterns.sort(PathPattern.SPECIFICITY_COMPARATOR);
+        return List.copyOf(patterns);
+    }
+
+    /**
+     * Devuelve la plantilla de la ruta; nunca {@code null}.
+     */
+    public String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return OTHER;
+        }
+        return resolved.get(path, this::resolve);
+    }
+
+    private String resolve(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : configuredPatterns) {
+            if (pattern.matches(container)) {
+                return pattern.getPatternString();
+            }
+        }
+
+        PathPattern routePattern = null;
+        for (PathPattern pattern : routePatterns) {
+            if (pattern.matches(container)) {
+                routePattern = pattern;
+                break;
+            }
+        }
+        if (!routePatterns.isEmpty() && routePattern == null) {
+            return OTHER;
+        }
+
+        String template = replaceIdentifiers(path);
+        if (admittedTemplates.contains(template) || admit(template)) {
+            return template;
+        }
+        overflowCounter.increment();
+        return routePattern != null ? routePattern.getPatternString() : OTHER;
+    }
+
+    private boolean admit(String template) {
+        // La comprobación y el alta no son atómicas: el límite puede excederse en unas pocas
+        // plantillas con concurrencia, lo que es aceptable para una cota de cardinalidad
+        if (admittedTemplates.size() >= maxTemplates) {
+            return false;
+        }
+        admittedTemplates.add(template);
+        return true;
+    }
+
+    static String replaceIdentifiers(String path) {
+        String[] segments = path.split("/", -1);
+        StringBuilder template = new StringBuilder(path.length());
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                template.append('/');
+            }
+            template.append(isIdentifier(segments[i]) ? ID_PLACEHOLDER : segments[i]);
+        }
+        return template.toString();
+    }
+
+    private static boolean isIdentifier(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        return NUMERIC.matcher(segment).matches()
+                || UUID.matcher(segment).matches()
+                || HEX.matcher(segment).matches()
+                || ALPHANUMERIC_CODE.matcher(segment).matches();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ClinicaDeYmid.api_gateway.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Normalización de rutas para etiquetar métricas y rollups.
+ *
+ * <pre>
+ * gateway:
+ *   metrics:
+ *     path-templates:
+ *       - /api/v1/auth/users/email/{email}
+ *     max-path-templates: 500
+ *     path-cache-size: 10000
+ * </pre>
+ *
+ * @param pathTemplates    patrones ({@code PathPattern}) que se aplican antes que la heurística
+ * @param maxPathTemplates máximo de plantillas distintas deducidas por heurística
+ * @param pathCacheSize    rutas concretas ya resueltas que se recuerdan
+ */
+@ConfigurationProperties(prefix = "gateway.metrics")
+public record PathTemplateProperties(
+        List<String> pathTemplates,
+        @DefaultValue("500") int maxPathTemplates,
+        @DefaultValue("10000") long pathCacheSize
+) {
+
+    public PathTemplateProperties {
+        pathTemplates = pathTemplates != null ? List.copyOf(pathTemplates) : List.of();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ClinicaDeYmid.api_gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuración del rate limiting distribuido.
+ *
+ * <pre>
+ * gateway:
+ *   rate-limit:
+ *     enabled: true
+ *     key-prefix: "rate_limit:"
+ *     local-cache-size: 100000
+ *     trusted-proxies: 0
+ *     ip:
+ *       capacity: 1000
+ *       period: 1m
+ *     user:
+ *       capacity: 100
+ *       period: 1m
+ *     routes:
+ *       ai-assistant-service:
+ *         capacity: 20
+ *         period: 1m
+ * </pre>
+ *
+ * <p>Un límite en {@code routes} sustituye al límite por usuario en esa ruta y se contabiliza
+ * en un bucket propio, independiente del resto de rutas.</p>
+ *
+ * <p>{@code trusted-proxies} es el número de proxies propios delante del gateway que añaden su
+ * salto a {@code X-Forwarded-For}. Con 0 (por defecto) el límite por IP usa la dirección remota
+ * de la conexión y la cabecera, que escribe el cliente, se ignora.</p>
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("rate_limit:") String keyPrefix,
+        @DefaultValue("100000") long localCacheSize,
+        @DefaultValue("0") int trustedProxies,
+        Limit ip,
+        Limit user,
+        Map<String, Limit> routes
+) {
+
+    private static final Limit DEFAULT_IP_LIMIT = new Limit(1000, Duration.ofMinutes(1));
+    private static final Limit DEFAULT_USER_LIMIT = new Limit(100, Duration.ofMinutes(1));
+
+    public RateLimitProperties {
+        ip = ip != null ? ip : DEFAULT_IP_LIMIT;
+        user = user != null ? user : DEFAULT_USER_LIMIT;
+        routes = routes != null ? Map.copyOf(routes) : Map.of();
+        if (trustedProxies < 0) {
+            throw new IllegalArgumentException("trusted-proxies no puede ser negativo");
+        }
+    }
+
+    /**
+     * Límite aplicable a un usuario en la ruta indicada.
+     */
+    public Limit userLimitFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, user) : user;
+    }
+
+    /**
+     * {@code capacity} peticiones que se reponen completas cada {@code period}.
+     */
+    public record Limit(long capacity, Duration period) {
+
+        public Limit {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity debe ser mayor que 0");
+            }
+            period = period != null ? period : Duration.ofMinutes(1);
+        }
+
+        public String describe() {
+            return capacity + "/" + period.toSeconds() + "s";
+        }
+    }
+}
@@ -1,119 +1,182 @@
 package com.ClinicaDeYmid.api_gateway.ratelimit;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import org.springframework.data.redis.core.RedisTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
+/**
+ * Rate limiting por IP y por usuario con buckets compartidos en Redis.
+ *
+ * <p>Cada consumo es una única operación atómica en Redis, así que el límite es el mismo
+ * para todas las instancias del gateway. Delante hay una caché local de claves agotadas: mientras
+ * un bucket no haya repuesto tokens, las peticiones se rechazan sin ir a Redis, lo que evita que
+ * un cliente que insiste sature Redis justo cuando ya está limitado.</p>
+ *
+ * <p>Si Redis no responde la petición se deja pasar: es preferible perder el límite durante
+ * una caída que cortar todo el tráfico. Publica {@code gateway.ratelimit.decisions} con
+ * {@code result=allowed|rejected|local_rejected|error}.</p>
+ */
 @Service
 public class RateLimitService {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final Map<String, Bucket> userBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private static final Logger logger = Logger.getLogger(RateLimitService.class.getName());
+    private static final String DECISIONS_METRIC = "gateway.ratelimit.decisions";
 
-    // Límites configurados
-    private static final long USER_RATE_LIMIT = 100; // requests por minuto
-    private static final long IP_RATE_LIMIT = 1000;  // requests por minuto
-    private static final Duration REFILL_DURATION = Duration.ofMinutes(1);
+    private final AsyncProxyManager<String> proxyManager;
+    private final RateLimitProperties properties;
+    private final Map<RateLimitProperties.Limit, BucketConfiguration> configurations = new ConcurrentHashMap<>();
 
-    public RateLimitService(RedisTemplate<String, String> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    /** Clave agotada → instante ({@link System#nanoTime()}) en que vuelve a haber tokens. */
+    private final Cache<String, Long> exhaustedUntil;
+
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+    private final Counter localRejectedCounter;
+    private final Counter errorCounter;
+
+    public RateLimitService(AsyncProxyManager<String> proxyManager,
+                            RateLimitProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.proxyManager = proxyManager;
+        this.properties = properties;
+        this.exhaustedUntil = Caffeine.newBuilder()
+                .maximumSize(properties.localCacheSize())
+                .expireAfter(new UntilRefill())
+                .build();
+        this.allowedCounter = decisionCounter(meterRegistry, "allowed");
+        this.rejectedCounter = decisionCounter(meterRegistry, "rejected");
+        this.localRejectedCounter = decisionCounter(meterRegistry, "local_rejected");
+        this.errorCounter = decisionCounter(meterRegistry, "error");
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(DECISIONS_METRIC)
+                .description("Decisiones de rate limiting del gateway")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Verifica si un usuario puede hacer una petición
-     * @param userId ID del usuario
-     * @return true si puede hacer la petición, false si excede el límite
+     * Consume un token del bucket de la IP.
      */
-    public boolean allowUser(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            return true; // Si no hay usuario, solo aplica el límite por IP
+    public Mono<RateLimitResult> tryConsumeForIp(String ipAddress) {
+        if (!properties.enabled() || ipAddress == null || ipAddress.isEmpty()) {
+            return Mono.just(RateLimitResult.UNLIMITED);
         }
-
-        String key = "rate_limit:user:" + userId;
-        return checkRateLimit(key, USER_RATE_LIMIT, userBuckets);
+        return tryConsume(properties.keyPrefix() + "ip:" + ipAddress, properties.ip());
     }
 
     /**
-     * Verifica si una IP puede hacer una petición
-     * @param ipAddress Dirección IP
-     * @return true si puede hacer la petición, false si excede el límite
+     * Consume un token del bucket del usuario. Si la ruta tiene un límite propio se usa un
+     * bucket por usuario y ruta.
      */
-    public boolean allowIp(String ipAddress) {
-        if (ipAddress == null || ipAddress.isEmpty()) {
-            return true;
+    public Mono<RateLimitResult> tryConsumeForUser(String userId, String routeId) {
+        if (!properties.enabled() || userId == null || userId.isEmpty()) {
+            return Mono.just(RateLimitResult.UNLIMITED);
         }
+        String key = routeId != null && properties.routes().containsKey(routeId)
+                ? properties.keyPrefix() + "user:" + userId + ":route:" + routeId
+                : properties.keyPrefix() + "user:" + userId;
+        return tryConsume(key, properties.userLimitFor(routeId));
+    }
 
-        String key = "rate_limit:ip:" + ipAddress;
-        return checkRateLimit(key, IP_RATE_LIMIT, ipBuckets);
+    private Mono<RateLimitResult> tryConsume(String key, RateLimitProperties.Limit limit) {
+        Long blockedUntil = exhaustedUntil.getIfPresent(key);
+        if (blockedUntil != null) {
+            long nanosToWait = blockedUntil - System.nanoTime();
+            if (nanosToWait > 0) {
+                localRejectedCounter.increment();
+                return Mono.just(RateLimitResult.rejected(limit.capacity(), nanosToWait));
+            }
+        }
+
+        BucketConfiguration configuration = configurations.computeIfAbsent(limit, RateLimitService::toConfiguration);
+        return Mono.fromFuture(() -> proxyManager.builder()
+                        .build(key, configuration)
+                        .tryConsumeAndReturnRemaining(1))
+                .map(probe -> toResult(key, limit, probe))
+                .onErrorResume(e -> {
+                    errorCounter.increment();
+                    logger.warning("Rate limit no disponible para " + key + ", se permite la petición: " + e.getMessage());
+                    return Mono.just(RateLimitResult.UNLIMITED);
+                });
     }
 
-    /**
-     * Verifica el límite de rate usando buckets
-     */
-    private boolean checkRateLimit(String key, long limit, Map<String, Bucket> bucketMap) {
-        Bucket bucket = bucketMap.computeIfAbsent(key, k -> createBucket(limit));
-        return bucket.tryConsume(1);
+    private RateLimitResult toResult(String key, RateLimitProperties.Limit limit, ConsumptionProbe probe) {
+        if (probe.isConsumed()) {
+            allowedCounter.increment();
+            return RateLimitResult.allowed(limit.capacity(), probe.getRemainingTokens());
+        }
+        rejectedCounter.increment();
+        exhaustedUntil.put(key, System.nanoTime() + probe.getNanosToWaitForRefill());
+        return RateLimitResult.rejected(limit.capacity(), probe.getNanosToWaitForRefill());
     }
 
-    /**
-     * Crea un nuevo bucket con la configuración especificada
-     */
-    private Bucket createBucket(long capacity) {
-        Bandwidth bandwidth = Bandwidth.builder()
-                .capacity(capacity)
-                .refillIntervally(capacity, REFILL_DURATION)
-                .build();
-        return Bucket.builder()
-                .addLimit(bandwidth)
+    private static BucketConfiguration toConfiguration(RateLimitProperties.Limit limit) {
+        return BucketConfiguration.builder()
+                .addLimit(bandwidth -> bandwidth
+                        .capacity(limit.capacity())
+                        .refillIntervally(limit.capacity(), limit.period()))
                 .build();
     }
 
     /**
-     * Obtiene el tiempo de espera restante para el usuario
+     * Resultado de consumir un token.
+     *
+     * @param allowed           si la petición puede continuar
+     * @param limit             capacidad del bucket, o -1 si no se ha aplicado límite
+     * @param remaining         tokens que quedan tras la petición
+     * @param retryAfterSeconds segundos hasta que vuelva a haber tokens (solo si se rechaza)
      */
-    public long getRemainingSecondsForUser(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            return 0;
-        }
-        String key = "rate_limit:user:" + userId;
-        Bucket bucket = userBuckets.get(key);
-        if (bucket != null) {
-            return bucket.getAvailableTokens();
+    public record RateLimitResult(boolean allowed, long limit, long remaining, long retryAfterSeconds) {
+
+        public static final RateLimitResult UNLIMITED = new RateLimitResult(true, -1, -1, 0);
+
+        static RateLimitResult allowed(long limit, long remaining) {
+            return new RateLimitResult(true, limit, remaining, 0);
         }
-        return USER_RATE_LIMIT;
-    }
 
-    /**
-     * Obtiene el tiempo de espera restante para la IP
-     */
-    public long getRemainingSecondsForIp(String ipAddress) {
-        if (ipAddress == null || ipAddress.isEmpty()) {
-            return 0;
+        static RateLimitResult rejected(long limit, long nanosToWait) {
+            // Redondeo hacia arriba: reintentar antes de tiempo volvería a ser rechazado
+            long seconds = Math.max(1, (nanosToWait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            return new RateLimitResult(false, limit, 0, seconds);
         }
-        String key = "rate_limit:ip:" + ipAddress;
-        Bucket bucket = ipBuckets.get(key);
-        if (bucket != null) {
-            return bucket.getAvailableTokens();
+
+        public boolean isLimited() {
+            return limit >= 0;
         }
-        return IP_RATE_LIMIT;
     }
 
     /**
-     * Limpia los buckets antiguos
+     * Cada clave agotada expira justo cuando su bucket vuelve a tener tokens.
      */
-    public void cleanupOldBuckets() {
-        // Se puede implementar una limpieza periódica si es necesario
-        if (userBuckets.size() > 10000) {
-            userBuckets.clear();
+    private static final class UntilRefill implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long blockedUntil, long currentTime) {
+            return Math.max(0, blockedUntil - System.nanoTime());
         }
-        if (ipBuckets.size() > 10000) {
-            ipBuckets.clear();
+
+        @Override
+        public long expireAfterUpdate(String key, Long blockedUntil, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, blockedUntil, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long blockedUntil, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,123 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Snapshots de los resúmenes de heavy hitters en {@code request_log_heavy_hitters}: una fila por
+ * instancia del gateway, dimensión, bucket y elemento seguido. Cada snapshot sustituye por completo
+ * al anterior de la misma instancia y bucket; las demás instancias no se tocan.
+ */
+@Repository
+public class HeavyHitterSnapshotRepository {
+
+    private static final int MAX_ITEM_LENGTH = 500;
+    private static final int MAX_DETAIL_LENGTH = 255;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO request_log_heavy_hitters (instance_id, dimension, bucket_start, item, detail, hits,
+                                                   error, latency_sum_ms, last_seen)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HeavyHitterSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void replace(String instanceId, String dimension, LocalDateTime bucketStart, List<HeavyHitter> hitters) {
+        Timestamp bucket = Timestamp.valueOf(bucketStart);
+        jdbcTemplate.update("""
+                        DELETE FROM request_log_heavy_hitters
+                        WHERE instance_id = ? AND dimension = ? AND bucket_start = ?
+                        """,
+                instanceId, dimension, bucket);
+        if (hitters.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, hitters, hitters.size(), (ps, hitter) -> {
+            ps.setString(1, instanceId);
+            ps.setString(2, dimension);
+            ps.setTimestamp(3, bucket);
+            ps.setString(4, truncate(hitter.item(), MAX_ITEM_LENGTH));
+            ps.setString(5, truncate(hitter.detail(), MAX_DETAIL_LENGTH));
+            ps.setLong(6, hitter.hits());
+            ps.setLong(7, hitter.error());
+            ps.setLong(8, hitter.latencySumMs());
+            ps.setTimestamp(9, new Timestamp(hitter.lastSeenMillis()));
+        });
+    }
+
+    /**
+     * Filas de la instancia en los buckets desde {@code since}, ordenadas por bucket.
+     */
+    public List<Row> findSince(String instanceId, LocalDateTime since) {
+        return jdbcTemplate.query("""
+                        SELECT dimension, bucket_start, item, detail, hits, error, latency_sum_ms, last_seen
+                        FROM request_log_heavy_hitters
+                        WHERE instance_id = ? AND bucket_start >= ?
+                        ORDER BY bucket_start
+                        """,
+                (rs, rowNum) -> new Row(
+                        rs.getString("dimension"),
+                        rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        new HeavyHitter(
+                                rs.getString("item"),
+                                rs.getString("detail"),
+                                rs.getLong("hits"),
+                                rs.getLong("error"),
+                                rs.getLong("latency_sum_ms"),
+                                rs.getTimestamp("last_seen").getTime())),
+                instanceId, Timestamp.valueOf(since));
+    }
+
+    /**
+     * Elementos de una dimensión sumados entre los buckets de {@code [from, to)} de todas las instancias
+     * salvo {@code instanceId}; los {@code limit} con más hits. El bucket en curso de cada instancia
+     * cuenta hasta su último snapshot.
+     */
+    public List<HeavyHitter> sumOtherInstances(String instanceId, String dimension, LocalDateTime from,
+                                               LocalDateTime to, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT item,
+                               (ARRAY_AGG(detail ORDER BY last_seen DESC) FILTER (WHERE detail IS NOT NULL))[1] AS detail,
+                               SUM(hits) AS hits, SUM(error) AS error, SUM(latency_sum_ms) AS latency_sum_ms,
+                               MAX(last_seen) AS last_seen
+                        FROM request_log_heavy_hitters
+                        WHERE instance_id <> ? AND dimension = ? AND bucket_start >= ? AND bucket_start < ?
+                        GROUP BY item
+                        ORDER BY SUM(hits) DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new HeavyHitter(
+                        rs.getString("item"),
+                        rs.getString("detail"),
+                        rs.getLong("hits"),
+                        rs.getLong("error"),
+                        rs.getLong("latency_sum_ms"),
+                        rs.getTimestamp("last_seen").getTime()),
+                instanceId, dimension, Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    /**
+     * Elimina los buckets caducados de todas las instancias.
+     */
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM request_log_heavy_hitters WHERE bucket_start < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    public record Row(String dimension, LocalDateTime bucketStart, HeavyHitter hitter) {}
+}
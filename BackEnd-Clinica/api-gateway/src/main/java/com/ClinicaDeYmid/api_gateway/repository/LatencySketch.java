@@ -0,0 +1,56 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.zip.DataFormatException;
+
+/**
+ * Fila de {@code request_log_latency_sketches}: histograma HdrHistogram de las latencias de un
+ * bucket de tiempo para un servicio y una plantilla de endpoint ({@value #ALL_ENDPOINTS} para el
+ * servicio completo). Dos sketches se combinan sumándolos, sin perder precisión en los percentiles.
+ */
+public record LatencySketch(
+        Granularity granularity,
+        LocalDateTime bucketStart,
+        String serviceName,
+        String endpoint,
+        Histogram histogram
+) {
+
+    /** Endpoint de los sketches que agregan todas las rutas del servicio. */
+    public static final String ALL_ENDPOINTS = "*";
+
+    /** Latencia máxima representable; los valores mayores se registran como este máximo. */
+    public static final long HIGHEST_TRACKABLE_MS = 3_600_000L;
+
+    /** Dos dígitos significativos: error relativo de los percentiles por debajo del 1%. */
+    public static final int SIGNIFICANT_DIGITS = 2;
+
+    public static Histogram newHistogram() {
+        return new Histogram(1, HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+    }
+
+    public static void recordLatency(Histogram histogram, long latencyMs) {
+        histogram.recordValue(Math.max(0, Math.min(latencyMs, HIGHEST_TRACKABLE_MS)));
+    }
+
+    public static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static Histogram decode(byte[] bytes) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 1);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Sketch de latencia corrupto", e);
+        }
+    }
+}
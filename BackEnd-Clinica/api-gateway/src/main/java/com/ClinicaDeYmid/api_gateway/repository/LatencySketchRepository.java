@@ -0,0 +1,95 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Acceso JDBC a {@code request_log_latency_sketches}.
+ *
+ * <p>PostgreSQL no sabe sumar histogramas, así que la fusión se hace aquí: se intenta insertar el
+ * sketch y, si la fila ya existe, se bloquea, se suma en memoria y se reescribe. Las consultas
+ * usan la misma ventana que los rollups ({@link RequestLogRollupRepository#window}): horas
+ * completas desde los sketches por hora y los extremos desde los sketches por minuto.</p>
+ */
+@Repository
+public class LatencySketchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO request_log_latency_sketches (granularity, bucket_start, service_name, endpoint,
+                                                      request_count, histogram)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, bucket_start, service_name, endpoint) DO NOTHING
+            """;
+
+    private static final String KEY = "granularity = ? AND bucket_start = ? AND service_name = ? AND endpoint = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LatencySketchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Suma los sketches a los guardados. Deben llegar ordenados por clave para que varias
+     * instancias del gateway bloqueen las filas en el mismo orden y no se produzcan deadlocks.
+     */
+    @Transactional
+    public void mergeAll(List<LatencySketch> sketches) {
+        for (LatencySketch sketch : sketches) {
+            Object[] key = {
+                    sketch.granularity().name(),
+                    Timestamp.valueOf(sketch.bucketStart()),
+                    sketch.serviceName(),
+                    sketch.endpoint()
+            };
+            int inserted = jdbcTemplate.update(INSERT_SQL, key[0], key[1], key[2], key[3],
+                    sketch.histogram().getTotalCount(), LatencySketch.encode(sketch.histogram()));
+            if (inserted > 0) {
+                continue;
+            }
+
+            byte[] stored = jdbcTemplate.queryForObject(
+                    "SELECT histogram FROM request_log_latency_sketches WHERE " + KEY + " FOR UPDATE",
+                    byte[].class, key);
+            Histogram merged = LatencySketch.decode(stored);
+            merged.add(sketch.histogram());
+            jdbcTemplate.update("UPDATE request_log_latency_sketches SET request_count = ?, histogram = ? WHERE " + KEY,
+                    merged.getTotalCount(), LatencySketch.encode(merged), key[0], key[1], key[2], key[3]);
+        }
+    }
+
+    /**
+     * Sketches del rango. Con {@code serviceName} nulo, los agregados de cada servicio; si no,
+     * los de cada plantilla de endpoint de ese servicio.
+     */
+    public List<LatencySketch> findInRange(LocalDateTime start, LocalDateTime end, String serviceName) {
+        String sql;
+        List<Object> params = new ArrayList<>();
+        if (serviceName == null) {
+            sql = "SELECT * FROM request_log_latency_sketches WHERE endpoint = ? AND " + RequestLogRollupRepository.WINDOW;
+        } else {
+            sql = "SELECT * FROM request_log_latency_sketches WHERE service_name = ? AND endpoint <> ? AND "
+                    + RequestLogRollupRepository.WINDOW;
+            params.add(serviceName);
+        }
+        params.add(LatencySketch.ALL_ENDPOINTS);
+        params.addAll(Arrays.asList(RequestLogRollupRepository.window(start, end)));
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new LatencySketch(
+                Granularity.valueOf(rs.getString("granularity")),
+                rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getString("service_name"),
+                rs.getString("endpoint"),
+                LatencySketch.decode(rs.getBytes("histogram"))
+        ), params.toArray());
+    }
+}
@@ -0,0 +1,54 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserta logs de peticiones por lotes con JDBC.
+ * Evita el coste por fila de JPA (contexto de persistencia, IDENTITY con un round-trip por insert):
+ * todo el lote viaja en un único batch, que el driver de PostgreSQL reescribe como un INSERT
+ * multi-fila con {@code reWriteBatchedInserts=true}.
+ */
+@Repository
+public class RequestLogBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO request_logs (user_id, user_email, endpoint, http_method, status_code, timestamp,
+                                      duration_ms, ip_address, user_agent, service_name, error_message)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RequestLogBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<RequestLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getUserId());
+            ps.setString(2, log.getUserEmail());
+            ps.setString(3, log.getEndpoint());
+            ps.setString(4, log.getHttpMethod());
+            ps.setObject(5, log.getStatusCode(), Types.INTEGER);
+            ps.setTimestamp(6, Timestamp.valueOf(log.getTimestamp()));
+            if (log.getDurationMs() != null) {
+                ps.setLong(7, log.getDurationMs());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, log.getIpAddress());
+            ps.setString(9, log.getUserAgent());
+            ps.setString(10, log.getServiceName());
+            ps.setString(11, log.getErrorMessage());
+        });
+    }
+}
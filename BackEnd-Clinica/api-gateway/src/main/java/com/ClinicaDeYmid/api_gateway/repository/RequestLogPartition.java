@@ -0,0 +1,61 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Partición de {@code request_logs}: cubre {@code [from, to)} sobre {@code timestamp}.
+ *
+ * @param from inicio incluido; {@code null} si es {@code MINVALUE}
+ * @param to   fin excluido; {@code null} si es {@code MAXVALUE}
+ */
+public record RequestLogPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+    public static final String PREFIX = "request_logs_p";
+
+    /**
+     * Solapa con {@code [start, end)}.
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return (from == null || from.isBefore(end)) && (to == null || to.isAfter(start));
+    }
+
+    /**
+     * Todas sus filas son anteriores a {@code cutoff}.
+     */
+    public boolean endsBefore(LocalDateTime cutoff) {
+        return to != null && !to.isAfter(cutoff);
+    }
+
+    public enum Granularity {
+        DAILY(DateTimeFormatter.BASIC_ISO_DATE),
+        MONTHLY(DateTimeFormatter.ofPattern("yyyyMM"));
+
+        private final DateTimeFormatter suffix;
+
+        Granularity(DateTimeFormatter suffix) {
+            this.suffix = suffix;
+        }
+
+        /**
+         * Inicio del periodo que contiene {@code date}.
+         */
+        public LocalDate start(LocalDate date) {
+            return this == DAILY ? date : date.with(TemporalAdjusters.firstDayOfMonth());
+        }
+
+        public LocalDate next(LocalDate start) {
+            return this == DAILY ? start.plusDays(1) : start.plusMonths(1);
+        }
+
+        /**
+         * Partición del periodo que empieza en {@code start}, p. ej. {@code request_logs_p20250110}.
+         */
+        public RequestLogPartition partition(LocalDate start) {
+            return new RequestLogPartition(PREFIX + suffix.format(start),
+                    start.atStartOfDay(), next(start).atStartOfDay());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL de las particiones de {@code request_logs}, leídas del catálogo de PostgreSQL.
+ * La partición {@code DEFAULT} no se lista: no tiene rango y nunca se elimina.
+ *
+ * <p>PostgreSQL no deja crear una partición si {@code DEFAULT} ya tiene filas de su rango (p. ej.
+ * tras un mantenimiento fallido). En ese caso {@link #create} separa {@code DEFAULT}, crea la
+ * partición, le mueve esas filas y vuelve a adjuntar {@code DEFAULT}, todo en la transacción en
+ * curso.</p>
+ */
+@Repository
+public class RequestLogPartitionRepository {
+
+    private static final String LIST_SQL = """
+            SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'request_logs'::regclass
+            ORDER BY c.relname
+            """;
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private static final String DEFAULT_PARTITION = "request_logs_default";
+
+    private static final String DEFAULT_HAS_ROWS_SQL = "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+            + " WHERE timestamp >= ? AND timestamp < ?)";
+
+    /** Clave del advisory lock que serializa el mantenimiento entre instancias del gateway. */
+    private static final String LOCK_KEY = "request_logs_partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RequestLogPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Toma el lock de mantenimiento hasta el final de la transacción en curso.
+     *
+     * @return {@code false} si otra instancia lo tiene
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, LOCK_KEY));
+    }
+
+    public List<RequestLogPartition> findAll() {
+        return jdbcTemplate.query(LIST_SQL, (rs, rowNum) -> parse(rs.getString("name"), rs.getString("bound")))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Crea la partición; si {@code DEFAULT} tiene filas de su rango, se las mueve. Debe ejecutarse
+     * dentro de una transacción: si falla a medias, {@code DEFAULT} no queda separada.
+     */
+    public void create(RequestLogPartition partition) {
+        Timestamp from = Timestamp.valueOf(partition.from());
+        Timestamp to = Timestamp.valueOf(partition.to());
+        String createSql = "CREATE TABLE IF NOT EXISTS " + quote(partition.name())
+                + " PARTITION OF request_logs FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS_SQL, Boolean.class, from, to))) {
+            jdbcTemplate.execute(createSql);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE request_logs DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(createSql);
+        jdbcTemplate.update("INSERT INTO " + quote(partition.name()) + " SELECT * FROM " + DEFAULT_PARTITION
+                + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+        jdbcTemplate.execute("ALTER TABLE request_logs ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+    }
+
+    /**
+     * Elimina la partición completa: sin DELETE fila a fila ni VACUUM posterior.
+     */
+    public void drop(RequestLogPartition partition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + quote(partition.name()));
+    }
+
+    /**
+     * Interpreta el rango de {@code pg_get_expr(relpartbound)}, p. ej.
+     * {@code FOR VALUES FROM ('2025-01-10 00:00:00') TO ('2025-01-11 00:00:00')}.
+     *
+     * @return {@code null} para la partición {@code DEFAULT}
+     */
+    static RequestLogPartition parse(String name, String bound) {
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            return null;
+        }
+        return new RequestLogPartition(name, boundValue(matcher.group(1)), boundValue(matcher.group(2)));
+    }
+
+    private static LocalDateTime boundValue(String value) {
+        if (!value.startsWith("'")) {
+            // MINVALUE / MAXVALUE
+            return null;
+        }
+        return LocalDateTime.parse(value.substring(1, value.length() - 1).replace(' ', 'T'));
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -12,6 +12,9 @@ import java.util.List;
 /**
  * Repositorio para gestionar los logs de peticiones
  * Proporciona queries para analytics y auditoría
+ *
+ * <p>{@code request_logs} está particionada por {@code timestamp}: todas las consultas filtran por
+ * rango de tiempo para que PostgreSQL lea solo las particiones afectadas.</p>
  */
 @Repository
 public interface RequestLogRepository extends JpaRepository<RequestLog, Long> {
@@ -0,0 +1,39 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fila de {@code request_log_rollups}: agregado de las peticiones de un bucket de tiempo para una
+ * combinación servicio/endpoint/método/estado. Los incrementos se suman a la fila existente.
+ */
+public record RequestLogRollup(
+        Granularity granularity,
+        LocalDateTime bucketStart,
+        String serviceName,
+        String endpoint,
+        String httpMethod,
+        int statusCode,
+        long requestCount,
+        long errorCount,
+        long latencySumMs,
+        long latencyMinMs,
+        long latencyMaxMs,
+        long[] latencyHistogram
+) {
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+    }
+}
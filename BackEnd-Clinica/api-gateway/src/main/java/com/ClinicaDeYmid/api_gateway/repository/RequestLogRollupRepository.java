@@ -0,0 +1,153 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import com.ClinicaDeYmid.api_gateway.service.LatencyHistogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a {@code request_log_rollups}.
+ *
+ * <p>Las consultas combinan granularidades: horas completas del rango desde los rollups por hora
+ * y los extremos desde los rollups por minuto. Así el coste depende del número de buckets y no
+ * del número de peticiones, con precisión de minuto en los bordes del rango.</p>
+ */
+@Repository
+public class RequestLogRollupRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO request_log_rollups (granularity, bucket_start, service_name, endpoint, http_method, status_code,
+                                             request_count, error_count, latency_sum_ms, latency_min_ms, latency_max_ms,
+                                             latency_histogram)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, bucket_start, service_name, endpoint, http_method, status_code) DO UPDATE SET
+                request_count = request_log_rollups.request_count + EXCLUDED.request_count,
+                error_count = request_log_rollups.error_count + EXCLUDED.error_count,
+                latency_sum_ms = request_log_rollups.latency_sum_ms + EXCLUDED.latency_sum_ms,
+                latency_min_ms = LEAST(request_log_rollups.latency_min_ms, EXCLUDED.latency_min_ms),
+                latency_max_ms = GREATEST(request_log_rollups.latency_max_ms, EXCLUDED.latency_max_ms),
+                latency_histogram = ARRAY(
+                    SELECT a + b
+                    FROM unnest(request_log_rollups.latency_histogram, EXCLUDED.latency_histogram) AS t(a, b))
+            """;
+
+    static final String WINDOW = """
+            ((granularity = 'HOUR' AND bucket_start >= ? AND bucket_start < ?)
+              OR (granularity = 'MINUTE' AND ((bucket_start >= ? AND bucket_start < ?)
+                                           OR (bucket_start >= ? AND bucket_start < ?))))
+            """;
+
+    private static final String AGGREGATES = """
+            COALESCE(SUM(request_count), 0) AS request_count,
+            COALESCE(SUM(error_count), 0) AS error_count,
+            COALESCE(SUM(latency_sum_ms), 0) AS latency_sum_ms,
+            COALESCE(MIN(latency_min_ms), 0) AS latency_min_ms,
+            COALESCE(MAX(latency_max_ms), 0) AS latency_max_ms""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RequestLogRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Suma los incrementos a los rollups. Deben llegar ordenados por clave para que varias
+     * instancias del gateway bloqueen las filas en el mismo orden y no se produzcan deadlocks.
+     */
+    public void upsertAll(List<RequestLogRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rollups, rollups.size(), (ps, rollup) -> {
+            Long[] histogram = new Long[rollup.latencyHistogram().length];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = rollup.latencyHistogram()[i];
+            }
+            Array histogramArray = ps.getConnection().createArrayOf("bigint", histogram);
+
+            ps.setString(1, rollup.granularity().name());
+            ps.setTimestamp(2, Timestamp.valueOf(rollup.bucketStart()));
+            ps.setString(3, rollup.serviceName());
+            ps.setString(4, rollup.endpoint());
+            ps.setString(5, rollup.httpMethod());
+            ps.setInt(6, rollup.statusCode());
+            ps.setLong(7, rollup.requestCount());
+            ps.setLong(8, rollup.errorCount());
+            ps.setLong(9, rollup.latencySumMs());
+            ps.setLong(10, rollup.latencyMinMs());
+            ps.setLong(11, rollup.latencyMaxMs());
+            ps.setArray(12, histogramArray);
+        });
+    }
+
+    /**
+     * Totales del rango: peticiones, errores y suma de latencias.
+     */
+    public RollupStats getTotals(LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT NULL AS group_key, NULL AS http_method, " + AGGREGATES
+                + " FROM request_log_rollups WHERE " + WINDOW;
+        return jdbcTemplate.queryForObject(sql, RollupStats.ROW_MAPPER, window(start, end));
+    }
+
+    public List<RollupStats> getStatsByService(LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT service_name AS group_key, NULL AS http_method, " + AGGREGATES
+                + " FROM request_log_rollups WHERE " + WINDOW + " GROUP BY service_name";
+        return jdbcTemplate.query(sql, RollupStats.ROW_MAPPER, window(start, end));
+    }
+
+    public List<RollupStats> getErrorsByStatus(LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT CAST(status_code AS VARCHAR) AS group_key, NULL AS http_method, " + AGGREGATES
+                + " FROM request_log_rollups WHERE status_code >= 400 AND " + WINDOW
+                + " GROUP BY status_code ORDER BY request_count DESC";
+        return jdbcTemplate.query(sql, RollupStats.ROW_MAPPER, window(start, end));
+    }
+
+    /**
+     * Histograma de latencia combinado por servicio.
+     */
+    public Map<String, long[]> getLatencyHistogramByService(LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT service_name, u.idx, SUM(u.hits) AS hits"
+                + " FROM request_log_rollups, unnest(latency_histogram) WITH ORDINALITY AS u(hits, idx)"
+                + " WHERE " + WINDOW + " GROUP BY service_name, u.idx";
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            long[] histogram = histograms.computeIfAbsent(rs.getString("service_name"),
+                    k -> new long[LatencyHistogram.BUCKETS]);
+            int index = rs.getInt("idx") - 1;
+            if (index >= 0 && index < histogram.length) {
+                histogram[index] = rs.getLong("hits");
+            }
+        }, window(start, end));
+        return histograms;
+    }
+
+    /**
+     * Parámetros de {@link #WINDOW}: horas completas en [hourStart, hourEnd) y minutos en
+     * [minuteStart, hourStart) y [hourEnd, end).
+     */
+    static Object[] window(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime minuteStart = start.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime hourStart = start.truncatedTo(ChronoUnit.HOURS);
+        if (hourStart.isBefore(start)) {
+            hourStart = hourStart.plusHours(1);
+        }
+        LocalDateTime hourEnd = end.truncatedTo(ChronoUnit.HOURS);
+        if (!hourStart.isBefore(hourEnd)) {
+            // Rango dentro de una misma hora: solo minutos
+            hourStart = end;
+            hourEnd = end;
+        }
+        return new Object[]{
+                Timestamp.valueOf(hourStart), Timestamp.valueOf(hourEnd),
+                Timestamp.valueOf(minuteStart), Timestamp.valueOf(hourStart),
+                Timestamp.valueOf(hourEnd), Timestamp.valueOf(end)
+        };
+    }
+}
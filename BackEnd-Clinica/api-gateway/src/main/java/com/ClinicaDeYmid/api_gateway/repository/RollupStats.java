@@ -0,0 +1,31 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Agregado de rollups para una clave de agrupación (servicio, endpoint o código de estado).
+ */
+public record RollupStats(
+        String key,
+        String httpMethod,
+        long requestCount,
+        long errorCount,
+        long latencySumMs,
+        long latencyMinMs,
+        long latencyMaxMs
+) {
+
+    static final RowMapper<RollupStats> ROW_MAPPER = (rs, rowNum) -> new RollupStats(
+            rs.getString("group_key"),
+            rs.getString("http_method"),
+            rs.getLong("request_count"),
+            rs.getLong("error_count"),
+            rs.getLong("latency_sum_ms"),
+            rs.getLong("latency_min_ms"),
+            rs.getLong("latency_max_ms")
+    );
+
+    public double averageLatencyMs() {
+        return requestCount > 0 ? (double) latencySumMs / requestCount : 0.0;
+    }
+}
@@ -1,28 +1,50 @@
 package com.ClinicaDeYmid.api_gateway.security;
 
+import com.ClinicaDeYmid.api_gateway.dto.PublicKeyEntry;
 import com.ClinicaDeYmid.api_gateway.dto.PublicKeyResponse;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.security.KeyFactory;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
+/**
+ * Valida los JWT emitidos por auth-service.
+ *
+ * <p>Con RS256 las claves públicas se descargan de auth-service al arrancar y se refrescan cada
+ * {@code refresh-interval}. Se guarda un {@link JWTVerifier} por {@code kid} en un mapa inmutable
+ * que se sustituye entero en cada refresco, así que validar un token no toma ningún lock. Un token
+ * con un {@code kid} desconocido (arranque en frío o rotación reciente) fuerza un refresco, como
+ * mucho uno cada {@code min-refresh-interval}; las peticiones concurrentes esperan a la misma
+ * descarga en lugar de fallar.</p>
+ */
 @Service
 public class JwtValidatorService {
 
     private static final Logger logger = Logger.getLogger(JwtValidatorService.class.getName());
     private static final String ISSUER = "ClinicaDeYmid";
+    private static final String PUBLIC_KEY_ENDPOINT = "/api/v1/auth/public-key";
+    /** kid de la clave de un auth-service que aún no publica el conjunto de claves. */
+    private static final String LEGACY_KEY_ID = "";
 
     @Value("${jwt.secret}")
     private String hmacSecret;
@@ -34,106 +56,188 @@ public class JwtValidatorService {
     private String authServiceUrl;
 
     private final WebClient webClient;
-    private final AtomicReference<RSAPublicKey> publicKey = new AtomicReference<>(null);
-    private final AtomicReference<Algorithm> algorithm = new AtomicReference<>(null);
-    private volatile boolean isPublicKeyLoading = false;
+    private final long minRefreshIntervalNanos;
 
-    public JwtValidatorService(WebClient webClient) {
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>(KeySet.EMPTY);
+    /** Descarga en curso, compartida por todos los que la necesitan. */
+    private final AtomicReference<Mono<KeySet>> inFlight = new AtomicReference<>(null);
+    private final AtomicReference<JWTVerifier> hmacVerifier = new AtomicReference<>(null);
+    private volatile long lastRefreshNanos = System.nanoTime();
+
+    public JwtValidatorService(WebClient webClient,
+                               @Value("${gateway.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
         this.webClient = webClient;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
     }
 
-    @Retry(name = "public-key-retry", fallbackMethod = "fallbackEnsurePublicKeyLoaded")
-    public Mono<Void> ensurePublicKeyLoaded() {
-        if (publicKey.get() != null) return Mono.empty();
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchKeys() {
+        if (isRsa()) {
+            refreshKeys().subscribe(null, e -> logger.warning("Claves JWT no disponibles al arrancar: " + e.getMessage()));
+        }
+    }
 
-        synchronized (this) {
-            if (publicKey.get() != null) return Mono.empty();
-            if (isPublicKeyLoading) {
-                return Mono.error(new IllegalStateException("La clave pública se está cargando, intenta nuevamente."));
-            }
-            isPublicKeyLoading = true;
+    @Scheduled(fixedDelayString = "${gateway.jwks.refresh-interval:5m}",
+            initialDelayString = "${gateway.jwks.refresh-interval:5m}")
+    public void scheduledRefresh() {
+        if (isRsa()) {
+            refreshKeys().subscribe(null, e -> logger.warning("Error refrescando las claves JWT: " + e.getMessage()));
         }
+    }
+
+    /**
+     * Descarga el conjunto de claves de auth-service, o se une a la descarga en curso.
+     */
+    public Mono<Void> refreshKeys() {
+        return sharedRefresh().then();
+    }
 
-        String publicKeyEndpoint = "/api/v1/auth/public-key";
-        logger.info("Intentando obtener clave pública de: " + authServiceUrl + publicKeyEndpoint);
+    private Mono<KeySet> sharedRefresh() {
+        while (true) {
+            Mono<KeySet> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+            Mono<KeySet> refresh = Mono.defer(this::fetchKeys)
+                    .doFinally(signal -> inFlight.set(null))
+                    .cache();
+            if (inFlight.compareAndSet(null, refresh)) {
+                lastRefreshNanos = System.nanoTime();
+                return refresh;
+            }
+        }
+    }
 
+    private Mono<KeySet> fetchKeys() {
+        logger.fine(() -> "Obteniendo claves públicas de: " + authServiceUrl + PUBLIC_KEY_ENDPOINT);
         return webClient.get()
-                .uri(authServiceUrl + publicKeyEndpoint)
+                .uri(authServiceUrl + PUBLIC_KEY_ENDPOINT)
                 .retrieve()
                 .bodyToMono(PublicKeyResponse.class)
-                .doOnNext(response -> {
-                    try {
-                        String cleanKeyContent = response.publicKey()
-                                .replaceAll("-----BEGIN PUBLIC KEY-----", "")
-                                .replaceAll("-----END PUBLIC KEY-----", "")
-                                .replaceAll("\\s", "");
-                        byte[] publicKeyBytes = Base64.getDecoder().decode(cleanKeyContent);
-                        X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
-                        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-                        RSAPublicKey key = (RSAPublicKey) keyFactory.generatePublic(publicKeySpec);
-                        publicKey.set(key);
-                        algorithm.set(Algorithm.RSA256(key, null));
-                        logger.info("Clave pública RSA obtenida y procesada del auth-service.");
-                    } catch (Exception e) {
-                        logger.severe("Error procesando clave pública obtenida del auth-service: " + e.getMessage());
-                        throw new RuntimeException("Error procesando clave pública del auth-service", e);
-                    }
-                })
-                .doOnError(e -> logger.severe("Error al obtener la clave pública del auth-service: " + e.getMessage()))
-                .then()
-                .doFinally(signal -> isPublicKeyLoading = false);
-    }
-
-    public Mono<Void> fallbackEnsurePublicKeyLoaded(Throwable e) {
-        logger.severe("No se pudo obtener la clave pública después de los reintentos: " + e.getMessage());
-        publicKey.set(null);
-        algorithm.set(null);
-        return Mono.error(new RuntimeException("No se pudo obtener la clave pública del auth-service.", e));
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(500)).maxBackoff(Duration.ofSeconds(5)))
+                .map(this::updateKeys)
+                .onErrorMap(e -> {
+                    logger.severe("Error al obtener las claves públicas del auth-service: " + e.getMessage());
+                    return new RuntimeException("No se pudo obtener la clave pública del auth-service.", e);
+                });
+    }
+
+    /**
+     * Sustituye el conjunto de claves si su versión ha cambiado.
+     */
+    KeySet updateKeys(PublicKeyResponse response) {
+        KeySet current = keySet.get();
+        if (response.version() != null && response.version().equals(current.version())) {
+            return current;
+        }
+
+        List<PublicKeyEntry> entries = response.keys() != null && !response.keys().isEmpty()
+                ? response.keys()
+                : List.of(new PublicKeyEntry(LEGACY_KEY_ID, response.publicKey(), response.algorithm(), response.keyType()));
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        for (PublicKeyEntry entry : entries) {
+            String kid = entry.keyId() != null ? entry.keyId() : LEGACY_KEY_ID;
+            verifiers.put(kid, buildVerifier(Algorithm.RSA256(parsePublicKey(entry.publicKey()), null)));
+        }
+        String activeKeyId = response.keyId() != null ? response.keyId() : entries.getFirst().keyId();
+
+        KeySet updated = new KeySet(response.version(), activeKeyId != null ? activeKeyId : LEGACY_KEY_ID, Map.copyOf(verifiers));
+        keySet.set(updated);
+        logger.info("🔑 Claves JWT actualizadas: versión " + updated.version() + ", " + verifiers.size()
+                + " claves, kid activo " + updated.activeKeyId());
+        return updated;
+    }
+
+    private static RSAPublicKey parsePublicKey(String encoded) {
+        try {
+            String cleanKeyContent = encoded
+                    .replaceAll("-----BEGIN PUBLIC KEY-----", "")
+                    .replaceAll("-----END PUBLIC KEY-----", "")
+                    .replaceAll("\\s", "");
+            byte[] publicKeyBytes = Base64.getDecoder().decode(cleanKeyContent);
+            return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(publicKeyBytes));
+        } catch (Exception e) {
+            throw new IllegalStateException("Error procesando clave pública del auth-service", e);
+        }
     }
 
     public Mono<DecodedJWT> validateAndDecodeToken(String token) {
-        if ("RS256".equalsIgnoreCase(algorithmType)) {
-            return ensurePublicKeyLoaded()
-                    .then(Mono.defer(() -> {
-                        if (algorithm.get() == null) {
-                            logger.severe("No se pudo inicializar el algoritmo de firma para validar el JWT.");
-                            return Mono.error(new RuntimeException("No se pudo inicializar el algoritmo para validar el JWT. ¿El Auth-Service está disponible?"));
-                        }
-                        try {
-                            logger.info("Validando token...");
-                            DecodedJWT jwt = JWT.require(algorithm.get())
-                                    .withIssuer(ISSUER)
-                                    .acceptLeeway(10)
-                                    .build()
-                                    .verify(token);
-                            logger.info("Token válido. Issued at: " + jwt.getIssuedAt() + ", Exp: " + jwt.getExpiresAt());
-                            return Mono.just(jwt);
-                        } catch (JWTVerificationException e) {
-                            logger.warning("Token inválido o expirado: " + e.getMessage());
-                            return Mono.error(new RuntimeException("Token inválido o expirado", e));
-                        }
-                    }));
-        } else {
-            if (algorithm.get() == null) {
-                if (hmacSecret == null || hmacSecret.trim().isEmpty() || hmacSecret.length() < 32) {
-                    return Mono.error(new IllegalStateException("JWT secret inválido para HS256"));
-                }
-                algorithm.set(Algorithm.HMAC256(hmacSecret));
+        DecodedJWT decoded;
+        try {
+            decoded = JWT.decode(token);
+        } catch (JWTVerificationException e) {
+            return invalidToken(e);
+        }
+
+        if (!isRsa()) {
+            return validateHmac(decoded);
+        }
+
+        // Camino rápido: verificador de la clave ya descargado
+        JWTVerifier current = keySet.get().verifierFor(decoded.getKeyId());
+        if (current != null) {
+            return verify(current, decoded);
+        }
+
+        return keysForUnknownKid().flatMap(keys -> {
+            JWTVerifier loaded = keys.verifierFor(decoded.getKeyId());
+            if (loaded == null) {
+                logger.fine(() -> "Token firmado con una clave desconocida: " + decoded.getKeyId());
+                return Mono.error(new RuntimeException("Token inválido o expirado"));
             }
-            try {
-                logger.info("Validando token...");
-                DecodedJWT jwt = JWT.require(algorithm.get())
-                        .withIssuer(ISSUER)
-                        .acceptLeeway(10)
-                        .build()
-                        .verify(token);
-                logger.info("Token válido. Issued at: " + jwt.getIssuedAt() + ", Exp: " + jwt.getExpiresAt());
-                return Mono.just(jwt);
-            } catch (JWTVerificationException e) {
-                logger.warning("Token inválido o expirado: " + e.getMessage());
-                return Mono.error(new RuntimeException("Token inválido o expirado", e));
+            return verify(loaded, decoded);
+        });
+    }
+
+    /**
+     * Sin claves siempre se descargan; con claves, solo si el último refresco es anterior a
+     * {@code min-refresh-interval}, para que tokens con kids inventados no saturen auth-service.
+     */
+    private Mono<KeySet> keysForUnknownKid() {
+        KeySet current = keySet.get();
+        if (current.isEmpty() || inFlight.get() != null
+                || System.nanoTime() - lastRefreshNanos >= minRefreshIntervalNanos) {
+            return sharedRefresh();
+        }
+        return Mono.just(current);
+    }
+
+    private Mono<DecodedJWT> validateHmac(DecodedJWT decoded) {
+        JWTVerifier current = hmacVerifier.get();
+        if (current == null) {
+            if (hmacSecret == null || hmacSecret.trim().isEmpty() || hmacSecret.length() < 32) {
+                return Mono.error(new IllegalStateException("JWT secret inválido para HS256"));
             }
+            hmacVerifier.compareAndSet(null, buildVerifier(Algorithm.HMAC256(hmacSecret)));
+            current = hmacVerifier.get();
         }
+        return verify(current, decoded);
+    }
+
+    private boolean isRsa() {
+        return "RS256".equalsIgnoreCase(algorithmType);
+    }
+
+    private static JWTVerifier buildVerifier(Algorithm algorithm) {
+        return JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .acceptLeeway(10)
+                .build();
+    }
+
+    private Mono<DecodedJWT> verify(JWTVerifier jwtVerifier, DecodedJWT decoded) {
+        try {
+            DecodedJWT jwt = jwtVerifier.verify(decoded);
+            logger.fine(() -> "Token válido. Issued at: " + jwt.getIssuedAt() + ", Exp: " + jwt.getExpiresAt());
+            return Mono.just(jwt);
+        } catch (JWTVerificationException e) {
+            return invalidToken(e);
+        }
+    }
+
+    private static Mono<DecodedJWT> invalidToken(JWTVerificationException e) {
+        logger.fine(() -> "Token inválido o expirado: " + e.getMessage());
+        return Mono.error(new RuntimeException("Token inválido o expirado", e));
     }
 
     public Mono<String> getSubject(String token) {
@@ -145,4 +249,21 @@ public class JwtValidatorService {
         return validateAndDecodeToken(token)
                 .map(jwt -> jwt.getClaim("email").asString());
     }
+
+    /**
+     * Verificadores por kid. Los tokens sin kid se validan con la clave activa.
+     */
+    record KeySet(String version, String activeKeyId, Map<String, JWTVerifier> verifiers) {
+
+        static final KeySet EMPTY = new KeySet(null, null, Map.of());
+
+        JWTVerifier verifierFor(String kid) {
+            String key = kid != null ? kid : activeKeyId;
+            return key != null ? verifiers.get(key) : null;
+        }
+
+        boolean isEmpty() {
+            return verifiers.isEmpty();
+        }
+    }
 }
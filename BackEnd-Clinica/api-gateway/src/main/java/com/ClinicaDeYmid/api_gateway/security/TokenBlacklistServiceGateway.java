@@ -1,23 +1,126 @@
 package com.ClinicaDeYmid.api_gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.codec.digest.DigestUtils;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Consulta la blacklist de tokens que mantiene auth-service en Redis sin bloquear el event loop.
+ *
+ * <p>Delante de Redis hay dos cachés locales indexadas por el SHA-256 del token:</p>
+ * <ul>
+ *     <li>Revocados: una revocación es definitiva, así que se recuerdan hasta
+ *     {@code revoked-ttl}.</li>
+ *     <li>No revocados (caché negativa): evita consultar Redis en cada petición de la misma
+ *     sesión. Su TTL corto acota cuánto tarda en aplicarse una revocación si se perdiera la
+ *     notificación.</li>
+ * </ul>
+ *
+ * <p>auth-service publica el hash de cada token revocado en {@code channel}; al recibirlo se
+ * mueve a la caché de revocados de inmediato.</p>
+ */
 @Service
 public class TokenBlacklistServiceGateway {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private static final Logger logger = Logger.getLogger(TokenBlacklistServiceGateway.class.getName());
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+    private final Cache<String, Boolean> revokedTokens;
+    private final Cache<String, Boolean> cleanTokens;
+
+    private final Counter localHits;
+    private final Counter redisLookups;
 
-    public TokenBlacklistServiceGateway(RedisTemplate<String, String> redisTemplate) {
+    private Disposable subscription;
+
+    public TokenBlacklistServiceGateway(
+            ReactiveStringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.blacklist.channel:auth:token-revoked}") String channel,
+            @Value("${gateway.blacklist.maximum-size:100000}") long maximumSize,
+            @Value("${gateway.blacklist.negative-ttl:5s}") Duration negativeTtl,
+            @Value("${gateway.blacklist.revoked-ttl:1h}") Duration revokedTtl
+    ) {
         this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(revokedTtl)
+                .build();
+        this.cleanTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        this.localHits = Counter.builder("gateway.blacklist.lookups")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.redisLookups = Counter.builder("gateway.blacklist.lookups")
+                .tag("source", "redis")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribeToRevocations() {
+        subscription = redisTemplate.listenToChannel(channel)
+                .doOnNext(message -> markRevoked(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> logger.warning(
+                                "Suscripción a revocaciones perdida, reintentando: " + signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
     }
 
     public Mono<Boolean> isTokenBlacklisted(String token) {
-        return Mono.fromCallable(() -> {
-            String hashed = DigestUtils.sha256Hex(token);
-            return redisTemplate.hasKey(hashed);
-        });
+        String hashed = DigestUtils.sha256Hex(token);
+
+        if (revokedTokens.getIfPresent(hashed) != null) {
+            localHits.increment();
+            return Mono.just(Boolean.TRUE);
+        }
+        if (cleanTokens.getIfPresent(hashed) != null) {
+            localHits.increment();
+            return Mono.just(Boolean.FALSE);
+        }
+
+        redisLookups.increment();
+        return redisTemplate.hasKey(hashed)
+                .defaultIfEmpty(Boolean.FALSE)
+                .doOnNext(revoked -> {
+                    if (revoked) {
+                        revokedTokens.put(hashed, Boolean.TRUE);
+                    } else if (revokedTokens.getIfPresent(hashed) == null) {
+                        // Una revocación recibida mientras se consultaba Redis tiene prioridad
+                        cleanTokens.put(hashed, Boolean.TRUE);
+                    }
+                });
+    }
+
+    /**
+     * Registra localmente un token revocado a partir del hash publicado por auth-service.
+     */
+    void markRevoked(String hashed) {
+        revokedTokens.put(hashed, Boolean.TRUE);
+        cleanTokens.invalidate(hashed);
+        logger.fine(() -> "Token revocado recibido: " + hashed);
     }
 }
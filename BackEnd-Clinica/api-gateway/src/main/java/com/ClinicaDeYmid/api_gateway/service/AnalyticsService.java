@@ -1,42 +1,58 @@
 package com.ClinicaDeYmid.api_gateway.service;
 
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitter;
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterTracker;
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterTracker.Dimension;
 import com.ClinicaDeYmid.api_gateway.dto.AnalyticsResponse;
-import com.ClinicaDeYmid.api_gateway.repository.RequestLogRepository;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketch;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketchRepository;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollupRepository;
+import com.ClinicaDeYmid.api_gateway.repository.RollupStats;
+import org.HdrHistogram.Histogram;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
  * Servicio para generar analytics y estadísticas de las peticiones
+ *
+ * <p>Las estadísticas se calculan sobre los rollups por minuto/hora
+ * ({@link RequestLogRollupRepository}), no sobre {@code request_logs}: el coste depende del
+ * número de buckets del rango y no del volumen de peticiones. Los rankings (usuarios, IPs y
+ * endpoints más activos) salen de los heavy hitters en memoria ({@link HeavyHitterTracker}), sin
+ * consultar la BD. Los percentiles de latencia se calculan fusionando los sketches HdrHistogram
+ * del rango ({@link LatencySketchRepository}).</p>
  */
 @Service
 public class AnalyticsService {
 
-    private final RequestLogRepository requestLogRepository;
+    private final RequestLogRollupRepository rollupRepository;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final LatencySketchRepository latencySketchRepository;
 
-    public AnalyticsService(RequestLogRepository requestLogRepository) {
-        this.requestLogRepository = requestLogRepository;
+    public AnalyticsService(RequestLogRollupRepository rollupRepository,
+                            HeavyHitterTracker heavyHitterTracker,
+                            LatencySketchRepository latencySketchRepository) {
+        this.rollupRepository = rollupRepository;
+        this.heavyHitterTracker = heavyHitterTracker;
+        this.latencySketchRepository = latencySketchRepository;
     }
 
     /**
      * Genera un resumen general de analytics
      */
     public AnalyticsResponse getOverview(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> endpointStats = requestLogRepository.getEndpointStatistics(startDate, endDate);
-        List<Object[]> errorStats = requestLogRepository.getErrorStatistics(startDate, endDate);
-        
-        long totalRequests = endpointStats.stream()
-                .mapToLong(row -> ((Number) row[1]).longValue())
-                .sum();
-        
-        long errorRequests = errorStats.stream()
-                .mapToLong(row -> ((Number) row[1]).longValue())
-                .sum();
-        
+        RollupStats totals = rollupRepository.getTotals(startDate, endDate);
+
+        long totalRequests = totals.requestCount();
+        long errorRequests = totals.errorCount();
         long successfulRequests = totalRequests - errorRequests;
         double errorRate = totalRequests > 0 ? (errorRequests * 100.0 / totalRequests) : 0.0;
 
@@ -46,7 +62,8 @@ public class AnalyticsService {
                 .totalRequests(totalRequests)
                 .successfulRequests(successfulRequests)
                 .errorRequests(errorRequests)
-                .errorRate(Math.round(errorRate * 100.0) / 100.0)
+                .errorRate(round(errorRate))
+                .averageLatencyMs(round(totals.averageLatencyMs()))
                 .build();
     }
 
@@ -54,38 +71,49 @@ public class AnalyticsService {
      * Obtiene estadísticas agrupadas por servicio
      */
     public Map<String, Object> getStatsByService(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> serviceStats = requestLogRepository.getAverageLatencyByService(startDate, endDate);
-        
+        List<RollupStats> serviceStats = rollupRepository.getStatsByService(startDate, endDate);
+        Map<String, long[]> histograms = rollupRepository.getLatencyHistogramByService(startDate, endDate);
+
         Map<String, Object> result = new HashMap<>();
-        for (Object[] row : serviceStats) {
-            String serviceName = (String) row[0];
-            Double avgLatency = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
-            
+        for (RollupStats stats : serviceStats) {
+            String serviceName = stats.key();
+            long[] histogram = histograms.getOrDefault(serviceName, new long[LatencyHistogram.BUCKETS]);
+
             Map<String, Object> serviceData = new HashMap<>();
             serviceData.put("serviceName", serviceName);
-            serviceData.put("averageLatencyMs", Math.round(avgLatency * 100.0) / 100.0);
-            
+            serviceData.put("requestCount", stats.requestCount());
+            serviceData.put("errorCount", stats.errorCount());
+            serviceData.put("averageLatencyMs", round(stats.averageLatencyMs()));
+            serviceData.put("minLatencyMs", stats.latencyMinMs());
+            serviceData.put("maxLatencyMs", stats.latencyMaxMs());
+            serviceData.put("p50LatencyMs", LatencyHistogram.percentile(histogram, 0.50, stats.latencyMaxMs()));
+            serviceData.put("p90LatencyMs", LatencyHistogram.percentile(histogram, 0.90, stats.latencyMaxMs()));
+            serviceData.put("p99LatencyMs", LatencyHistogram.percentile(histogram, 0.99, stats.latencyMaxMs()));
+
             result.put(serviceName, serviceData);
         }
-        
+
         return result;
     }
 
     /**
-     * Obtiene los endpoints más utilizados
+     * Obtiene los endpoints más utilizados (plantilla y método) de los últimos 7 días
      */
     public List<AnalyticsResponse.EndpointStats> getTopEndpoints(int limit) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
-        
-        List<Object[]> stats = requestLogRepository.getEndpointStatistics(startDate, endDate);
-        
-        return stats.stream()
-                .limit(limit)
-                .map(row -> AnalyticsResponse.EndpointStats.builder()
-                        .endpoint((String) row[0])
-                        .requestCount(((Number) row[1]).longValue())
-                        .build())
+        LocalDateTime startDate = endDate.minusDays(7);
+
+        return heavyHitterTracker.top(Dimension.ENDPOINT, startDate, endDate, limit).stream()
+                .map(hitter -> {
+                    // Clave "MÉTODO plantilla"
+                    int separator = hitter.item().indexOf(' ');
+                    return AnalyticsResponse.EndpointStats.builder()
+                            .endpoint(hitter.item().substring(separator + 1))
+                            .method(hitter.item().substring(0, separator))
+                            .requestCount(hitter.hits())
+                            .averageLatencyMs(round(hitter.averageLatencyMs()))
+                            .build();
+                })
                 .collect(Collectors.toList());
     }
 
@@ -93,31 +121,37 @@ public class AnalyticsService {
      * Obtiene estadísticas de errores
      */
     public Map<String, Long> getErrorStatistics(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> errorStats = requestLogRepository.getErrorStatistics(startDate, endDate);
-        
         Map<String, Long> result = new HashMap<>();
-        for (Object[] row : errorStats) {
-            Integer statusCode = (Integer) row[0];
-            Long count = ((Number) row[1]).longValue();
-            result.put("HTTP_" + statusCode, count);
+        for (RollupStats stats : rollupRepository.getErrorsByStatus(startDate, endDate)) {
+            result.put("HTTP_" + stats.key(), stats.requestCount());
         }
-        
+
         return result;
     }
 
     /**
-     * Obtiene latencia promedio por servicio
+     * Obtiene percentiles de latencia por servicio o, si se indica {@code serviceName}, por
+     * plantilla de endpoint de ese servicio
      */
-    public Map<String, Double> getLatencyByService(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> latencyStats = requestLogRepository.getAverageLatencyByService(startDate, endDate);
-        
-        Map<String, Double> result = new HashMap<>();
-        for (Object[] row : latencyStats) {
-            String serviceName = (String) row[0];
-            Double avgLatency = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
-            result.put(serviceName, Math.round(avgLatency * 100.0) / 100.0);
+    public Map<String, AnalyticsResponse.LatencyStats> getLatencyPercentiles(
+            LocalDateTime startDate, LocalDateTime endDate, String serviceName) {
+        Map<String, Histogram> merged = new TreeMap<>();
+        for (LatencySketch sketch : latencySketchRepository.findInRange(startDate, endDate, serviceName)) {
+            String name = serviceName == null ? sketch.serviceName() : sketch.endpoint();
+            merged.computeIfAbsent(name, k -> LatencySketch.newHistogram()).add(sketch.histogram());
         }
-        
+
+        Map<String, AnalyticsResponse.LatencyStats> result = new TreeMap<>();
+        merged.forEach((name, histogram) -> result.put(name, AnalyticsResponse.LatencyStats.builder()
+                .name(name)
+                .requestCount(histogram.getTotalCount())
+                .averageLatencyMs(round(histogram.getMean()))
+                .p50LatencyMs(histogram.getValueAtPercentile(50.0))
+                .p90LatencyMs(histogram.getValueAtPercentile(90.0))
+                .p99LatencyMs(histogram.getValueAtPercentile(99.0))
+                .p999LatencyMs(histogram.getValueAtPercentile(99.9))
+                .maxLatencyMs(histogram.getMaxValue())
+                .build()));
         return result;
     }
 
@@ -125,10 +159,34 @@ public class AnalyticsService {
      * Obtiene los usuarios más activos
      */
     public List<AnalyticsResponse.UserStats> getTopUsers(int limit, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> userLogs = requestLogRepository.getEndpointStatistics(startDate, endDate);
-        
-        // Esta es una implementación simplificada
-        // En producción, deberías crear una query específica en el repositorio
-        return List.of();
+        return heavyHitterTracker.top(Dimension.USER, startDate, endDate, limit).stream()
+                .map(hitter -> AnalyticsResponse.UserStats.builder()
+                        .userId(hitter.item())
+                        .userEmail(hitter.detail())
+                        .requestCount(hitter.hits())
+                        .lastRequest(toLocalDateTime(hitter.lastSeenMillis()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene las IPs con más peticiones
+     */
+    public List<AnalyticsResponse.ClientStats> getTopIps(int limit, LocalDateTime startDate, LocalDateTime endDate) {
+        return heavyHitterTracker.top(Dimension.IP, startDate, endDate, limit).stream()
+                .map(hitter -> AnalyticsResponse.ClientStats.builder()
+                        .ipAddress(hitter.item())
+                        .requestCount(hitter.hits())
+                        .lastRequest(toLocalDateTime(hitter.lastSeenMillis()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
 }
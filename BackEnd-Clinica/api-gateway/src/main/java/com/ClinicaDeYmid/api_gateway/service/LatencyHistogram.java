@@ -0,0 +1,53 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+/**
+ * Histograma de latencia con límites fijos, usado en los rollups de request logs.
+ * Al ser los mismos límites para todas las filas, dos histogramas se combinan sumando
+ * posición a posición.
+ */
+public final class LatencyHistogram {
+
+    /** Límite superior (inclusive) de cada bucket; el último bucket recoge todo lo que excede. */
+    public static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    public static final int BUCKETS = BOUNDS_MS.length + 1;
+
+    private LatencyHistogram() {
+    }
+
+    public static int bucketOf(long latencyMs) {
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            if (latencyMs <= BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS_MS.length;
+    }
+
+    /**
+     * Estima el percentil como el límite superior del bucket donde se alcanza.
+     *
+     * @param counts       conteos por bucket
+     * @param quantile     entre 0 y 1
+     * @param maxLatencyMs latencia máxima observada, usada para el bucket de desbordamiento
+     * @return latencia estimada, o 0 si no hay datos
+     */
+    public static long percentile(long[] counts, double quantile, long maxLatencyMs) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], maxLatencyMs) : maxLatencyMs;
+            }
+        }
+        return maxLatencyMs;
+    }
+}
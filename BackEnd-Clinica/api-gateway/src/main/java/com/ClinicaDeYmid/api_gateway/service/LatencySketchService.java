@@ -0,0 +1,137 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketch;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketchRepository;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Mantiene los sketches de latencia (HdrHistogram) por minuto y por hora de cada servicio y
+ * plantilla de endpoint, a partir de los lotes de request logs.
+ *
+ * <p>Los lotes se acumulan en memoria por minuto; cada {@code flush-interval} los minutos ya
+ * cerrados se suman a los sketches guardados, tanto del minuto como de su hora. Así cada sketch
+ * se reescribe como mucho una vez por minuto y no una vez por lote.</p>
+ */
+@Service
+public class LatencySketchService {
+
+    private static final Logger logger = Logger.getLogger(LatencySketchService.class.getName());
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final Comparator<SketchKey> KEY_ORDER = Comparator
+            .comparing(SketchKey::granularity)
+            .thenComparing(SketchKey::bucketStart)
+            .thenComparing(SketchKey::serviceName)
+            .thenComparing(SketchKey::endpoint);
+
+    private final LatencySketchRepository sketchRepository;
+    private final PathTemplateNormalizer pathTemplateNormalizer;
+    private final Counter failedCounter;
+
+    /** Sketches por minuto pendientes de guardar. */
+    private final Map<SketchKey, Histogram> pending = new ConcurrentHashMap<>();
+
+    public LatencySketchService(LatencySketchRepository sketchRepository,
+                                PathTemplateNormalizer pathTemplateNormalizer,
+                                MeterRegistry meterRegistry) {
+        this.sketchRepository = sketchRepository;
+        this.pathTemplateNormalizer = pathTemplateNormalizer;
+        this.failedCounter = Counter.builder("gateway.request_log.latency_sketch_failed")
+                .description("Volcados de sketches de latencia perdidos por error al guardarlos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra la latencia de cada log en el sketch de su endpoint y en el del servicio completo.
+     */
+    public void record(List<RequestLog> logs) {
+        for (RequestLog log : logs) {
+            String endpoint = pathTemplateNormalizer.normalize(log.getEndpoint());
+            String serviceName = PathTemplateNormalizer.OTHER.equals(endpoint)
+                    ? PathTemplateNormalizer.OTHER
+                    : (log.getServiceName() != null ? log.getServiceName() : UNKNOWN);
+            LocalDateTime minute = Granularity.MINUTE.truncate(log.getTimestamp());
+            long latencyMs = log.getDurationMs() != null ? log.getDurationMs() : 0L;
+
+            add(new SketchKey(Granularity.MINUTE, minute, serviceName, endpoint), latencyMs);
+            add(new SketchKey(Granularity.MINUTE, minute, serviceName, LatencySketch.ALL_ENDPOINTS), latencyMs);
+        }
+    }
+
+    private void add(SketchKey key, long latencyMs) {
+        pending.compute(key, (k, histogram) -> {
+            Histogram target = histogram != null ? histogram : LatencySketch.newHistogram();
+            LatencySketch.recordLatency(target, latencyMs);
+            return target;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.request-log.latency-sketches.flush-interval:15s}")
+    public void flush() {
+        flush(Granularity.MINUTE.truncate(LocalDateTime.now()));
+    }
+
+    @PreDestroy
+    void flushAll() {
+        flush(LocalDateTime.MAX);
+    }
+
+    /**
+     * Guarda los minutos anteriores a {@code before}.
+     */
+    void flush(LocalDateTime before) {
+        Map<SketchKey, Histogram> closed = new TreeMap<>(KEY_ORDER);
+        for (SketchKey key : pending.keySet()) {
+            if (!key.bucketStart().isBefore(before)) {
+                continue;
+            }
+            Histogram histogram = pending.remove(key);
+            if (histogram == null) {
+                continue;
+            }
+            closed.computeIfAbsent(key, k -> LatencySketch.newHistogram()).add(histogram);
+            SketchKey hour = new SketchKey(Granularity.HOUR, Granularity.HOUR.truncate(key.bucketStart()),
+                    key.serviceName(), key.endpoint());
+            closed.computeIfAbsent(hour, k -> LatencySketch.newHistogram()).add(histogram);
+        }
+        if (closed.isEmpty()) {
+            return;
+        }
+
+        // Ordenados por clave (ver LatencySketchRepository#mergeAll)
+        List<LatencySketch> sketches = new ArrayList<>(closed.size());
+        closed.forEach((key, histogram) -> sketches.add(new LatencySketch(
+                key.granularity(), key.bucketStart(), key.serviceName(), key.endpoint(), histogram)));
+        try {
+            sketchRepository.mergeAll(sketches);
+        } catch (Exception e) {
+            failedCounter.increment();
+            logger.warning("Error saving latency sketches (" + sketches.size() + "): " + e.getMessage());
+        }
+    }
+
+    private record SketchKey(
+            Granularity granularity,
+            LocalDateTime bucketStart,
+            String serviceName,
+            String endpoint
+    ) {}
+}
@@ -0,0 +1,170 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartition;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartition.Granularity;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Mantenimiento de las particiones de {@code request_logs}.
+ *
+ * <p>Crea por adelantado las particiones de los próximos {@code create-ahead} periodos (días o
+ * meses según {@code granularity}) y elimina con {@code DROP TABLE} las que quedan enteras fuera
+ * de {@code retention}. Se ejecuta al arrancar y según {@code cron}; con varias instancias del
+ * gateway solo trabaja la que obtiene el advisory lock.</p>
+ *
+ * <p>Cada partición se crea o elimina en su propia transacción: una que falla (p. ej. porque no se
+ * pueden mover sus filas de {@code DEFAULT}) no impide mantener las demás.</p>
+ */
+@Service
+public class RequestLogPartitionService {
+
+    private static final Logger logger = Logger.getLogger(RequestLogPartitionService.class.getName());
+
+    private final RequestLogPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Granularity granularity;
+    private final int createAhead;
+    private final Duration retention;
+
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final AtomicInteger partitionCount = new AtomicInteger();
+
+    public RequestLogPartitionService(
+            RequestLogPartitionRepository partitionRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.request-log.partitions.granularity:DAILY}") Granularity granularity,
+            @Value("${gateway.request-log.partitions.create-ahead:7}") int createAhead,
+            @Value("${gateway.request-log.partitions.retention:90d}") Duration retention
+    ) {
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.granularity = granularity;
+        this.createAhead = createAhead;
+        this.retention = retention;
+
+        this.createdCounter = Counter.builder("gateway.request_log.partitions.created")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("gateway.request_log.partitions.dropped")
+                .description("Particiones eliminadas por retención")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("gateway.request_log.partitions.failed")
+                .description("Operaciones de mantenimiento fallidas")
+                .register(meterRegistry);
+        Gauge.builder("gateway.request_log.partitions", partitionCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${gateway.request-log.partitions.cron:0 10 0 * * *}")
+    public void maintain() {
+        List<RequestLogPartition> existing;
+        try {
+            existing = transactionTemplate.execute(status -> locked(partitionRepository::findAll));
+        } catch (Exception e) {
+            // Se reintenta en la siguiente ejecución; mientras tanto las filas caen en la partición DEFAULT
+            failedCounter.increment();
+            logger.warning("Error en el mantenimiento de particiones de request_logs: " + e.getMessage());
+            return;
+        }
+        if (existing == null) {
+            logger.fine("Mantenimiento de particiones en curso en otra instancia");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int created = apply(missing(granularity, now.toLocalDate(), createAhead, existing), partitionRepository::create);
+        int dropped = apply(expired(existing, now.minus(retention)), partitionRepository::drop);
+
+        createdCounter.increment(created);
+        droppedCounter.increment(dropped);
+        partitionCount.set(existing.size() + created - dropped);
+        if (created > 0 || dropped > 0) {
+            logger.info("🗂️ Particiones de request_logs: " + created + " creadas, " + dropped + " eliminadas");
+        }
+    }
+
+    /**
+     * Aplica {@code action} a cada partición en una transacción propia (DDL y lock juntos).
+     *
+     * @return particiones en las que se aplicó
+     */
+    private int apply(List<RequestLogPartition> partitions, Consumer<RequestLogPartition> action) {
+        int applied = 0;
+        for (RequestLogPartition partition : partitions) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> locked(() -> {
+                    action.accept(partition);
+                    return Boolean.TRUE;
+                }));
+                if (done == null) {
+                    // Otra instancia ha tomado el lock y sigue con el mantenimiento
+                    break;
+                }
+                applied++;
+            } catch (Exception e) {
+                failedCounter.increment();
+                logger.warning("Error en el mantenimiento de la partición " + partition.name() + ": " + e.getMessage());
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Ejecuta {@code work} con el lock de mantenimiento de la transacción en curso.
+     *
+     * @return {@code null} si otra instancia tiene el lock
+     */
+    private <T> T locked(Supplier<T> work) {
+        return partitionRepository.tryLock() ? work.get() : null;
+    }
+
+    /**
+     * Particiones del periodo actual y los {@code createAhead} siguientes que aún no existen.
+     * Se omiten los periodos que solapan con una partición existente (p. ej. la histórica).
+     */
+    static List<RequestLogPartition> missing(Granularity granularity, LocalDate today, int createAhead,
+                                             List<RequestLogPartition> existing) {
+        List<RequestLogPartition> missing = new ArrayList<>();
+        LocalDate start = granularity.start(today);
+        for (int i = 0; i <= createAhead; i++) {
+            RequestLogPartition candidate = granularity.partition(start);
+            if (existing.stream().noneMatch(p -> p.overlaps(candidate.from(), candidate.to()))) {
+                missing.add(candidate);
+            }
+            start = granularity.next(start);
+        }
+        return missing;
+    }
+
+    /**
+     * Particiones cuyas filas son todas anteriores a {@code cutoff}.
+     */
+    static List<RequestLogPartition> expired(List<RequestLogPartition> existing, LocalDateTime cutoff) {
+        return existing.stream()
+                .filter(partition -> partition.endsBefore(cutoff))
+                .toList();
+    }
+}
@@ -0,0 +1,127 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollupRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene los rollups por minuto y por hora a partir de los lotes de request logs.
+ * Cada lote se agrega en memoria y se traduce en un único upsert por combinación
+ * bucket/servicio/plantilla de endpoint/método/estado, en lugar de una escritura por petición.
+ */
+@Service
+public class RequestLogRollupService {
+
+    private static final String UNKNOWN = "unknown";
+    /** Bucket de los logs sin código de estado: la columna de los rollups no admite nulos. */
+    static final int UNKNOWN_STATUS = 0;
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::granularity)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::serviceName)
+            .thenComparing(RollupKey::endpoint)
+            .thenComparing(RollupKey::httpMethod)
+            .thenComparingInt(RollupKey::statusCode);
+
+    private final RequestLogRollupRepository rollupRepository;
+    private final PathTemplateNormalizer pathTemplateNormalizer;
+
+    public RequestLogRollupService(RequestLogRollupRepository rollupRepository,
+                                   PathTemplateNormalizer pathTemplateNormalizer) {
+        this.rollupRepository = rollupRepository;
+        this.pathTemplateNormalizer = pathTemplateNormalizer;
+    }
+
+    /**
+     * Suma un lote de logs a los rollups de ambas granularidades.
+     */
+    public void record(List<RequestLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        rollupRepository.upsertAll(aggregate(logs));
+    }
+
+    /**
+     * Agrega el lote por clave. El resultado sale ordenado por clave (ver
+     * {@link RequestLogRollupRepository#upsertAll}).
+     */
+    List<RequestLogRollup> aggregate(List<RequestLog> logs) {
+        Map<RollupKey, Accumulator> accumulators = new TreeMap<>(KEY_ORDER);
+        for (RequestLog log : logs) {
+            // Plantilla y no ruta concreta: el número de filas por bucket queda acotado
+            String endpoint = pathTemplateNormalizer.normalize(log.getEndpoint());
+            String serviceName = PathTemplateNormalizer.OTHER.equals(endpoint)
+                    ? PathTemplateNormalizer.OTHER
+                    : orUnknown(log.getServiceName());
+            for (Granularity granularity : Granularity.values()) {
+                RollupKey key = new RollupKey(
+                        granularity,
+                        granularity.truncate(log.getTimestamp()),
+                        serviceName,
+                        endpoint,
+                        orUnknown(log.getHttpMethod()),
+                        statusOf(log)
+                );
+                accumulators.computeIfAbsent(key, k -> new Accumulator()).add(log, key.statusCode());
+            }
+        }
+        return accumulators.entrySet().stream()
+                .map(entry -> entry.getValue().toRollup(entry.getKey()))
+                .toList();
+    }
+
+    private static String orUnknown(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    private static int statusOf(RequestLog log) {
+        return log.getStatusCode() != null ? log.getStatusCode() : UNKNOWN_STATUS;
+    }
+
+    private record RollupKey(
+            Granularity granularity,
+            LocalDateTime bucketStart,
+            String serviceName,
+            String endpoint,
+            String httpMethod,
+            int statusCode
+    ) {}
+
+    private static final class Accumulator {
+        private long requestCount;
+        private long errorCount;
+        private long latencySumMs;
+        private long latencyMinMs = Long.MAX_VALUE;
+        private long latencyMaxMs;
+        private final long[] histogram = new long[LatencyHistogram.BUCKETS];
+
+        void add(RequestLog log, int statusCode) {
+            long latencyMs = log.getDurationMs() != null ? log.getDurationMs() : 0L;
+            requestCount++;
+            if (statusCode >= 400) {
+                errorCount++;
+            }
+            latencySumMs += latencyMs;
+            latencyMinMs = Math.min(latencyMinMs, latencyMs);
+            latencyMaxMs = Math.max(latencyMaxMs, latencyMs);
+            histogram[LatencyHistogram.bucketOf(latencyMs)]++;
+        }
+
+        RequestLogRollup toRollup(RollupKey key) {
+            return new RequestLogRollup(key.granularity(), key.bucketStart(), key.serviceName(), key.endpoint(),
+                    key.httpMethod(), key.statusCode(), requestCount, errorCount, latencySumMs,
+                    latencyMinMs, latencyMaxMs, histogram);
+        }
+    }
+}
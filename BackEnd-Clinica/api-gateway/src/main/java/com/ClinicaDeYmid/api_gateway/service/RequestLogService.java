@@ -1,34 +1,101 @@
 package com.ClinicaDeYmid.api_gateway.service;
 
 import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
-import com.ClinicaDeYmid.api_gateway.repository.RequestLogRepository;
-import org.springframework.scheduling.annotation.Async;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogBatchWriter;
+import com.ClinicaDeYmid.batch_writer.BoundedBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * Servicio para gestionar el logging de peticiones
  * Guarda información de todas las peticiones en base de datos para analytics
+ *
+ * <p>{@link #logRequest} solo encola el log en un buffer acotado y vuelve de inmediato; el hilo de
+ * un {@link BoundedBatchWriter} lo vacía en lotes de hasta {@code flush-size} filas, o cada {@code flush-interval} si
+ * no se llena antes. Con el buffer lleno los logs nuevos se descartan y se cuentan en
+ * {@code gateway.request_log.dropped}: perder analítica es preferible a frenar el tráfico.
+ * Al apagar el gateway se escribe lo que quede pendiente. Cada lote alimenta también los rollups
+ * de analytics ({@link RequestLogRollupService}) y los sketches de latencia
+ * ({@link LatencySketchService}).</p>
  */
 @Service
 public class RequestLogService {
 
     private static final Logger logger = Logger.getLogger(RequestLogService.class.getName());
-    private final RequestLogRepository requestLogRepository;
 
-    public RequestLogService(RequestLogRepository requestLogRepository) {
-        this.requestLogRepository = requestLogRepository;
+    private static final int MAX_ENDPOINT_LENGTH = 500;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final RequestLogBatchWriter batchWriter;
+    private final RequestLogRollupService rollupService;
+    private final LatencySketchService latencySketchService;
+    private final BoundedBatchWriter<RequestLog> writer;
+
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter rollupFailedCounter;
+    private final Timer flushTimer;
+
+    public RequestLogService(
+            RequestLogBatchWriter batchWriter,
+            RequestLogRollupService rollupService,
+            LatencySketchService latencySketchService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.request-log.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${gateway.request-log.flush-size:500}") int flushSize,
+            @Value("${gateway.request-log.flush-interval:1s}") Duration flushInterval,
+            @Value("${gateway.request-log.shutdown-timeout:10s}") Duration shutdownTimeout
+    ) {
+        this.batchWriter = batchWriter;
+        this.rollupService = rollupService;
+        this.latencySketchService = latencySketchService;
+        this.writer = new BoundedBatchWriter<>("request-log-writer", bufferCapacity, flushSize, flushInterval,
+                shutdownTimeout, this::flush);
+
+        this.droppedCounter = Counter.builder("gateway.request_log.dropped")
+                .description("Logs descartados por buffer lleno")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("gateway.request_log.written")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("gateway.request_log.failed")
+                .description("Logs perdidos por error al escribir el lote")
+                .register(meterRegistry);
+        this.rollupFailedCounter = Counter.builder("gateway.request_log.rollup_failed")
+                .description("Logs no agregados a los rollups por error al escribirlos")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("gateway.request_log.flush")
+                .register(meterRegistry);
+        Gauge.builder("gateway.request_log.buffered", writer, BoundedBatchWriter::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.stop();
     }
 
     /**
-     * Guarda un log de petición de forma asíncrona
-     * No bloquea la respuesta al cliente
+     * Encola un log de petición sin bloquear la respuesta al cliente
      */
-    @Async
-    @Transactional
     public void logRequest(
             String userId,
             String userEmail,
@@ -41,35 +108,28 @@ public class RequestLogService {
             String serviceName,
             String errorMessage
     ) {
-        try {
-            RequestLog requestLog = RequestLog.builder()
-                    .userId(userId)
-                    .userEmail(userEmail)
-                    .endpoint(endpoint)
-                    .httpMethod(httpMethod)
-                    .statusCode(statusCode)
-                    .timestamp(LocalDateTime.now())
-                    .durationMs(durationMs)
-                    .ipAddress(ipAddress)
-                    .userAgent(userAgent)
-                    .serviceName(serviceName)
-                    .errorMessage(errorMessage)
-                    .build();
-
-            requestLogRepository.save(requestLog);
-
-            logger.fine("Request log saved: " + endpoint + " - " + statusCode);
-        } catch (Exception e) {
-            // No lanzar excepción para no afectar la respuesta
-            logger.warning("Error saving request log: " + e.getMessage());
+        RequestLog requestLog = RequestLog.builder()
+                .userId(userId)
+                .userEmail(userEmail)
+                .endpoint(truncate(endpoint, MAX_ENDPOINT_LENGTH))
+                .httpMethod(httpMethod)
+                .statusCode(statusCode)
+                .timestamp(LocalDateTime.now())
+                .durationMs(durationMs)
+                .ipAddress(ipAddress)
+                .userAgent(truncate(userAgent, MAX_USER_AGENT_LENGTH))
+                .serviceName(serviceName)
+                .errorMessage(truncate(errorMessage, MAX_ERROR_MESSAGE_LENGTH))
+                .build();
+
+        if (!writer.offer(requestLog)) {
+            droppedCounter.increment();
         }
     }
 
     /**
      * Versión simplificada para logging rápido
      */
-    @Async
-    @Transactional
     public void logRequest(
             String userId,
             String endpoint,
@@ -78,10 +138,42 @@ public class RequestLogService {
             Long durationMs,
             String ipAddress
     ) {
-        logRequest(userId, null, endpoint, httpMethod, statusCode, 
+        logRequest(userId, null, endpoint, httpMethod, statusCode,
                   durationMs, ipAddress, null, extractServiceName(endpoint), null);
     }
 
+    private void flush(List<RequestLog> batch) {
+        long start = System.nanoTime();
+        try {
+            batchWriter.insertAll(batch);
+            writtenCounter.increment(batch.size());
+            logger.fine(() -> "Request logs guardados: " + batch.size());
+        } catch (Exception e) {
+            // No reintentar: un lote fallido no debe bloquear los siguientes
+            failedCounter.increment(batch.size());
+            logger.warning("Error saving request logs (" + batch.size() + "): " + e.getMessage());
+        }
+        try {
+            // Los rollups se actualizan aunque falle el detalle: son los que consultan los dashboards
+            rollupService.record(batch);
+        } catch (Exception e) {
+            rollupFailedCounter.increment(batch.size());
+            logger.warning("Error updating request log rollups (" + batch.size() + "): " + e.getMessage());
+        }
+        try {
+            // Solo en memoria: los sketches se guardan por minuto desde LatencySketchService
+            latencySketchService.record(batch);
+        } catch (Exception e) {
+            logger.warning("Error recording latency sketches (" + batch.size() + "): " + e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
     /**
      * Extrae el nombre del servicio desde el endpoint
      */
@@ -4,6 +4,27 @@
 -- Description: Creation of request_logs table and analytics views
 -- =====================================================
 
+CREATE TABLE IF NOT EXISTS request_logs (
+    id            BIGSERIAL PRIMARY KEY,
+    user_id       VARCHAR(100),
+    user_email    VARCHAR(255),
+    endpoint      VARCHAR(500)  NOT NULL,
+    http_method   VARCHAR(10)   NOT NULL,
+    status_code   INTEGER       NOT NULL,
+    timestamp     TIMESTAMP     NOT NULL,
+    duration_ms   BIGINT,
+    ip_address    VARCHAR(50),
+    user_agent    VARCHAR(500),
+    service_name  VARCHAR(100),
+    error_message VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_id ON request_logs(user_id);
+CREATE INDEX IF NOT EXISTS idx_timestamp ON request_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_endpoint ON request_logs(endpoint);
+CREATE INDEX IF NOT EXISTS idx_status ON request_logs(status_code);
+CREATE INDEX IF NOT EXISTS idx_ip_address ON request_logs(ip_address);
+
 -- Crear índices adicionales para mejorar el rendimiento de queries analíticas
 CREATE INDEX IF NOT EXISTS idx_request_logs_service_timestamp 
     ON request_logs(service_name, timestamp DESC);
@@ -0,0 +1,30 @@
+-- =====================================================
+-- API GATEWAY - Request Log Rollups
+-- Version: 1.1
+-- Description: Agregados por minuto y por hora de request_logs para analytics
+-- =====================================================
+
+-- Una fila por (granularidad, inicio del bucket, servicio, endpoint, método, estado).
+-- Se actualizan incrementalmente con INSERT ... ON CONFLICT desde el writer de request logs.
+CREATE TABLE IF NOT EXISTS request_log_rollups (
+    granularity       VARCHAR(6)    NOT NULL,
+    bucket_start      TIMESTAMP     NOT NULL,
+    service_name      VARCHAR(100)  NOT NULL,
+    endpoint          VARCHAR(500)  NOT NULL,
+    http_method       VARCHAR(10)   NOT NULL,
+    status_code       INTEGER       NOT NULL,
+    request_count     BIGINT        NOT NULL,
+    error_count       BIGINT        NOT NULL,
+    latency_sum_ms    BIGINT        NOT NULL,
+    latency_min_ms    BIGINT        NOT NULL,
+    latency_max_ms    BIGINT        NOT NULL,
+    latency_histogram BIGINT[]      NOT NULL,
+    CONSTRAINT pk_request_log_rollups
+        PRIMARY KEY (granularity, bucket_start, service_name, endpoint, http_method, status_code)
+);
+
+CREATE INDEX IF NOT EXISTS idx_request_log_rollups_bucket
+    ON request_log_rollups(granularity, bucket_start);
+
+COMMENT ON TABLE request_log_rollups IS 'Agregados incrementales de request_logs por minuto y por hora';
+COMMENT ON COLUMN request_log_rollups.latency_histogram IS 'Conteos por bucket de latencia (límites en LatencyHistogram.BOUNDS_MS)';
@@ -0,0 +1,142 @@
+-- =====================================================
+-- API GATEWAY - Request Logs particionados
+-- Version: 1.2
+-- Description: request_logs pasa a tabla particionada por rango de timestamp.
+--              Las particiones las crea y elimina RequestLogPartitionService.
+-- =====================================================
+
+-- Las vistas dependen de la tabla: se recrean al final sobre la tabla particionada
+DROP VIEW IF EXISTS v_service_analytics;
+DROP VIEW IF EXISTS v_top_users;
+DROP VIEW IF EXISTS v_top_endpoints;
+
+-- La retención ya no borra filas: se eliminan particiones completas
+DROP FUNCTION IF EXISTS cleanup_old_logs();
+
+-- La tabla actual se conserva como partición histórica
+ALTER TABLE request_logs RENAME TO request_logs_legacy;
+ALTER TABLE request_logs_legacy DROP CONSTRAINT IF EXISTS request_logs_pkey;
+
+-- Secuencia propia, independiente de la tabla antigua (BIGSERIAL o IDENTITY si la creó Hibernate)
+CREATE SEQUENCE request_logs_partitioned_id_seq AS BIGINT;
+SELECT setval('request_logs_partitioned_id_seq',
+              COALESCE((SELECT MAX(id) FROM request_logs_legacy), 0) + 1, false);
+ALTER TABLE request_logs_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE request_logs_legacy ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE request_logs_legacy ALTER COLUMN id SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_user_id;
+DROP INDEX IF EXISTS idx_timestamp;
+DROP INDEX IF EXISTS idx_endpoint;
+DROP INDEX IF EXISTS idx_status;
+DROP INDEX IF EXISTS idx_ip_address;
+DROP INDEX IF EXISTS idx_request_logs_service_timestamp;
+DROP INDEX IF EXISTS idx_request_logs_user_timestamp;
+DROP INDEX IF EXISTS idx_request_logs_status_timestamp;
+
+-- La clave primaria debe incluir la clave de partición
+CREATE TABLE request_logs (
+    id            BIGINT        NOT NULL DEFAULT nextval('request_logs_partitioned_id_seq'),
+    user_id       VARCHAR(100),
+    user_email    VARCHAR(255),
+    endpoint      VARCHAR(500)  NOT NULL,
+    http_method   VARCHAR(10)   NOT NULL,
+    status_code   INTEGER       NOT NULL,
+    timestamp     TIMESTAMP     NOT NULL,
+    duration_ms   BIGINT,
+    ip_address    VARCHAR(50),
+    user_agent    VARCHAR(500),
+    service_name  VARCHAR(100),
+    error_message VARCHAR(1000),
+    CONSTRAINT request_logs_pkey PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE request_logs_partitioned_id_seq OWNED BY request_logs.id;
+
+-- Las filas se insertan en orden de llegada: BRIN sobre timestamp ocupa unas pocas páginas
+-- por partición y basta para acotar rangos de tiempo
+CREATE INDEX idx_request_logs_timestamp_brin
+    ON request_logs USING BRIN (timestamp) WITH (pages_per_range = 32);
+
+-- findByUserIdAndTimestampBetween
+CREATE INDEX idx_request_logs_user_timestamp
+    ON request_logs (user_id, timestamp)
+    WHERE user_id IS NOT NULL;
+
+-- countByIpAddressSince: index-only scan
+CREATE INDEX idx_request_logs_ip_timestamp
+    ON request_logs (ip_address, timestamp);
+
+-- findByEndpointAndTimestampBetween
+CREATE INDEX idx_request_logs_endpoint_timestamp
+    ON request_logs (endpoint, timestamp);
+
+-- getErrorStatistics: solo errores, con el código incluido para no leer la tabla
+CREATE INDEX idx_request_logs_errors_timestamp
+    ON request_logs (timestamp) INCLUDE (status_code)
+    WHERE status_code >= 400;
+
+-- Red de seguridad: filas sin partición (p. ej. si el mantenimiento no ha corrido a tiempo)
+CREATE TABLE request_logs_default PARTITION OF request_logs DEFAULT;
+
+-- Las filas existentes quedan en una partición hasta el inicio de mañana (o hasta la última
+-- fila si hubiera timestamps posteriores); la retención la eliminará cuando caduque entera
+DO $$
+DECLARE
+    upper_bound TIMESTAMP;
+BEGIN
+    IF EXISTS (SELECT 1 FROM request_logs_legacy) THEN
+        SELECT GREATEST(date_trunc('day', LOCALTIMESTAMP) + INTERVAL '1 day',
+                        date_trunc('day', MAX(timestamp)) + INTERVAL '1 day')
+        INTO upper_bound
+        FROM request_logs_legacy;
+
+        EXECUTE format(
+            'ALTER TABLE request_logs ATTACH PARTITION request_logs_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+            upper_bound);
+    ELSE
+        DROP TABLE request_logs_legacy;
+    END IF;
+END $$;
+
+-- Vistas de analytics (mismas definiciones que V1.0)
+CREATE OR REPLACE VIEW v_service_analytics AS
+SELECT
+    service_name,
+    DATE(timestamp) as date,
+    COUNT(*) as total_requests,
+    COUNT(CASE WHEN status_code < 400 THEN 1 END) as successful_requests,
+    COUNT(CASE WHEN status_code >= 400 THEN 1 END) as error_requests,
+    AVG(duration_ms) as avg_duration_ms,
+    PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY duration_ms) as p50_duration_ms,
+    PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY duration_ms) as p90_duration_ms,
+    PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY duration_ms) as p99_duration_ms
+FROM request_logs
+GROUP BY service_name, DATE(timestamp);
+
+CREATE OR REPLACE VIEW v_top_users AS
+SELECT
+    user_id,
+    user_email,
+    COUNT(*) as total_requests,
+    MAX(timestamp) as last_request
+FROM request_logs
+WHERE user_id IS NOT NULL
+GROUP BY user_id, user_email
+ORDER BY total_requests DESC;
+
+CREATE OR REPLACE VIEW v_top_endpoints AS
+SELECT
+    endpoint,
+    http_method,
+    COUNT(*) as request_count,
+    AVG(duration_ms) as avg_duration_ms
+FROM request_logs
+GROUP BY endpoint, http_method
+ORDER BY request_count DESC;
+
+COMMENT ON TABLE request_logs IS 'Logs de peticiones al API Gateway, particionados por rango de timestamp';
+COMMENT ON COLUMN request_logs.user_id IS 'ID del usuario que realizó la petición (null si no autenticado)';
+COMMENT ON COLUMN request_logs.endpoint IS 'Endpoint completo de la petición';
+COMMENT ON COLUMN request_logs.duration_ms IS 'Duración de la petición en milisegundos';
+COMMENT ON COLUMN request_logs.ip_address IS 'Dirección IP del cliente (considerando X-Forwarded-For)';
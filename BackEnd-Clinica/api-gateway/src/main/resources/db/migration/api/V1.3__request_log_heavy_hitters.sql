@@ -0,0 +1,26 @@
+-- =====================================================
+-- API GATEWAY - Heavy hitters
+-- Version: 1.3
+-- Description: Snapshots de los usuarios, IPs y endpoints más activos por bucket de tiempo
+-- =====================================================
+
+-- Una fila por (dimensión, bucket, elemento) seguido por el resumen Space-Saving del gateway.
+-- Cada snapshot reemplaza las filas de su bucket; los buckets fuera de la ventana se eliminan.
+CREATE TABLE IF NOT EXISTS request_log_heavy_hitters (
+    dimension      VARCHAR(10)   NOT NULL,
+    bucket_start   TIMESTAMP     NOT NULL,
+    item           VARCHAR(500)  NOT NULL,
+    detail         VARCHAR(255),
+    hits           BIGINT        NOT NULL,
+    error          BIGINT        NOT NULL,
+    latency_sum_ms BIGINT        NOT NULL,
+    last_seen      TIMESTAMP     NOT NULL,
+    CONSTRAINT pk_request_log_heavy_hitters PRIMARY KEY (dimension, bucket_start, item)
+);
+
+CREATE INDEX IF NOT EXISTS idx_request_log_heavy_hitters_bucket
+    ON request_log_heavy_hitters(bucket_start);
+
+COMMENT ON TABLE request_log_heavy_hitters IS 'Snapshots de heavy hitters (USER, IP, ENDPOINT) por bucket de tiempo';
+COMMENT ON COLUMN request_log_heavy_hitters.hits IS 'Apariciones estimadas (cota superior)';
+COMMENT ON COLUMN request_log_heavy_hitters.error IS 'Sobreestimación máxima de hits';
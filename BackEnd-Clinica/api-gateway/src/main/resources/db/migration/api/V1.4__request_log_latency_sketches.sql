@@ -0,0 +1,26 @@
+-- =====================================================
+-- API GATEWAY - Latency sketches
+-- Version: 1.4
+-- Description: Histogramas HdrHistogram de latencia por minuto y por hora para percentiles
+-- =====================================================
+
+-- Una fila por (granularidad, inicio del bucket, servicio, plantilla de endpoint). El endpoint '*'
+-- agrega todas las rutas del servicio. El gateway fusiona los histogramas (no se suman en SQL).
+CREATE TABLE IF NOT EXISTS request_log_latency_sketches (
+    granularity   VARCHAR(6)    NOT NULL,
+    bucket_start  TIMESTAMP     NOT NULL,
+    service_name  VARCHAR(100)  NOT NULL,
+    endpoint      VARCHAR(500)  NOT NULL,
+    request_count BIGINT        NOT NULL,
+    histogram     BYTEA         NOT NULL,
+    CONSTRAINT pk_request_log_latency_sketches
+        PRIMARY KEY (granularity, bucket_start, service_name, endpoint)
+);
+
+-- Consultas por servicio: solo las filas '*' del rango
+CREATE INDEX IF NOT EXISTS idx_request_log_latency_sketches_services
+    ON request_log_latency_sketches(granularity, bucket_start)
+    WHERE endpoint = '*';
+
+COMMENT ON TABLE request_log_latency_sketches IS 'Sketches de latencia (HdrHistogram comprimido) por minuto y por hora';
+COMMENT ON COLUMN request_log_latency_sketches.histogram IS 'HdrHistogram codificado con encodeIntoCompressedByteBuffer, en milisegundos';
@@ -0,0 +1,17 @@
+-- =====================================================
+-- API GATEWAY - Heavy hitters por instancia
+-- Version: 1.5
+-- Description: Cada instancia del gateway guarda y restaura solo sus propios snapshots
+-- =====================================================
+
+-- Sin la instancia en la clave, dos gateways que escriben el mismo bucket se borran mutuamente
+-- las filas y chocan en la clave primaria. Las filas anteriores quedan con instancia '' y
+-- caducan con la ventana.
+ALTER TABLE request_log_heavy_hitters
+    ADD COLUMN IF NOT EXISTS instance_id VARCHAR(100) NOT NULL DEFAULT '';
+
+ALTER TABLE request_log_heavy_hitters DROP CONSTRAINT IF EXISTS pk_request_log_heavy_hitters;
+ALTER TABLE request_log_heavy_hitters
+    ADD CONSTRAINT pk_request_log_heavy_hitters PRIMARY KEY (instance_id, dimension, bucket_start, item);
+
+COMMENT ON COLUMN request_log_heavy_hitters.instance_id IS 'Instancia del gateway que contó el tráfico (gateway.analytics.heavy-hitters.instance-id)';
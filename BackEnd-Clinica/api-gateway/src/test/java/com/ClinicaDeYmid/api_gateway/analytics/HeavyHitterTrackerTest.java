@@ -0,0 +1,157 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterTracker.Dimension;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.HeavyHitterSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HeavyHitterTrackerTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long T0 = 100 * HOUR;
+
+    @Mock
+    private HeavyHitterSnapshotRepository snapshotRepository;
+
+    @Mock
+    private PathTemplateNormalizer pathTemplateNormalizer;
+
+    private HeavyHitterTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HeavyHitterTracker(snapshotRepository, pathTemplateNormalizer,
+                new HeavyHitterProperties(16, Duration.ofHours(1), Duration.ofDays(7), Duration.ofMinutes(1),
+                        "gateway-1"));
+    }
+
+    @Test
+    void top_ShouldMergeClosedAndCurrentBuckets() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/patients/{id}");
+        tracker.record("u1", "u1@clinica.com", "10.0.0.1", "GET", "/api/v1/patients/1", 10, T0 + 10);
+        tracker.record("u1", null, "10.0.0.1", "GET", "/api/v1/patients/2", 20, T0 + HOUR + 10);
+        tracker.record("u2", "u2@clinica.com", "10.0.0.2", "GET", "/api/v1/patients/3", 30, T0 + 2 * HOUR + 10);
+        tracker.record(null, null, "10.0.0.1", "GET", "/api/v1/patients/4", 40, T0 + 2 * HOUR + 20);
+
+        // Act
+        List<HeavyHitter> users = tracker.top(Dimension.USER, T0, T0 + 3 * HOUR, 10, T0 + 2 * HOUR + 30);
+        List<HeavyHitter> ips = tracker.top(Dimension.IP, T0, T0 + 3 * HOUR, 1, T0 + 2 * HOUR + 30);
+        List<HeavyHitter> endpoints = tracker.top(Dimension.ENDPOINT, T0, T0 + 3 * HOUR, 10, T0 + 2 * HOUR + 30);
+
+        // Assert
+        assertEquals(List.of(
+                new HeavyHitter("u1", "u1@clinica.com", 2, 0, 30, T0 + HOUR + 10),
+                new HeavyHitter("u2", "u2@clinica.com", 1, 0, 30, T0 + 2 * HOUR + 10)
+        ), users);
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", null, 3, 0, 70, T0 + 2 * HOUR + 20)), ips);
+        assertEquals(1, endpoints.size());
+        assertEquals("GET /api/v1/patients/{id}", endpoints.getFirst().item());
+        assertEquals(25.0, endpoints.getFirst().averageLatencyMs());
+    }
+
+    @Test
+    void top_ShouldOnlyIncludeBucketsOverlappingRange() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/auth/login");
+        tracker.record("u1", null, null, "POST", "/api/v1/auth/login", 5, T0 + 10);
+        tracker.record("u2", null, null, "POST", "/api/v1/auth/login", 5, T0 + 3 * HOUR + 10);
+
+        // Act
+        List<HeavyHitter> users = tracker.top(Dimension.USER, T0 + HOUR, T0 + 2 * HOUR, 10, T0 + 4 * HOUR);
+
+        // Assert
+        assertEquals(List.of(), users);
+    }
+
+    @Test
+    void top_ShouldAddSnapshotsOfOtherInstances() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/patients/{id}");
+        tracker.record("u1", "u1@clinica.com", "10.0.0.1", "GET", "/api/v1/patients/1", 10, T0 + 10);
+        when(snapshotRepository.sumOtherInstances("gateway-1", "USER", at(T0), at(T0 + HOUR), 16))
+                .thenReturn(List.of(
+                        new HeavyHitter("u2", "u2@clinica.com", 5, 0, 50, T0 + 20),
+                        new HeavyHitter("u1", null, 2, 0, 40, T0 + 5)));
+
+        // Act
+        List<HeavyHitter> users = tracker.top(Dimension.USER, T0, T0 + HOUR, 10, T0 + 30);
+        tracker.top(Dimension.USER, T0, T0 + HOUR, 10, T0 + 40);
+
+        // Assert
+        assertEquals(List.of(
+                new HeavyHitter("u2", "u2@clinica.com", 5, 0, 50, T0 + 20),
+                new HeavyHitter("u1", "u1@clinica.com", 3, 0, 50, T0 + 10)
+        ), users);
+        verify(snapshotRepository, times(1)).sumOtherInstances(anyString(), anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void top_WhenOtherInstancesCannotBeLoaded_ShouldUseLocalCounts() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/patients/{id}");
+        tracker.record("u1", "u1@clinica.com", "10.0.0.1", "GET", "/api/v1/patients/1", 10, T0 + 10);
+        when(snapshotRepository.sumOtherInstances(anyString(), anyString(), any(), any(), anyInt()))
+                .thenThrow(new IllegalStateException("BD no disponible"));
+
+        // Act
+        List<HeavyHitter> users = tracker.top(Dimension.USER, T0, T0 + HOUR, 10, T0 + 30);
+
+        // Assert
+        assertEquals(List.of(new HeavyHitter("u1", "u1@clinica.com", 1, 0, 10, T0 + 10)), users);
+    }
+
+    @Test
+    void restoreAndSnapshot_ShouldPersistRestoredAndNewCounts() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/auth/login");
+        long now = System.currentTimeMillis();
+        LocalDateTime bucketStart = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+        when(snapshotRepository.findSince(eq("gateway-1"), any())).thenReturn(List.of(new HeavyHitterSnapshotRepository.Row(
+                "USER", bucketStart, new HeavyHitter("u1", "u1@clinica.com", 5, 0, 50, now - 1000))));
+        tracker.record("u1", null, null, "POST", "/api/v1/auth/login", 10, now);
+
+        // Act
+        tracker.restore();
+        tracker.snapshot();
+
+        // Assert
+        verify(snapshotRepository).replace("gateway-1", "USER", bucketStart,
+                List.of(new HeavyHitter("u1", "u1@clinica.com", 6, 0, 60, now)));
+        verify(snapshotRepository).replace(eq("gateway-1"), eq("IP"), eq(bucketStart), eq(List.of()));
+        verify(snapshotRepository).replace(eq("gateway-1"), eq("ENDPOINT"), eq(bucketStart), anyList());
+        verify(snapshotRepository).deleteBefore(any());
+    }
+
+    @Test
+    void snapshot_BeforeRestore_ShouldNotOverwriteStoredBuckets() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenReturn("/api/v1/auth/login");
+        tracker.record("u1", null, null, "POST", "/api/v1/auth/login", 10, System.currentTimeMillis());
+
+        // Act
+        tracker.snapshot();
+
+        // Assert
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ClinicaDeYmid.api_gateway.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSummaryTest {
+
+    @Test
+    void offer_BelowCapacity_ShouldCountExactly() {
+        // Arrange
+        SpaceSavingSummary summary = new SpaceSavingSummary(10);
+
+        // Act
+        summary.offer("a", null, 10, 1);
+        summary.offer("b", null, 20, 2);
+        summary.offer("a", "a@clinica.com", 30, 3);
+
+        // Assert
+        List<HeavyHitter> top = summary.snapshot();
+        assertEquals(new HeavyHitter("a", "a@clinica.com", 2, 0, 40, 3), top.get(0));
+        assertEquals(new HeavyHitter("b", null, 1, 0, 20, 2), top.get(1));
+    }
+
+    @Test
+    void offer_WhenFull_ShouldReplaceMinimumAndInheritItsCountAsError() {
+        // Arrange
+        SpaceSavingSummary summary = new SpaceSavingSummary(2);
+        summary.offer("a", null, 0, 1);
+        summary.offer("a", null, 0, 1);
+        summary.offer("b", null, 0, 1);
+
+        // Act
+        summary.offer("c", null, 5, 2);
+
+        // Assert
+        List<HeavyHitter> top = summary.snapshot();
+        assertEquals(2, summary.size());
+        assertTrue(top.contains(new HeavyHitter("a", null, 2, 0, 0, 1)));
+        assertTrue(top.contains(new HeavyHitter("c", null, 2, 1, 5, 2)));
+    }
+
+    @Test
+    void offer_SkewedStream_ShouldKeepHeavyHitters() {
+        // Arrange
+        SpaceSavingSummary summary = new SpaceSavingSummary(50);
+
+        // Act: 3 elementos frecuentes entre 5000 elementos únicos
+        for (int i = 0; i < 5000; i++) {
+            summary.offer("noise-" + i, null, 0, i);
+            if (i % 10 == 0) {
+                summary.offer("hot-1", null, 0, i);
+                summary.offer("hot-2", null, 0, i);
+            }
+            if (i % 20 == 0) {
+                summary.offer("hot-3", null, 0, i);
+            }
+        }
+
+        // Assert
+        List<String> top3 = summary.snapshot().subList(0, 3).stream().map(HeavyHitter::item).toList();
+        assertTrue(top3.containsAll(List.of("hot-1", "hot-2", "hot-3")));
+        for (HeavyHitter hitter : summary.snapshot()) {
+            if (hitter.item().equals("hot-1")) {
+                assertTrue(hitter.hits() - hitter.error() <= 500 && 500 <= hitter.hits());
+            }
+        }
+    }
+
+    @Test
+    void merge_ShouldAddCountsOfRestoredItems() {
+        // Arrange
+        SpaceSavingSummary summary = new SpaceSavingSummary(5);
+        summary.offer("a", null, 10, 100);
+
+        // Act
+        summary.merge(new HeavyHitter("a", "a@clinica.com", 7, 1, 60, 50));
+
+        // Assert
+        assertEquals(List.of(new HeavyHitter("a", "a@clinica.com", 8, 1, 70, 100)), summary.snapshot());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ClinicaDeYmid.api_gateway.cache;
+
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties.Rule;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties.Scope;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService.CacheRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties properties = new ResponseCacheProperties(true, DataSize.ofMegabytes(1),
+                DataSize.ofBytes(16), List.of(
+                        new Rule("/api/v1/suppliers/doctors/search/**", Duration.ofMinutes(1), Scope.USER, false, Duration.ofSeconds(2), List.of()),
+                        new Rule("/api/v1/suppliers/doctors/search/by-specialty/{id}", Duration.ofMinutes(5), Scope.ROLE, false, Duration.ofSeconds(2), List.of())));
+        cacheService = new ResponseCacheService(properties, meterRegistry);
+    }
+
+    @Test
+    void ruleFor_ShouldPickMostSpecificRule_ForGetOnly() {
+        // Act
+        CacheRule rule = cacheService.ruleFor(
+                MockServerHttpRequest.get("/api/v1/suppliers/doctors/search/by-specialty/3").build());
+
+        // Assert
+        assertNotNull(rule);
+        assertEquals(Scope.ROLE, rule.scope());
+        assertNull(cacheService.ruleFor(
+                MockServerHttpRequest.post("/api/v1/suppliers/doctors/search/by-specialty/3").build()));
+        assertNull(cacheService.ruleFor(MockServerHttpRequest.get("/api/v1/patients").build()));
+    }
+
+    @Test
+    void keyFor_ShouldIgnoreQueryParameterOrder_AndSeparateScopes() {
+        // Act
+        CacheRule rule = cacheService.ruleFor(MockServerHttpRequest.get("/api/v1/suppliers/doctors/search").build());
+        String first = ResponseCacheService.keyFor(rule, "suppliers-service", "role:ADMIN",
+                MockServerHttpRequest.get("/api/v1/suppliers/doctors/search?page=0&size=20").build());
+        String second = ResponseCacheService.keyFor(rule, "suppliers-service", "role:ADMIN",
+                MockServerHttpRequest.get("/api/v1/suppliers/doctors/search?size=20&page=0").build());
+        String otherScope = ResponseCacheService.keyFor(rule, "suppliers-service", "role:DOCTOR",
+                MockServerHttpRequest.get("/api/v1/suppliers/doctors/search?page=0&size=20").build());
+
+        // Assert
+        assertEquals(first, second);
+        assertNotEquals(first, otherScope);
+    }
+
+    @Test
+    void getAndPut_ShouldCountHitsAndMisses_AndRejectOversizedEntries() {
+        // Arrange
+        CacheRule rule = cacheService.ruleFor(
+                MockServerHttpRequest.get("/api/v1/suppliers/doctors/search/by-name").build());
+        CachedResponse small = new CachedResponse("[]".getBytes(), MediaType.APPLICATION_JSON, "\"a\"", rule.ttl());
+        CachedResponse large = new CachedResponse(new byte[17], MediaType.APPLICATION_JSON, "\"b\"", rule.ttl());
+
+        // Act
+        assertNull(cacheService.get(rule, "k1"));
+        assertTrue(cacheService.put("k1", small));
+        assertFalse(cacheService.put("k2", large));
+
+        // Assert
+        assertSame(small, cacheService.get(rule, "k1"));
+        assertNull(cacheService.get(rule, "k2"));
+        assertEquals(1.0, rule.hits().count());
+        assertEquals(2.0, rule.misses().count());
+    }
+
+    @Test
+    void put_ShouldCompleteInFlightCall_EvenWhenRuleDoesNotStore() {
+        // Arrange
+        CachedResponse response = new CachedResponse("[]".getBytes(), MediaType.APPLICATION_JSON, "\"a\"", Duration.ZERO);
+        assertNull(cacheService.joinInFlight("k1"));
+        CompletableFuture<CachedResponse> waiting = cacheService.joinInFlight("k1");
+
+        // Act
+        boolean stored = cacheService.put("k1", response);
+
+        // Assert
+        assertFalse(stored);
+        assertSame(response, waiting.join());
+        assertNull(cacheService.joinInFlight("k1"), "la llamada cerrada deja de estar en curso");
+    }
+
+    @Test
+    void cachedResponse_ShouldMatchIfNoneMatch_WithWeakComparison() {
+        CachedResponse cached = new CachedResponse(new byte[0], null, "\"abc\"", Duration.ofMinutes(1));
+
+        assertTrue(cached.matches(List.of("\"x\"", "W/\"abc\"")));
+        assertTrue(cached.matches(List.of("*")));
+        assertFalse(cached.matches(List.of("\"x\"")));
+        assertFalse(cached.matches(List.of()));
+    }
+}
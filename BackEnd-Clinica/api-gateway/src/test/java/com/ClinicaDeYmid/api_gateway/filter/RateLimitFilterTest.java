@@ -0,0 +1,259 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitProperties;
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitService;
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitService.RateLimitResult;
+import com.ClinicaDeYmid.api_gateway.security.JwtValidatorService;
+import com.ClinicaDeYmid.api_gateway.security.TokenBlacklistServiceGateway;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private GatewayFilterChain filterChain;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = filterTrusting(0);
+    }
+
+    @Test
+    void filter_WhenAllowed_ShouldExposeUserLimitHeaders() {
+        // Arrange
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/ai-assistant/chat")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(AuthenticationFilter.USER_ID_ATTR, "user-1");
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, aiAssistantRoute());
+
+        when(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .thenReturn(Mono.just(new RateLimitResult(true, 1000, 999, 0)));
+        when(rateLimitService.tryConsumeForUser("user-1", "ai-assistant-service"))
+                .thenReturn(Mono.just(new RateLimitResult(true, 20, 7, 0)));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("20", headers.getFirst("X-RateLimit-Limit"));
+        assertEquals("7", headers.getFirst("X-RateLimit-Remaining"));
+        verify(filterChain).filter(exchange);
+    }
+
+    @Test
+    void filter_WithSpoofedUserHeader_ShouldOnlyApplyIpLimit() {
+        // Arrange
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients")
+                .header("X-User-ID", "otro-usuario")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .thenReturn(Mono.just(new RateLimitResult(true, 1000, 999, 0)));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        assertEquals("999", exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        verify(rateLimitService, never()).tryConsumeForUser(any(), any());
+        verify(filterChain).filter(exchange);
+    }
+
+    @Test
+    void filter_WhenIpRejected_ShouldReturn429WithRetryAfter() {
+        // Arrange
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .thenReturn(Mono.just(new RateLimitResult(false, 1000, 0, 12)));
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("12", headers.getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", headers.getFirst("X-RateLimit-Remaining"));
+        verify(rateLimitService, never()).tryConsumeForUser(any(), any());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void filter_WhenRateLimitUnavailable_ShouldContinueWithoutHeaders() {
+        // Arrange
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(rateLimitService.tryConsumeForIp("10.0.0.1")).thenReturn(Mono.just(RateLimitResult.UNLIMITED));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        assertEquals(null, exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        verify(filterChain).filter(exchange);
+    }
+
+    @Test
+    void filter_WithoutTrustedProxies_ShouldIgnoreForwardedFor() {
+        // Arrange
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients")
+                .header("X-Forwarded-For", "198.51.100.1")
+                .header("X-Real-IP", "198.51.100.2")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(rateLimitService.tryConsumeForIp("203.0.113.7")).thenReturn(Mono.just(RateLimitResult.UNLIMITED));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        verify(rateLimitService).tryConsumeForIp("203.0.113.7");
+    }
+
+    @Test
+    void filter_BehindTrustedProxy_ShouldUseHopAddedByTheProxy() {
+        // Arrange: el cliente falsea la primera entrada; el proxy añade la IP real al final
+        rateLimitFilter = filterTrusting(1);
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/patients")
+                .header("X-Forwarded-For", "198.51.100.1, 203.0.113.7")
+                .remoteAddress(new InetSocketAddress("172.18.0.2", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(rateLimitService.tryConsumeForIp("203.0.113.7")).thenReturn(Mono.just(RateLimitResult.UNLIMITED));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        // Assert
+        verify(rateLimitService).tryConsumeForIp("203.0.113.7");
+    }
+
+    @Test
+    void filter_InGatewayChain_ShouldApplyRouteLimitToTheAuthenticatedUser() {
+        // Arrange: AuthenticationFilter como filtro de ruta y RateLimitFilter como global, igual que en el gateway
+        RouteValidator routeValidator = mock(RouteValidator.class);
+        JwtValidatorService jwtValidatorService = mock(JwtValidatorService.class);
+        TokenBlacklistServiceGateway blacklist = mock(TokenBlacklistServiceGateway.class);
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim roleClaim = mock(Claim.class);
+        Claim emailClaim = mock(Claim.class);
+        when(routeValidator.policyFor(any())).thenReturn(RoutePolicy.AUTHENTICATED);
+        when(jwtValidatorService.validateAndDecodeToken("valid.jwt.token")).thenReturn(Mono.just(decodedJWT));
+        when(blacklist.isTokenBlacklisted("valid.jwt.token")).thenReturn(Mono.just(false));
+        when(decodedJWT.getSubject()).thenReturn("user-1");
+        when(decodedJWT.getClaim("role")).thenReturn(roleClaim);
+        when(decodedJWT.getClaim("email")).thenReturn(emailClaim);
+        when(roleClaim.asString()).thenReturn("DOCTOR");
+        when(emailClaim.asString()).thenReturn("user@example.com");
+
+        AuthenticationFilter authenticationFilter =
+                new AuthenticationFilter(routeValidator, jwtValidatorService, blacklist);
+        Route route = Route.async()
+                .id("ai-assistant-service")
+                .uri("lb://ai-assistant-service")
+                .predicate(e -> true)
+                .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                .build();
+        AtomicBoolean routed = new AtomicBoolean();
+        GlobalFilter routing = (exchange, chain) -> {
+            routed.set(true);
+            return Mono.empty();
+        };
+        FilteringWebHandler handler = new FilteringWebHandler(List.of(rateLimitFilter, routing));
+
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/ai-assistant/chat")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer valid.jwt.token")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 52000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+
+        when(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .thenReturn(Mono.just(new RateLimitResult(true, 1000, 999, 0)));
+        when(rateLimitService.tryConsumeForUser("user-1", "ai-assistant-service"))
+                .thenReturn(Mono.just(new RateLimitResult(false, 20, 0, 30)));
+
+        // Act
+        StepVerifier.create(handler.handle(exchange))
+                .verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("30", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(rateLimitService).tryConsumeForUser("user-1", "ai-assistant-service");
+        assertFalse(routed.get());
+    }
+
+    private RateLimitFilter filterTrusting(int trustedProxies) {
+        RateLimitProperties properties = new RateLimitProperties(true, "rate_limit:", 1000, trustedProxies,
+                null, null, Map.of());
+        return new RateLimitFilter(rateLimitService, properties);
+    }
+
+    private static Route aiAssistantRoute() {
+        return Route.async()
+                .id("ai-assistant-service")
+                .uri("lb://ai-assistant-service")
+                .predicate(e -> true)
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties.Rule;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheProperties.Scope;
+import com.ClinicaDeYmid.api_gateway.cache.ResponseCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String PATH = "/api/v1/suppliers/doctors/search/by-specialty/3";
+    private static final String BODY = "[{\"id\":1}]";
+
+    private ResponseCacheCaptureFilter captureFilter;
+    private ResponseCacheFilter lookupFilter;
+    private AtomicInteger downstreamCalls;
+    private AtomicReference<String> forwardedIfNoneMatch;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheService cacheService = new ResponseCacheService(new ResponseCacheProperties(true,
+                DataSize.ofMegabytes(1), DataSize.ofKilobytes(64),
+                List.of(new Rule("/api/v1/suppliers/doctors/search/**", Duration.ofMinutes(5), Scope.ROLE, false, Duration.ofSeconds(2), List.of()))),
+                new SimpleMeterRegistry());
+        captureFilter = new ResponseCacheCaptureFilter(cacheService);
+        lookupFilter = new ResponseCacheFilter(cacheService);
+        downstreamCalls = new AtomicInteger();
+        forwardedIfNoneMatch = new AtomicReference<>();
+    }
+
+    @Test
+    void filter_ShouldServeSecondRequestFromCache() {
+        // Arrange
+        MockServerWebExchange first = authenticated(MockServerHttpRequest.get(PATH), "ADMIN");
+        MockServerWebExchange second = authenticated(MockServerHttpRequest.get(PATH), "ADMIN");
+
+        // Act
+        StepVerifier.create(run(first)).verifyComplete();
+        StepVerifier.create(run(second)).verifyComplete();
+
+        // Assert
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+    }
+
+    @Test
+    void filter_ShouldReturnNotModified_WithoutCallingDownstream() {
+        // Arrange
+        MockServerWebExchange first = authenticated(MockServerHttpRequest.get(PATH), "ADMIN");
+        StepVerifier.create(run(first)).verifyComplete();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = authenticated(
+                MockServerHttpRequest.get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag), "ADMIN");
+
+        // Act
+        StepVerifier.create(run(revalidation)).verifyComplete();
+
+        // Assert
+        assertNotNull(etag);
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ShouldStripConditionalHeaders_AndAnswerNotModifiedOnMiss() {
+        // Arrange: el cliente ya tiene el ETag aunque la caché esté vacía (p. ej. otra instancia)
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                BODY.getBytes(StandardCharsets.UTF_8)) + "\"";
+        MockServerWebExchange exchange = authenticated(
+                MockServerHttpRequest.get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag), "ADMIN");
+
+        // Act
+        StepVerifier.create(run(exchange)).verifyComplete();
+
+        // Assert
+        assertNull(forwardedIfNoneMatch.get());
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ShouldKeepRoleScopesApart_AndSkipUnauthenticatedRequests() {
+        // Arrange
+        MockServerWebExchange admin = authenticated(MockServerHttpRequest.get(PATH), "ADMIN");
+        MockServerWebExchange doctor = authenticated(MockServerHttpRequest.get(PATH), "DOCTOR");
+        MockServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+
+        // Act
+        StepVerifier.create(run(admin)).verifyComplete();
+        StepVerifier.create(run(doctor)).verifyComplete();
+        StepVerifier.create(run(anonymous)).verifyComplete();
+
+        // Assert
+        assertEquals(3, downstreamCalls.get());
+        assertEquals("MISS", doctor.getResponse().getHeaders().getFirst("X-Cache"));
+        assertNull(anonymous.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    @Test
+    void filter_ShouldCoalesceConcurrentIdenticalRequests() {
+        // Arrange
+        ResponseCacheService cacheService = new ResponseCacheService(new ResponseCacheProperties(true,
+                DataSize.ofMegabytes(1), DataSize.ofKilobytes(64),
+                List.of(new Rule("/api/v1/attentions/patient/{id}/active", Duration.ZERO, Scope.ROLE,
+                        true, Duration.ofSeconds(5), List.of()))),
+                new SimpleMeterRegistry());
+        captureFilter = new ResponseCacheCaptureFilter(cacheService);
+        lookupFilter = new ResponseCacheFilter(cacheService);
+        Sinks.Empty<Void> downstreamReleased = Sinks.empty();
+        String path = "/api/v1/attentions/patient/7/active";
+        MockServerWebExchange leader = authenticated(MockServerHttpRequest.get(path), "ADMIN");
+        MockServerWebExchange follower = authenticated(MockServerHttpRequest.get(path), "ADMIN");
+
+        // Act: la segunda petición llega mientras la primera espera al servicio
+        CompletableFuture<Void> leaderResult = run(leader, downstreamReleased.asMono()).toFuture();
+        CompletableFuture<Void> followerResult = run(follower, downstreamReleased.asMono()).toFuture();
+        downstreamReleased.tryEmitEmpty();
+        leaderResult.join();
+        followerResult.join();
+
+        // Assert
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("COALESCED", follower.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+
+        // Sin TTL no queda nada guardado: la siguiente petición vuelve a llamar al servicio
+        StepVerifier.create(run(authenticated(MockServerHttpRequest.get(path), "ADMIN"))).verifyComplete();
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    private static MockServerWebExchange authenticated(MockServerHttpRequest.BaseBuilder<?> request, String role) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(AuthenticationFilter.USER_ID_ATTR, "user-" + role);
+        exchange.getAttributes().put(AuthenticationFilter.USER_ROLE_ATTR, role);
+        return exchange;
+    }
+
+    /**
+     * Cadena captura → consulta → servicio; el servicio escribe en la respuesta que recibe, como
+     * hace {@code NettyWriteResponseFilter} con la respuesta decorada.
+     */
+    private Mono<Void> run(MockServerWebExchange exchange) {
+        return run(exchange, Mono.empty());
+    }
+
+    private Mono<Void> run(MockServerWebExchange exchange, Mono<Void> downstreamLatency) {
+        GatewayFilterChain downstream = ex -> {
+            downstreamCalls.incrementAndGet();
+            forwardedIfNoneMatch.set(ex.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+            ServerHttpResponse response = ex.getResponse();
+            return downstreamLatency.then(Mono.defer(() -> {
+                response.setStatusCode(HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response.writeWith(Mono.just(response.bufferFactory()
+                        .wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+            }));
+        };
+        GatewayFilterChain lookup = ex -> lookupFilter.filter(ex, downstream);
+        return captureFilter.filter(exchange, lookup);
+    }
+}
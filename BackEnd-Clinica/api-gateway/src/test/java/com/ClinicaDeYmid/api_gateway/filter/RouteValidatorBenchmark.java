@@ -0,0 +1,98 @@
+package com.ClinicaDeYmid.api_gateway.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coste de decidir si una petición requiere autenticación.
+ *
+ * <ul>
+ *     <li>{@code legacyIsSecured}: stream sobre las rutas públicas con {@code startsWith} y un log
+ *     INFO por petición, como el {@code RouteValidator} anterior (el log se descarta por nivel para
+ *     medir solo la construcción del mensaje).</li>
+ *     <li>{@code compiledPolicyFor}: tabla compilada con reglas literales, de prefijo y con
+ *     variables, como la configurada en {@code application.yml}.</li>
+ * </ul>
+ *
+ * <p>Ejecutar con: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ClinicaDeYmid.api_gateway.filter.RouteValidatorBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteValidatorBenchmark {
+
+    private static final Logger legacyLogger = Logger.getLogger("legacy-route-validator");
+
+    @Param({"/api/v1/auth/login", "/swagger-ui/index.html", "/api/v1/patients/123/attentions"})
+    public String path;
+
+    private ServerHttpRequest request;
+    private RouteValidator routeValidator;
+
+    @Setup
+    public void setUp() {
+        legacyLogger.setLevel(Level.WARNING);
+        MockEnvironment environment = new MockEnvironment();
+        String[][] rules = {
+                {"/api/v1/auth/login", "PUBLIC"},
+                {"/api/v1/auth/public-key", "PUBLIC"},
+                {"/eureka/**", "PUBLIC"},
+                {"/actuator/health", "PUBLIC"},
+                {"/v3/api-docs/**", "PUBLIC"},
+                {"/swagger-ui/**", "PUBLIC"},
+                {"/api/v1/patients/{id}/history", "ROLE"},
+                {"/api/v1/analytics/**", "ROLE"}
+        };
+        for (int i = 0; i < rules.length; i++) {
+            environment.setProperty("gateway.security.routes[" + i + "].pattern", rules[i][0]);
+            environment.setProperty("gateway.security.routes[" + i + "].access", rules[i][1]);
+            environment.setProperty("gateway.security.routes[" + i + "].roles[0]", "ADMIN");
+        }
+        routeValidator = new RouteValidator(environment);
+        request = MockServerHttpRequest.get(path).build();
+        // RequestPath se calcula una vez por petición; precalentarla deja fuera ese coste
+        request.getPath().pathWithinApplication();
+    }
+
+    @Benchmark
+    public boolean legacyIsSecured() {
+        String requestPath = request.getURI().getPath();
+        legacyLogger.info("Checking if path is secured: " + requestPath);
+        return RouteValidator.openApiEndpoints.stream()
+                .noneMatch(uri -> requestPath.startsWith(uri.replace("/**", "")));
+    }
+
+    @Benchmark
+    public RoutePolicy compiledPolicyFor() {
+        return routeValidator.policyFor(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
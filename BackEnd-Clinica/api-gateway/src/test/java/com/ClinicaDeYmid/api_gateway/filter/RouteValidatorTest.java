@@ -1,8 +1,12 @@
 package com.ClinicaDeYmid.api_gateway.filter;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RouteValidatorTest {
@@ -28,5 +32,65 @@ class RouteValidatorTest {
 
         request = MockServerHttpRequest.get("/api/v1/doctors/123").build();
         assertTrue(routeValidator.isSecured(request));
+
+        // El prefijo de "/eureka/**" no abre rutas hermanas como "/eurekaX"
+        request = MockServerHttpRequest.get("/eurekaX/apps").build();
+        assertTrue(routeValidator.isSecured(request));
+    }
+
+    @Test
+    void policyFor_ShouldApplyConfiguredRules_ByMethodAndSpecificity() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.security.routes[0].pattern", "/api/v1/auth/login")
+                .withProperty("gateway.security.routes[0].access", "PUBLIC")
+                .withProperty("gateway.security.routes[1].pattern", "/api/v1/auth/users/**")
+                .withProperty("gateway.security.routes[1].methods[0]", "DELETE")
+                .withProperty("gateway.security.routes[1].access", "ROLE")
+                .withProperty("gateway.security.routes[1].roles[0]", "ADMIN")
+                .withProperty("gateway.security.routes[2].pattern", "/api/v1/patients/{id}/history")
+                .withProperty("gateway.security.routes[2].access", "ROLE")
+                .withProperty("gateway.security.routes[2].roles[0]", "DOCTOR")
+                .withProperty("gateway.security.routes[3].pattern", "/api/v1/**")
+                .withProperty("gateway.security.routes[3].access", "AUTHENTICATED");
+
+        // Act
+        RouteValidator validator = new RouteValidator(environment);
+
+        // Assert
+        assertTrue(validator.policyFor(MockServerHttpRequest.post("/api/v1/auth/login").build()).isPublic());
+
+        RoutePolicy delete = validator.policyFor(MockServerHttpRequest.delete("/api/v1/auth/users/7").build());
+        assertEquals(RoutePolicy.Access.ROLE, delete.access());
+        assertEquals(Set.of("ADMIN"), delete.roles());
+        assertEquals(RoutePolicy.AUTHENTICATED,
+                validator.policyFor(MockServerHttpRequest.get("/api/v1/auth/users/7").build()));
+
+        RoutePolicy history = validator.policyFor(MockServerHttpRequest.get("/api/v1/patients/42/history").build());
+        assertTrue(history.allows("DOCTOR"));
+        assertFalse(history.allows("NURSE"));
+
+        // Con reglas configuradas, la tabla por defecto deja de aplicar
+        assertEquals(RoutePolicy.AUTHENTICATED,
+                validator.policyFor(MockServerHttpRequest.get("/eureka/apps").build()));
+    }
+
+    @Test
+    void onEnvironmentChange_ShouldRecompileRules() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.security.routes[0].pattern", "/api/v1/auth/login")
+                .withProperty("gateway.security.routes[0].access", "PUBLIC");
+        RouteValidator validator = new RouteValidator(environment);
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/reports/daily").build();
+        assertTrue(validator.isSecured(request));
+
+        // Act
+        environment.setProperty("gateway.security.routes[1].pattern", "/api/v1/reports/**");
+        environment.setProperty("gateway.security.routes[1].access", "PUBLIC");
+        validator.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("gateway.security.routes[1].pattern")));
+
+        // Assert
+        assertFalse(validator.isSecured(request));
     }
 }
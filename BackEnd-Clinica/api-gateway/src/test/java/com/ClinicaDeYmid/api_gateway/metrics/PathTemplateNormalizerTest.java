@@ -0,0 +1,90 @@
+package com.ClinicaDeYmid.api_gateway.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PathTemplateNormalizerTest {
+
+    @Mock
+    private ObjectProvider<GatewayProperties> gatewayPropertiesProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PathTemplateNormalizer newNormalizer(int maxTemplates, List<String> templates) {
+        RouteDefinition patients = new RouteDefinition();
+        patients.setId("patient-service");
+        patients.setPredicates(List.of(new PredicateDefinition("Path=/api/v1/patients/**")));
+        RouteDefinition auth = new RouteDefinition();
+        auth.setId("auth-service");
+        auth.setPredicates(List.of(new PredicateDefinition("Path=/api/v1/auth/**")));
+        GatewayProperties gatewayProperties = new GatewayProperties();
+        gatewayProperties.setRoutes(List.of(patients, auth));
+        when(gatewayPropertiesProvider.getIfAvailable()).thenReturn(gatewayProperties);
+
+        return new PathTemplateNormalizer(new PathTemplateProperties(templates, maxTemplates, 1000),
+                gatewayPropertiesProvider, meterRegistry);
+    }
+
+    @Test
+    void normalize_ShouldReplaceIdentifierSegments() {
+        // Arrange
+        PathTemplateNormalizer normalizer = newNormalizer(100, List.of());
+
+        // Act & Assert
+        assertEquals("/api/v1/patients/{id}", normalizer.normalize("/api/v1/patients/1084567890"));
+        assertEquals("/api/v1/patients/{id}/allergies/{id}/verify",
+                normalizer.normalize("/api/v1/patients/77/allergies/12/verify"));
+        assertEquals("/api/v1/auth/sessions/{id}",
+                normalizer.normalize("/api/v1/auth/sessions/3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+        assertEquals("/api/v1/patients/search", normalizer.normalize("/api/v1/patients/search"));
+    }
+
+    @Test
+    void normalize_ShouldPreferConfiguredTemplates() {
+        // Arrange
+        PathTemplateNormalizer normalizer = newNormalizer(100, List.of("/api/v1/auth/users/email/{email}"));
+
+        // Act & Assert
+        assertEquals("/api/v1/auth/users/email/{email}", normalizer.normalize("/api/v1/auth/users/email/ana@clinica.co"));
+    }
+
+    @Test
+    void normalize_WithPathOutsideGatewayRoutes_ShouldReturnOther() {
+        // Arrange
+        PathTemplateNormalizer normalizer = newNormalizer(100, List.of());
+
+        // Act & Assert
+        assertEquals(PathTemplateNormalizer.OTHER, normalizer.normalize("/wp-admin/setup.php"));
+        assertEquals(PathTemplateNormalizer.OTHER, normalizer.normalize(null));
+    }
+
+    @Test
+    void normalize_WhenCapReached_ShouldFallBackToRoutePatternAndCountOverflow() {
+        // Arrange
+        PathTemplateNormalizer normalizer = newNormalizer(1, List.of());
+
+        // Act
+        String first = normalizer.normalize("/api/v1/patients/1/allergies");
+        String overflow = normalizer.normalize("/api/v1/patients/1/vaccinations");
+        String again = normalizer.normalize("/api/v1/patients/2/allergies");
+
+        // Assert
+        assertEquals("/api/v1/patients/{id}/allergies", first);
+        assertEquals("/api/v1/patients/**", overflow);
+        assertEquals("/api/v1/patients/{id}/allergies", again);
+        assertEquals(1.0, meterRegistry.counter("gateway.metrics.path_overflow").count());
+    }
+}
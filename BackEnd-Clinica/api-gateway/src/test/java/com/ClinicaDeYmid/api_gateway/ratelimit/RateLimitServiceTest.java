@@ -0,0 +1,126 @@
+package com.ClinicaDeYmid.api_gateway.ratelimit;
+
+import com.ClinicaDeYmid.api_gateway.ratelimit.RateLimitService.RateLimitResult;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteAsyncBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private AsyncProxyManager<String> proxyManager;
+
+    @Mock
+    private RemoteAsyncBucketBuilder<String> bucketBuilder;
+
+    @Mock
+    private AsyncBucketProxy bucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties(true, "rate_limit:", 1000, 0,
+                new RateLimitProperties.Limit(1000, Duration.ofMinutes(1)),
+                new RateLimitProperties.Limit(100, Duration.ofMinutes(1)),
+                Map.of("ai-assistant-service", new RateLimitProperties.Limit(20, Duration.ofMinutes(1))));
+        rateLimitService = new RateLimitService(proxyManager, properties, meterRegistry);
+    }
+
+    @Test
+    void tryConsumeForUser_ShouldReturnRemainingTokensFromRedis() {
+        // Arrange
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(eq("rate_limit:user:user-1"), any(BucketConfiguration.class))).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(99, 0)));
+
+        // Act & Assert
+        StepVerifier.create(rateLimitService.tryConsumeForUser("user-1", "patient-service"))
+                .expectNext(new RateLimitResult(true, 100, 99, 0))
+                .verifyComplete();
+    }
+
+    @Test
+    void tryConsumeForUser_ShouldUseRouteSpecificBucketAndLimit() {
+        // Arrange
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(eq("rate_limit:user:user-1:route:ai-assistant-service"), any(BucketConfiguration.class)))
+                .thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(19, 0)));
+
+        // Act & Assert
+        StepVerifier.create(rateLimitService.tryConsumeForUser("user-1", "ai-assistant-service"))
+                .expectNext(new RateLimitResult(true, 20, 19, 0))
+                .verifyComplete();
+    }
+
+    @Test
+    void tryConsumeForIp_WhenRejected_ShouldRoundRetryAfterUpAndSkipRedisWhileExhausted() {
+        // Arrange
+        long nanosToWait = TimeUnit.MILLISECONDS.toNanos(30_500);
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(eq("rate_limit:ip:10.0.0.1"), any(BucketConfiguration.class))).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.rejected(0, nanosToWait, nanosToWait)));
+
+        // Act & Assert
+        StepVerifier.create(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .expectNext(new RateLimitResult(false, 1000, 0, 31))
+                .verifyComplete();
+        StepVerifier.create(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .assertNext(result -> assertEquals(false, result.allowed()))
+                .verifyComplete();
+
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(1);
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimit.decisions", "result", "local_rejected").count());
+    }
+
+    @Test
+    void tryConsumeForIp_WhenRedisFails_ShouldAllowRequest() {
+        // Arrange
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(anyString(), any(BucketConfiguration.class))).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Redis caído")));
+
+        // Act & Assert
+        StepVerifier.create(rateLimitService.tryConsumeForIp("10.0.0.1"))
+                .expectNext(RateLimitResult.UNLIMITED)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimit.decisions", "result", "error").count());
+    }
+
+    @Test
+    void tryConsumeForUser_WithoutUser_ShouldNotTouchRedis() {
+        // Act & Assert
+        StepVerifier.create(rateLimitService.tryConsumeForUser(null, "patient-service"))
+                .expectNext(RateLimitResult.UNLIMITED)
+                .verifyComplete();
+        verifyNoInteractions(proxyManager);
+    }
+}
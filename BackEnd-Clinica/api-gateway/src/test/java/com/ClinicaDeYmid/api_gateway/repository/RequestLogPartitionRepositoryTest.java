@@ -0,0 +1,92 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestLogPartitionRepositoryTest {
+
+    @Test
+    void parse_ShouldReadRangeBounds() {
+        // Act
+        RequestLogPartition partition = RequestLogPartitionRepository.parse("request_logs_p20250110",
+                "FOR VALUES FROM ('2025-01-10 00:00:00') TO ('2025-01-11 00:00:00')");
+
+        // Assert
+        assertEquals(new RequestLogPartition("request_logs_p20250110",
+                LocalDateTime.parse("2025-01-10T00:00"), LocalDateTime.parse("2025-01-11T00:00")), partition);
+    }
+
+    @Test
+    void parse_WithMinValue_ShouldLeaveLowerBoundOpen() {
+        // Act
+        RequestLogPartition partition = RequestLogPartitionRepository.parse("request_logs_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2025-01-11 00:00:00')");
+
+        // Assert
+        assertNull(partition.from());
+        assertEquals(LocalDateTime.parse("2025-01-11T00:00"), partition.to());
+    }
+
+    @Test
+    void parse_DefaultPartition_ShouldBeIgnored() {
+        // Act & Assert
+        assertNull(RequestLogPartitionRepository.parse("request_logs_default", "DEFAULT"));
+    }
+
+    @Test
+    void create_WithoutRowsInDefault_ShouldOnlyCreatePartition() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        RequestLogPartition partition = RequestLogPartition.Granularity.DAILY.partition(LocalDate.parse("2025-01-10"));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(), any()))
+                .thenReturn(false);
+
+        // Act
+        new RequestLogPartitionRepository(jdbcTemplate).create(partition);
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS \"request_logs_p20250110\" PARTITION OF request_logs"
+                + " FOR VALUES FROM ('2025-01-10 00:00:00.0') TO ('2025-01-11 00:00:00.0')");
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE"));
+    }
+
+    @Test
+    void create_WithRowsInDefault_ShouldDetachMoveRowsAndReattach() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        RequestLogPartition partition = RequestLogPartition.Granularity.DAILY.partition(LocalDate.parse("2025-01-10"));
+        Timestamp from = Timestamp.valueOf("2025-01-10 00:00:00");
+        Timestamp to = Timestamp.valueOf("2025-01-11 00:00:00");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq(from), eq(to)))
+                .thenReturn(true);
+
+        // Act
+        new RequestLogPartitionRepository(jdbcTemplate).create(partition);
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE request_logs DETACH PARTITION request_logs_default");
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS \"request_logs_p20250110\""));
+        inOrder.verify(jdbcTemplate).update("INSERT INTO \"request_logs_p20250110\" SELECT * FROM request_logs_default"
+                + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+        inOrder.verify(jdbcTemplate).update("DELETE FROM request_logs_default WHERE timestamp >= ? AND timestamp < ?",
+                from, to);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE request_logs ATTACH PARTITION request_logs_default DEFAULT");
+    }
+}
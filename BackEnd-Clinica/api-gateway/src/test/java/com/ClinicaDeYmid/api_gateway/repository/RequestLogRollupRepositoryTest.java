@@ -0,0 +1,43 @@
+package com.ClinicaDeYmid.api_gateway.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class RequestLogRollupRepositoryTest {
+
+    private static Timestamp ts(String value) {
+        return Timestamp.valueOf(LocalDateTime.parse(value));
+    }
+
+    @Test
+    void window_ShouldUseHoursInsideAndMinutesAtTheEdges() {
+        // Act
+        Object[] params = RequestLogRollupRepository.window(
+                LocalDateTime.parse("2025-01-10T08:45:30"), LocalDateTime.parse("2025-01-10T11:20:00"));
+
+        // Assert
+        assertArrayEquals(new Object[]{
+                ts("2025-01-10T09:00:00"), ts("2025-01-10T11:00:00"),
+                ts("2025-01-10T08:45:00"), ts("2025-01-10T09:00:00"),
+                ts("2025-01-10T11:00:00"), ts("2025-01-10T11:20:00")
+        }, params);
+    }
+
+    @Test
+    void window_WithinSameHour_ShouldOnlyUseMinutes() {
+        // Act
+        Object[] params = RequestLogRollupRepository.window(
+                LocalDateTime.parse("2025-01-10T08:10:00"), LocalDateTime.parse("2025-01-10T08:50:00"));
+
+        // Assert
+        assertArrayEquals(new Object[]{
+                ts("2025-01-10T08:50:00"), ts("2025-01-10T08:50:00"),
+                ts("2025-01-10T08:10:00"), ts("2025-01-10T08:50:00"),
+                ts("2025-01-10T08:50:00"), ts("2025-01-10T08:50:00")
+        }, params);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ClinicaDeYmid.api_gateway.security;
+
+import com.ClinicaDeYmid.api_gateway.dto.PublicKeyResponse;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rendimiento del camino de autenticación del gateway (verificación JWT + blacklist) con
+ * varios hilos concurrentes, como los del event loop de Netty.
+ *
+ * <ul>
+ *     <li>{@code legacyAuthPath}: verificador nuevo por petición y consulta a Redis simulada
+ *     con una latencia de red de 200 µs que bloquea el hilo, como el {@code hasKey} anterior.</li>
+ *     <li>{@code cachedAuthPath}: verificador reutilizado y blacklist resuelta en la caché
+ *     negativa local.</li>
+ * </ul>
+ *
+ * <p>Ejecutar con: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ClinicaDeYmid.api_gateway.security.AuthenticationPathBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AuthenticationPathBenchmark {
+
+    private static final long SIMULATED_REDIS_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private Algorithm algorithm;
+    private String token;
+    private JwtValidatorService jwtValidatorService;
+    private TokenBlacklistServiceGateway blacklistService;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        algorithm = Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), null);
+
+        token = JWT.create()
+                .withSubject("user-uuid")
+                .withIssuer("ClinicaDeYmid")
+                .withClaim("email", "user@clinica.com")
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .sign(Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate()));
+
+        jwtValidatorService = new JwtValidatorService(mock(WebClient.class), Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(jwtValidatorService, "algorithmType", "RS256");
+        jwtValidatorService.updateKeys(new PublicKeyResponse(
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()), "RS256", "RSA", null, null, null));
+
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.hasKey(anyString())).thenReturn(Mono.just(false));
+        blacklistService = new TokenBlacklistServiceGateway(redisTemplate, new SimpleMeterRegistry(),
+                "auth:token-revoked", 100_000, Duration.ofMinutes(10), Duration.ofHours(1));
+        blacklistService.isTokenBlacklisted(token).block();
+    }
+
+    @Benchmark
+    public Object legacyAuthPath() {
+        Object jwt = JWT.require(algorithm)
+                .withIssuer("ClinicaDeYmid")
+                .acceptLeeway(10)
+                .build()
+                .verify(token);
+        simulateBlockingRedisCall();
+        return jwt;
+    }
+
+    @Benchmark
+    public Object cachedAuthPath() {
+        Object jwt = jwtValidatorService.validateAndDecodeToken(token).block();
+        return blacklistService.isTokenBlacklisted(token).block() ? null : jwt;
+    }
+
+    private static void simulateBlockingRedisCall() {
+        long deadline = System.nanoTime() + SIMULATED_REDIS_LATENCY_NANOS;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthenticationPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
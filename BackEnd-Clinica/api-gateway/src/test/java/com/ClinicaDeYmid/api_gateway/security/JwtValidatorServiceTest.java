@@ -0,0 +1,221 @@
+package com.ClinicaDeYmid.api_gateway.security;
+
+import com.ClinicaDeYmid.api_gateway.dto.PublicKeyEntry;
+import com.ClinicaDeYmid.api_gateway.dto.PublicKeyResponse;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtValidatorServiceTest {
+
+    private static final String SECRET = "clave-de-pruebas-de-al-menos-32-caracteres";
+
+    private JwtValidatorService jwtValidatorService;
+
+    @BeforeEach
+    void setUp() {
+        jwtValidatorService = new JwtValidatorService(mock(WebClient.class), Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(jwtValidatorService, "algorithmType", "HS256");
+        ReflectionTestUtils.setField(jwtValidatorService, "hmacSecret", SECRET);
+    }
+
+    @Test
+    void validateAndDecodeToken_ValidToken_ReusesVerifier() {
+        // Arrange
+        String token = token(SECRET, Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        // Act
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(token))
+                .assertNext(jwt -> assertEquals("user-uuid", jwt.getSubject()))
+                .verifyComplete();
+        JWTVerifier first = verifier();
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(token))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Assert
+        assertNotNull(first);
+        assertSame(first, verifier());
+    }
+
+    @Test
+    void validateAndDecodeToken_WrongSignature_ReturnsError() {
+        // Arrange
+        String token = token("otra-clave-de-pruebas-de-32-caracteres-o-mas", Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        // Act & Assert
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(token))
+                .expectErrorMessage("Token inválido o expirado")
+                .verify();
+    }
+
+    @Test
+    void validateAndDecodeToken_ExpiredToken_ReturnsError() {
+        // Arrange
+        String token = token(SECRET, Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        // Act & Assert
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(token))
+                .expectErrorMessage("Token inválido o expirado")
+                .verify();
+    }
+
+    @Test
+    void validateAndDecodeToken_RotatedKeys_SelectsVerifierByKid() throws Exception {
+        // Arrange
+        KeyPair active = rsaKeyPair();
+        KeyPair previous = rsaKeyPair();
+        useRsa(mock(WebClient.class));
+        jwtValidatorService.updateKeys(keySet("v2", entry("kid-2", active), entry("kid-1", previous)));
+
+        // Act & Assert
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken("kid-1", previous)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken("kid-2", active)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken(null, active)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken("kid-1", active)))
+                .expectErrorMessage("Token inválido o expirado")
+                .verify();
+    }
+
+    @Test
+    void validateAndDecodeToken_ColdStart_ConcurrentRequestsShareOneFetch() throws Exception {
+        // Arrange
+        KeyPair keyPair = rsaKeyPair();
+        AtomicInteger fetches = new AtomicInteger();
+        useRsa(authService(fetches, "{\"keyId\":\"kid-1\",\"version\":\"v1\",\"keys\":[{\"keyId\":\"kid-1\",\"publicKey\":\""
+                + encoded(keyPair) + "\",\"algorithm\":\"RS256\",\"keyType\":\"RSA\"}]}"));
+        String token = rsaToken("kid-1", keyPair);
+
+        // Act
+        List<Object> results = Mono.zip(
+                jwtValidatorService.validateAndDecodeToken(token),
+                jwtValidatorService.validateAndDecodeToken(token),
+                jwtValidatorService.validateAndDecodeToken(token)
+        ).map(tuple -> List.<Object>of(tuple.getT1(), tuple.getT2(), tuple.getT3())).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void validateAndDecodeToken_UnknownKidWithinMinInterval_DoesNotFetch() throws Exception {
+        // Arrange
+        KeyPair keyPair = rsaKeyPair();
+        AtomicInteger fetches = new AtomicInteger();
+        useRsa(authService(fetches, "{}"));
+        jwtValidatorService.updateKeys(keySet("v1", entry("kid-1", keyPair)));
+
+        // Act & Assert
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken("kid-inventado", keyPair)))
+                .expectErrorMessage("Token inválido o expirado")
+                .verify();
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    void validateAndDecodeToken_AuthServiceUnavailable_ReportsAuthService() throws Exception {
+        // Arrange
+        WebClient failing = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                .build();
+        useRsa(failing);
+        ReflectionTestUtils.setField(jwtValidatorService, "authServiceUrl", "http://auth-service");
+
+        // Act & Assert
+        StepVerifier.create(jwtValidatorService.validateAndDecodeToken(rsaToken("kid-1", rsaKeyPair())))
+                .expectErrorSatisfies(e -> assertTrue(e.getMessage().contains("auth-service")))
+                .verify(Duration.ofSeconds(15));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JWTVerifier verifier() {
+        return ((AtomicReference<JWTVerifier>) ReflectionTestUtils.getField(jwtValidatorService, "hmacVerifier")).get();
+    }
+
+    private void useRsa(WebClient webClient) {
+        jwtValidatorService = new JwtValidatorService(webClient, Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(jwtValidatorService, "algorithmType", "RS256");
+        ReflectionTestUtils.setField(jwtValidatorService, "authServiceUrl", "http://auth-service");
+    }
+
+    private static WebClient authService(AtomicInteger fetches, String body) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetches.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(100))
+                            .thenReturn(ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(body)
+                                    .build());
+                })
+                .build();
+    }
+
+    private static PublicKeyResponse keySet(String version, PublicKeyEntry... entries) {
+        PublicKeyEntry first = entries[0];
+        return new PublicKeyResponse(first.publicKey(), "RS256", "RSA", first.keyId(), version, List.of(entries));
+    }
+
+    private static PublicKeyEntry entry(String kid, KeyPair keyPair) {
+        return new PublicKeyEntry(kid, encoded(keyPair), "RS256", "RSA");
+    }
+
+    private static String encoded(KeyPair keyPair) {
+        return Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String rsaToken(String kid, KeyPair keyPair) {
+        return JWT.create()
+                .withKeyId(kid)
+                .withSubject("user-uuid")
+                .withIssuer("ClinicaDeYmid")
+                .withExpiresAt(Instant.now().plus(15, ChronoUnit.MINUTES))
+                .sign(Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static String token(String secret, Instant expiration) {
+        return JWT.create()
+                .withSubject("user-uuid")
+                .withIssuer("ClinicaDeYmid")
+                .withClaim("email", "user@clinica.com")
+                .withExpiresAt(expiration)
+                .sign(Algorithm.HMAC256(secret));
+    }
+}
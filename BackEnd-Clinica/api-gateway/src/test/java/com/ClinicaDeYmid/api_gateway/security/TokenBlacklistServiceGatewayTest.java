@@ -0,0 +1,82 @@
+package com.ClinicaDeYmid.api_gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistServiceGatewayTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenBlacklistServiceGateway blacklistService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        blacklistService = new TokenBlacklistServiceGateway(redisTemplate, meterRegistry,
+                "auth:token-revoked", 1000, Duration.ofMinutes(1), Duration.ofHours(1));
+    }
+
+    @Test
+    void isTokenBlacklisted_CleanToken_QueriesRedisOnce() {
+        // Arrange
+        when(redisTemplate.hasKey(DigestUtils.sha256Hex(TOKEN))).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(false).verifyComplete();
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(false).verifyComplete();
+
+        verify(redisTemplate, times(1)).hasKey(anyString());
+        assertLookups("local", 1);
+        assertLookups("redis", 1);
+    }
+
+    @Test
+    void isTokenBlacklisted_RevokedInRedis_IsRememberedLocally() {
+        // Arrange
+        when(redisTemplate.hasKey(DigestUtils.sha256Hex(TOKEN))).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(true).verifyComplete();
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(true).verifyComplete();
+
+        verify(redisTemplate, times(1)).hasKey(anyString());
+    }
+
+    @Test
+    void markRevoked_AfterNegativeCaching_RejectsTokenWithoutRedis() {
+        // Arrange
+        when(redisTemplate.hasKey(DigestUtils.sha256Hex(TOKEN))).thenReturn(Mono.just(false));
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(false).verifyComplete();
+
+        // Act
+        blacklistService.markRevoked(DigestUtils.sha256Hex(TOKEN));
+
+        // Assert
+        StepVerifier.create(blacklistService.isTokenBlacklisted(TOKEN)).expectNext(true).verifyComplete();
+        verify(redisTemplate, times(1)).hasKey(anyString());
+    }
+
+    private void assertLookups(String source, double expected) {
+        double count = meterRegistry.get("gateway.blacklist.lookups").tag("source", source).counter().count();
+        assertEquals(expected, count);
+    }
+}
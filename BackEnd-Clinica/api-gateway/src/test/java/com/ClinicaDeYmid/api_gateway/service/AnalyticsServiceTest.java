@@ -0,0 +1,69 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.analytics.HeavyHitterTracker;
+import com.ClinicaDeYmid.api_gateway.dto.AnalyticsResponse;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketch;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketchRepository;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollupRepository;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock
+    private RequestLogRollupRepository rollupRepository;
+
+    @Mock
+    private HeavyHitterTracker heavyHitterTracker;
+
+    @Mock
+    private LatencySketchRepository latencySketchRepository;
+
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    private static LatencySketch sketch(LocalDateTime bucket, String service, long fromMs, long toMs) {
+        Histogram histogram = LatencySketch.newHistogram();
+        for (long latency = fromMs; latency <= toMs; latency++) {
+            LatencySketch.recordLatency(histogram, latency);
+        }
+        return new LatencySketch(Granularity.HOUR, bucket, service, LatencySketch.ALL_ENDPOINTS, histogram);
+    }
+
+    @Test
+    void getLatencyPercentiles_ShouldMergeSketchesOfTheRangePerService() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 9, 0);
+        LocalDateTime end = start.plusHours(2);
+        when(latencySketchRepository.findInRange(start, end, null)).thenReturn(List.of(
+                sketch(start, "patients", 1, 900),
+                sketch(start.plusHours(1), "patients", 901, 1000),
+                sketch(start, "billing", 50, 50)
+        ));
+
+        // Act
+        Map<String, AnalyticsResponse.LatencyStats> result = analyticsService.getLatencyPercentiles(start, end, null);
+
+        // Assert
+        AnalyticsResponse.LatencyStats patients = result.get("patients");
+        assertEquals(1000, patients.getRequestCount());
+        assertEquals(500, patients.getP50LatencyMs(), 5);
+        assertEquals(990, patients.getP99LatencyMs(), 10);
+        assertEquals(999, patients.getP999LatencyMs(), 10);
+        assertEquals(1, result.get("billing").getRequestCount());
+        assertEquals(50, result.get("billing").getP90LatencyMs(), 1);
+    }
+}
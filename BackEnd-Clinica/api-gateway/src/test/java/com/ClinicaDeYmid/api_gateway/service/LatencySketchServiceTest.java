@@ -0,0 +1,120 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketch;
+import com.ClinicaDeYmid.api_gateway.repository.LatencySketchRepository;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LatencySketchServiceTest {
+
+    @Mock
+    private LatencySketchRepository sketchRepository;
+
+    @Mock
+    private PathTemplateNormalizer pathTemplateNormalizer;
+
+    @Captor
+    private ArgumentCaptor<List<LatencySketch>> sketchesCaptor;
+
+    private LatencySketchService sketchService;
+
+    @BeforeEach
+    void setUp() {
+        sketchService = new LatencySketchService(sketchRepository, pathTemplateNormalizer, new SimpleMeterRegistry());
+    }
+
+    private static RequestLog log(LocalDateTime timestamp, long durationMs) {
+        return RequestLog.builder()
+                .endpoint("/api/v1/patients")
+                .httpMethod("GET")
+                .serviceName("patients")
+                .statusCode(200)
+                .durationMs(durationMs)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @Test
+    void flush_ShouldSaveClosedMinutesAndTheirHourSorted() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenAnswer(returnsFirstArg());
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 15, 0);
+        sketchService.record(List.of(
+                log(base.plusSeconds(5), 10),
+                log(base.plusSeconds(30), 30),
+                log(base.plusMinutes(1), 2000)
+        ));
+
+        // Act
+        sketchService.flush(base.plusMinutes(2));
+
+        // Assert
+        verify(sketchRepository).mergeAll(sketchesCaptor.capture());
+        List<LatencySketch> sketches = sketchesCaptor.getValue();
+        assertEquals(6, sketches.size());
+        assertEquals(List.of(
+                "MINUTE 09:15 *", "MINUTE 09:15 /api/v1/patients",
+                "MINUTE 09:16 *", "MINUTE 09:16 /api/v1/patients",
+                "HOUR 09:00 *", "HOUR 09:00 /api/v1/patients"
+        ), sketches.stream()
+                .map(s -> s.granularity() + " " + s.bucketStart().toLocalTime() + " " + s.endpoint())
+                .toList());
+
+        Histogram hour = sketches.get(4).histogram();
+        assertEquals(3, hour.getTotalCount());
+        assertEquals(2000, hour.getMaxValue(), 2000 * 0.01);
+        assertEquals(2, sketches.getFirst().histogram().getTotalCount());
+    }
+
+    @Test
+    void flush_ShouldKeepCurrentMinutePending() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenAnswer(returnsFirstArg());
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 15, 0);
+        sketchService.record(List.of(log(base.plusSeconds(5), 10)));
+
+        // Act
+        sketchService.flush(base);
+        sketchService.flush(base.plusMinutes(1));
+
+        // Assert
+        verify(sketchRepository, times(1)).mergeAll(anyList());
+    }
+
+    @Test
+    void encode_ShouldRoundTripHistogram() {
+        // Arrange
+        Histogram histogram = LatencySketch.newHistogram();
+        for (long latency = 1; latency <= 1000; latency++) {
+            LatencySketch.recordLatency(histogram, latency);
+        }
+        LatencySketch.recordLatency(histogram, Long.MAX_VALUE);
+
+        // Act
+        Histogram decoded = LatencySketch.decode(LatencySketch.encode(histogram));
+
+        // Assert
+        assertEquals(histogram, decoded);
+        assertEquals(990, decoded.getValueAtPercentile(99.0), 990 * 0.01);
+        assertEquals(LatencySketch.HIGHEST_TRACKABLE_MS, decoded.getMaxValue(), LatencySketch.HIGHEST_TRACKABLE_MS * 0.01);
+    }
+}
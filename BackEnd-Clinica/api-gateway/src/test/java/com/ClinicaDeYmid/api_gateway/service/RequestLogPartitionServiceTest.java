@@ -0,0 +1,111 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartition;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartition.Granularity;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogPartitionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestLogPartitionServiceTest {
+
+    private static LocalDateTime at(String value) {
+        return LocalDateTime.parse(value);
+    }
+
+    @Test
+    void missing_Daily_ShouldCreateTodayAndAheadSkippingExisting() {
+        // Arrange
+        List<RequestLogPartition> existing = List.of(Granularity.DAILY.partition(LocalDate.parse("2025-01-11")));
+
+        // Act
+        List<RequestLogPartition> missing = RequestLogPartitionService.missing(
+                Granularity.DAILY, LocalDate.parse("2025-01-10"), 2, existing);
+
+        // Assert
+        assertEquals(List.of(
+                new RequestLogPartition("request_logs_p20250110", at("2025-01-10T00:00"), at("2025-01-11T00:00")),
+                new RequestLogPartition("request_logs_p20250112", at("2025-01-12T00:00"), at("2025-01-13T00:00"))
+        ), missing);
+    }
+
+    @Test
+    void missing_Monthly_ShouldAlignToFirstDayOfMonth() {
+        // Act
+        List<RequestLogPartition> missing = RequestLogPartitionService.missing(
+                Granularity.MONTHLY, LocalDate.parse("2025-01-20"), 1, List.of());
+
+        // Assert
+        assertEquals(List.of(
+                new RequestLogPartition("request_logs_p202501", at("2025-01-01T00:00"), at("2025-02-01T00:00")),
+                new RequestLogPartition("request_logs_p202502", at("2025-02-01T00:00"), at("2025-03-01T00:00"))
+        ), missing);
+    }
+
+    @Test
+    void missing_ShouldSkipPeriodsCoveredByLegacyPartition() {
+        // Arrange
+        List<RequestLogPartition> existing = List.of(
+                new RequestLogPartition("request_logs_legacy", null, at("2025-01-11T00:00")));
+
+        // Act
+        List<RequestLogPartition> missing = RequestLogPartitionService.missing(
+                Granularity.DAILY, LocalDate.parse("2025-01-10"), 1, existing);
+
+        // Assert
+        assertEquals(List.of("request_logs_p20250111"), missing.stream().map(RequestLogPartition::name).toList());
+    }
+
+    @Test
+    void expired_ShouldOnlyDropPartitionsEntirelyBeforeCutoff() {
+        // Arrange
+        RequestLogPartition legacy = new RequestLogPartition("request_logs_legacy", null, at("2025-01-01T00:00"));
+        RequestLogPartition old = Granularity.DAILY.partition(LocalDate.parse("2025-01-09"));
+        RequestLogPartition straddling = Granularity.DAILY.partition(LocalDate.parse("2025-01-10"));
+        RequestLogPartition recent = Granularity.DAILY.partition(LocalDate.parse("2025-01-11"));
+
+        // Act
+        List<RequestLogPartition> expired = RequestLogPartitionService.expired(
+                List.of(legacy, old, straddling, recent), at("2025-01-10T12:00"));
+
+        // Assert
+        assertEquals(List.of(legacy, old), expired);
+    }
+
+    @Test
+    void maintain_WhenOnePartitionFails_ShouldStillCreateTheOthers() {
+        // Arrange: la partición de hoy no se puede crear, la de mañana sí
+        RequestLogPartitionRepository repository = mock(RequestLogPartitionRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestLogPartition today = Granularity.DAILY.partition(LocalDate.now());
+        when(repository.tryLock()).thenReturn(true);
+        when(repository.findAll()).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("updated partition constraint for default partition would be violated"))
+                .when(repository).create(today);
+        RequestLogPartitionService service = new RequestLogPartitionService(repository, transactionManager,
+                meterRegistry, Granularity.DAILY, 1, Duration.ofDays(90));
+
+        // Act
+        service.maintain();
+
+        // Assert
+        verify(repository).create(Granularity.DAILY.partition(LocalDate.now().plusDays(1)));
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("gateway.request_log.partitions.created").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.request_log.partitions.failed").counter().count());
+    }
+}
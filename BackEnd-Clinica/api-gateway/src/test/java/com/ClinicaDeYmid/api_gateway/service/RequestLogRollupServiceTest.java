@@ -0,0 +1,153 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import com.ClinicaDeYmid.api_gateway.metrics.PathTemplateNormalizer;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollup.Granularity;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestLogRollupServiceTest {
+
+    @Mock
+    private RequestLogRollupRepository rollupRepository;
+
+    @Mock
+    private PathTemplateNormalizer pathTemplateNormalizer;
+
+    @InjectMocks
+    private RequestLogRollupService rollupService;
+
+    private static RequestLog log(LocalDateTime timestamp, int status, long durationMs) {
+        return RequestLog.builder()
+                .endpoint("/api/v1/patients")
+                .httpMethod("GET")
+                .serviceName("patients")
+                .statusCode(status)
+                .durationMs(durationMs)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @Test
+    void aggregate_ShouldMergeLogsPerBucketAndKey() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenAnswer(returnsFirstArg());
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 15, 0);
+        List<RequestLog> logs = List.of(
+                log(base.plusSeconds(5), 200, 4),
+                log(base.plusSeconds(40), 200, 120),
+                log(base.plusMinutes(1), 200, 30),
+                log(base.plusSeconds(50), 503, 6000)
+        );
+
+        // Act
+        List<RequestLogRollup> rollups = rollupService.aggregate(logs);
+
+        // Assert: 2 minutos x 200 + 1 minuto x 503, y 1 hora x cada estado
+        assertEquals(5, rollups.size());
+
+        RequestLogRollup minute = rollups.get(0);
+        assertEquals(Granularity.MINUTE, minute.granularity());
+        assertEquals(base, minute.bucketStart());
+        assertEquals(200, minute.statusCode());
+        assertEquals(2, minute.requestCount());
+        assertEquals(124, minute.latencySumMs());
+        assertEquals(4, minute.latencyMinMs());
+        assertEquals(120, minute.latencyMaxMs());
+
+        RequestLogRollup hourOk = rollups.get(3);
+        assertEquals(Granularity.HOUR, hourOk.granularity());
+        assertEquals(base.withMinute(0), hourOk.bucketStart());
+        assertEquals(3, hourOk.requestCount());
+        assertEquals(0, hourOk.errorCount());
+
+        RequestLogRollup hourError = rollups.get(4);
+        assertEquals(503, hourError.statusCode());
+        assertEquals(1, hourError.errorCount());
+        assertEquals(1, hourError.latencyHistogram()[LatencyHistogram.BUCKETS - 2]);
+    }
+
+    @Test
+    void aggregate_WithUnknownRoute_ShouldGroupUnderOther() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize("/wp-admin/setup.php")).thenReturn(PathTemplateNormalizer.OTHER);
+        RequestLog scan = RequestLog.builder()
+                .endpoint("/wp-admin/setup.php")
+                .httpMethod("GET")
+                .serviceName("setup.php")
+                .statusCode(404)
+                .durationMs(1L)
+                .timestamp(LocalDateTime.of(2025, 1, 10, 9, 15, 0))
+                .build();
+
+        // Act
+        List<RequestLogRollup> rollups = rollupService.aggregate(List.of(scan));
+
+        // Assert
+        assertEquals(PathTemplateNormalizer.OTHER, rollups.get(0).endpoint());
+        assertEquals(PathTemplateNormalizer.OTHER, rollups.get(0).serviceName());
+    }
+
+    @Test
+    void aggregate_WithoutStatusCode_ShouldGroupUnderUnknownStatus() {
+        // Arrange
+        when(pathTemplateNormalizer.normalize(anyString())).thenAnswer(returnsFirstArg());
+        RequestLog withoutStatus = RequestLog.builder()
+                .endpoint("/api/v1/patients")
+                .httpMethod("GET")
+                .serviceName("patients")
+                .durationMs(8L)
+                .timestamp(LocalDateTime.of(2025, 1, 10, 9, 15, 0))
+                .build();
+
+        // Act
+        List<RequestLogRollup> rollups = rollupService.aggregate(List.of(withoutStatus));
+
+        // Assert
+        assertEquals(2, rollups.size());
+        assertEquals(RequestLogRollupService.UNKNOWN_STATUS, rollups.get(0).statusCode());
+        assertEquals(1, rollups.get(0).requestCount());
+        assertEquals(0, rollups.get(0).errorCount());
+    }
+
+    @Test
+    void record_WithEmptyBatch_ShouldNotTouchRepository() {
+        // Act
+        rollupService.record(List.of());
+
+        // Assert
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void percentile_ShouldUseBucketUpperBoundsAndMaxForOverflow() {
+        // Arrange: 90 peticiones <= 50ms, 9 <= 500ms, 1 de 12s
+        long[] histogram = new long[LatencyHistogram.BUCKETS];
+        histogram[LatencyHistogram.bucketOf(40)] = 90;
+        histogram[LatencyHistogram.bucketOf(400)] = 9;
+        histogram[LatencyHistogram.bucketOf(12_000)] = 1;
+
+        // Act & Assert
+        assertEquals(50, LatencyHistogram.percentile(histogram, 0.50, 12_000));
+        assertEquals(500, LatencyHistogram.percentile(histogram, 0.99, 12_000));
+        assertEquals(12_000, LatencyHistogram.percentile(histogram, 1.0, 12_000));
+        assertEquals(0, LatencyHistogram.percentile(new long[LatencyHistogram.BUCKETS], 0.5, 0));
+        assertArrayEquals(new long[]{5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000}, LatencyHistogram.BOUNDS_MS);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ClinicaDeYmid.api_gateway.service;
+
+import com.ClinicaDeYmid.api_gateway.entity.RequestLog;
+import com.ClinicaDeYmid.api_gateway.repository.RequestLogBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestLogServiceTest {
+
+    @Mock
+    private RequestLogBatchWriter batchWriter;
+
+    @Mock
+    private RequestLogRollupService rollupService;
+
+    @Mock
+    private LatencySketchService latencySketchService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RequestLogService newService(int capacity, int flushSize, Duration flushInterval) {
+        return new RequestLogService(batchWriter, rollupService, latencySketchService, meterRegistry, capacity, flushSize, flushInterval, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void logRequest_ShouldWriteInBatchesOfFlushSize() {
+        // Arrange
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> batchSizes.add(invocation.<List<RequestLog>>getArgument(0).size()))
+                .when(batchWriter).insertAll(anyList());
+        RequestLogService service = newService(100, 10, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            service.logRequest("user-" + i, "/api/v1/patients/" + i, "GET", 200, 5L, "10.0.0.1");
+        }
+        service.start();
+        service.stop();
+
+        // Assert
+        assertEquals(List.of(10, 10, 5), batchSizes);
+        assertEquals(25.0, meterRegistry.counter("gateway.request_log.written").count());
+    }
+
+    @Test
+    void logRequest_WhenBufferFull_ShouldDropAndCount() {
+        // Arrange
+        RequestLogService service = newService(2, 10, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            service.logRequest("user", "/api/v1/patients", "GET", 200, 5L, "10.0.0.1");
+        }
+
+        // Assert
+        assertEquals(3.0, meterRegistry.counter("gateway.request_log.dropped").count());
+        verifyNoInteractions(batchWriter, rollupService);
+    }
+
+    @Test
+    void logRequest_ShouldFlushPartialBatchAfterIntervalAndTruncateLongFields() {
+        // Arrange
+        List<RequestLog> written = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(batchWriter).insertAll(anyList());
+        RequestLogService service = newService(100, 500, Duration.ofMillis(50));
+        service.start();
+
+        // Act
+        service.logRequest("user", null, "/api/v1/patients", "GET", 500, 5L, "10.0.0.1",
+                "agent", "patients", "x".repeat(2000));
+
+        // Assert
+        verify(batchWriter, timeout(2000)).insertAll(anyList());
+        service.stop();
+        assertEquals(1, written.size());
+        assertEquals(1000, written.get(0).getErrorMessage().length());
+    }
+
+    @Test
+    void flush_WhenWriterFails_ShouldCountFailedAndKeepDraining() {
+        // Arrange
+        doThrow(new IllegalStateException("db caída")).when(batchWriter).insertAll(anyList());
+        RequestLogService service = newService(100, 2, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            service.logRequest("user", "/api/v1/patients", "GET", 200, 5L, "10.0.0.1");
+        }
+        service.start();
+        service.stop();
+
+        // Assert
+        verify(batchWriter, times(2)).insertAll(anyList());
+        verify(rollupService, times(2)).record(anyList());
+        assertEquals(4.0, meterRegistry.counter("gateway.request_log.failed").count());
+    }
+}
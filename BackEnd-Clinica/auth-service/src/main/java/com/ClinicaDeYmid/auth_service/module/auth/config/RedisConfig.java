@@ -1,5 +1,9 @@
 package com.ClinicaDeYmid.auth_service.module.auth.config;
 
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
+import com.ClinicaDeYmid.cache_starter.config.CacheStarterAutoConfiguration;
+import com.ClinicaDeYmid.cache_starter.config.NearCacheProperties;
+import com.ClinicaDeYmid.cache_starter.near.TwoLevelCacheManager;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,24 +14,24 @@ import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
-
 @Slf4j
 @Configuration
 public class RedisConfig {
 
-    @Bean
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
-        log.info("🔧 Configurando Redis Cache Manager para auth-service");
-
+    /**
+     * El CacheManager de dos niveles lo configura el cache-starter ({@code cache.redis}); aquí sólo
+     * se fija el serializador JSON que auth-service usa en lugar del codec de snapshots.
+     */
+    @Bean(name = CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER)
+    public RedisSerializer<Object> cacheValueSerializer() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new ParameterNamesModule());
         mapper.registerModule(new Jdk8Module());
@@ -35,26 +39,26 @@ public class RedisConfig {
         mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         mapper.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
 
-        log.info("✅ Módulos Jackson registrados: ParameterNamesModule, Jdk8Module, JavaTimeModule");
-
-        RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30)) // ✅ Cambiado de 2 segundos a 30 minutos (más razonable)
-                .disableCachingNullValues()
-                .serializeKeysWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new StringRedisSerializer()))
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair
-                                .fromSerializer(new GenericJackson2JsonRedisSerializer(mapper))
-                );
-
-        log.info("✅ Redis Cache Manager configurado (TTL: 30 minutos)");
+    /**
+     * Escucha las invalidaciones publicadas por otras instancias para mantener L1 y la caché de
+     * principales coherentes. Sustituye al contenedor del cache-starter para suscribir también
+     * {@link PrincipalCache} en la misma conexión.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager,
+            NearCacheProperties nearCacheProperties,
+            PrincipalCache principalCache) {
 
-        return RedisCacheManager
-                .builder(connectionFactory)
-                .cacheDefaults(redisCacheConfiguration)
-                .build();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(nearCacheProperties.channel()));
+        container.addMessageListener(principalCache, new ChannelTopic(principalCache.getChannel()));
+        return container;
     }
 
     @Bean
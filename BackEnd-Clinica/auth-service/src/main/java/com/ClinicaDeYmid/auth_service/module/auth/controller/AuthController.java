@@ -4,6 +4,7 @@ import com.ClinicaDeYmid.auth_service.module.auth.dto.LoginRequest;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.PublicKeyResponse;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRequest;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.TokenPair;
+import com.ClinicaDeYmid.auth_service.module.auth.security.ClientIpResolver;
 import com.ClinicaDeYmid.auth_service.module.auth.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -25,12 +26,13 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final ClientIpResolver clientIpResolver;
 
     @PostMapping("/login")
     @Operation(summary = "Login", description = "Autentica un usuario y retorna tokens")
     public ResponseEntity<TokenPair> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
 
-        String ipAddress = getClientIp(request);
+        String ipAddress = clientIpResolver.resolve(request);
         String userAgent = request.getHeader("User-Agent");
 
         TokenPair tokenPair = authService.login(loginRequest, ipAddress, userAgent);
@@ -41,7 +43,7 @@ public class AuthController {
     @Operation(summary = "Refresh token", description = "Renueva los tokens usando un refresh token válido")
     public ResponseEntity<TokenPair> refresh(@Valid @RequestBody RefreshTokenRequest refreshRequest, HttpServletRequest request) {
 
-        String ipAddress = getClientIp(request);
+        String ipAddress = clientIpResolver.resolve(request);
         String userAgent = request.getHeader("User-Agent");
 
         TokenPair tokenPair = authService.refresh(refreshRequest, ipAddress, userAgent);
@@ -53,7 +55,7 @@ public class AuthController {
     @Operation(summary = "Logout", description = "Cierra la sesión actual")
     public ResponseEntity<Map<String, String>> logout(@RequestHeader("Authorization") String authHeader, HttpServletRequest request) {
 
-        String ipAddress = getClientIp(request);
+        String ipAddress = clientIpResolver.resolve(request);
         String userAgent = request.getHeader("User-Agent");
 
         authService.logout(authHeader, ipAddress, userAgent);
@@ -77,19 +79,4 @@ public class AuthController {
         PublicKeyResponse publicKey = authService.getPublicKey();
         return ResponseEntity.ok(publicKey);
     }
-
-    // Método helper para obtener IP del cliente
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
 }
\ No newline at end of file
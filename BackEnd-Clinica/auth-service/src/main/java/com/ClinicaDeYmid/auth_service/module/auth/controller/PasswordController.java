@@ -2,6 +2,7 @@ package com.ClinicaDeYmid.auth_service.module.auth.controller;
 
 import com.ClinicaDeYmid.auth_service.module.auth.dto.PasswordChangeDTO;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.PasswordPolicyInfoDTO;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.auth.service.PasswordPolicyService;
 import com.ClinicaDeYmid.auth_service.module.auth.service.TokenHelper;
 import com.ClinicaDeYmid.auth_service.module.auth.service.TokenService;
@@ -38,6 +39,7 @@ public class PasswordController {
     private final TokenService tokenService;
     private final TokenHelper tokenHelper;
     private final AuditLogService auditLogService;
+    private final PrincipalCache principalCache;
 
     @GetMapping("/policy")
     @Operation(summary = "Obtener políticas de contraseña", description = "Retorna las reglas configuradas para contraseñas")
@@ -103,6 +105,7 @@ public class PasswordController {
         user.setPassword(passwordEncoder.encode(request.newPassword()));
         userRepository.updateLastPasswordChange(user.getId(), LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getUuid());
 
         // Auditar
         auditLogService.logPasswordChanged(user);
@@ -1,7 +1,7 @@
 package com.ClinicaDeYmid.auth_service.module.auth.controller;
 
 import com.ClinicaDeYmid.auth_service.module.auth.dto.ActiveSessionDTO;
-import com.ClinicaDeYmid.auth_service.module.auth.entity.RefreshToken;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
 import com.ClinicaDeYmid.auth_service.module.auth.service.RefreshTokenService;
 import com.ClinicaDeYmid.auth_service.module.auth.service.TokenHelper;
 import com.ClinicaDeYmid.auth_service.module.auth.service.TokenService;
@@ -41,15 +41,15 @@ public class SessionController {
         String userUuid = tokenService.getSubject(token);
         User user = userRepository.findByUuid(userUuid).orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
 
-        List<RefreshToken> activeSessions = refreshTokenService.getUserActiveSessions(user);
+        List<RefreshSession> activeSessions = refreshTokenService.getUserActiveSessions(user);
 
         List<ActiveSessionDTO> sessionDTOs = activeSessions.stream()
                 .map(session -> new ActiveSessionDTO(
-                        session.getId(),
-                        session.getIpAddress(),
-                        session.getUserAgent(),
-                        session.getCreatedAt(),
-                        session.getExpiresAt(),
+                        session.id(),
+                        session.ipAddress(),
+                        session.userAgent(),
+                        session.createdAt(),
+                        session.expiresAt(),
                         false
                 ))
                 .toList();
@@ -66,14 +66,14 @@ public class SessionController {
         User user = userRepository.findByUuid(userUuid)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
 
-        long count = refreshTokenService.getUserActiveSessions(user).size();
+        long count = refreshTokenService.countActiveSessions(user);
 
         return ResponseEntity.ok(Map.of("activeSessionsCount", count));
     }
 
     @DeleteMapping("/{sessionId}")
     @Operation(summary = "Cerrar sesión específica", description = "Revoca una sesión específica por su ID")
-    public ResponseEntity<Map<String, String>> revokeSession(@PathVariable Long sessionId, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, String>> revokeSession(@PathVariable String sessionId, @RequestHeader("Authorization") String authHeader) {
 
         log.info("Revocando sesión ID: {}", sessionId);
 
@@ -81,14 +81,10 @@ public class SessionController {
         String userUuid = tokenService.getSubject(token);
         User user = userRepository.findByUuid(userUuid).orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
 
-        // Verificar que la sesión pertenece al usuario
-        List<RefreshToken> userSessions = refreshTokenService.getUserActiveSessions(user);
-        RefreshToken sessionToRevoke = userSessions.stream()
-                .filter(s -> s.getId().equals(sessionId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Sesión no encontrada"));
-
-        refreshTokenService.revokeToken(sessionToRevoke.getToken());
+        // Solo se revoca si la sesión pertenece al usuario
+        if (!refreshTokenService.revokeSession(user, sessionId)) {
+            throw new IllegalArgumentException("Sesión no encontrada");
+        }
 
         return ResponseEntity.ok(Map.of("message", "Sesión revocada exitosamente"));
     }
@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 @Schema(description = "Información de sesión activa")
 public record ActiveSessionDTO(
         @Schema(description = "ID de la sesión")
-        Long id,
+        String id,
 
         @Schema(description = "Dirección IP", example = "192.168.1.1")
         String ipAddress,
@@ -2,6 +2,12 @@ package com.ClinicaDeYmid.auth_service.module.auth.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
+/**
+ * Conjunto de claves públicas para validar los JWT. {@code publicKey} es la clave activa, que se
+ * mantiene para los clientes que aún no leen {@code keys}; {@code version} cambia con cada rotación.
+ */
 public record PublicKeyResponse(
         @JsonProperty("publicKey")
         String publicKey,
@@ -10,6 +16,15 @@ public record PublicKeyResponse(
         String algorithm,
 
         @JsonProperty("keyType")
-        String keyType
+        String keyType,
+
+        @JsonProperty("keyId")
+        String keyId,
+
+        @JsonProperty("version")
+        String version,
+
+        @JsonProperty("keys")
+        List<PublicKeyEntry> keys
 ) {
 }
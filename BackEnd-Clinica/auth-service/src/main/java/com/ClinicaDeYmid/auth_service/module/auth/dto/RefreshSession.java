@@ -0,0 +1,21 @@
+package com.ClinicaDeYmid.auth_service.module.auth.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sesión de refresh guardada en Redis. {@code id} es el SHA-256 del refresh token: el token en
+ * claro no se guarda en ningún sitio.
+ */
+public record RefreshSession(
+        String id,
+        Long userId,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt
+) {
+
+    public boolean isValid() {
+        return expiresAt.isAfter(LocalDateTime.now());
+    }
+}
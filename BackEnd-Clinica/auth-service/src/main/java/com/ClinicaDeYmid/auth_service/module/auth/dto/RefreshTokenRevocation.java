@@ -0,0 +1,23 @@
+package com.ClinicaDeYmid.auth_service.module.auth.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revocación pendiente de reflejar en {@code refresh_tokens}. Con {@code tokenHash} revoca ese
+ * token; sin él, todos los tokens vigentes de {@code userId}.
+ */
+public record RefreshTokenRevocation(
+        String tokenHash,
+        Long userId,
+        String replacedByTokenHash,
+        LocalDateTime revokedAt
+) {
+
+    public static RefreshTokenRevocation ofToken(String tokenHash, String replacedByTokenHash) {
+        return new RefreshTokenRevocation(tokenHash, null, replacedByTokenHash, LocalDateTime.now());
+    }
+
+    public static RefreshTokenRevocation ofUser(Long userId) {
+        return new RefreshTokenRevocation(null, userId, null, LocalDateTime.now());
+    }
+}
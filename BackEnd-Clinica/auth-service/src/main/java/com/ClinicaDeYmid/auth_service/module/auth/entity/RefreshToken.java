@@ -7,7 +7,6 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-        @Index(name = "idx_refresh_token", columnList = "token"),
         @Index(name = "idx_user_id", columnList = "user_id"),
         @Index(name = "idx_expires_at", columnList = "expires_at")
 })
@@ -22,8 +21,11 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
-    private String token;
+    /**
+     * SHA-256 (hex) del refresh token; el token en claro no se guarda.
+     */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64, columnDefinition = "CHAR(64)")
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -48,12 +50,14 @@ public class RefreshToken {
     @Column(name = "user_agent", length = 255)
     private String userAgent;
 
-    @Column(name = "replaced_by_token", length = 512)
-    private String replacedByToken; // Para refresh token rotation
+    @Column(name = "replaced_by_token_hash", length = 64, columnDefinition = "CHAR(64)")
+    private String replacedByTokenHash; // Para refresh token rotation
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     public void revoke() {
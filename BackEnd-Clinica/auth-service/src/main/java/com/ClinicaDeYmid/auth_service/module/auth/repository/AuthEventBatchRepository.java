@@ -0,0 +1,126 @@
+package com.ClinicaDeYmid.auth_service.module.auth.repository;
+
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRevocation;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.AuditLog;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.LoginAttempt;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserta por lotes con JDBC los registros de auditoría, los intentos de login y el histórico de
+ * refresh tokens.
+ * Evita el coste por fila de JPA (contexto de persistencia, IDENTITY con un round-trip por insert):
+ * cada lote viaja en un único batch, que el driver de MySQL reescribe como un INSERT multi-fila
+ * con {@code rewriteBatchedStatements=true}.
+ */
+@Repository
+public class AuthEventBatchRepository {
+
+    private static final String INSERT_AUDIT_LOG_SQL = """
+            INSERT INTO audit_logs (user_id, user_email, action, details, ip_address, user_agent, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_LOGIN_ATTEMPT_SQL = """
+            INSERT INTO login_attempts (email, ip_address, user_agent, attempted_at, success, failure_reason)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_REFRESH_TOKEN_SQL = """
+            INSERT INTO refresh_tokens (token_hash, user_id, expires_at, created_at, revoked, ip_address, user_agent)
+            VALUES (?, ?, ?, ?, false, ?, ?)
+            """;
+
+    private static final String REVOKE_REFRESH_TOKEN_SQL = """
+            UPDATE refresh_tokens
+            SET revoked = true, revoked_at = ?, replaced_by_token_hash = ?
+            WHERE token_hash = ? AND revoked = false
+            """;
+
+    private static final String REVOKE_USER_REFRESH_TOKENS_SQL = """
+            UPDATE refresh_tokens
+            SET revoked = true, revoked_at = ?
+            WHERE user_id = ? AND revoked = false
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuthEventBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAuditLogs(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG_SQL, logs, logs.size(), (ps, log) -> {
+            if (log.getUserId() != null) {
+                ps.setLong(1, log.getUserId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, log.getUserEmail());
+            ps.setString(3, log.getAction().name());
+            ps.setString(4, log.getDetails());
+            ps.setString(5, log.getIpAddress());
+            ps.setString(6, log.getUserAgent());
+            ps.setTimestamp(7, Timestamp.valueOf(log.getCreatedAt()));
+        });
+    }
+
+    public void insertLoginAttempts(List<LoginAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_LOGIN_ATTEMPT_SQL, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setString(1, attempt.getEmail());
+            ps.setString(2, attempt.getIpAddress());
+            ps.setString(3, attempt.getUserAgent());
+            ps.setTimestamp(4, Timestamp.valueOf(attempt.getAttemptedAt()));
+            ps.setBoolean(5, attempt.isSuccess());
+            ps.setString(6, attempt.getFailureReason());
+        });
+    }
+
+    public void insertRefreshTokens(List<RefreshSession> sessions) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_REFRESH_TOKEN_SQL, sessions, sessions.size(), (ps, session) -> {
+            ps.setString(1, session.id());
+            ps.setLong(2, session.userId());
+            ps.setTimestamp(3, Timestamp.valueOf(session.expiresAt()));
+            ps.setTimestamp(4, Timestamp.valueOf(session.createdAt()));
+            ps.setString(5, session.ipAddress());
+            ps.setString(6, session.userAgent());
+        });
+    }
+
+    /**
+     * Marca como revocados los tokens indicados por hash y, para las revocaciones sin hash, todos
+     * los vigentes del usuario.
+     */
+    public void revokeRefreshTokens(List<RefreshTokenRevocation> revocations) {
+        List<RefreshTokenRevocation> byToken = revocations.stream().filter(r -> r.tokenHash() != null).toList();
+        List<RefreshTokenRevocation> byUser = revocations.stream().filter(r -> r.tokenHash() == null).toList();
+
+        if (!byToken.isEmpty()) {
+            jdbcTemplate.batchUpdate(REVOKE_REFRESH_TOKEN_SQL, byToken, byToken.size(), (ps, revocation) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(revocation.revokedAt()));
+                ps.setString(2, revocation.replacedByTokenHash());
+                ps.setString(3, revocation.tokenHash());
+            });
+        }
+        if (!byUser.isEmpty()) {
+            jdbcTemplate.batchUpdate(REVOKE_USER_REFRESH_TOKENS_SQL, byUser, byUser.size(), (ps, revocation) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(revocation.revokedAt()));
+                ps.setLong(2, revocation.userId());
+            });
+        }
+    }
+}
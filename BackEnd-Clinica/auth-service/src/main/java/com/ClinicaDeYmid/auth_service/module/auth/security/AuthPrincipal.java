@@ -0,0 +1,41 @@
+package com.ClinicaDeYmid.auth_service.module.auth.security;
+
+import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal de una petición autenticada: copia inmutable de lo que la autorización necesita del
+ * usuario. Se guarda en {@link PrincipalCache} en lugar de la entidad, que es mutable y arrastra
+ * su sesión de Hibernate.
+ */
+public record AuthPrincipal(
+        Long id,
+        String uuid,
+        String username,
+        String email,
+        String role,
+        List<GrantedAuthority> authorities,
+        boolean enabled
+) implements AuthenticatedPrincipal {
+
+    public static AuthPrincipal from(User user) {
+        return new AuthPrincipal(
+                user.getId(),
+                user.getUuid(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole().getName(),
+                List.copyOf(user.getAuthorities()),
+                user.isActive() && user.getStatus() == StatusUser.ACTIVE
+        );
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
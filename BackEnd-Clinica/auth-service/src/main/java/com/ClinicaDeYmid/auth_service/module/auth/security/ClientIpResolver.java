@@ -0,0 +1,69 @@
+package com.ClinicaDeYmid.auth_service.module.auth.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * IP del cliente para el bloqueo por IP, la auditoría y las sesiones.
+ *
+ * <p>{@code X-Forwarded-For} lo puede escribir el propio cliente, así que solo se tiene en cuenta
+ * si la petición llega de un proxy de {@code auth.trusted-proxies} (IPs o rangos CIDR). La cabecera
+ * se recorre desde el final saltando los proxies de confianza: la IP devuelta es la última que
+ * añadió un proxy propio, no la primera que puso el cliente. En cualquier otro caso se usa la
+ * dirección remota de la conexión.</p>
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${auth.trusted-proxies:127.0.0.1,::1}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor == null || forwardedFor.isBlank() || !isTrusted(remoteAddress)) {
+            return remoteAddress;
+        }
+
+        String client = remoteAddress;
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // No es una IP literal (p. ej. "unknown"): nunca es un proxy de confianza
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ClinicaDeYmid.auth_service.module.auth.security;
+
+import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada en memoria de los principales autenticados, por UUID de usuario.
+ *
+ * <p>Evita consultar {@code users} en cada petición autenticada. Quien cambie el estado, el rol
+ * o la contraseña de un usuario debe llamar a {@link #invalidate(String)}: la entrada se descarta
+ * al confirmar la transacción y el resto de instancias la descarta al recibir el aviso por Redis.
+ * El TTL acota cuánto puede vivir una entrada si un aviso se pierde. Una carga durante la que llega
+ * una invalidación no se queda en caché: pudo leer la fila anterior al cambio.</p>
+ *
+ * <p>Métricas: {@code auth.principals} (aciertos, fallos y tamaño de la caché) y
+ * {@code auth.principal.db.lookups}, las consultas a base de datos por fallo de caché.</p>
+ */
+@Slf4j
+@Component
+public class PrincipalCache implements MessageListener {
+
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final Cache<String, AuthPrincipal> principals;
+    private final Counter dbLookups;
+    /** Se incrementa con cada invalidación, local o remota. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${auth.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${auth.principal-cache.channel:auth:principal-invalidated}") String channel
+    ) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.dbLookups = Counter.builder("auth.principal.db.lookups")
+                .description("Consultas a users para construir el principal")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "auth.principals");
+    }
+
+    /**
+     * Principal del usuario con ese UUID; consulta la base de datos solo si no está en caché.
+     * Un UUID inexistente no se cachea.
+     */
+    public Optional<AuthPrincipal> get(String uuid) {
+        long generation = invalidations.get();
+        // Una sola carga por UUID a la vez; una invalidación del mismo UUID espera a que termine
+        AuthPrincipal principal = principals.get(uuid, this::load);
+        if (principal != null && invalidations.get() != generation) {
+            principals.asMap().remove(uuid, principal);
+        }
+        return Optional.ofNullable(principal);
+    }
+
+    private AuthPrincipal load(String uuid) {
+        dbLookups.increment();
+        return userRepository.findByUuidWithRole(uuid).map(AuthPrincipal::from).orElse(null);
+    }
+
+    /**
+     * Descarta el principal de un usuario en esta instancia y en las demás. Dentro de una
+     * transacción se descarta de nuevo al confirmarla, para que una petición concurrente no deje
+     * en caché el estado anterior.
+     */
+    public void invalidate(String uuid) {
+        if (uuid == null) {
+            return;
+        }
+        evict(uuid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(uuid);
+                    publish(uuid);
+                }
+            });
+        } else {
+            publish(uuid);
+        }
+    }
+
+    private void evict(String uuid) {
+        invalidations.incrementAndGet();
+        principals.invalidate(uuid);
+    }
+
+    private void publish(String uuid) {
+        try {
+            redisTemplate.convertAndSend(channel, uuid);
+        } catch (Exception e) {
+            // Las demás instancias conservarán el principal hasta que expire su TTL
+            log.warn("No se pudo publicar la invalidación del principal {}: {}", uuid, e.getMessage());
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        evict(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,7 @@
 package com.ClinicaDeYmid.auth_service.module.auth.security;
 
 import com.ClinicaDeYmid.auth_service.module.auth.service.TokenService;
-import com.ClinicaDeYmid.auth_service.module.user.entity.User;
-import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,12 +15,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Optional;
 
+/**
+ * Autentica las peticiones con access token. El token se verifica una sola vez y el principal sale
+ * de {@link PrincipalCache}, así que la base de datos solo se consulta en un fallo de caché.
+ */
 @Component
 @AllArgsConstructor
 public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -43,17 +46,16 @@ public class SecurityFilter extends OncePerRequestFilter {
             String token = extractToken(request);
             if (token != null) {
 
-                tokenService.validateAccessToken(token);
-                String uuid = tokenService.getSubject(token);
+                DecodedJWT jwt = tokenService.verifyAccessToken(token);
+                Optional<AuthPrincipal> principalOptional = principalCache.get(jwt.getSubject());
 
-                Optional<User> userOptional = userRepository.findByUuid(uuid);
-
-                if (userOptional.isPresent()) {
-                    var user = userOptional.get();
+                // Una cuenta desactivada o suspendida deja de autenticar aunque su token siga vigente
+                if (principalOptional.isPresent() && principalOptional.get().enabled()) {
+                    var principal = principalOptional.get();
                     var auth = new UsernamePasswordAuthenticationToken(
-                            user,
+                            principal,
                             null,
-                            user.getAuthorities());
+                            principal.authorities());
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 } else {
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);;
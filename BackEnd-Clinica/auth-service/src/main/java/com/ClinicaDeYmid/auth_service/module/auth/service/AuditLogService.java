@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,12 +21,11 @@ import java.util.List;
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuthEventWriter authEventWriter;
 
     /**
-     * Registra una acción de auditoría (asíncrono para no afectar performance)
+     * Registra una acción de auditoría. Solo se encola: {@link AuthEventWriter} la escribe por lotes
      */
-    @Async
-    @Transactional
     public void logAction(
             User user,
             AuditAction action,
@@ -44,17 +42,15 @@ public class AuditLogService {
                 .userAgent(userAgent)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        authEventWriter.recordAuditLog(auditLog);
 
         log.debug("Acción auditada: {} para usuario: {}", action,
                 user != null ? user.getEmail() : "N/A");
     }
 
     /**
-     * Registra una acción sin usuario asociado (asíncrono para no afectar performance)
+     * Registra una acción sin usuario asociado. Solo se encola, como {@link #logAction}
      */
-    @Async
-    @Transactional
     public void logActionWithoutUser(
             String email,
             AuditAction action,
@@ -70,7 +66,7 @@ public class AuditLogService {
                 .userAgent(userAgent)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        authEventWriter.recordAuditLog(auditLog);
 
         log.debug("Acción auditada: {} para email: {}", action, email);
     }
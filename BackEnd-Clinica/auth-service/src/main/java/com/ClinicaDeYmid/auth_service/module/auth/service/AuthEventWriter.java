@@ -0,0 +1,185 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRevocation;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.AuditLog;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.LoginAttempt;
+import com.ClinicaDeYmid.auth_service.module.auth.repository.AuthEventBatchRepository;
+import com.ClinicaDeYmid.batch_writer.BoundedBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritor por lotes de los eventos de auditoría, los intentos de login y el histórico de refresh
+ * tokens.
+ *
+ * <p>Quien registra un evento solo lo encola en un buffer acotado y vuelve de inmediato; el hilo
+ * de un {@link BoundedBatchWriter} lo vacía en lotes de hasta {@code flush-size} eventos, o cada
+ * {@code flush-interval} si no se llena antes, con un INSERT por lotes por tabla. Así una ráfaga de logins no abre una
+ * transacción ni toma una conexión del pool por cada fila. Con el buffer lleno los eventos nuevos
+ * se descartan y se cuentan en {@code auth.events.dropped}: el login no se frena por la auditoría.
+ * Al apagar el servicio se escribe lo que quede pendiente.</p>
+ */
+@Slf4j
+@Service
+public class AuthEventWriter {
+
+    private static final int MAX_DETAILS_LENGTH = 500;
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+    private static final int MAX_FAILURE_REASON_LENGTH = 255;
+
+    private static final String AUDIT = "audit";
+    private static final String LOGIN_ATTEMPT = "login_attempt";
+    private static final String REFRESH_TOKEN = "refresh_token";
+    private static final String REFRESH_TOKEN_REVOCATION = "refresh_token_revocation";
+
+    private final AuthEventBatchRepository batchRepository;
+    private final BoundedBatchWriter<Object> writer;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer flushTimer;
+
+    public AuthEventWriter(
+            AuthEventBatchRepository batchRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.events.buffer-capacity:20000}") int bufferCapacity,
+            @Value("${auth.events.flush-size:200}") int flushSize,
+            @Value("${auth.events.flush-interval:500ms}") Duration flushInterval,
+            @Value("${auth.events.shutdown-timeout:10s}") Duration shutdownTimeout
+    ) {
+        this.batchRepository = batchRepository;
+        this.meterRegistry = meterRegistry;
+        this.writer = new BoundedBatchWriter<>("auth-event-writer", bufferCapacity, flushSize, flushInterval,
+                shutdownTimeout, this::flush);
+
+        this.flushTimer = Timer.builder("auth.events.flush")
+                .description("Duración de cada lote de eventos escrito")
+                .register(meterRegistry);
+        Gauge.builder("auth.events.buffered", writer, BoundedBatchWriter::size)
+                .description("Eventos pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.stop();
+    }
+
+    /**
+     * Encola un registro de auditoría. La fecha se fija aquí y no al escribirlo.
+     */
+    public void recordAuditLog(AuditLog auditLog) {
+        auditLog.setDetails(truncate(auditLog.getDetails(), MAX_DETAILS_LENGTH));
+        auditLog.setUserAgent(truncate(auditLog.getUserAgent(), MAX_USER_AGENT_LENGTH));
+        if (auditLog.getCreatedAt() == null) {
+            auditLog.setCreatedAt(LocalDateTime.now());
+        }
+        enqueue(auditLog, AUDIT);
+    }
+
+    /**
+     * Encola un intento de login. La fecha se fija aquí y no al escribirlo.
+     */
+    public void recordLoginAttempt(LoginAttempt attempt) {
+        attempt.setUserAgent(truncate(attempt.getUserAgent(), MAX_USER_AGENT_LENGTH));
+        attempt.setFailureReason(truncate(attempt.getFailureReason(), MAX_FAILURE_REASON_LENGTH));
+        if (attempt.getAttemptedAt() == null) {
+            attempt.setAttemptedAt(LocalDateTime.now());
+        }
+        enqueue(attempt, LOGIN_ATTEMPT);
+    }
+
+    /**
+     * Encola el alta de una sesión de refresh en el histórico de {@code refresh_tokens}.
+     */
+    public void recordRefreshSession(RefreshSession session) {
+        RefreshSession truncated = new RefreshSession(session.id(), session.userId(), session.ipAddress(),
+                truncate(session.userAgent(), MAX_USER_AGENT_LENGTH), session.createdAt(), session.expiresAt());
+        enqueue(truncated, REFRESH_TOKEN);
+    }
+
+    /**
+     * Encola una revocación para el histórico de {@code refresh_tokens}.
+     */
+    public void recordRefreshTokenRevocation(RefreshTokenRevocation revocation) {
+        enqueue(revocation, REFRESH_TOKEN_REVOCATION);
+    }
+
+    private void enqueue(Object event, String type) {
+        if (!writer.offer(event)) {
+            counter("auth.events.dropped", type).increment();
+        }
+    }
+
+    private void flush(List<Object> batch) {
+        List<AuditLog> auditLogs = new ArrayList<>();
+        List<LoginAttempt> attempts = new ArrayList<>();
+        List<RefreshSession> refreshSessions = new ArrayList<>();
+        List<RefreshTokenRevocation> revocations = new ArrayList<>();
+        for (Object event : batch) {
+            if (event instanceof AuditLog auditLog) {
+                auditLogs.add(auditLog);
+            } else if (event instanceof LoginAttempt attempt) {
+                attempts.add(attempt);
+            } else if (event instanceof RefreshSession session) {
+                refreshSessions.add(session);
+            } else if (event instanceof RefreshTokenRevocation revocation) {
+                revocations.add(revocation);
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Cada tabla por separado: un lote fallido no arrastra al otro ni bloquea los siguientes
+            write(AUDIT, auditLogs, () -> batchRepository.insertAuditLogs(auditLogs));
+            write(LOGIN_ATTEMPT, attempts, () -> batchRepository.insertLoginAttempts(attempts));
+            // Altas antes que revocaciones: una rotación del mismo lote revoca un token ya insertado
+            write(REFRESH_TOKEN, refreshSessions, () -> batchRepository.insertRefreshTokens(refreshSessions));
+            write(REFRESH_TOKEN_REVOCATION, revocations, () -> batchRepository.revokeRefreshTokens(revocations));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(String type, List<?> events, Runnable insert) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            insert.run();
+            counter("auth.events.written", type).increment(events.size());
+            log.debug("Eventos {} guardados: {}", type, events.size());
+        } catch (Exception e) {
+            counter("auth.events.failed", type).increment(events.size());
+            log.warn("Error guardando eventos {} ({}): {}", type, events.size(), e.getMessage());
+        }
+    }
+
+    private Counter counter(String name, String type) {
+        return Counter.builder(name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -2,31 +2,38 @@ package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import com.ClinicaDeYmid.auth_service.infra.exceptions.AccountLockedException;
 import com.ClinicaDeYmid.auth_service.infra.exceptions.UserNotFoundException;
+import com.ClinicaDeYmid.auth_service.module.auth.config.StatementCounter;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.LoginRequest;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.PublicKeyEntry;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.PublicKeyResponse;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRequest;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.TokenPair;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
 import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
+    private static final AccountStatusUserDetailsChecker ACCOUNT_STATUS_CHECKER = new AccountStatusUserDetailsChecker();
+
     private final TokenService tokenService;
     private final UserRepository userRepository;
     private final TokenHelper tokenHelper;
@@ -35,90 +42,128 @@ public class AuthService {
     private final RefreshTokenService refreshTokenService;
     private final AuditLogService auditLogService;
     private final PasswordPolicyService passwordPolicyService;
-
-    @Transactional
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    private volatile String userNotFoundPassword;
+
+    /**
+     * Login en una sola consulta: el usuario se carga una vez con rol y permisos, y el bloqueo,
+     * la contraseña y su caducidad se evalúan en memoria. El bloqueo se consulta en Redis; el
+     * registro del intento y la auditoría se escriben en segundo plano.
+     *
+     * <p>No es transaccional a propósito: la verificación BCrypt no retiene una conexión del pool.
+     * Cada escritura abre su propia transacción.</p>
+     */
     public TokenPair login(LoginRequest loginRequest, String ipAddress, String userAgent) {
-        log.info("Intento de login para email: {} desde IP: {}", loginRequest.email(), ipAddress);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        StatementCounter.start();
+        String outcome = "error";
+        try {
+            TokenPair tokenPair = authenticate(loginRequest, ipAddress, userAgent);
+            outcome = "success";
+            return tokenPair;
+        } catch (AccountLockedException e) {
+            outcome = "locked";
+            throw e;
+        } catch (BadCredentialsException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            int statements = StatementCounter.stop();
+            sample.stop(Timer.builder("auth.login.duration")
+                    .description("Duración del login")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            DistributionSummary.builder("auth.login.db.statements")
+                    .description("Sentencias SQL ejecutadas en el hilo de la petición por login")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
 
-        // Verificar si la cuenta está bloqueada
-        if (loginAttemptService.isAccountLocked(loginRequest.email())) {
-            long remainingMinutes = loginAttemptService.getRemainingLockoutMinutes(loginRequest.email());
+    private TokenPair authenticate(LoginRequest loginRequest, String ipAddress, String userAgent) {
+        String email = loginRequest.email();
+        log.info("Intento de login para email: {} desde IP: {}", email, ipAddress);
 
-            loginAttemptService.recordFailedLogin(
-                    loginRequest.email(),
-                    ipAddress,
-                    userAgent,
-                    "Cuenta bloqueada"
-            );
+        User user = userRepository.findByEmailWithRole(email).orElse(null);
 
-            auditLogService.logLoginFailed(
-                    loginRequest.email(),
-                    "Cuenta bloqueada",
-                    ipAddress,
-                    userAgent
-            );
+        // Verificar si el email o la IP están bloqueados
+        Duration lockout = loginAttemptService.getRemainingLockout(user, email, ipAddress);
+        if (!lockout.isZero()) {
+            long remainingMinutes = LoginAttemptService.toMinutes(lockout);
+
+            // Durante el bloqueo no se suman intentos: solo queda el registro
+            loginAttemptService.recordLockedLogin(email, ipAddress, userAgent);
+            auditLogService.logLoginFailed(email, "Cuenta bloqueada", ipAddress, userAgent);
 
             throw new AccountLockedException(
                     String.format("Cuenta bloqueada. Intente nuevamente en %d minutos", remainingMinutes)
             );
         }
+        if (user != null && user.getAccountLockedUntil() != null && user.getStatus() == StatusUser.SUSPENDED) {
+            // Suspendida por un bloqueo anterior ya vencido: se reactiva antes de validar su estado
+            loginAttemptService.unlockAccount(user);
+        }
 
-        try {
-            Authentication authToken = new UsernamePasswordAuthenticationToken(
-                    loginRequest.email(),
-                    loginRequest.password()
-            );
+        if (!credentialsMatch(user, loginRequest.password())) {
+            log.warn("Login fallido para email: {} - Razón: Credenciales inválidas", email);
 
-            Authentication authentication = authenticationManager.authenticate(authToken);
-            User user = (User) authentication.getPrincipal();
+            loginAttemptService.recordFailedLogin(email, ipAddress, userAgent, "Credenciales inválidas");
+            auditLogService.logLoginFailed(email, "Credenciales inválidas", ipAddress, userAgent);
 
-            // Verificar si la contraseña expiró
-            if (passwordPolicyService.isPasswordExpired(user)) {
-                log.warn("Contraseña expirada para usuario: {}", user.getEmail());
-                throw new BadCredentialsException("Tu contraseña ha expirado. Debes cambiarla.");
-            }
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
 
-            // Verificar si requiere cambio de contraseña
-            if (user.isRequirePasswordChange()) {
-                log.warn("Usuario {} requiere cambio de contraseña", user.getEmail());
-                throw new BadCredentialsException("Debes cambiar tu contraseña antes de continuar.");
-            }
+        // Verificar si la contraseña expiró
+        if (passwordPolicyService.isPasswordExpired(user)) {
+            log.warn("Contraseña expirada para usuario: {}", user.getEmail());
+            throw new BadCredentialsException("Tu contraseña ha expirado. Debes cambiarla.");
+        }
 
-            // Login exitoso
-            loginAttemptService.recordSuccessfulLogin(user.getEmail(), ipAddress, userAgent);
-            auditLogService.logLoginSuccess(user, ipAddress, userAgent);
+        // Verificar si requiere cambio de contraseña
+        if (user.isRequirePasswordChange()) {
+            log.warn("Usuario {} requiere cambio de contraseña", user.getEmail());
+            throw new BadCredentialsException("Debes cambiar tu contraseña antes de continuar.");
+        }
 
-            TokenPair tokenPair = tokenService.generateTokenPair(user, ipAddress, userAgent);
+        // Login exitoso
+        loginAttemptService.recordSuccessfulLogin(user.getEmail(), ipAddress, userAgent);
+        auditLogService.logLoginSuccess(user, ipAddress, userAgent);
 
-            log.info("Login exitoso para usuario: {}", user.getEmail());
-            return tokenPair;
+        TokenPair tokenPair = tokenService.generateTokenPair(user, ipAddress, userAgent);
 
-        } catch (AuthenticationException e) {
-            // Si es una de nuestras excepciones específicas de políticas de contraseñas, la re-lanzamos.
-            if (e instanceof BadCredentialsException &&
-                (e.getMessage().equals("Tu contraseña ha expirado. Debes cambiarla.") ||
-                 e.getMessage().equals("Debes cambiar tu contraseña antes de continuar."))) {
-                throw e;
-            }
-
-            log.warn("Login fallido para email: {} - Razón: {}", loginRequest.email(), e.getMessage());
-
-            loginAttemptService.recordFailedLogin(
-                    loginRequest.email(),
-                    ipAddress,
-                    userAgent,
-                    "Credenciales inválidas"
-            );
+        log.info("Login exitoso para usuario: {}", user.getEmail());
+        return tokenPair;
+    }
 
-            auditLogService.logLoginFailed(
-                    loginRequest.email(),
-                    "Credenciales inválidas",
-                    ipAddress,
-                    userAgent
-            );
+    /**
+     * Mismas comprobaciones que hacía el {@code DaoAuthenticationProvider}: estado de la cuenta y
+     * contraseña. Si el email no existe se compara contra un hash ficticio, para que el tiempo de
+     * respuesta no revele qué emails están registrados.
+     */
+    private boolean credentialsMatch(User user, String rawPassword) {
+        if (user == null) {
+            passwordEncoder.matches(rawPassword, userNotFoundPassword());
+            return false;
+        }
+        try {
+            ACCOUNT_STATUS_CHECKER.check(user);
+        } catch (AccountStatusException e) {
+            log.debug("Cuenta no habilitada para login: {} - {}", user.getEmail(), e.getMessage());
+            return false;
+        }
+        return passwordEncoder.matches(rawPassword, user.getPassword());
+    }
 
-            throw new BadCredentialsException("Credenciales inválidas");
+    private String userNotFoundPassword() {
+        String encoded = userNotFoundPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundPassword = encoded;
         }
+        return encoded;
     }
 
     @Transactional
@@ -189,15 +234,24 @@ public class AuthService {
     }
 
     public PublicKeyResponse getPublicKey() {
-        RSAPublicKey publicKey = tokenService.getPublicKey();
-        String encodedKey = Base64.getEncoder().encodeToString(publicKey.getEncoded());
+        List<PublicKeyEntry> keys = tokenService.getPublicKeys().entrySet().stream()
+                .map(entry -> new PublicKeyEntry(
+                        entry.getKey(),
+                        Base64.getEncoder().encodeToString(entry.getValue().getEncoded()),
+                        "RS256",
+                        "RSA"))
+                .toList();
+        PublicKeyEntry active = keys.getFirst();
 
-        log.debug("Clave pública obtenida exitosamente");
+        log.debug("Conjunto de claves públicas obtenido: versión {}", tokenService.getKeySetVersion());
 
         return new PublicKeyResponse(
-                encodedKey,
-                "RS256",
-                "RSA"
+                active.publicKey(),
+                active.algorithm(),
+                active.keyType(),
+                active.keyId(),
+                tokenService.getKeySetVersion(),
+                keys
         );
     }
-}
\ No newline at end of file
+}
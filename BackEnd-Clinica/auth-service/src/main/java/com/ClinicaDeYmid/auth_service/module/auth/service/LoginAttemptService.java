@@ -2,40 +2,42 @@ package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import com.ClinicaDeYmid.auth_service.module.auth.entity.LoginAttempt;
 import com.ClinicaDeYmid.auth_service.module.auth.repository.LoginAttemptRepository;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
 import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
 import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
 
+/**
+ * Registro de intentos de login y bloqueo por intentos fallidos.
+ *
+ * <p>Los contadores y bloqueos viven en Redis ({@link LoginLockoutService}) y vencen solos; los
+ * intentos se encolan en {@link AuthEventWriter}. La tabla {@code users} solo se escribe al
+ * desbloquear una cuenta que quedó suspendida por el esquema anterior.</p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LoginAttemptService {
 
+    private static final String LOCKED_REASON = "Cuenta bloqueada";
+
     private final LoginAttemptRepository loginAttemptRepository;
     private final UserRepository userRepository;
-
-    @Value("${auth.max-login-attempts:5}")
-    private int maxLoginAttempts;
-
-    @Value("${auth.lockout-duration-minutes:30}")
-    private int lockoutDurationMinutes;
-
-    @Value("${auth.attempt-window-minutes:15}")
-    private int attemptWindowMinutes;
+    private final AuthEventWriter authEventWriter;
+    private final LoginLockoutService loginLockoutService;
+    private final PrincipalCache principalCache;
 
     /**
      * Registra un intento de login exitoso
      */
-    @Transactional
     public void recordSuccessfulLogin(String email, String ipAddress, String userAgent) {
         log.info("Registrando login exitoso para email: {}", email);
 
@@ -46,19 +48,16 @@ public class LoginAttemptService {
                 .success(true)
                 .build();
 
-        loginAttemptRepository.save(attempt);
+        authEventWriter.recordLoginAttempt(attempt);
 
         // Resetear contador de intentos fallidos
-        userRepository.findByEmail(email).ifPresent(user -> {
-            userRepository.resetFailedLoginAttempts(user.getId());
-            log.debug("Contador de intentos fallidos reseteado para usuario: {}", email);
-        });
+        loginLockoutService.clearFailures(email);
     }
 
     /**
-     * Registra un intento de login fallido
+     * Registra un intento de login fallido. Cuenta para el bloqueo del email y de la IP,
+     * exista o no el email, para que el bloqueo no revele qué cuentas están registradas.
      */
-    @Transactional
     public void recordFailedLogin(String email, String ipAddress, String userAgent, String reason) {
         log.warn("Registrando login fallido para email: {} desde IP: {}", email, ipAddress);
 
@@ -70,63 +69,45 @@ public class LoginAttemptService {
                 .failureReason(reason)
                 .build();
 
-        loginAttemptRepository.save(attempt);
+        authEventWriter.recordLoginAttempt(attempt);
 
-        // Incrementar contador y verificar si debe bloquearse
-        userRepository.findByEmail(email).ifPresent(this::handleFailedAttempt);
+        loginLockoutService.registerFailure(email, ipAddress);
     }
 
     /**
-     * Maneja un intento fallido, bloqueando la cuenta si es necesario
+     * Registra un intento rechazado por bloqueo. No suma al contador: el bloqueo no se alarga.
      */
-    @Transactional
-    protected void handleFailedAttempt(User user) {
-        userRepository.incrementFailedLoginAttempts(user.getId());
-
-        // Refrescar el usuario para obtener el contador actualizado
-        User updatedUser = userRepository.findById(user.getId()).orElseThrow();
-
-        if (updatedUser.getFailedLoginAttempts() >= maxLoginAttempts) {
-            lockAccount(updatedUser);
-        } else {
-            int remainingAttempts = maxLoginAttempts - updatedUser.getFailedLoginAttempts();
-            log.warn("Usuario {} tiene {} intentos restantes antes de bloqueo",
-                    user.getEmail(), remainingAttempts);
-        }
+    public void recordLockedLogin(String email, String ipAddress, String userAgent) {
+        authEventWriter.recordLoginAttempt(LoginAttempt.builder()
+                .email(email)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .success(false)
+                .failureReason(LOCKED_REASON)
+                .build());
     }
 
     /**
-     * Bloquea una cuenta temporalmente
+     * Tiempo de bloqueo restante para el email o la IP; cero si no hay bloqueo. También respeta
+     * un {@code accountLockedUntil} vigente que haya quedado en el usuario.
      */
-    @Transactional
-    protected void lockAccount(User user) {
-        LocalDateTime lockUntil = LocalDateTime.now().plusMinutes(lockoutDurationMinutes);
-
-        userRepository.lockAccountUntil(user.getId(), lockUntil, StatusUser.SUSPENDED);
-
-        log.warn("Cuenta bloqueada para usuario: {} hasta: {}", user.getEmail(), lockUntil);
+    public Duration getRemainingLockout(User user, String email, String ipAddress) {
+        Duration remaining = loginLockoutService.getRemainingLockout(email, ipAddress);
+
+        if (user != null && user.isAccountLocked()) {
+            Duration legacy = Duration.between(LocalDateTime.now(), user.getAccountLockedUntil());
+            if (legacy.compareTo(remaining) > 0) {
+                return legacy;
+            }
+        }
+        return remaining;
     }
 
     /**
      * Verifica si una cuenta está bloqueada
      */
     public boolean isAccountLocked(String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> {
-                    if (user.getAccountLockedUntil() == null) {
-                        return false;
-                    }
-
-                    boolean isLocked = LocalDateTime.now().isBefore(user.getAccountLockedUntil());
-
-                    if (!isLocked && user.getStatus() == StatusUser.SUSPENDED) {
-                        // Desbloquear automáticamente si el tiempo expiró
-                        unlockAccount(user);
-                    }
-
-                    return isLocked;
-                })
-                .orElse(false);
+        return !loginLockoutService.getRemainingLockout(email, null).isZero();
     }
 
     /**
@@ -135,12 +116,16 @@ public class LoginAttemptService {
     @Transactional
     public void unlockAccount(User user) {
         log.info("Desbloqueando cuenta para usuario: {}", user.getEmail());
-        userRepository.resetFailedLoginAttempts(user.getId());
+        loginLockoutService.unlock(user.getEmail());
 
-        // Actualizar estado si estaba suspendido por intentos fallidos
+        // Cuentas suspendidas por el bloqueo anterior, guardado en la tabla users
+        if (user.getFailedLoginAttempts() > 0 || user.getAccountLockedUntil() != null) {
+            userRepository.resetFailedLoginAttempts(user.getId());
+        }
         if (user.getStatus() == StatusUser.SUSPENDED) {
             user.setStatus(StatusUser.ACTIVE);
             userRepository.save(user);
+            principalCache.invalidate(user.getUuid());
         }
     }
 
@@ -148,46 +133,24 @@ public class LoginAttemptService {
      * Obtiene el número de intentos fallidos recientes
      */
     public long getRecentFailedAttempts(String email) {
-        LocalDateTime since = LocalDateTime.now().minusMinutes(attemptWindowMinutes);
-        return loginAttemptRepository.countFailedAttemptsSince(email, since);
+        return loginLockoutService.getRecentFailures(email);
     }
 
     /**
      * Obtiene el tiempo restante de bloqueo para una cuenta
      */
     public long getRemainingLockoutMinutes(String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> {
-                    if (user.getAccountLockedUntil() == null) {
-                        return 0L;
-                    }
-
-                    LocalDateTime now = LocalDateTime.now();
-                    if (now.isAfter(user.getAccountLockedUntil())) {
-                        return 0L;
-                    }
-
-                    return java.time.Duration.between(now, user.getAccountLockedUntil()).toMinutes();
-                })
-                .orElse(0L);
+        return toMinutes(loginLockoutService.getRemainingLockout(email, null));
     }
 
     /**
-     * Desbloquea cuentas cuyo tiempo de bloqueo ha expirado (ejecutado periódicamente)
+     * Minutos de bloqueo redondeados hacia arriba: un bloqueo vigente nunca se informa como 0.
      */
-    @Scheduled(fixedRate = 60000) // Cada minuto
-    @Transactional
-    public void unlockExpiredAccounts() {
-        List<User> accountsToUnlock = userRepository.findAccountsToUnlock(
-                LocalDateTime.now(),
-                StatusUser.SUSPENDED
-        );
-
-        if (!accountsToUnlock.isEmpty()) {
-            log.info("Desbloqueando {} cuentas cuyo tiempo de bloqueo expiró", accountsToUnlock.size());
-
-            accountsToUnlock.forEach(this::unlockAccount);
+    public static long toMinutes(Duration remaining) {
+        if (remaining.isZero() || remaining.isNegative()) {
+            return 0L;
         }
+        return (remaining.toMillis() + 59_999) / 60_000;
     }
 
     /**
@@ -201,4 +164,4 @@ public class LoginAttemptService {
         log.info("Ejecutando limpieza de intentos de login anteriores a: {}", cutoffDate);
         loginAttemptRepository.deleteByAttemptedAtBefore(cutoffDate);
     }
-}
\ No newline at end of file
+}
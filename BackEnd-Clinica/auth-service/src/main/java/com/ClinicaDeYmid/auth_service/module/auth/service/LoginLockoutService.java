@@ -0,0 +1,207 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Bloqueo por intentos fallidos guardado en Redis, por email y por IP.
+ *
+ * <p>Cada sujeto tiene una ventana deslizante (sorted set con la marca de tiempo de cada fallo)
+ * y, al llegar al máximo dentro de la ventana, una clave de bloqueo con TTL igual a la duración
+ * del bloqueo. El bloqueo vence solo: no hay que desbloquear nada ni tocar la tabla
+ * {@code users}. Si Redis no responde el login sigue funcionando sin bloqueo y el fallo se
+ * cuenta en {@code auth.lockout.errors}.</p>
+ */
+@Slf4j
+@Service
+public class LoginLockoutService {
+
+    private static final String KEY_PREFIX = "auth:lockout:";
+    private static final String EMAIL = "email";
+    private static final String IP = "ip";
+
+    /**
+     * Suma un fallo a la ventana y bloquea si se alcanza el máximo; al bloquear la ventana se
+     * vacía para que el siguiente periodo empiece de cero. Devuelve 1 si el fallo bloqueó.
+     */
+    private static final RedisScript<Long> REGISTER_FAILURE = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            redis.call('ZADD', KEYS[1], now, ARGV[4])
+            if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[5]) then
+                redis.call('SET', KEYS[2], '1', 'PX', ARGV[3])
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            redis.call('PEXPIRE', KEYS[1], window)
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter errors;
+
+    private final int maxAttemptsPerEmail;
+    private final int maxAttemptsPerIp;
+    private final Duration attemptWindow;
+    private final Duration lockoutDuration;
+
+    public LoginLockoutService(
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.max-login-attempts:5}") int maxAttemptsPerEmail,
+            @Value("${auth.max-login-attempts-per-ip:20}") int maxAttemptsPerIp,
+            @Value("${auth.attempt-window-minutes:15}") int attemptWindowMinutes,
+            @Value("${auth.lockout-duration-minutes:30}") int lockoutDurationMinutes
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttemptsPerEmail = maxAttemptsPerEmail;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.attemptWindow = Duration.ofMinutes(attemptWindowMinutes);
+        this.lockoutDuration = Duration.ofMinutes(lockoutDurationMinutes);
+        this.errors = Counter.builder("auth.lockout.errors")
+                .description("Operaciones de bloqueo que fallaron por Redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un fallo para el email y la IP. Devuelve {@code true} si alguno quedó bloqueado.
+     */
+    public boolean registerFailure(String email, String ipAddress) {
+        boolean locked = hit(EMAIL, email, maxAttemptsPerEmail);
+        if (ipAddress != null) {
+            locked |= hit(IP, ipAddress, maxAttemptsPerIp);
+        }
+        return locked;
+    }
+
+    /**
+     * Tiempo de bloqueo restante para el email o la IP, el mayor de los dos; cero si no hay
+     * bloqueo. Ambas claves se consultan en un único viaje a Redis.
+     */
+    public Duration getRemainingLockout(String email, String ipAddress) {
+        byte[] emailLock = bytes(lockKey(EMAIL, email));
+        byte[] ipLock = ipAddress != null ? bytes(lockKey(IP, ipAddress)) : null;
+        try {
+            List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                pTtl(connection, emailLock);
+                if (ipLock != null) {
+                    pTtl(connection, ipLock);
+                }
+                return null;
+            });
+            long remaining = ttls.stream()
+                    .mapToLong(ttl -> ttl instanceof Long millis ? millis : 0L)
+                    .max()
+                    .orElse(0L);
+            return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("No se pudo consultar el bloqueo en Redis, se permite el intento: {}", e.getMessage());
+            return Duration.ZERO;
+        }
+    }
+
+    /**
+     * Fallos del email dentro de la ventana actual.
+     */
+    public long getRecentFailures(String email) {
+        long since = System.currentTimeMillis() - attemptWindow.toMillis();
+        try {
+            Long count = redisTemplate.opsForZSet().count(windowKey(EMAIL, email), since, Double.POSITIVE_INFINITY);
+            return count != null ? count : 0L;
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("No se pudo leer la ventana de intentos en Redis: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Olvida los fallos acumulados del email tras un login correcto.
+     */
+    public void clearFailures(String email) {
+        delete(windowKey(EMAIL, email));
+    }
+
+    /**
+     * Levanta el bloqueo del email y vacía su ventana.
+     */
+    public void unlock(String email) {
+        delete(windowKey(EMAIL, email), lockKey(EMAIL, email));
+    }
+
+    private boolean hit(String scope, String subject, int maxAttempts) {
+        try {
+            Long locked = redisTemplate.execute(REGISTER_FAILURE,
+                    List.of(windowKey(scope, subject), lockKey(scope, subject)),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(attemptWindow.toMillis()),
+                    String.valueOf(lockoutDuration.toMillis()),
+                    UUID.randomUUID().toString(),
+                    String.valueOf(maxAttempts));
+            if (locked != null && locked == 1L) {
+                meterRegistry.counter("auth.lockout.locked", "scope", scope).increment();
+                log.warn("Bloqueo por {} durante {} minutos: {}", scope, lockoutDuration.toMinutes(),
+                        EMAIL.equals(scope) ? subject : "IP " + subject);
+                return true;
+            }
+            return false;
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("No se pudo registrar el intento fallido en Redis: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void delete(String... keys) {
+        try {
+            redisTemplate.delete(List.of(keys));
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("No se pudo limpiar el bloqueo en Redis: {}", e.getMessage());
+        }
+    }
+
+    private static void pTtl(RedisConnection connection, byte[] key) {
+        connection.keyCommands().pTtl(key);
+    }
+
+    /**
+     * Ventana y bloqueo de un sujeto comparten hash tag para que el script funcione también con
+     * Redis Cluster. El sujeto se guarda como hash: no quedan emails ni IPs en claro en Redis.
+     */
+    private static String windowKey(String scope, String subject) {
+        return KEY_PREFIX + "{" + scope + ":" + hash(subject) + "}:window";
+    }
+
+    private static String lockKey(String scope, String subject) {
+        return KEY_PREFIX + "{" + scope + ":" + hash(subject) + "}:lock";
+    }
+
+    private static String hash(String subject) {
+        return DigestUtils.sha256Hex(subject.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compara una contraseña con los hashes del historial en paralelo.
+ *
+ * <p>Cada {@code matches} de BCrypt cuesta decenas de milisegundos de CPU; con un historial de
+ * 5 a 10 hashes, hacerlo en serie en el hilo de la petición alarga cada cambio de contraseña.
+ * Los hashes se reparten en un pool acotado y la verificación termina con la primera
+ * coincidencia: las comparaciones que aún no empezaron se descartan. Con el pool y su cola llenos
+ * la comparación se hace en el hilo que la pide, lo que frena a quien la produce. Tras el apagado
+ * no se aceptan comparaciones y las encoladas se cancelan, para que nadie espere un resultado que
+ * nunca llegará.</p>
+ *
+ * <p>Métricas: {@code passwordHistoryExecutor} (estado del pool) y
+ * {@code auth.password.history.verify}, la duración de cada verificación.</p>
+ */
+@Slf4j
+@Component
+public class PasswordHistoryVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer verifyTimer;
+
+    public PasswordHistoryVerifier(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${auth.password.history-verify.pool-size:4}") int poolSize,
+            @Value("${auth.password.history-verify.queue-capacity:100}") int queueCapacity
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-history-", 0).daemon().factory(),
+                PasswordHistoryVerifier::runInCaller);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.verifyTimer = Timer.builder("auth.password.history.verify")
+                .description("Duración de la comparación con el historial de contraseñas")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "passwordHistoryExecutor", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Como {@link ThreadPoolExecutor.CallerRunsPolicy}, pero rechaza en lugar de descartar en
+     * silencio cuando el pool ya está apagado.
+     */
+    private static void runInCaller(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Pool del historial de contraseñas apagado");
+        }
+        task.run();
+    }
+
+    @PreDestroy
+    void stop() {
+        // Las tareas que nunca empezaron se cancelan para despertar a quien espera su resultado
+        executor.shutdownNow().forEach(task -> ((Future<?>) task).cancel(false));
+    }
+
+    /**
+     * Indica si {@code rawPassword} coincide con alguno de los hashes.
+     */
+    public boolean matchesAny(String rawPassword, List<String> hashes) {
+        return verifyTimer.record(() -> switch (hashes.size()) {
+            case 0 -> false;
+            case 1 -> passwordEncoder.matches(rawPassword, hashes.get(0));
+            default -> matchesAnyInParallel(rawPassword, hashes);
+        });
+    }
+
+    private boolean matchesAnyInParallel(String rawPassword, List<String> hashes) {
+        AtomicBoolean found = new AtomicBoolean();
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(hashes.size());
+        try {
+            for (String hash : hashes) {
+                futures.add(completionService.submit(() -> {
+                    // Otra comparación ya encontró la contraseña: no gastar CPU en esta
+                    if (found.get()) {
+                        return false;
+                    }
+                    boolean matches = passwordEncoder.matches(rawPassword, hash);
+                    if (matches) {
+                        found.set(true);
+                    }
+                    return matches;
+                }));
+                if (found.get()) {
+                    // Una tarea ejecutada en este hilo (pool lleno) ya coincidió
+                    return true;
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (completionService.take().get()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificación del historial de contraseñas interrumpida", e);
+        } catch (RejectedExecutionException | CancellationException e) {
+            throw new IllegalStateException("Verificación del historial de contraseñas detenida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error verificando el historial de contraseñas", e.getCause());
+        } finally {
+            found.set(true);
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+}
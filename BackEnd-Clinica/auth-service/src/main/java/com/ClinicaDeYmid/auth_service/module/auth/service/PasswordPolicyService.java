@@ -6,7 +6,6 @@ import com.ClinicaDeYmid.auth_service.module.user.repository.PasswordHistoryRepo
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +20,7 @@ import java.util.regex.Pattern;
 public class PasswordPolicyService {
 
     private final PasswordHistoryRepository passwordHistoryRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHistoryVerifier passwordHistoryVerifier;
 
     @Value("${auth.password.min-length:8}")
     private int minLength;
@@ -100,7 +99,8 @@ public class PasswordPolicyService {
     }
 
     /**
-     * Verifica si una contraseña ya fue usada recientemente
+     * Verifica si una contraseña ya fue usada recientemente. Los hashes se comparan en paralelo y
+     * la búsqueda termina con la primera coincidencia.
      */
     public boolean isPasswordInHistory(User user, String rawPassword) {
         log.debug("Verificando si contraseña fue usada recientemente por usuario: {}", user.getEmail());
@@ -108,8 +108,9 @@ public class PasswordPolicyService {
         List<PasswordHistory> recentPasswords = passwordHistoryRepository
                 .findRecentPasswordsByUser(user, passwordHistoryCount);
 
-        boolean isInHistory = recentPasswords.stream()
-                .anyMatch(ph -> passwordEncoder.matches(rawPassword, ph.getPasswordHash()));
+        boolean isInHistory = passwordHistoryVerifier.matchesAny(rawPassword, recentPasswords.stream()
+                .map(PasswordHistory::getPasswordHash)
+                .toList());
 
         if (isInHistory) {
             log.warn("Usuario {} intentó reutilizar una contraseña reciente", user.getEmail());
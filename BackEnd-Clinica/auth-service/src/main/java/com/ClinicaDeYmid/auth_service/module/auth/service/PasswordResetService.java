@@ -3,6 +3,7 @@ package com.ClinicaDeYmid.auth_service.module.auth.service;
 import com.ClinicaDeYmid.auth_service.infra.exceptions.UserNotFoundException;
 import com.ClinicaDeYmid.auth_service.module.auth.entity.PasswordResetToken;
 import com.ClinicaDeYmid.auth_service.module.auth.repository.PasswordResetTokenRepository;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
 import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ public class PasswordResetService {
     private final PasswordEncoder passwordEncoder;
     private final PasswordPolicyService passwordPolicyService;
     private final AuditLogService auditLogService;
+    private final PrincipalCache principalCache;
     // TODO: Aquí inyectarías tu EmailService cuando lo implementes
     // private final EmailService emailService;
 
@@ -111,6 +113,7 @@ public class PasswordResetService {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.updateLastPasswordChange(user.getId(), LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getUuid());
 
         // Marcar token como usado
         resetToken.markAsUsed();
@@ -1,6 +1,7 @@
 package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +12,10 @@ public class RedisTokenBlacklistService implements TokenBlacklistService {
 
     private final RedisTemplate<String, String> redisTemplate;
 
+    /** Canal donde el api-gateway escucha revocaciones para actualizar su caché local. */
+    @Value("${auth.blacklist.channel:auth:token-revoked}")
+    private String revocationChannel;
+
     public RedisTokenBlacklistService(RedisTemplate<String, String> redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
@@ -19,6 +24,7 @@ public class RedisTokenBlacklistService implements TokenBlacklistService {
     public void blacklistToken(String token, long expirationInSeconds) {
         String hashed = DigestUtils.sha256Hex(token);
         redisTemplate.opsForValue().set(hashed, "revoked", expirationInSeconds, TimeUnit.SECONDS);
+        redisTemplate.convertAndSend(revocationChannel, hashed);
     }
 
     @Override
@@ -0,0 +1,250 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sesiones de refresh guardadas en Redis, por hash del token.
+ *
+ * <p>Cada sesión es un hash {@code auth:refresh:{uuid}:session:<sha256>} que vence solo al
+ * caducar el token, y cada usuario tiene un índice {@code auth:refresh:{uuid}:sessions} (sorted
+ * set con la fecha de expiración de cada sesión). Crear, rotar y revocar son un único script:
+ * el límite de sesiones se aplica en el mismo paso, sin leer la lista completa. Todas las claves
+ * de un usuario comparten hash tag, de modo que los scripts funcionan también con Redis
+ * Cluster.</p>
+ */
+@Component
+public class RefreshSessionStore {
+
+    private static final String KEY_PREFIX = "auth:refresh:";
+
+    private static final String USER_ID = "userId";
+    private static final String IP_ADDRESS = "ip";
+    private static final String USER_AGENT = "ua";
+    private static final String CREATED_AT = "createdAt";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    /**
+     * Guarda una sesión en el índice del usuario, descarta las vencidas y, si se supera el máximo,
+     * borra las más antiguas. Devuelve los hashes descartados por el límite.
+     */
+    private static final String ADD_SESSION = """
+            local function addSession(index, key, prefix, now, hash, expiresAt, max, fields)
+                redis.call('ZREMRANGEBYSCORE', index, '-inf', now)
+                redis.call('HSET', key, unpack(fields))
+                redis.call('PEXPIREAT', key, expiresAt)
+                redis.call('ZADD', index, expiresAt, hash)
+                redis.call('PEXPIREAT', index, expiresAt)
+                local evicted = {}
+                local excess = redis.call('ZCARD', index) - max
+                if excess > 0 then
+                    evicted = redis.call('ZRANGE', index, 0, excess - 1)
+                    for _, old in ipairs(evicted) do
+                        redis.call('DEL', prefix .. old)
+                    end
+                    redis.call('ZREMRANGEBYRANK', index, 0, excess - 1)
+                end
+                return evicted
+            end
+            """;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CREATE = new DefaultRedisScript<>(ADD_SESSION + """
+            return addSession(KEYS[1], KEYS[2], ARGV[1], ARGV[2], ARGV[3], ARGV[4], tonumber(ARGV[5]),
+                {unpack(ARGV, 6)})
+            """, List.class);
+
+    /**
+     * Sustituye la sesión anterior por la nueva. Si la anterior ya no existe (revocada, vencida
+     * o usada por otra petición) no crea nada y devuelve nil.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>(ADD_SESSION + """
+            if redis.call('DEL', KEYS[3]) == 0 then
+                return false
+            end
+            redis.call('ZREM', KEYS[1], ARGV[6])
+            return addSession(KEYS[1], KEYS[2], ARGV[1], ARGV[2], ARGV[3], ARGV[4], tonumber(ARGV[5]),
+                {unpack(ARGV, 7)})
+            """, List.class);
+
+    private static final RedisScript<Long> REVOKE = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return redis.call('DEL', KEYS[2])
+            """, Long.class);
+
+    /**
+     * Borra todas las sesiones del usuario y su índice. Devuelve cuántas había.
+     */
+    private static final RedisScript<Long> REVOKE_ALL = new DefaultRedisScript<>("""
+            local hashes = redis.call('ZRANGE', KEYS[1], 0, -1)
+            for _, hash in ipairs(hashes) do
+                redis.call('DEL', ARGV[1] .. hash)
+            end
+            redis.call('DEL', KEYS[1])
+            return #hashes
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RefreshSessionStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Guarda la sesión y devuelve los hashes de las sesiones descartadas por superar
+     * {@code maxSessions}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> create(String userUuid, RefreshSession session, int maxSessions) {
+        List<String> evicted = redisTemplate.execute(CREATE,
+                List.of(indexKey(userUuid), sessionKey(userUuid, session.id())),
+                addArgs(userUuid, session, maxSessions).toArray());
+        return evicted != null ? evicted : List.of();
+    }
+
+    /**
+     * Sustituye {@code oldSessionId} por {@code session} de forma atómica. Vacío si la sesión
+     * anterior ya no existía; si no, los hashes descartados por superar {@code maxSessions}.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<List<String>> rotate(String userUuid, String oldSessionId, RefreshSession session,
+                                         int maxSessions) {
+        List<String> args = addArgs(userUuid, session, maxSessions);
+        args.add(5, oldSessionId);
+        List<String> evicted = redisTemplate.execute(ROTATE,
+                List.of(indexKey(userUuid), sessionKey(userUuid, session.id()), sessionKey(userUuid, oldSessionId)),
+                args.toArray());
+        return Optional.ofNullable(evicted);
+    }
+
+    public Optional<RefreshSession> find(String userUuid, String sessionId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash()
+                .entries(sessionKey(userUuid, sessionId));
+        return Optional.ofNullable(toSession(sessionId, fields));
+    }
+
+    /**
+     * Borra la sesión. Devuelve {@code false} si no existía.
+     */
+    public boolean revoke(String userUuid, String sessionId) {
+        Long deleted = redisTemplate.execute(REVOKE,
+                List.of(indexKey(userUuid), sessionKey(userUuid, sessionId)), sessionId);
+        return deleted != null && deleted > 0;
+    }
+
+    public long revokeAll(String userUuid) {
+        Long revoked = redisTemplate.execute(REVOKE_ALL, List.of(indexKey(userUuid)), sessionPrefix(userUuid));
+        return revoked != null ? revoked : 0L;
+    }
+
+    /**
+     * Sesiones vigentes del usuario, sin leer ninguna de ellas.
+     */
+    public long countActive(String userUuid) {
+        Long count = redisTemplate.opsForZSet()
+                .count(indexKey(userUuid), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Sesiones vigentes del usuario, la más reciente primero. Los hashes se leen en un único viaje.
+     */
+    @SuppressWarnings("unchecked")
+    public List<RefreshSession> findActive(String userUuid) {
+        Set<String> ids = redisTemplate.opsForZSet()
+                .reverseRangeByScore(indexKey(userUuid), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> orderedIds = List.copyOf(ids);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String id : orderedIds) {
+                connection.hashCommands().hGetAll(bytes(sessionKey(userUuid, id)));
+            }
+            return null;
+        });
+
+        List<RefreshSession> sessions = new ArrayList<>(orderedIds.size());
+        for (int i = 0; i < orderedIds.size(); i++) {
+            RefreshSession session = toSession(orderedIds.get(i), (Map<String, String>) results.get(i));
+            if (session != null) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    private List<String> addArgs(String userUuid, RefreshSession session, int maxSessions) {
+        return new ArrayList<>(List.of(
+                sessionPrefix(userUuid),
+                String.valueOf(System.currentTimeMillis()),
+                session.id(),
+                String.valueOf(toMillis(session.expiresAt())),
+                String.valueOf(maxSessions),
+                USER_ID, String.valueOf(session.userId()),
+                IP_ADDRESS, nullToEmpty(session.ipAddress()),
+                USER_AGENT, nullToEmpty(session.userAgent()),
+                CREATED_AT, String.valueOf(toMillis(session.createdAt())),
+                EXPIRES_AT, String.valueOf(toMillis(session.expiresAt()))));
+    }
+
+    private static RefreshSession toSession(String id, Map<String, String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        return new RefreshSession(
+                id,
+                Long.valueOf(fields.get(USER_ID)),
+                emptyToNull(fields.get(IP_ADDRESS)),
+                emptyToNull(fields.get(USER_AGENT)),
+                fromMillis(fields.get(CREATED_AT)),
+                fromMillis(fields.get(EXPIRES_AT)));
+    }
+
+    private static String indexKey(String userUuid) {
+        return KEY_PREFIX + "{" + userUuid + "}:sessions";
+    }
+
+    private static String sessionKey(String userUuid, String sessionId) {
+        return sessionPrefix(userUuid) + sessionId;
+    }
+
+    private static String sessionPrefix(String userUuid) {
+        return KEY_PREFIX + "{" + userUuid + "}:session:";
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(String millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZoneId.systemDefault());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,37 +1,65 @@
 package com.ClinicaDeYmid.auth_service.module.auth.service;
 
-import com.ClinicaDeYmid.auth_service.module.auth.entity.RefreshToken;
+import com.ClinicaDeYmid.auth_service.infra.exceptions.InvalidTokenException;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRevocation;
 import com.ClinicaDeYmid.auth_service.module.auth.repository.RefreshTokenRepository;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
-import lombok.RequiredArgsConstructor;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Sesiones de refresh token.
+ *
+ * <p>Las sesiones vigentes viven en Redis ({@link RefreshSessionStore}), identificadas por el
+ * SHA-256 del token: validar, rotar y aplicar el límite de sesiones no consulta la base de datos.
+ * La tabla {@code refresh_tokens} queda como histórico de auditoría y se escribe por lotes a
+ * través de {@link AuthEventWriter}.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-
-    @Value("${jwt.refresh-token.expiration:604800}")
-    private long refreshTokenExpirationSeconds;
+    private static final int CLEANUP_BATCH_SIZE = 1000;
 
-    @Value("${auth.max-active-sessions:5}")
-    private int maxActiveSessions;
+    private final RefreshSessionStore sessionStore;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthEventWriter authEventWriter;
+
+    private final long refreshTokenExpirationSeconds;
+    private final int maxActiveSessions;
+    private final int retentionDays;
+
+    public RefreshTokenService(
+            RefreshSessionStore sessionStore,
+            RefreshTokenRepository refreshTokenRepository,
+            AuthEventWriter authEventWriter,
+            @Value("${jwt.refresh-token.expiration:604800}") long refreshTokenExpirationSeconds,
+            @Value("${auth.max-active-sessions:5}") int maxActiveSessions,
+            @Value("${auth.refresh-tokens.retention-days:30}") int retentionDays
+    ) {
+        this.sessionStore = sessionStore;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.authEventWriter = authEventWriter;
+        this.refreshTokenExpirationSeconds = refreshTokenExpirationSeconds;
+        this.maxActiveSessions = maxActiveSessions;
+        this.retentionDays = retentionDays;
+    }
 
     /**
-     * Crea y persiste un nuevo refresh token
+     * Registra la sesión de un nuevo refresh token. Si el usuario supera el máximo de sesiones
+     * se revocan las más antiguas en el mismo paso.
      */
-    @Transactional
-    public RefreshToken createRefreshToken(
+    public RefreshSession createRefreshToken(
             String token,
             User user,
             String ipAddress,
@@ -39,133 +67,114 @@ public class RefreshTokenService {
     ) {
         log.debug("Creando refresh token para usuario: {}", user.getEmail());
 
-        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpirationSeconds);
+        RefreshSession session = newSession(token, user, ipAddress, userAgent);
+        List<String> evicted = sessionStore.create(user.getUuid(), session, maxActiveSessions);
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
-                .user(user)
-                .expiresAt(expiresAt)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-
-        RefreshToken saved = refreshTokenRepository.save(refreshToken);
-
-        // Limpiar tokens antiguos si excede el máximo de sesiones
-        cleanupExcessiveSessions(user);
-
-        return saved;
+        authEventWriter.recordRefreshSession(session);
+        recordEvicted(user, evicted);
+        return session;
     }
 
     /**
-     * Busca un refresh token válido
+     * Busca la sesión vigente de un refresh token
      */
-    public Optional<RefreshToken> findValidToken(String token) {
-        return refreshTokenRepository.findByToken(token)
-                .filter(RefreshToken::isValid);
+    public Optional<RefreshSession> findValidToken(String token) {
+        return subjectOf(token)
+                .flatMap(userUuid -> sessionStore.find(userUuid, hash(token)))
+                .filter(RefreshSession::isValid);
     }
 
     /**
      * Revoca un refresh token específico
      */
-    @Transactional
     public void revokeToken(String token) {
         log.info("Revocando refresh token");
 
-        refreshTokenRepository.findByToken(token).ifPresent(refreshToken -> {
-            refreshToken.revoke();
-            refreshTokenRepository.save(refreshToken);
-        });
+        subjectOf(token).ifPresent(userUuid -> revoke(userUuid, hash(token)));
+    }
+
+    /**
+     * Revoca una sesión del usuario por su id. Devuelve {@code false} si no es una sesión vigente
+     * del usuario.
+     */
+    public boolean revokeSession(User user, String sessionId) {
+        return revoke(user.getUuid(), sessionId);
     }
 
     /**
      * Revoca todos los tokens de un usuario (logout from all devices)
      */
-    @Transactional
     public void revokeAllUserTokens(User user) {
         log.info("Revocando todos los tokens del usuario: {}", user.getEmail());
 
-        int revokedCount = refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+        long revokedCount = sessionStore.revokeAll(user.getUuid());
+        authEventWriter.recordRefreshTokenRevocation(RefreshTokenRevocation.ofUser(user.getId()));
 
         log.info("Se revocaron {} tokens para el usuario: {}", revokedCount, user.getEmail());
     }
 
     /**
-     * Implementa refresh token rotation
+     * Implementa refresh token rotation: la sesión anterior se sustituye por la nueva de forma
+     * atómica, así que un mismo refresh token no puede rotarse dos veces.
+     *
+     * @throws InvalidTokenException si la sesión anterior ya no existe
      */
-    @Transactional
-    public RefreshToken rotateToken(
-            RefreshToken oldToken,
-            String newTokenValue,
+    public RefreshSession rotateToken(
+            String oldToken,
+            String newToken,
+            User user,
             String ipAddress,
             String userAgent
     ) {
-        log.debug("Rotando refresh token para usuario: {}", oldToken.getUser().getEmail());
+        log.debug("Rotando refresh token para usuario: {}", user.getEmail());
 
-        // Marcar el token viejo como reemplazado
-        oldToken.setReplacedByToken(newTokenValue);
-        oldToken.revoke();
-        refreshTokenRepository.save(oldToken);
+        String oldHash = hash(oldToken);
+        RefreshSession session = newSession(newToken, user, ipAddress, userAgent);
+        List<String> evicted = sessionStore.rotate(user.getUuid(), oldHash, session, maxActiveSessions)
+                .orElseThrow(() -> new InvalidTokenException("Refresh token no válido o revocado"));
 
-        // Crear el nuevo token
-        return createRefreshToken(newTokenValue, oldToken.getUser(), ipAddress, userAgent);
+        authEventWriter.recordRefreshSession(session);
+        authEventWriter.recordRefreshTokenRevocation(RefreshTokenRevocation.ofToken(oldHash, session.id()));
+        recordEvicted(user, evicted);
+        return session;
     }
 
     /**
-     * Obtiene todos los tokens válidos de un usuario
+     * Obtiene las sesiones vigentes de un usuario, la más reciente primero
      */
-    public List<RefreshToken> getUserActiveSessions(User user) {
-        return refreshTokenRepository.findValidTokensByUser(user, LocalDateTime.now());
+    public List<RefreshSession> getUserActiveSessions(User user) {
+        return sessionStore.findActive(user.getUuid());
     }
 
-    /**
-     * Verifica si un usuario ha excedido el límite de sesiones activas
-     */
-    public boolean hasExceededMaxSessions(User user) {
-        long activeSessionsCount = refreshTokenRepository
-                .countValidTokensByUser(user, LocalDateTime.now());
-
-        return activeSessionsCount >= maxActiveSessions;
+    public long countActiveSessions(User user) {
+        return sessionStore.countActive(user.getUuid());
     }
 
     /**
-     * Limpia tokens antiguos si el usuario excede el máximo de sesiones
+     * Verifica si un usuario ha alcanzado el límite de sesiones activas
      */
-    @Transactional
-    protected void cleanupExcessiveSessions(User user) {
-        List<RefreshToken> activeSessions = getUserActiveSessions(user);
-
-        if (activeSessions.size() > maxActiveSessions) {
-            log.info("Usuario {} excedió el límite de sesiones activas. Limpiando...",
-                    user.getEmail());
-
-            // Revocar las sesiones más antiguas
-            // La lista viene ordenada por createdAt DESC, entonces saltamos los más recientes
-            int tokensToRevoke = activeSessions.size() - maxActiveSessions;
-
-            activeSessions.stream()
-                    .skip(maxActiveSessions)  // Saltamos los tokens más recientes
-                    .forEach(token -> {
-                        token.revoke();
-                        refreshTokenRepository.save(token);
-                    });
-
-            log.debug("Se revocaron {} sesiones antiguas", tokensToRevoke);
-        }
+    public boolean hasExceededMaxSessions(User user) {
+        return countActiveSessions(user) >= maxActiveSessions;
     }
 
     /**
-     * Limpia tokens expirados de la base de datos (ejecutado diariamente)
+     * Purga del histórico los tokens vencidos hace más de {@code auth.refresh-tokens.retention-days}
+     * (ejecutado diariamente). Las sesiones de Redis vencen solas.
      */
     @Scheduled(cron = "${auth.cleanup-cron:0 0 2 * * *}") // 2 AM por defecto
-    @Transactional
     public void cleanupExpiredTokens() {
-        log.info("Ejecutando limpieza de refresh tokens expirados");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        log.info("Ejecutando limpieza de refresh tokens vencidos antes de: {}", cutoff);
 
-        int deletedCount = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        int deletedCount = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBefore(cutoff, CLEANUP_BATCH_SIZE);
+            deletedCount += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
 
         if (deletedCount > 0) {
-            log.info("Se eliminaron {} refresh tokens expirados", deletedCount);
+            log.info("Se eliminaron {} refresh tokens vencidos", deletedCount);
         }
     }
 
@@ -173,16 +182,60 @@ public class RefreshTokenService {
      * Obtiene información de sesión por token
      */
     public Optional<SessionInfo> getSessionInfo(String token) {
-        return refreshTokenRepository.findByToken(token)
-                .map(rt -> new SessionInfo(
-                        rt.getIpAddress(),
-                        rt.getUserAgent(),
-                        rt.getCreatedAt(),
-                        rt.getExpiresAt(),
-                        rt.isRevoked()
+        return subjectOf(token)
+                .flatMap(userUuid -> sessionStore.find(userUuid, hash(token)))
+                .map(session -> new SessionInfo(
+                        session.ipAddress(),
+                        session.userAgent(),
+                        session.createdAt(),
+                        session.expiresAt(),
+                        false
                 ));
     }
 
+    /**
+     * Id de la sesión de un refresh token: su SHA-256 en hexadecimal.
+     */
+    public static String hash(String token) {
+        return DigestUtils.sha256Hex(token);
+    }
+
+    private RefreshSession newSession(String token, User user, String ipAddress, String userAgent) {
+        LocalDateTime now = LocalDateTime.now();
+        return new RefreshSession(hash(token), user.getId(), ipAddress, userAgent,
+                now, now.plusSeconds(refreshTokenExpirationSeconds));
+    }
+
+    private boolean revoke(String userUuid, String sessionId) {
+        boolean revoked = sessionStore.revoke(userUuid, sessionId);
+        if (revoked) {
+            authEventWriter.recordRefreshTokenRevocation(RefreshTokenRevocation.ofToken(sessionId, null));
+        }
+        return revoked;
+    }
+
+    private void recordEvicted(User user, List<String> evicted) {
+        if (evicted.isEmpty()) {
+            return;
+        }
+        log.info("Usuario {} excedió el límite de sesiones activas; se revocaron {} sesiones antiguas",
+                user.getEmail(), evicted.size());
+        evicted.forEach(sessionId ->
+                authEventWriter.recordRefreshTokenRevocation(RefreshTokenRevocation.ofToken(sessionId, null)));
+    }
+
+    /**
+     * UUID del usuario dueño del token. Las claves de Redis de sus sesiones dependen de él; el
+     * token no se verifica aquí porque solo se acepta si su hash coincide con una sesión guardada.
+     */
+    private static Optional<String> subjectOf(String token) {
+        try {
+            return Optional.ofNullable(JWT.decode(token).getSubject());
+        } catch (JWTDecodeException e) {
+            return Optional.empty();
+        }
+    }
+
     public record SessionInfo(
             String ipAddress,
             String userAgent,
@@ -190,4 +243,4 @@ public class RefreshTokenService {
             LocalDateTime expiresAt,
             boolean revoked
     ) {}
-}
\ No newline at end of file
+}
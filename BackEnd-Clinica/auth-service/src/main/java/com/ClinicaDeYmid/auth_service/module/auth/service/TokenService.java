@@ -2,16 +2,18 @@ package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import com.ClinicaDeYmid.auth_service.infra.exceptions.InvalidTokenException;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.TokenPair;
-import com.ClinicaDeYmid.auth_service.module.auth.entity.RefreshToken;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -27,9 +29,20 @@ import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Emite y valida los JWT de la aplicación.
+ *
+ * <p>Con RS256 cada token lleva en la cabecera el {@code kid} de la clave con la que se firmó. Las
+ * claves públicas de {@code jwt.rsa.previous-public-key-paths} siguen publicándose y aceptándose
+ * tras una rotación, hasta que caduquen los tokens firmados con ellas.</p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -44,6 +57,9 @@ public class TokenService {
     @Value("${jwt.rsa.public-key-path}")
     private String publicKeyPath;
 
+    @Value("${jwt.rsa.previous-public-key-paths:}")
+    private List<String> previousPublicKeyPaths;
+
     @Value("${jwt.access-token.expiration}")
     private Long accessTokenExpiration;
 
@@ -64,12 +80,19 @@ public class TokenService {
     private RSAPublicKey publicKey;
     private Algorithm algorithm;
 
+    private String keyId;
+    /** Claves públicas por kid, la activa primero. */
+    private Map<String, RSAPublicKey> publicKeys = Map.of();
+    private Map<String, JWTVerifier> verifiers = Map.of();
+    private String keySetVersion;
+
     @PostConstruct
     public void init() {
         try {
             if ("RS256".equalsIgnoreCase(algorithmType)) {
                 loadRSAKeys();
                 algorithm = Algorithm.RSA256(publicKey, privateKey);
+                loadKeySet();
             } else if ("HS256".equalsIgnoreCase(algorithmType)) {
                 if (hmacSecret == null || hmacSecret.trim().isEmpty()) {
                     throw new IllegalStateException("JWT secret is required for HS256 algorithm");
@@ -102,9 +125,13 @@ public class TokenService {
         KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM_TYPE);
         this.privateKey = (RSAPrivateKey) keyFactory.generatePrivate(privateKeySpec);
 
-        Resource publicKeyResource = resourceLoader.getResource(publicKeyPath);
+        this.publicKey = readPublicKey(publicKeyPath);
+    }
+
+    private RSAPublicKey readPublicKey(String path) throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
+        Resource publicKeyResource = resourceLoader.getResource(path);
         if (!publicKeyResource.exists()) {
-            throw new IllegalStateException("Archivo de clave pública no encontrado: " + publicKeyPath);
+            throw new IllegalStateException("Archivo de clave pública no encontrado: " + path);
         }
 
         String publicKeyContent = new String(publicKeyResource.getInputStream().readAllBytes())
@@ -114,7 +141,46 @@ public class TokenService {
 
         byte[] publicKeyBytes = Base64.getDecoder().decode(publicKeyContent);
         X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
-        this.publicKey = (RSAPublicKey) keyFactory.generatePublic(publicKeySpec);
+        return (RSAPublicKey) KeyFactory.getInstance(ALGORITHM_TYPE).generatePublic(publicKeySpec);
+    }
+
+    /**
+     * Construye el conjunto de claves publicado: la activa y las anteriores aún aceptadas.
+     */
+    private void loadKeySet() throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
+        Map<String, RSAPublicKey> keys = new LinkedHashMap<>();
+        keys.put(keyIdOf(publicKey), publicKey);
+        for (String path : previousPublicKeyPaths) {
+            if (!path.isBlank()) {
+                RSAPublicKey previous = readPublicKey(path.trim());
+                keys.putIfAbsent(keyIdOf(previous), previous);
+            }
+        }
+
+        Map<String, JWTVerifier> keyVerifiers = new LinkedHashMap<>();
+        keys.forEach((kid, key) -> keyVerifiers.put(kid, buildVerifier(Algorithm.RSA256(key, null))));
+
+        this.keyId = keyIdOf(publicKey);
+        this.publicKeys = Collections.unmodifiableMap(keys);
+        this.verifiers = Collections.unmodifiableMap(keyVerifiers);
+        this.keySetVersion = DigestUtils.sha256Hex(String.join(",", keys.keySet())).substring(0, 16);
+        log.info("🔑 Conjunto de claves JWT cargado: kid activo {}, {} claves, versión {}",
+                keyId, keys.size(), keySetVersion);
+    }
+
+    /**
+     * kid de una clave: SHA-256 de su codificación X.509 en Base64 URL. Es estable entre réplicas
+     * que comparten la clave.
+     */
+    static String keyIdOf(RSAPublicKey key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(DigestUtils.sha256(key.getEncoded()));
+    }
+
+    private static JWTVerifier buildVerifier(Algorithm verificationAlgorithm) {
+        return JWT.require(verificationAlgorithm)
+                .withIssuer(ISSUER)
+                .acceptLeeway(10)
+                .build();
     }
 
     private Instant getAccessTokenExpirationTime() {
@@ -134,8 +200,7 @@ public class TokenService {
     public String generateAccessToken(User user) {
         validateUser(user);
         try {
-            return JWT.create()
-                    .withIssuer(ISSUER)
+            return newToken()
                     .withSubject(user.getUuid())
                     .withIssuedAt(new Date())
                     .withExpiresAt(Date.from(getAccessTokenExpirationTime()))
@@ -152,8 +217,7 @@ public class TokenService {
     public String generateRefreshToken(User user) {
         validateUser(user);
         try {
-            return JWT.create()
-                    .withIssuer(ISSUER)
+            return newToken()
                     .withSubject(user.getUuid())
                     .withIssuedAt(new Date())
                     .withExpiresAt(Date.from(getRefreshTokenExpirationTime()))
@@ -165,6 +229,11 @@ public class TokenService {
         }
     }
 
+    private JWTCreator.Builder newToken() {
+        JWTCreator.Builder builder = JWT.create().withIssuer(ISSUER);
+        return keyId != null ? builder.withKeyId(keyId) : builder;
+    }
+
     /**
      * Genera par de tokens y persiste el refresh token
      */
@@ -172,7 +241,7 @@ public class TokenService {
         String accessToken = generateAccessToken(user);
         String refreshToken = generateRefreshToken(user);
 
-        // Persistir el refresh token
+        // Registrar la sesión del refresh token
         refreshTokenService.createRefreshToken(refreshToken, user, ipAddress, userAgent);
 
         return new TokenPair(accessToken, refreshToken, "Bearer", accessTokenExpiration);
@@ -188,11 +257,16 @@ public class TokenService {
 
     public DecodedJWT validateAndDecodeToken(String token) {
         try {
-            return JWT.require(algorithm)
-                    .withIssuer(ISSUER)
-                    .acceptLeeway(10)
-                    .build()
-                    .verify(token);
+            if (verifiers.isEmpty()) {
+                return buildVerifier(algorithm).verify(token);
+            }
+            DecodedJWT decoded = JWT.decode(token);
+            // Tokens emitidos antes de firmar con kid: se validan con la clave activa
+            JWTVerifier verifier = verifiers.get(decoded.getKeyId() != null ? decoded.getKeyId() : keyId);
+            if (verifier == null) {
+                throw new InvalidTokenException("Token firmado con una clave desconocida");
+            }
+            return verifier.verify(decoded);
         } catch (JWTVerificationException e) {
             log.warn("Token inválido: {}", e.getMessage());
             throw new InvalidTokenException("Token inválido o expirado");
@@ -200,6 +274,14 @@ public class TokenService {
     }
 
     public void validateAccessToken(String token) {
+        verifyAccessToken(token);
+    }
+
+    /**
+     * Valida un access token (blacklist, firma, expiración y tipo) y devuelve el token
+     * decodificado, para leer sus claims sin volver a verificar la firma.
+     */
+    public DecodedJWT verifyAccessToken(String token) {
         try {
             log.debug("Verificando si token está en blacklist");
             if (tokenBlacklistService.isTokenBlacklisted(token)) {
@@ -217,6 +299,7 @@ public class TokenService {
             }
 
             log.debug("Token de acceso válido");
+            return decodedJWT;
 
         } catch (InvalidTokenException e) {
             throw e;
@@ -233,36 +316,29 @@ public class TokenService {
             throw new RuntimeException("Token no es de tipo refresh");
         }
 
-        // Verificar que el token esté en la base de datos y sea válido
-        RefreshToken refreshToken = refreshTokenService.findValidToken(token)
+        // Verificar que la sesión del token siga vigente
+        refreshTokenService.findValidToken(token)
                 .orElseThrow(() -> new RuntimeException("Refresh token no válido o revocado"));
-
-        if (!refreshToken.isValid()) {
-            throw new RuntimeException("Refresh token expirado o revocado");
-        }
     }
 
     /**
      * Refresca tokens con rotación automática
      */
     public TokenPair refreshTokens(String oldRefreshToken, User user, String ipAddress, String userAgent) {
-        validateRefreshToken(oldRefreshToken);
-
         DecodedJWT decodedJWT = validateAndDecodeToken(oldRefreshToken);
+        if (!"refresh".equals(decodedJWT.getClaim("type").asString())) {
+            throw new RuntimeException("Token no es de tipo refresh");
+        }
         if (!user.getUuid().equals(decodedJWT.getSubject())) {
             throw new RuntimeException("Refresh token no pertenece al usuario");
         }
 
-        // Obtener el token de la BD
-        RefreshToken oldToken = refreshTokenService.findValidToken(oldRefreshToken)
-                .orElseThrow(() -> new RuntimeException("Refresh token no encontrado"));
-
         // Generar nuevos tokens
         String newAccessToken = generateAccessToken(user);
         String newRefreshToken = generateRefreshToken(user);
 
-        // Rotar el refresh token
-        refreshTokenService.rotateToken(oldToken, newRefreshToken, ipAddress, userAgent);
+        // Rotar el refresh token: falla si la sesión anterior ya no existe
+        refreshTokenService.rotateToken(oldRefreshToken, newRefreshToken, user, ipAddress, userAgent);
 
         return new TokenPair(newAccessToken, newRefreshToken, "Bearer", accessTokenExpiration);
     }
@@ -288,4 +364,25 @@ public class TokenService {
         }
         return publicKey;
     }
+
+    /**
+     * Claves públicas aceptadas por kid, con la activa primero.
+     */
+    public Map<String, RSAPublicKey> getPublicKeys() {
+        if (!"RS256".equalsIgnoreCase(algorithmType)) {
+            throw new IllegalStateException("La clave pública solo está disponible con RS256");
+        }
+        return publicKeys;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Versión del conjunto de claves: cambia cuando se añade o retira alguna.
+     */
+    public String getKeySetVersion() {
+        return keySetVersion;
+    }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Validated
@@ -92,6 +93,17 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Obtiene varios usuarios por ID en una sola petición
+     */
+    @PostMapping("/batch")
+    @Operation (summary = "Get users by IDs", description = "Retrieves several users by their IDs in a single request. Missing IDs are omitted.")
+    public ResponseEntity<Map<Long, UserResponseDTO>> getUsersByIds(
+            @Valid @RequestBody UserBatchRequestDTO request) {
+        log.info("Fetching {} users in batch", request.ids().size());
+        return ResponseEntity.ok(userGetService.getUsersByIds(request.ids()));
+    }
+
     /**
      * Obtiene un usuario por UUID
      */
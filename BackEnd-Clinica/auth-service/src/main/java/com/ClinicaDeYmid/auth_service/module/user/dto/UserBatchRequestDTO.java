@@ -0,0 +1,18 @@
+package com.ClinicaDeYmid.auth_service.module.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request DTO for retrieving several users by ID")
+public record UserBatchRequestDTO(
+        @NotEmpty(message = "Se requiere al menos un ID de usuario")
+        @Size(max = UserBatchRequestDTO.MAX_IDS, message = "Se permiten como máximo " + UserBatchRequestDTO.MAX_IDS + " IDs por petición")
+        @Schema(description = "IDs de los usuarios a consultar", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<@NotNull Long> ids
+) {
+    public static final int MAX_IDS = 100;
+}
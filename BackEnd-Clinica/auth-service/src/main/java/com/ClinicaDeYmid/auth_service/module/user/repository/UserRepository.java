@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +20,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUuid(String uuid);
 
+    /**
+     * Busca un usuario por UUID en una sola consulta, con rol y permisos (principal de la petición)
+     */
+    @Query("""
+        SELECT u FROM User u
+        JOIN FETCH u.role r
+        LEFT JOIN FETCH r.permissions
+        WHERE u.uuid = :uuid
+        """)
+    Optional<User> findByUuidWithRole(@Param("uuid") String uuid);
+
+    /**
+     * Busca varios usuarios por ID en una sola consulta, con rol y permisos
+     */
+    @Query("""
+        SELECT DISTINCT u FROM User u
+        LEFT JOIN FETCH u.role r
+        LEFT JOIN FETCH r.permissions
+        WHERE u.id IN :ids
+        """)
+    List<User> findAllByIdInWithRole(@Param("ids") Collection<Long> ids);
+
     Optional<User> findByEmail(String email);
 
+    /**
+     * Busca un usuario por email en una sola consulta, con rol y permisos (camino del login)
+     */
+    @Query("""
+        SELECT u FROM User u
+        JOIN FETCH u.role r
+        LEFT JOIN FETCH r.permissions
+        WHERE u.email = :email
+        """)
+    Optional<User> findByEmailWithRole(@Param("email") String email);
+
     Optional<User> findByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -54,17 +88,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Page<User> findByStatus(StatusUser status, Pageable pageable);
 
-    /**
-     * Incrementa el contador de intentos fallidos
-     */
-    @Modifying
-    @Query("""
-        UPDATE User u
-        SET u.failedLoginAttempts = u.failedLoginAttempts + 1
-        WHERE u.id = :userId
-        """)
-    void incrementFailedLoginAttempts(@Param("userId") Long userId);
-
     /**
      * Resetea el contador de intentos fallidos
      */
@@ -76,28 +99,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
         """)
     void resetFailedLoginAttempts(@Param("userId") Long userId);
 
-    /**
-     * Bloquea una cuenta hasta una fecha
-     */
-    @Modifying
-    @Query("""
-        UPDATE User u
-        SET u.accountLockedUntil = :lockUntil, u.status = :status
-        WHERE u.id = :userId
-        """)
-    void lockAccountUntil(@Param("userId") Long userId, @Param("lockUntil") LocalDateTime lockUntil, @Param("status") StatusUser status);
-
-    /**
-     * Busca cuentas bloqueadas que ya pueden desbloquearse
-     */
-    @Query("""
-        SELECT u FROM User u
-        WHERE u.accountLockedUntil IS NOT NULL
-        AND u.accountLockedUntil < :now
-        AND u.status = :lockedStatus
-        """)
-    List<User> findAccountsToUnlock(@Param("now") LocalDateTime now, @Param("lockedStatus") StatusUser lockedStatus);
-
     /**
      * Actualiza la fecha del último cambio de contraseña
      */
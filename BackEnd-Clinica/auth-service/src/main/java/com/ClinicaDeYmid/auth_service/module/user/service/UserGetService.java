@@ -14,7 +14,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -38,6 +42,16 @@ public class UserGetService {
         return userMapper.toUserResponseDTO(user);
     }
 
+    /**
+     * Obtiene varios usuarios por ID en una sola consulta. Los IDs inexistentes se omiten.
+     */
+    public Map<Long, UserResponseDTO> getUsersByIds(Collection<Long> ids) {
+        log.debug("Buscando {} usuarios en lote", ids.size());
+
+        return userRepository.findAllByIdInWithRole(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(User::getId, userMapper::toUserResponseDTO));
+    }
+
     /**
      * Obtiene un usuario por su UUID
      */
@@ -1,6 +1,7 @@
 package com.ClinicaDeYmid.auth_service.module.user.service;
 
 import com.ClinicaDeYmid.auth_service.infra.exceptions.UserNotFoundException;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserPasswordUpdateDTO;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserRequestDTO;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserResponseDTO;
@@ -30,6 +31,7 @@ public class UserRecordService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
 
     /**
      * Obtiene un usuario o lanza excepción si no existe
@@ -99,6 +101,7 @@ public class UserRecordService {
 
         try {
             User updatedUser = userRepository.save(user);
+            principalCache.invalidate(updatedUser.getUuid());
             log.info("Usuario actualizado exitosamente con ID: {}", updatedUser.getId());
 
             return userMapper.toUserResponseDTO(updatedUser);
@@ -130,6 +133,7 @@ public class UserRecordService {
         // Actualizar contraseña
         user.setPassword(passwordEncoder.encode(passwordUpdateDTO.newPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getUuid());
 
         log.info("Contraseña actualizada exitosamente para usuario ID: {}", id);
     }
@@ -144,6 +148,7 @@ public class UserRecordService {
         User user = getUserOrThrow(id);
         user.deactivate();
         userRepository.save(user);
+        principalCache.invalidate(user.getUuid());
 
         log.info("Usuario eliminado (desactivado) exitosamente con ID: {}", id);
     }
@@ -1,6 +1,7 @@
 package com.ClinicaDeYmid.auth_service.module.user.service;
 
 import com.ClinicaDeYmid.auth_service.infra.exceptions.UserNotFoundException;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserResponseDTO;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserStatusUpdateDTO;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
@@ -20,6 +21,7 @@ public class UserStatusService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
 
     /**
      * Obtiene un usuario o lanza excepción si no existe
@@ -39,6 +41,7 @@ public class UserStatusService {
         User user = getUserOrThrow(id);
         user.activate();
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
 
         log.info("Usuario con ID: {} activado exitosamente", id);
         return userMapper.toUserResponseDTO(savedUser);
@@ -54,6 +57,7 @@ public class UserStatusService {
         User user = getUserOrThrow(id);
         user.deactivate();
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
 
         log.info("Usuario con ID: {} desactivado exitosamente", id);
         return userMapper.toUserResponseDTO(savedUser);
@@ -72,6 +76,7 @@ public class UserStatusService {
         userMapper.updateStatusFromDTO(statusUpdateDTO, user);
 
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
 
         log.info("Estado de usuario con ID: {} actualizado exitosamente", id);
         return userMapper.toUserResponseDTO(savedUser);
@@ -89,6 +94,7 @@ public class UserStatusService {
         user.setActive(false);
 
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
 
         log.info("Usuario con ID: {} suspendido exitosamente", id);
         return userMapper.toUserResponseDTO(savedUser);
@@ -111,6 +117,7 @@ public class UserStatusService {
         user.setActive(true);
 
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
 
         log.info("Usuario con ID: {} reactivado exitosamente", id);
         return userMapper.toUserResponseDTO(savedUser);
@@ -152,6 +159,7 @@ public class UserStatusService {
         }
 
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUuid());
         return userMapper.toUserResponseDTO(savedUser);
     }
 }
\ No newline at end of file
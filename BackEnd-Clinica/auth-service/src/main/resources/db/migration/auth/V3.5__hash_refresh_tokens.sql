@@ -0,0 +1,21 @@
+-- =====================================================
+-- refresh_tokens - Guardar el hash del token en lugar del token
+-- =====================================================
+-- Las sesiones vigentes viven en Redis; esta tabla queda como registro de auditoría
+-- y se identifica cada token por su SHA-256 (hex)
+ALTER TABLE refresh_tokens
+    ADD COLUMN token_hash CHAR(64) NULL AFTER id,
+    ADD COLUMN replaced_by_token_hash CHAR(64) NULL AFTER user_agent;
+
+UPDATE refresh_tokens
+SET token_hash = SHA2(token, 256),
+    replaced_by_token_hash = IF(replaced_by_token IS NULL, NULL, SHA2(replaced_by_token, 256));
+
+ALTER TABLE refresh_tokens
+    DROP INDEX idx_token_unique,
+    DROP INDEX idx_refresh_token,
+    DROP COLUMN token,
+    DROP COLUMN replaced_by_token,
+    MODIFY COLUMN token_hash CHAR(64) NOT NULL;
+
+CREATE UNIQUE INDEX idx_token_hash_unique ON refresh_tokens(token_hash);
@@ -0,0 +1,55 @@
+package com.ClinicaDeYmid.auth_service.module.auth.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ClientIpResolver - Unit Tests")
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "127.0.0.1"));
+
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("Sin proxy de confianza debe ignorar X-Forwarded-For")
+    void testUntrustedRemoteIgnoresHeader() {
+        // Act & Assert
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "198.51.100.1")));
+    }
+
+    @Test
+    @DisplayName("Debe usar el último salto que no es un proxy de confianza")
+    void testTrustedProxyUsesLastUntrustedHop() {
+        // Arrange: el cliente falsea la primera entrada; el gateway añade la IP real
+        MockHttpServletRequest request = request("10.0.0.5", "198.51.100.1, 203.0.113.7, 10.0.0.9");
+
+        // Act & Assert
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    @DisplayName("Sin X-Forwarded-For debe usar la dirección remota")
+    void testTrustedProxyWithoutHeaderUsesRemoteAddress() {
+        // Act & Assert
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", null)));
+    }
+
+    @Test
+    @DisplayName("Una entrada que no es IP no se trata como proxy")
+    void testNonIpHopIsNotTrusted() {
+        // Act & Assert
+        assertEquals("unknown", resolver.resolve(request("127.0.0.1", "203.0.113.7, unknown")));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ClinicaDeYmid.auth_service.module.auth.security;
+
+import com.ClinicaDeYmid.auth_service.module.user.entity.Role;
+import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
+import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PrincipalCache - Unit Tests")
+class PrincipalCacheTest {
+
+    private static final String UUID = "user-uuid";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userRepository, redisTemplate, meterRegistry,
+                100, Duration.ofMinutes(5), "auth:principal-invalidated");
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ADMIN");
+        role.setPermissions(List.of("USER_READ", "USER_WRITE"));
+
+        user = User.builder()
+                .id(1L)
+                .uuid(UUID)
+                .email("test@example.com")
+                .username("testuser")
+                .role(role)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debe consultar la base de datos solo en el primer acceso")
+    void testGetCachesPrincipal() {
+        // Arrange
+        when(userRepository.findByUuidWithRole(UUID)).thenReturn(Optional.of(user));
+
+        // Act
+        AuthPrincipal first = principalCache.get(UUID).orElseThrow();
+        AuthPrincipal second = principalCache.get(UUID).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("ADMIN", first.role());
+        assertEquals(2, first.authorities().size());
+        assertTrue(first.enabled());
+        verify(userRepository, times(1)).findByUuidWithRole(UUID);
+        assertEquals(1, meterRegistry.get("auth.principal.db.lookups").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debe recargar el principal tras invalidarlo")
+    void testInvalidateReloads() {
+        // Arrange
+        when(userRepository.findByUuidWithRole(UUID)).thenReturn(Optional.of(user));
+        principalCache.get(UUID);
+
+        // Act
+        user.setStatus(StatusUser.SUSPENDED);
+        principalCache.invalidate(UUID);
+        AuthPrincipal reloaded = principalCache.get(UUID).orElseThrow();
+
+        // Assert
+        assertFalse(reloaded.enabled());
+        verify(userRepository, times(2)).findByUuidWithRole(UUID);
+        verify(redisTemplate).convertAndSend("auth:principal-invalidated", UUID);
+    }
+
+    @Test
+    @DisplayName("Debe descartar el principal al recibir la invalidación de otra instancia")
+    void testOnMessageEvicts() {
+        // Arrange
+        when(userRepository.findByUuidWithRole(UUID)).thenReturn(Optional.of(user));
+        principalCache.get(UUID);
+
+        // Act
+        principalCache.onMessage(new DefaultMessage(
+                "auth:principal-invalidated".getBytes(StandardCharsets.UTF_8),
+                UUID.getBytes(StandardCharsets.UTF_8)), null);
+        principalCache.get(UUID);
+
+        // Assert
+        verify(userRepository, times(2)).findByUuidWithRole(UUID);
+    }
+
+    @Test
+    @DisplayName("No debe cachear un UUID inexistente")
+    void testMissingUserIsNotCached() {
+        // Arrange
+        when(userRepository.findByUuidWithRole(UUID)).thenReturn(Optional.empty());
+
+        // Act
+        assertTrue(principalCache.get(UUID).isEmpty());
+        assertTrue(principalCache.get(UUID).isEmpty());
+
+        // Assert
+        verify(userRepository, times(2)).findByUuidWithRole(UUID);
+    }
+
+    @Test
+    @DisplayName("No debe cachear un principal cargado mientras llega una invalidación")
+    void testInvalidationDuringLoadIsNotLost() throws InterruptedException {
+        // Arrange: otra instancia avisa del cambio mientras se lee la fila anterior
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Thread invalidator = new Thread(() -> {
+            principalCache.onMessage(new DefaultMessage(
+                    "auth:principal-invalidated".getBytes(StandardCharsets.UTF_8),
+                    UUID.getBytes(StandardCharsets.UTF_8)), null);
+            invalidated.countDown();
+        });
+        when(userRepository.findByUuidWithRole(UUID))
+                .thenAnswer(invocation -> {
+                    invalidator.start();
+                    invalidated.await(200, TimeUnit.MILLISECONDS);
+                    return Optional.of(user);
+                })
+                .thenReturn(Optional.of(user));
+
+        // Act
+        principalCache.get(UUID);
+        invalidator.join(5000);
+        principalCache.get(UUID);
+
+        // Assert
+        verify(userRepository, times(2)).findByUuidWithRole(UUID);
+    }
+}
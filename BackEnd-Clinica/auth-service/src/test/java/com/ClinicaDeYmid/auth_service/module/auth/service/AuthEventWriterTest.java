@@ -0,0 +1,164 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRevocation;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.AuditLog;
+import com.ClinicaDeYmid.auth_service.module.auth.entity.LoginAttempt;
+import com.ClinicaDeYmid.auth_service.module.auth.enums.AuditAction;
+import com.ClinicaDeYmid.auth_service.module.auth.repository.AuthEventBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthEventWriter - Unit Tests")
+class AuthEventWriterTest {
+
+    @Mock
+    private AuthEventBatchRepository batchRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuthEventWriter newWriter(int capacity, int flushSize, Duration flushInterval) {
+        return new AuthEventWriter(batchRepository, meterRegistry, capacity, flushSize, flushInterval, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Debe escribir por lotes de flush-size y separar las tablas")
+    void testWritesInBatchesPerTable() {
+        // Arrange
+        List<Integer> attemptBatches = new CopyOnWriteArrayList<>();
+        List<Integer> auditBatches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> attemptBatches.add(invocation.<List<LoginAttempt>>getArgument(0).size()))
+                .when(batchRepository).insertLoginAttempts(anyList());
+        doAnswer(invocation -> auditBatches.add(invocation.<List<AuditLog>>getArgument(0).size()))
+                .when(batchRepository).insertAuditLogs(anyList());
+        AuthEventWriter writer = newWriter(100, 10, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 12; i++) {
+            writer.recordLoginAttempt(attempt("user" + i + "@clinica.com"));
+            writer.recordAuditLog(auditLog("user" + i + "@clinica.com"));
+        }
+        writer.start();
+        writer.stop();
+
+        // Assert
+        assertEquals(12, attemptBatches.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(12, auditBatches.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(3, attemptBatches.size());
+        assertEquals(24.0, meterRegistry.counter("auth.events.written", "type", "login_attempt").count()
+                + meterRegistry.counter("auth.events.written", "type", "audit").count());
+    }
+
+    @Test
+    @DisplayName("Con el buffer lleno debe descartar y contar")
+    void testDropsWhenBufferFull() {
+        // Arrange
+        AuthEventWriter writer = newWriter(2, 10, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            writer.recordLoginAttempt(attempt("user@clinica.com"));
+        }
+
+        // Assert
+        assertEquals(3.0, meterRegistry.counter("auth.events.dropped", "type", "login_attempt").count());
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    @DisplayName("Debe escribir un lote parcial al vencer el intervalo, con fecha y campos truncados")
+    void testFlushesPartialBatchAfterInterval() {
+        // Arrange
+        List<AuditLog> written = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(batchRepository).insertAuditLogs(anyList());
+        AuthEventWriter writer = newWriter(100, 200, Duration.ofMillis(50));
+        writer.start();
+        AuditLog auditLog = auditLog("user@clinica.com");
+        auditLog.setDetails("x".repeat(2000));
+
+        // Act
+        writer.recordAuditLog(auditLog);
+
+        // Assert
+        verify(batchRepository, timeout(2000)).insertAuditLogs(anyList());
+        writer.stop();
+        assertEquals(1, written.size());
+        assertEquals(500, written.get(0).getDetails().length());
+        assertNotNull(written.get(0).getCreatedAt());
+        verify(batchRepository, never()).insertLoginAttempts(anyList());
+    }
+
+    @Test
+    @DisplayName("Un lote fallido debe contarse sin impedir los de la otra tabla")
+    void testFailedBatchIsCountedAndDoesNotBlockOtherTable() {
+        // Arrange
+        doThrow(new IllegalStateException("db caída")).when(batchRepository).insertAuditLogs(anyList());
+        AuthEventWriter writer = newWriter(100, 10, Duration.ofMinutes(1));
+
+        // Act
+        writer.recordAuditLog(auditLog("user@clinica.com"));
+        writer.recordLoginAttempt(attempt("user@clinica.com"));
+        writer.start();
+        writer.stop();
+
+        // Assert
+        verify(batchRepository).insertLoginAttempts(anyList());
+        assertEquals(1.0, meterRegistry.counter("auth.events.failed", "type", "audit").count());
+        assertEquals(1.0, meterRegistry.counter("auth.events.written", "type", "login_attempt").count());
+    }
+
+    @Test
+    @DisplayName("Debe insertar las sesiones de refresh antes de aplicar sus revocaciones")
+    void testRefreshTokensInsertedBeforeRevocations() {
+        // Arrange
+        AuthEventWriter writer = newWriter(100, 10, Duration.ofMinutes(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        writer.recordRefreshTokenRevocation(RefreshTokenRevocation.ofToken("old-hash", "new-hash"));
+        writer.recordRefreshSession(new RefreshSession("new-hash", 1L, "10.0.0.1", "agent", now, now.plusDays(7)));
+        writer.start();
+        writer.stop();
+
+        // Assert
+        InOrder inOrder = inOrder(batchRepository);
+        inOrder.verify(batchRepository).insertRefreshTokens(anyList());
+        inOrder.verify(batchRepository).revokeRefreshTokens(anyList());
+        assertEquals(1.0, meterRegistry.counter("auth.events.written", "type", "refresh_token_revocation").count());
+    }
+
+    private static LoginAttempt attempt(String email) {
+        return LoginAttempt.builder()
+                .email(email)
+                .ipAddress("10.0.0.1")
+                .userAgent("agent")
+                .success(false)
+                .failureReason("Credenciales inválidas")
+                .build();
+    }
+
+    private static AuditLog auditLog(String email) {
+        return AuditLog.builder()
+                .userEmail(email)
+                .action(AuditAction.LOGIN_FAILED)
+                .details("Credenciales inválidas")
+                .ipAddress("10.0.0.1")
+                .build();
+    }
+}
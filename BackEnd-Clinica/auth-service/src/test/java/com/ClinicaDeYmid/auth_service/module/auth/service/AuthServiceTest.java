@@ -7,19 +7,22 @@ import com.ClinicaDeYmid.auth_service.module.auth.dto.PublicKeyResponse;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRequest;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.TokenPair;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
 import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,8 +33,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
 
-    @Mock
-    private AuthenticationManager authenticationManager;
     @Mock
     private TokenService tokenService;
     @Mock
@@ -48,6 +49,10 @@ class AuthServiceTest {
     private AuditLogService auditLogService;
     @Mock
     private PasswordPolicyService passwordPolicyService;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private AuthService authService;
@@ -55,7 +60,6 @@ class AuthServiceTest {
     private LoginRequest loginRequest;
     private User user;
     private TokenPair tokenPair;
-    private Authentication authentication;
 
     @BeforeEach
     void setUp() {
@@ -63,73 +67,150 @@ class AuthServiceTest {
         user = new User();
         user.setId(1L);
         user.setEmail("test@example.com");
+        user.setPassword("encodedPassword");
+        user.setActive(true);
+        user.setStatus(StatusUser.ACTIVE);
         user.setRequirePasswordChange(false);
 
         tokenPair = new TokenPair("accessToken", "refreshToken");
-        authentication = mock(Authentication.class);
+
+        lenient().when(loginAttemptService.getRemainingLockout(any(), anyString(), anyString())).thenReturn(Duration.ZERO);
     }
 
     @Test
     @DisplayName("Should return TokenPair on successful login")
     void login_success() {
-        when(loginAttemptService.isAccountLocked(loginRequest.email())).thenReturn(false);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(user);
+        // Arrange
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
         when(passwordPolicyService.isPasswordExpired(user)).thenReturn(false);
         when(tokenService.generateTokenPair(user, "127.0.0.1", "test-agent")).thenReturn(tokenPair);
 
+        // Act
         TokenPair result = authService.login(loginRequest, "127.0.0.1", "test-agent");
 
+        // Assert
         assertNotNull(result);
         assertEquals(tokenPair.accessToken(), result.accessToken());
         assertEquals(tokenPair.refreshToken(), result.refreshToken());
 
-        verify(loginAttemptService, times(1)).recordSuccessfulLogin(user.getEmail(), "127.0.0.1", "test-agent");
+        verify(userRepository, times(1)).findByEmailWithRole(loginRequest.email());
+        verify(loginAttemptService, times(1)).recordSuccessfulLogin("test@example.com", "127.0.0.1", "test-agent");
         verify(auditLogService, times(1)).logLoginSuccess(user, "127.0.0.1", "test-agent");
+        assertEquals(1, meterRegistry.get("auth.login.duration").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("auth.login.db.statements").tag("outcome", "success").summary().count());
     }
 
     @Test
     @DisplayName("Should throw BadCredentialsException on invalid credentials")
     void login_invalidCredentials() {
-        when(loginAttemptService.isAccountLocked(loginRequest.email())).thenReturn(false);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenThrow(new BadCredentialsException("Bad credentials"));
+        // Arrange
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
 
+        // Act & Assert
         assertThrows(BadCredentialsException.class, () -> {
             authService.login(loginRequest, "127.0.0.1", "test-agent");
         });
 
         verify(loginAttemptService, times(1)).recordFailedLogin(loginRequest.email(), "127.0.0.1", "test-agent", "Credenciales inválidas");
         verify(auditLogService, times(1)).logLoginFailed(loginRequest.email(), "Credenciales inválidas", "127.0.0.1", "test-agent");
+        assertEquals(1, meterRegistry.get("auth.login.duration").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should check a dummy hash and reject when the email does not exist")
+    void login_unknownEmail() {
+        // Arrange
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("dummyHash");
+        when(passwordEncoder.matches("password123", "dummyHash")).thenReturn(false);
+
+        // Act & Assert
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> {
+            authService.login(loginRequest, "127.0.0.1", "test-agent");
+        });
+
+        assertEquals("Credenciales inválidas", exception.getMessage());
+        verify(passwordEncoder).matches("password123", "dummyHash");
+        verify(loginAttemptService, times(1)).recordFailedLogin(loginRequest.email(), "127.0.0.1", "test-agent", "Credenciales inválidas");
+    }
+
+    @Test
+    @DisplayName("Should reject a disabled account even with the right password")
+    void login_disabledAccount() {
+        // Arrange
+        user.setActive(false);
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> {
+            authService.login(loginRequest, "127.0.0.1", "test-agent");
+        });
+
+        verify(loginAttemptService, times(1)).recordFailedLogin(loginRequest.email(), "127.0.0.1", "test-agent", "Credenciales inválidas");
+        verify(tokenService, never()).generateTokenPair(any(), anyString(), anyString());
     }
 
     @Test
     @DisplayName("Should throw AccountLockedException if account is locked")
     void login_accountLocked() {
-        when(loginAttemptService.isAccountLocked(loginRequest.email())).thenReturn(true);
-        when(loginAttemptService.getRemainingLockoutMinutes(loginRequest.email())).thenReturn(15L);
+        // Arrange
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        when(loginAttemptService.getRemainingLockout(user, loginRequest.email(), "127.0.0.1"))
+                .thenReturn(Duration.ofMinutes(15));
 
+        // Act
         AccountLockedException exception = assertThrows(AccountLockedException.class, () -> {
             authService.login(loginRequest, "127.0.0.1", "test-agent");
         });
 
+        // Assert
         assertEquals("Cuenta bloqueada. Intente nuevamente en 15 minutos", exception.getMessage());
-        verify(loginAttemptService, times(1)).recordFailedLogin(loginRequest.email(), "127.0.0.1", "test-agent", "Cuenta bloqueada");
+        verify(loginAttemptService, times(1)).recordLockedLogin(loginRequest.email(), "127.0.0.1", "test-agent");
+        verify(loginAttemptService, never()).recordFailedLogin(anyString(), anyString(), anyString(), anyString());
         verify(auditLogService, times(1)).logLoginFailed(loginRequest.email(), "Cuenta bloqueada", "127.0.0.1", "test-agent");
-        verify(authenticationManager, never()).authenticate(any());
+        verify(passwordEncoder, never()).matches(any(), any());
+        assertEquals(1, meterRegistry.get("auth.login.duration").tag("outcome", "locked").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should unlock a suspended account whose lockout expired and log in")
+    void login_expiredLockout() {
+        // Arrange
+        user.setAccountLockedUntil(LocalDateTime.now().minusMinutes(1));
+        user.setStatus(StatusUser.SUSPENDED);
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        doAnswer(invocation -> {
+            user.setStatus(StatusUser.ACTIVE);
+            return null;
+        }).when(loginAttemptService).unlockAccount(user);
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordPolicyService.isPasswordExpired(user)).thenReturn(false);
+        when(tokenService.generateTokenPair(user, "127.0.0.1", "test-agent")).thenReturn(tokenPair);
+
+        // Act
+        TokenPair result = authService.login(loginRequest, "127.0.0.1", "test-agent");
+
+        // Assert
+        assertEquals(tokenPair, result);
+        verify(loginAttemptService).unlockAccount(user);
     }
 
     @Test
     @DisplayName("Should throw BadCredentialsException if password expired")
     void login_passwordExpired() {
-        when(loginAttemptService.isAccountLocked(loginRequest.email())).thenReturn(false);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(user);
+        // Arrange
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
         when(passwordPolicyService.isPasswordExpired(user)).thenReturn(true);
 
+        // Act
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> {
             authService.login(loginRequest, "127.0.0.1", "test-agent");
         });
 
+        // Assert
         assertEquals("Tu contraseña ha expirado. Debes cambiarla.", exception.getMessage());
         verify(loginAttemptService, never()).recordSuccessfulLogin(anyString(), anyString(), anyString());
         verify(auditLogService, never()).logLoginSuccess(any(User.class), anyString(), anyString());
@@ -138,16 +219,18 @@ class AuthServiceTest {
     @Test
     @DisplayName("Should throw BadCredentialsException if password change is required")
     void login_passwordChangeRequired() {
+        // Arrange
         user.setRequirePasswordChange(true);
-        when(loginAttemptService.isAccountLocked(loginRequest.email())).thenReturn(false);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(user);
+        when(userRepository.findByEmailWithRole(loginRequest.email())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
         when(passwordPolicyService.isPasswordExpired(user)).thenReturn(false);
 
+        // Act
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> {
             authService.login(loginRequest, "127.0.0.1", "test-agent");
         });
 
+        // Assert
         assertEquals("Debes cambiar tu contraseña antes de continuar.", exception.getMessage());
         verify(loginAttemptService, never()).recordSuccessfulLogin(anyString(), anyString(), anyString());
         verify(auditLogService, never()).logLoginSuccess(any(User.class), anyString(), anyString());
@@ -231,22 +314,34 @@ class AuthServiceTest {
     }
 
     @Test
-    @DisplayName("Should return public key successfully")
+    @DisplayName("Should return public key set with active key first")
     void getPublicKey_success() throws Exception {
-        // Create a dummy RSA public key
+        // Arrange
         java.security.KeyPairGenerator keyGen = java.security.KeyPairGenerator.getInstance("RSA");
         keyGen.initialize(2048);
-        java.security.KeyPair pair = keyGen.generateKeyPair();
-        java.security.interfaces.RSAPublicKey publicKey = (java.security.interfaces.RSAPublicKey) pair.getPublic();
-        String encodedKey = java.util.Base64.getEncoder().encodeToString(publicKey.getEncoded());
-
-        when(tokenService.getPublicKey()).thenReturn(publicKey);
-
+        java.security.interfaces.RSAPublicKey activeKey =
+                (java.security.interfaces.RSAPublicKey) keyGen.generateKeyPair().getPublic();
+        java.security.interfaces.RSAPublicKey previousKey =
+                (java.security.interfaces.RSAPublicKey) keyGen.generateKeyPair().getPublic();
+        java.util.Map<String, java.security.interfaces.RSAPublicKey> keys = new java.util.LinkedHashMap<>();
+        keys.put("kid-active", activeKey);
+        keys.put("kid-previous", previousKey);
+        String encodedKey = java.util.Base64.getEncoder().encodeToString(activeKey.getEncoded());
+
+        when(tokenService.getPublicKeys()).thenReturn(keys);
+        when(tokenService.getKeySetVersion()).thenReturn("v1");
+
+        // Act
         PublicKeyResponse response = authService.getPublicKey();
 
+        // Assert
         assertNotNull(response);
         assertEquals(encodedKey, response.publicKey());
         assertEquals("RS256", response.algorithm());
         assertEquals("RSA", response.keyType());
+        assertEquals("kid-active", response.keyId());
+        assertEquals("v1", response.version());
+        assertEquals(2, response.keys().size());
+        assertEquals("kid-previous", response.keys().get(1).keyId());
     }
 }
@@ -2,8 +2,10 @@ package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import com.ClinicaDeYmid.auth_service.module.auth.entity.LoginAttempt;
 import com.ClinicaDeYmid.auth_service.module.auth.repository.LoginAttemptRepository;
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.entity.Role;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.ClinicaDeYmid.auth_service.module.user.enums.StatusUser;
 import com.ClinicaDeYmid.auth_service.module.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,10 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +32,15 @@ class LoginAttemptServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AuthEventWriter authEventWriter;
+
+    @Mock
+    private LoginLockoutService loginLockoutService;
+
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private LoginAttemptService loginAttemptService;
 
@@ -58,63 +68,64 @@ class LoginAttemptServiceTest {
                 .role(role)
                 .failedLoginAttempts(0)
                 .build();
-
-        // Configurar valores de prueba
-        ReflectionTestUtils.setField(loginAttemptService, "maxLoginAttempts", 5);
-        ReflectionTestUtils.setField(loginAttemptService, "lockoutDurationMinutes", 30);
-        ReflectionTestUtils.setField(loginAttemptService, "attemptWindowMinutes", 15);
     }
 
     @Test
-    @DisplayName("Debe registrar login exitoso")
+    @DisplayName("Debe registrar login exitoso y limpiar la ventana de fallos")
     void testRecordSuccessfulLogin() {
-        // Arrange
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(userRepository).resetFailedLoginAttempts(testUser.getId());
-
         // Act
         loginAttemptService.recordSuccessfulLogin(testEmail, testIpAddress, testUserAgent);
 
         // Assert
-        verify(loginAttemptRepository).save(argThat(attempt -> 
+        verify(authEventWriter).recordLoginAttempt(argThat(attempt ->
             attempt.getEmail().equals(testEmail) &&
             attempt.getIpAddress().equals(testIpAddress) &&
             attempt.getUserAgent().equals(testUserAgent) &&
             attempt.isSuccess()
         ));
-        verify(userRepository).resetFailedLoginAttempts(testUser.getId());
+        verify(loginLockoutService).clearFailures(testEmail);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    @DisplayName("Debe registrar login fallido")
+    @DisplayName("Debe registrar login fallido y sumarlo al bloqueo por email e IP")
     void testRecordFailedLogin() {
         // Arrange
         String reason = "Credenciales inválidas";
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(userRepository).incrementFailedLoginAttempts(testUser.getId());
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
 
         // Act
         loginAttemptService.recordFailedLogin(testEmail, testIpAddress, testUserAgent, reason);
 
         // Assert
-        verify(loginAttemptRepository).save(argThat(attempt -> 
+        verify(authEventWriter).recordLoginAttempt(argThat(attempt ->
             attempt.getEmail().equals(testEmail) &&
             attempt.getIpAddress().equals(testIpAddress) &&
             attempt.getUserAgent().equals(testUserAgent) &&
             !attempt.isSuccess() &&
             attempt.getFailureReason().equals(reason)
         ));
+        verify(loginLockoutService).registerFailure(testEmail, testIpAddress);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Un intento durante el bloqueo solo se registra")
+    void testRecordLockedLogin() {
+        // Act
+        loginAttemptService.recordLockedLogin(testEmail, testIpAddress, testUserAgent);
+
+        // Assert
+        verify(authEventWriter).recordLoginAttempt(argThat(attempt -> !attempt.isSuccess()
+                && attempt.getFailureReason().equals("Cuenta bloqueada")));
+        verify(loginLockoutService, never()).registerFailure(anyString(), anyString());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     @DisplayName("Debe verificar cuenta no bloqueada")
     void testIsAccountNotLocked() {
         // Arrange
-        testUser.setAccountLockedUntil(null);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(loginLockoutService.getRemainingLockout(testEmail, null)).thenReturn(Duration.ZERO);
 
         // Act
         boolean isLocked = loginAttemptService.isAccountLocked(testEmail);
@@ -127,8 +138,7 @@ class LoginAttemptServiceTest {
     @DisplayName("Debe verificar cuenta bloqueada")
     void testIsAccountLocked() {
         // Arrange
-        testUser.setAccountLockedUntil(LocalDateTime.now().plusMinutes(30));
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(loginLockoutService.getRemainingLockout(testEmail, null)).thenReturn(Duration.ofMinutes(30));
 
         // Act
         boolean isLocked = loginAttemptService.isAccountLocked(testEmail);
@@ -138,54 +148,65 @@ class LoginAttemptServiceTest {
     }
 
     @Test
-    @DisplayName("Debe verificar cuenta desbloqueada después del tiempo")
-    void testAccountUnlockedAfterTime() {
+    @DisplayName("Debe tomar el bloqueo de Redis para email e IP")
+    void testGetRemainingLockoutFromRedis() {
         // Arrange
-        testUser.setAccountLockedUntil(LocalDateTime.now().minusMinutes(5));
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(loginLockoutService.getRemainingLockout(testEmail, testIpAddress)).thenReturn(Duration.ofMinutes(10));
 
         // Act
-        boolean isLocked = loginAttemptService.isAccountLocked(testEmail);
+        Duration remaining = loginAttemptService.getRemainingLockout(testUser, testEmail, testIpAddress);
 
         // Assert
-        assertFalse(isLocked);
+        assertEquals(Duration.ofMinutes(10), remaining);
     }
 
     @Test
-    @DisplayName("Debe retornar false si usuario no existe")
-    void testIsAccountLockedUserNotExists() {
+    @DisplayName("Debe respetar un bloqueo vigente guardado en el usuario")
+    void testGetRemainingLockoutLegacyUserLock() {
         // Arrange
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.empty());
+        testUser.setAccountLockedUntil(LocalDateTime.now().plusMinutes(20));
+        when(loginLockoutService.getRemainingLockout(testEmail, testIpAddress)).thenReturn(Duration.ZERO);
 
         // Act
-        boolean isLocked = loginAttemptService.isAccountLocked(testEmail);
+        Duration remaining = loginAttemptService.getRemainingLockout(testUser, testEmail, testIpAddress);
 
         // Assert
-        assertFalse(isLocked);
+        assertTrue(remaining.toMinutes() >= 19);
+    }
+
+    @Test
+    @DisplayName("Debe ignorar un bloqueo vencido guardado en el usuario")
+    void testGetRemainingLockoutExpiredLegacyLock() {
+        // Arrange
+        testUser.setAccountLockedUntil(LocalDateTime.now().minusMinutes(5));
+        when(loginLockoutService.getRemainingLockout(testEmail, testIpAddress)).thenReturn(Duration.ZERO);
+
+        // Act
+        Duration remaining = loginAttemptService.getRemainingLockout(testUser, testEmail, testIpAddress);
+
+        // Assert
+        assertTrue(remaining.isZero());
     }
 
     @Test
-    @DisplayName("Debe calcular minutos restantes de bloqueo")
+    @DisplayName("Debe calcular minutos restantes de bloqueo redondeando hacia arriba")
     void testGetRemainingLockoutMinutes() {
         // Arrange
-        LocalDateTime lockUntil = LocalDateTime.now().plusMinutes(15);
-        testUser.setAccountLockedUntil(lockUntil);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(loginLockoutService.getRemainingLockout(testEmail, null)).thenReturn(Duration.ofSeconds(14 * 60 + 1));
 
         // Act
         long remainingMinutes = loginAttemptService.getRemainingLockoutMinutes(testEmail);
 
         // Assert
-        assertTrue(remainingMinutes > 0);
-        assertTrue(remainingMinutes <= 15);
+        assertEquals(15, remainingMinutes);
+        assertEquals(1, LoginAttemptService.toMinutes(Duration.ofMillis(500)));
     }
 
     @Test
     @DisplayName("Debe retornar 0 si no hay bloqueo")
     void testGetRemainingLockoutMinutesNotLocked() {
         // Arrange
-        testUser.setAccountLockedUntil(null);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(loginLockoutService.getRemainingLockout(testEmail, null)).thenReturn(Duration.ZERO);
 
         // Act
         long remainingMinutes = loginAttemptService.getRemainingLockoutMinutes(testEmail);
@@ -195,54 +216,57 @@ class LoginAttemptServiceTest {
     }
 
     @Test
-    @DisplayName("No debe registrar login exitoso si usuario no existe")
-    void testRecordSuccessfulLoginUserNotExists() {
+    @DisplayName("Debe leer los intentos fallidos recientes de Redis")
+    void testGetRecentFailedAttempts() {
         // Arrange
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.empty());
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loginLockoutService.getRecentFailures(testEmail)).thenReturn(3L);
 
         // Act
-        loginAttemptService.recordSuccessfulLogin(testEmail, testIpAddress, testUserAgent);
+        long attempts = loginAttemptService.getRecentFailedAttempts(testEmail);
 
         // Assert
-        verify(loginAttemptRepository).save(any(LoginAttempt.class));
-        verify(userRepository, never()).resetFailedLoginAttempts(anyLong());
+        assertEquals(3, attempts);
+        verifyNoInteractions(loginAttemptRepository);
     }
 
     @Test
-    @DisplayName("Debe incrementar intentos fallidos")
-    void testIncrementFailedAttempts() {
-        // Arrange
-        testUser.setFailedLoginAttempts(2);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(userRepository).incrementFailedLoginAttempts(testUser.getId());
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-
+    @DisplayName("Desbloquear una cuenta sin estado anterior solo limpia Redis")
+    void testUnlockAccountClean() {
         // Act
-        loginAttemptService.recordFailedLogin(testEmail, testIpAddress, testUserAgent, "Test reason");
+        loginAttemptService.unlockAccount(testUser);
 
         // Assert
-        verify(loginAttemptRepository).save(any(LoginAttempt.class));
-        verify(userRepository).findByEmail(testEmail);
+        verify(loginLockoutService).unlock(testEmail);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    @DisplayName("Debe manejar múltiples intentos fallidos sin bloquear")
-    void testMultipleFailedAttemptsWithoutLocking() {
+    @DisplayName("Desbloquear una cuenta suspendida por el bloqueo anterior la reactiva")
+    void testUnlockAccountLegacySuspended() {
         // Arrange
-        testUser.setFailedLoginAttempts(3);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(userRepository).incrementFailedLoginAttempts(testUser.getId());
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+        testUser.setFailedLoginAttempts(5);
+        testUser.setAccountLockedUntil(LocalDateTime.now().minusMinutes(1));
+        testUser.setStatus(StatusUser.SUSPENDED);
+
+        // Act
+        loginAttemptService.unlockAccount(testUser);
 
+        // Assert
+        verify(loginLockoutService).unlock(testEmail);
+        verify(userRepository).resetFailedLoginAttempts(testUser.getId());
+        verify(userRepository).save(testUser);
+        verify(principalCache).invalidate(testUser.getUuid());
+        assertEquals(StatusUser.ACTIVE, testUser.getStatus());
+    }
+
+    @Test
+    @DisplayName("Debe registrar el intento aunque el email no exista")
+    void testRecordFailedLoginUnknownEmail() {
         // Act
-        loginAttemptService.recordFailedLogin(testEmail, testIpAddress, testUserAgent, "Test reason");
+        loginAttemptService.recordFailedLogin("unknown@example.com", testIpAddress, testUserAgent, "Credenciales inválidas");
 
         // Assert
-        verify(loginAttemptRepository).save(any(LoginAttempt.class));
-        // Verificar que el usuario no está bloqueado (menos de 5 intentos)
-        assertNull(testUser.getAccountLockedUntil());
+        verify(authEventWriter).recordLoginAttempt(any(LoginAttempt.class));
+        verify(loginLockoutService).registerFailure("unknown@example.com", testIpAddress);
     }
 }
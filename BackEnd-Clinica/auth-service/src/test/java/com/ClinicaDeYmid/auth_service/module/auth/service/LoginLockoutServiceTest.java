@@ -0,0 +1,127 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginLockoutService - Unit Tests")
+class LoginLockoutServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginLockoutService lockoutService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockoutService = new LoginLockoutService(redisTemplate, meterRegistry, 5, 20, 15, 30);
+    }
+
+    @Test
+    @DisplayName("Debe registrar el fallo en la ventana del email y de la IP")
+    @SuppressWarnings("unchecked")
+    void testRegisterFailureHitsEmailAndIp() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // Act
+        boolean locked = lockoutService.registerFailure("Test@Example.com", "10.0.0.1");
+
+        // Assert
+        assertFalse(locked);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.size() == 2 && keys.get(0).startsWith("auth:lockout:{email:")
+                        && keys.get(1).endsWith(":lock")),
+                any(Object[].class));
+        verify(redisTemplate).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.get(0).startsWith("auth:lockout:{ip:")),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Debe contar el bloqueo cuando el script lo aplica")
+    @SuppressWarnings("unchecked")
+    void testRegisterFailureLocks() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L, 0L);
+
+        // Act
+        boolean locked = lockoutService.registerFailure("test@example.com", "10.0.0.1");
+
+        // Assert
+        assertTrue(locked);
+        assertEquals(1, meterRegistry.get("auth.lockout.locked").tag("scope", "email").counter().count());
+    }
+
+    @Test
+    @DisplayName("El mismo email con otro formato comparte claves")
+    @SuppressWarnings("unchecked")
+    void testEmailIsNormalized() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // Act
+        lockoutService.registerFailure(" Test@Example.com", null);
+        lockoutService.registerFailure("test@example.com", null);
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.get(0).equals(windowKey("test@example.com"))),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Debe devolver el mayor TTL de los bloqueos de email e IP")
+    @SuppressWarnings("unchecked")
+    void testGetRemainingLockout() {
+        // Arrange
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(-2L, Duration.ofMinutes(12).toMillis()));
+
+        // Act
+        Duration remaining = lockoutService.getRemainingLockout("test@example.com", "10.0.0.1");
+
+        // Assert
+        assertEquals(Duration.ofMinutes(12), remaining);
+    }
+
+    @Test
+    @DisplayName("Sin Redis no debe bloquear el login")
+    @SuppressWarnings("unchecked")
+    void testFailsOpenWhenRedisIsDown() {
+        // Arrange
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertEquals(Duration.ZERO, lockoutService.getRemainingLockout("test@example.com", "10.0.0.1"));
+        assertFalse(lockoutService.registerFailure("test@example.com", "10.0.0.1"));
+        assertEquals(3, meterRegistry.get("auth.lockout.errors").counter().count());
+    }
+
+    private static String windowKey(String email) {
+        return "auth:lockout:{email:" + DigestUtils.sha256Hex(email) + "}:window";
+    }
+}
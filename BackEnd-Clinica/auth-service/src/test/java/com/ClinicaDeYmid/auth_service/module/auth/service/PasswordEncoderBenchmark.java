@@ -0,0 +1,99 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Coste de BCrypt por factor de trabajo, para dimensionar la política de contraseñas.
+ *
+ * <ul>
+ *     <li>{@code matches}: una comparación, lo que cuesta cada login.</li>
+ *     <li>{@code historySequential}: comportamiento anterior de
+ *     {@link PasswordPolicyService#isPasswordInHistory}, todo el historial en serie sin
+ *     coincidencias (el caso habitual de un cambio de contraseña).</li>
+ *     <li>{@code historyParallel}: el mismo historial con {@link PasswordHistoryVerifier}.</li>
+ * </ul>
+ *
+ * <p>Ejecutar con: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ClinicaDeYmid.auth_service.module.auth.service.PasswordEncoderBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Clinica#2024";
+
+    /** Factor de trabajo de BCrypt; el de Spring por defecto es 10. */
+    @Param({"10", "11", "12", "13"})
+    public int strength;
+
+    /** Tamaño del historial ({@code auth.password.history-count}). */
+    @Param({"5", "10"})
+    public int historyCount;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private List<String> history;
+    private PasswordHistoryVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+        history = IntStream.range(0, historyCount)
+                .mapToObj(i -> encoder.encode("Anterior#" + i))
+                .toList();
+        verifier = new PasswordHistoryVerifier(encoder, new SimpleMeterRegistry(),
+                Runtime.getRuntime().availableProcessors(), 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        verifier.stop();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean historySequential() {
+        return history.stream().anyMatch(previous -> encoder.matches(PASSWORD, previous));
+    }
+
+    @Benchmark
+    public boolean historyParallel() {
+        return verifier.matchesAny(PASSWORD, history);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PasswordHistoryVerifier - Unit Tests")
+class PasswordHistoryVerifierTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHistoryVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new PasswordHistoryVerifier(passwordEncoder, meterRegistry, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.stop();
+    }
+
+    @Test
+    @DisplayName("Debe detectar la contraseña en cualquier posición del historial")
+    void testMatchesAny() {
+        // Arrange
+        when(passwordEncoder.matches(eq("Secreta#1"), anyString()))
+                .thenAnswer(invocation -> "hash-3".equals(invocation.getArgument(1)));
+
+        // Act & Assert
+        assertTrue(verifier.matchesAny("Secreta#1", List.of("hash-1", "hash-2", "hash-3", "hash-4")));
+        assertEquals(1, meterRegistry.get("auth.password.history.verify").timer().count());
+    }
+
+    @Test
+    @DisplayName("Sin coincidencias debe comparar todo el historial")
+    void testNoMatch() {
+        // Arrange
+        when(passwordEncoder.matches(eq("Secreta#1"), anyString())).thenReturn(false);
+
+        // Act
+        boolean result = verifier.matchesAny("Secreta#1", List.of("hash-1", "hash-2", "hash-3"));
+
+        // Assert
+        assertFalse(result);
+        verify(passwordEncoder, times(3)).matches(eq("Secreta#1"), anyString());
+    }
+
+    @Test
+    @DisplayName("Debe responder con la primera coincidencia sin esperar al resto")
+    void testEarlyExit() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(eq("Secreta#1"), anyString())).thenAnswer(invocation -> {
+            if ("lento".equals(invocation.getArgument(1))) {
+                release.await(5, TimeUnit.SECONDS);
+                return false;
+            }
+            return true;
+        });
+
+        // Act
+        boolean result = verifier.matchesAny("Secreta#1", List.of("lento", "coincide"));
+
+        // Assert
+        assertTrue(result);
+        assertEquals(1, release.getCount());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Un historial vacío o de un solo hash no usa el pool")
+    void testSmallHistoryRunsInline() {
+        // Arrange
+        when(passwordEncoder.matches("Secreta#1", "hash-1")).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(verifier.matchesAny("Secreta#1", List.of()));
+        assertTrue(verifier.matchesAny("Secreta#1", List.of("hash-1")));
+        assertEquals(2, meterRegistry.get("auth.password.history.verify").timer().count());
+    }
+
+    @Test
+    @DisplayName("Tras el apagado debe fallar en lugar de quedarse esperando")
+    void testMatchesAnyAfterStopFails() {
+        // Arrange
+        verifier.stop();
+
+        // Act & Assert
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(IllegalStateException.class,
+                () -> verifier.matchesAny("Secreta#1", List.of("hash-1", "hash-2"))));
+        verifyNoInteractions(passwordEncoder);
+    }
+}
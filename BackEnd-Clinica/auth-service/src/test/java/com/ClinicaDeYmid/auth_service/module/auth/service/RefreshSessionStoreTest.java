@@ -0,0 +1,116 @@
+package com.ClinicaDeYmid.auth_service.module.auth.service;
+
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshSessionStore - Unit Tests")
+class RefreshSessionStoreTest {
+
+    private static final String UUID = "user-uuid";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private RefreshSessionStore store;
+    private RefreshSession session;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshSessionStore(redisTemplate);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        session = new RefreshSession("new-hash", 1L, "10.0.0.1", "Mozilla/5.0", now, now.plusDays(7));
+    }
+
+    @Test
+    @DisplayName("Las claves de un usuario deben compartir hash tag")
+    @SuppressWarnings("unchecked")
+    void testCreateUsesUserHashTag() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of("old-hash"));
+
+        // Act
+        List<String> evicted = store.create(UUID, session, 5);
+
+        // Assert
+        assertEquals(List.of("old-hash"), evicted);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.equals(List.of(
+                        "auth:refresh:{user-uuid}:sessions",
+                        "auth:refresh:{user-uuid}:session:new-hash"))),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Rotar una sesión que ya no existe no debe crear la nueva")
+    @SuppressWarnings("unchecked")
+    void testRotateMissingSession() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(null);
+
+        // Act
+        Optional<List<String>> result = store.rotate(UUID, "old-hash", session, 5);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(redisTemplate).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.get(2).equals("auth:refresh:{user-uuid}:session:old-hash")),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Debe leer las sesiones activas en un único viaje")
+    @SuppressWarnings("unchecked")
+    void testFindActive() {
+        // Arrange
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRangeByScore(eq("auth:refresh:{user-uuid}:sessions"), anyDouble(), anyDouble()))
+                .thenReturn(new LinkedHashSet<>(List.of("new-hash", "gone-hash")));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                Map.of("userId", "1",
+                        "ip", "10.0.0.1",
+                        "ua", "",
+                        "createdAt", String.valueOf(millis(session.createdAt())),
+                        "expiresAt", String.valueOf(millis(session.expiresAt()))),
+                Map.of()));
+
+        // Act
+        List<RefreshSession> sessions = store.findActive(UUID);
+
+        // Assert
+        assertEquals(1, sessions.size());
+        RefreshSession found = sessions.get(0);
+        assertEquals("new-hash", found.id());
+        assertEquals(1L, found.userId());
+        assertNull(found.userAgent());
+        assertEquals(session.expiresAt(), found.expiresAt());
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,19 +1,23 @@
 package com.ClinicaDeYmid.auth_service.module.auth.service;
 
+import com.ClinicaDeYmid.auth_service.infra.exceptions.InvalidTokenException;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshTokenRevocation;
 import com.ClinicaDeYmid.auth_service.module.auth.entity.RefreshToken;
 import com.ClinicaDeYmid.auth_service.module.auth.repository.RefreshTokenRepository;
 import com.ClinicaDeYmid.auth_service.module.user.entity.Role;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,10 +28,15 @@ import static org.mockito.Mockito.*;
 @DisplayName("RefreshTokenService - Unit Tests")
 class RefreshTokenServiceTest {
 
+    @Mock
+    private RefreshSessionStore sessionStore;
+
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
-    @InjectMocks
+    @Mock
+    private AuthEventWriter authEventWriter;
+
     private RefreshTokenService refreshTokenService;
 
     private User testUser;
@@ -37,6 +46,9 @@ class RefreshTokenServiceTest {
 
     @BeforeEach
     void setUp() {
+        refreshTokenService = new RefreshTokenService(sessionStore, refreshTokenRepository, authEventWriter,
+                604800L, 5, 30);
+
         Role role = new Role();
         role.setId(1L);
         role.setName("ROLE_USER");
@@ -50,208 +62,196 @@ class RefreshTokenServiceTest {
                 .role(role)
                 .build();
 
-        testToken = "test-refresh-token-123";
+        testToken = token("refresh-1");
         testIpAddress = "192.168.1.1";
         testUserAgent = "Mozilla/5.0";
-
-        // Configurar valores de prueba
-        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenExpirationSeconds", 604800L);
-        ReflectionTestUtils.setField(refreshTokenService, "maxActiveSessions", 5);
     }
 
     @Test
-    @DisplayName("Debe crear refresh token correctamente")
+    @DisplayName("Debe crear la sesión por hash del token y registrarla en el histórico")
     void testCreateRefreshToken() {
         // Arrange
-        RefreshToken savedToken = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .ipAddress(testIpAddress)
-                .userAgent(testUserAgent)
-                .revoked(false)
-                .build();
+        when(sessionStore.create(eq(testUser.getUuid()), any(RefreshSession.class), eq(5))).thenReturn(List.of());
 
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(savedToken);
-        // No need to mock countByUserAndRevokedFalseAndExpiresAtAfter as cleanupExcessiveSessions is internal
+        // Act
+        RefreshSession result = refreshTokenService.createRefreshToken(testToken, testUser, testIpAddress, testUserAgent);
+
+        // Assert
+        assertEquals(RefreshTokenService.hash(testToken), result.id());
+        assertNotEquals(testToken, result.id());
+        assertEquals(testUser.getId(), result.userId());
+        assertEquals(testIpAddress, result.ipAddress());
+        assertEquals(testUserAgent, result.userAgent());
+        assertTrue(result.isValid());
+        verify(authEventWriter).recordRefreshSession(result);
+        verify(authEventWriter, never()).recordRefreshTokenRevocation(any());
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Debe registrar como revocadas las sesiones descartadas por el límite")
+    void testCreateRefreshTokenEvictsOldSessions() {
+        // Arrange
+        when(sessionStore.create(eq(testUser.getUuid()), any(RefreshSession.class), eq(5)))
+                .thenReturn(List.of("old-hash"));
 
         // Act
-        RefreshToken result = refreshTokenService.createRefreshToken(testToken, testUser, testIpAddress, testUserAgent);
+        refreshTokenService.createRefreshToken(testToken, testUser, testIpAddress, testUserAgent);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(testToken, result.getToken());
-        assertEquals(testUser, result.getUser());
-        assertEquals(testIpAddress, result.getIpAddress());
-        assertEquals(testUserAgent, result.getUserAgent());
-        assertFalse(result.isRevoked());
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(authEventWriter).recordRefreshTokenRevocation(argThat(revocation ->
+                "old-hash".equals(revocation.tokenHash()) && revocation.replacedByTokenHash() == null));
     }
 
     @Test
-    @DisplayName("Debe encontrar token válido")
+    @DisplayName("Debe encontrar la sesión vigente por el hash del token")
     void testFindValidToken() {
         // Arrange
-        RefreshToken validToken = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(refreshTokenRepository.findByToken(testToken)).thenReturn(Optional.of(validToken));
+        RefreshSession session = session(testToken, LocalDateTime.now().plusDays(7));
+        when(sessionStore.find(testUser.getUuid(), RefreshTokenService.hash(testToken))).thenReturn(Optional.of(session));
 
         // Act
-        Optional<RefreshToken> result = refreshTokenService.findValidToken(testToken);
+        Optional<RefreshSession> result = refreshTokenService.findValidToken(testToken);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(testToken, result.get().getToken());
-        assertTrue(result.get().isValid());
+        assertEquals(session, result.get());
     }
 
     @Test
-    @DisplayName("No debe encontrar token revocado")
-    void testFindValidTokenRevoked() {
+    @DisplayName("No debe encontrar una sesión revocada")
+    void testFindRevokedToken() {
         // Arrange
-        RefreshToken revokedToken = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(true)
-                .revokedAt(LocalDateTime.now())
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(refreshTokenRepository.findByToken(testToken)).thenReturn(Optional.of(revokedToken));
+        when(sessionStore.find(testUser.getUuid(), RefreshTokenService.hash(testToken))).thenReturn(Optional.empty());
 
         // Act
-        Optional<RefreshToken> result = refreshTokenService.findValidToken(testToken);
+        Optional<RefreshSession> result = refreshTokenService.findValidToken(testToken);
 
         // Assert
         assertFalse(result.isPresent());
     }
 
     @Test
-    @DisplayName("No debe encontrar token expirado")
-    void testFindValidTokenExpired() {
+    @DisplayName("No debe encontrar una sesión expirada")
+    void testFindExpiredToken() {
         // Arrange
-        RefreshToken expiredToken = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().minusDays(1))
-                .revoked(false)
-                .createdAt(LocalDateTime.now().minusDays(8))
-                .build();
+        RefreshSession expired = session(testToken, LocalDateTime.now().minusMinutes(1));
+        when(sessionStore.find(testUser.getUuid(), RefreshTokenService.hash(testToken))).thenReturn(Optional.of(expired));
+
+        // Act
+        Optional<RefreshSession> result = refreshTokenService.findValidToken(testToken);
 
-        when(refreshTokenRepository.findByToken(testToken)).thenReturn(Optional.of(expiredToken));
+        // Assert
+        assertFalse(result.isPresent());
+    }
 
+    @Test
+    @DisplayName("Un valor que no es un JWT no debe consultar Redis")
+    void testFindMalformedToken() {
         // Act
-        Optional<RefreshToken> result = refreshTokenService.findValidToken(testToken);
+        Optional<RefreshSession> result = refreshTokenService.findValidToken("not-a-jwt");
 
         // Assert
         assertFalse(result.isPresent());
+        verifyNoInteractions(sessionStore);
     }
 
     @Test
     @DisplayName("Debe revocar token correctamente")
     void testRevokeToken() {
         // Arrange
-        RefreshToken token = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(refreshTokenRepository.findByToken(testToken)).thenReturn(Optional.of(token));
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(token);
+        String hash = RefreshTokenService.hash(testToken);
+        when(sessionStore.revoke(testUser.getUuid(), hash)).thenReturn(true);
 
         // Act
         refreshTokenService.revokeToken(testToken);
 
         // Assert
-        verify(refreshTokenRepository).findByToken(testToken);
-        verify(refreshTokenRepository).save(argThat(t -> t.isRevoked() && t.getRevokedAt() != null));
+        verify(authEventWriter).recordRefreshTokenRevocation(argThat(revocation -> hash.equals(revocation.tokenHash())));
     }
 
     @Test
     @DisplayName("No debe fallar al revocar token inexistente")
     void testRevokeNonExistentToken() {
         // Arrange
-        when(refreshTokenRepository.findByToken(testToken)).thenReturn(Optional.empty());
+        when(sessionStore.revoke(eq(testUser.getUuid()), anyString())).thenReturn(false);
 
         // Act & Assert
         assertDoesNotThrow(() -> refreshTokenService.revokeToken(testToken));
-        verify(refreshTokenRepository, never()).save(any());
+        verify(authEventWriter, never()).recordRefreshTokenRevocation(any());
     }
 
     @Test
     @DisplayName("Debe rotar token correctamente")
     void testRotateToken() {
         // Arrange
-        RefreshToken oldToken = RefreshToken.builder()
-                .id(1L)
-                .token("old-token")
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        String newTokenString = "new-token";
-        RefreshToken newToken = RefreshToken.builder()
-                .id(2L)
-                .token(newTokenString)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .ipAddress(testIpAddress)
-                .userAgent(testUserAgent)
-                .revoked(false)
-                .build();
-
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(oldToken, newToken);
-        // No need to mock countByUserAndRevokedFalseAndExpiresAtAfter
+        String newToken = token("refresh-2");
+        String oldHash = RefreshTokenService.hash(testToken);
+        when(sessionStore.rotate(eq(testUser.getUuid()), eq(oldHash), any(RefreshSession.class), eq(5)))
+                .thenReturn(Optional.of(List.of()));
 
         // Act
-        RefreshToken result = refreshTokenService.rotateToken(oldToken, newTokenString, testIpAddress, testUserAgent);
+        RefreshSession result = refreshTokenService.rotateToken(testToken, newToken, testUser, testIpAddress, testUserAgent);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(newTokenString, result.getToken());
-        assertTrue(oldToken.isRevoked());
-        assertEquals(newTokenString, oldToken.getReplacedByToken());
-        verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
+        assertEquals(RefreshTokenService.hash(newToken), result.id());
+        verify(authEventWriter).recordRefreshSession(result);
+        verify(authEventWriter).recordRefreshTokenRevocation(argThat((RefreshTokenRevocation revocation) ->
+                oldHash.equals(revocation.tokenHash()) && result.id().equals(revocation.replacedByTokenHash())));
+    }
+
+    @Test
+    @DisplayName("No debe rotar dos veces el mismo refresh token")
+    void testRotateAlreadyRotatedToken() {
+        // Arrange
+        when(sessionStore.rotate(eq(testUser.getUuid()), anyString(), any(RefreshSession.class), eq(5)))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () ->
+                refreshTokenService.rotateToken(testToken, token("refresh-2"), testUser, testIpAddress, testUserAgent));
+        verifyNoInteractions(authEventWriter);
     }
 
     @Test
     @DisplayName("Debe revocar todos los tokens del usuario")
     void testRevokeAllUserTokens() {
         // Arrange
-        RefreshToken token1 = RefreshToken.builder()
-                .id(1L)
-                .token("token-1")
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .createdAt(LocalDateTime.now())
-                .build();
+        when(sessionStore.revokeAll(testUser.getUuid())).thenReturn(2L);
 
-        RefreshToken token2 = RefreshToken.builder()
-                .id(2L)
-                .token("token-2")
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .createdAt(LocalDateTime.now())
-                .build();
+        // Act
+        refreshTokenService.revokeAllUserTokens(testUser);
+
+        // Assert
+        verify(sessionStore).revokeAll(testUser.getUuid());
+        verify(authEventWriter).recordRefreshTokenRevocation(argThat(revocation ->
+                revocation.tokenHash() == null && testUser.getId().equals(revocation.userId())));
+    }
+
+    @Test
+    @DisplayName("Debe comprobar el límite de sesiones sin cargar las sesiones")
+    void testHasExceededMaxSessions() {
+        // Arrange
+        when(sessionStore.countActive(testUser.getUuid())).thenReturn(5L, 4L);
+
+        // Act & Assert
+        assertTrue(refreshTokenService.hasExceededMaxSessions(testUser));
+        assertFalse(refreshTokenService.hasExceededMaxSessions(testUser));
+        verify(sessionStore, never()).findActive(anyString());
+    }
+
+    @Test
+    @DisplayName("Debe purgar el histórico por bloques")
+    void testCleanupExpiredTokens() {
+        // Arrange
+        when(refreshTokenRepository.deleteExpiredBefore(any(LocalDateTime.class), eq(1000))).thenReturn(1000, 10);
+
+        // Act
+        refreshTokenService.cleanupExpiredTokens();
+
+        // Assert
+        verify(refreshTokenRepository, times(2)).deleteExpiredBefore(
+                argThat(cutoff -> cutoff.isBefore(LocalDateTime.now().minusDays(29))), eq(1000));
     }
 
     @Test
@@ -260,7 +260,7 @@ class RefreshTokenServiceTest {
         // Arrange
         RefreshToken validToken = RefreshToken.builder()
                 .id(1L)
-                .token(testToken)
+                .tokenHash(RefreshTokenService.hash(testToken))
                 .user(testUser)
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .revoked(false)
@@ -277,7 +277,7 @@ class RefreshTokenServiceTest {
         // Arrange
         RefreshToken revokedToken = RefreshToken.builder()
                 .id(1L)
-                .token(testToken)
+                .tokenHash(RefreshTokenService.hash(testToken))
                 .user(testUser)
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .revoked(true)
@@ -289,20 +289,15 @@ class RefreshTokenServiceTest {
         assertFalse(revokedToken.isValid());
     }
 
-    @Test
-    @DisplayName("Token expirado no debe ser válido")
-    void testExpiredTokenIsNotValid() {
-        // Arrange
-        RefreshToken expiredToken = RefreshToken.builder()
-                .id(1L)
-                .token(testToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().minusDays(1))
-                .revoked(false)
-                .createdAt(LocalDateTime.now().minusDays(8))
-                .build();
+    private String token(String jwtId) {
+        return JWT.create()
+                .withSubject(testUser.getUuid())
+                .withJWTId(jwtId)
+                .sign(Algorithm.HMAC256("test-secret"));
+    }
 
-        // Act & Assert
-        assertFalse(expiredToken.isValid());
+    private RefreshSession session(String token, LocalDateTime expiresAt) {
+        return new RefreshSession(RefreshTokenService.hash(token), testUser.getId(), testIpAddress, testUserAgent,
+                expiresAt.minusDays(7), expiresAt);
     }
 }
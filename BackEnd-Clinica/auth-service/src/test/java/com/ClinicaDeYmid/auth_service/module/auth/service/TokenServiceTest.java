@@ -1,8 +1,8 @@
 package com.ClinicaDeYmid.auth_service.module.auth.service;
 
 import com.ClinicaDeYmid.auth_service.infra.exceptions.InvalidTokenException;
+import com.ClinicaDeYmid.auth_service.module.auth.dto.RefreshSession;
 import com.ClinicaDeYmid.auth_service.module.auth.dto.TokenPair;
-import com.ClinicaDeYmid.auth_service.module.auth.entity.RefreshToken;
 import com.ClinicaDeYmid.auth_service.module.user.entity.Role;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
 import com.auth0.jwt.JWT;
@@ -15,10 +15,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -127,15 +134,8 @@ class TokenServiceTest {
         // Arrange
         String ipAddress = "192.168.1.1";
         String userAgent = "Mozilla/5.0";
-        RefreshToken mockRefreshToken = RefreshToken.builder()
-                .id(1L)
-                .token("refresh-token")
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .build();
-
         when(refreshTokenService.createRefreshToken(anyString(), eq(testUser), eq(ipAddress), eq(userAgent)))
-                .thenReturn(mockRefreshToken);
+                .thenReturn(session("refresh-token"));
 
         // Act
         TokenPair tokenPair = tokenService.generateTokenPair(testUser, ipAddress, userAgent);
@@ -217,16 +217,8 @@ class TokenServiceTest {
     void testValidateRefreshToken() {
         // Arrange
         String refreshToken = tokenService.generateRefreshToken(testUser);
-        RefreshToken mockRefreshToken = RefreshToken.builder()
-                .id(1L)
-                .token(refreshToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .build();
-
         when(refreshTokenService.findValidToken(refreshToken))
-                .thenReturn(Optional.of(mockRefreshToken));
+                .thenReturn(Optional.of(session(refreshToken)));
 
         // Act & Assert
         assertDoesNotThrow(() -> tokenService.validateRefreshToken(refreshToken));
@@ -253,26 +245,8 @@ class TokenServiceTest {
         String ipAddress = "192.168.1.1";
         String userAgent = "Mozilla/5.0";
 
-        RefreshToken mockOldToken = RefreshToken.builder()
-                .id(1L)
-                .token(oldRefreshToken)
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .build();
-
-        RefreshToken mockNewToken = RefreshToken.builder()
-                .id(2L)
-                .token("new-refresh-token")
-                .user(testUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .build();
-
-        when(refreshTokenService.findValidToken(oldRefreshToken))
-                .thenReturn(Optional.of(mockOldToken));
-        when(refreshTokenService.rotateToken(eq(mockOldToken), anyString(), eq(ipAddress), eq(userAgent)))
-                .thenReturn(mockNewToken);
+        when(refreshTokenService.rotateToken(eq(oldRefreshToken), anyString(), eq(testUser), eq(ipAddress), eq(userAgent)))
+                .thenReturn(session("new-refresh-token"));
 
         // Act
         TokenPair newTokenPair = tokenService.refreshTokens(oldRefreshToken, testUser, ipAddress, userAgent);
@@ -281,7 +255,21 @@ class TokenServiceTest {
         assertNotNull(newTokenPair);
         assertNotNull(newTokenPair.accessToken());
         assertNotNull(newTokenPair.refreshToken());
-        verify(refreshTokenService).rotateToken(eq(mockOldToken), anyString(), eq(ipAddress), eq(userAgent));
+        verify(refreshTokenService).rotateToken(eq(oldRefreshToken), anyString(), eq(testUser), eq(ipAddress), eq(userAgent));
+        verify(refreshTokenService, never()).findValidToken(anyString());
+    }
+
+    @Test
+    @DisplayName("Debe fallar al refrescar con un refresh token ya rotado")
+    void testRefreshTokensAlreadyRotated() {
+        // Arrange
+        String oldRefreshToken = tokenService.generateRefreshToken(testUser);
+        when(refreshTokenService.rotateToken(eq(oldRefreshToken), anyString(), eq(testUser), anyString(), anyString()))
+                .thenThrow(new InvalidTokenException("Refresh token no válido o revocado"));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class,
+            () -> tokenService.refreshTokens(oldRefreshToken, testUser, "192.168.1.1", "Mozilla/5.0"));
     }
 
     @Test
@@ -298,20 +286,10 @@ class TokenServiceTest {
 
         String refreshToken = tokenService.generateRefreshToken(anotherUser);
 
-        RefreshToken mockToken = RefreshToken.builder()
-                .id(1L)
-                .token(refreshToken)
-                .user(anotherUser)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .revoked(false)
-                .build();
-
-        when(refreshTokenService.findValidToken(refreshToken))
-                .thenReturn(Optional.of(mockToken));
-
         // Act & Assert
         assertThrows(RuntimeException.class,
             () -> tokenService.refreshTokens(refreshToken, testUser, "192.168.1.1", "Mozilla/5.0"));
+        verify(refreshTokenService, never()).rotateToken(anyString(), anyString(), any(), any(), any());
     }
 
     @Test
@@ -401,4 +379,66 @@ class TokenServiceTest {
         assertNull(decodedRefresh.getClaim("email").asString());
         assertNull(decodedRefresh.getClaim("role").asString());
     }
+
+    @Test
+    @DisplayName("Debe firmar con kid y aceptar tokens de la clave anterior tras una rotación")
+    void testRs256KeyRotation() throws Exception {
+        // Arrange
+        KeyPair active = rsaKeyPair();
+        KeyPair previous = rsaKeyPair();
+        when(resourceLoader.getResource("private.pem"))
+                .thenReturn(pem("PRIVATE KEY", active.getPrivate().getEncoded()));
+        when(resourceLoader.getResource("public.pem"))
+                .thenReturn(pem("PUBLIC KEY", active.getPublic().getEncoded()));
+        when(resourceLoader.getResource("previous.pem"))
+                .thenReturn(pem("PUBLIC KEY", previous.getPublic().getEncoded()));
+        ReflectionTestUtils.setField(tokenService, "algorithmType", "RS256");
+        ReflectionTestUtils.setField(tokenService, "privateKeyPath", "private.pem");
+        ReflectionTestUtils.setField(tokenService, "publicKeyPath", "public.pem");
+        ReflectionTestUtils.setField(tokenService, "previousPublicKeyPaths", List.of("previous.pem"));
+
+        String activeKid = TokenService.keyIdOf((RSAPublicKey) active.getPublic());
+        String previousKid = TokenService.keyIdOf((RSAPublicKey) previous.getPublic());
+        String oldToken = JWT.create()
+                .withIssuer("ClinicaDeYmid")
+                .withKeyId(previousKid)
+                .withSubject(testUser.getUuid())
+                .sign(Algorithm.RSA256(null, (RSAPrivateKey) previous.getPrivate()));
+        String unknownKidToken = JWT.create()
+                .withIssuer("ClinicaDeYmid")
+                .withKeyId("desconocida")
+                .withSubject(testUser.getUuid())
+                .sign(Algorithm.RSA256(null, (RSAPrivateKey) active.getPrivate()));
+
+        // Act
+        tokenService.init();
+        String newToken = tokenService.generateAccessToken(testUser);
+
+        // Assert
+        assertEquals(activeKid, JWT.decode(newToken).getKeyId());
+        assertEquals(List.of(activeKid, previousKid), List.copyOf(tokenService.getPublicKeys().keySet()));
+        assertNotNull(tokenService.getKeySetVersion());
+        assertEquals(testUser.getUuid(), tokenService.validateAndDecodeToken(newToken).getSubject());
+        assertEquals(testUser.getUuid(), tokenService.validateAndDecodeToken(oldToken).getSubject());
+        assertThrows(InvalidTokenException.class, () -> tokenService.validateAndDecodeToken(unknownKidToken));
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static ByteArrayResource pem(String type, byte[] encoded) {
+        String content = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(encoded)
+                + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(content.getBytes());
+    }
+
+    private RefreshSession session(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        return new RefreshSession(RefreshTokenService.hash(token), testUser.getId(), "192.168.1.1",
+                "Mozilla/5.0", now, now.plusDays(7));
+    }
 }
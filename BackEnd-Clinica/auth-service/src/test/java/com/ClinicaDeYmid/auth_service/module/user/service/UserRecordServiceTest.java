@@ -1,7 +1,9 @@
 package com.ClinicaDeYmid.auth_service.module.user.service;
 
+import com.ClinicaDeYmid.auth_service.module.auth.security.PrincipalCache;
 import com.ClinicaDeYmid.auth_service.module.user.dto.RoleDTO;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserRequestDTO;
+import com.ClinicaDeYmid.auth_service.module.user.dto.UserPasswordUpdateDTO;
 import com.ClinicaDeYmid.auth_service.module.user.dto.UserResponseDTO;
 import com.ClinicaDeYmid.auth_service.module.user.entity.Role;
 import com.ClinicaDeYmid.auth_service.module.user.entity.User;
@@ -37,6 +39,8 @@ class UserRecordServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private UserMapper userMapper;
+    @Mock
+    private PrincipalCache principalCache;
 
     @InjectMocks
     private UserRecordService userRecordService;
@@ -154,4 +158,30 @@ class UserRecordServiceTest {
 
         assertEquals("Ya existe un usuario con el email o username proporcionado", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Should invalidate the cached principal when the password changes")
+    void updatePassword_invalidatesPrincipal() {
+        user.setUuid("user-uuid");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("current", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("newPassword")).thenReturn("newEncodedPassword");
+
+        userRecordService.updatePassword(1L, new UserPasswordUpdateDTO("current", "newPassword", "newPassword"));
+
+        verify(userRepository).save(user);
+        verify(principalCache).invalidate("user-uuid");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached principal when the user is deleted")
+    void deleteUser_invalidatesPrincipal() {
+        user.setUuid("user-uuid");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userRecordService.deleteUser(1L);
+
+        assertFalse(user.isActive());
+        verify(principalCache).invalidate("user-uuid");
+    }
 }
@@ -0,0 +1,146 @@
+package com.ClinicaDeYmid.batch_writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Buffer acotado que un hilo dedicado vacía por lotes.
+ *
+ * <p>{@link #offer} solo encola y vuelve de inmediato; con el buffer lleno devuelve {@code false}
+ * y quien llama decide qué hacer (normalmente contar el descarte). El hilo entrega a
+ * {@code flusher} lotes de hasta {@code flushSize} elementos, o lo acumulado durante
+ * {@code flushInterval} desde el primero si el lote no se llena antes. Al parar se entrega el
+ * lote en curso y todo lo que quede en el buffer.</p>
+ *
+ * <p>El lote que recibe {@code flusher} se reutiliza: debe copiarlo si lo necesita después de
+ * volver. Un error de {@code flusher} se registra y no detiene el hilo ni se reintenta.</p>
+ *
+ * @param <T> tipo de los elementos
+ */
+@Slf4j
+public class BoundedBatchWriter<T> {
+
+    private final String name;
+    private final BlockingQueue<T> buffer;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final Duration shutdownTimeout;
+    private final Consumer<List<T>> flusher;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * @param name    nombre del hilo y de los mensajes de log
+     * @param flusher escribe un lote; se llama siempre desde el hilo del writer
+     */
+    public BoundedBatchWriter(String name, int capacity, int flushSize, Duration flushInterval,
+                              Duration shutdownTimeout, Consumer<List<T>> flusher) {
+        this.name = name;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Encola sin bloquear.
+     *
+     * @return {@code false} si el buffer está lleno y el elemento se descarta
+     */
+    public boolean offer(T item) {
+        return buffer.offer(item);
+    }
+
+    /**
+     * Elementos pendientes de escribir.
+     */
+    public int size() {
+        return buffer.size();
+    }
+
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name(name)
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    /**
+     * Para el hilo y espera hasta {@code shutdownTimeout} a que escriba lo pendiente.
+     */
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        writerThread.interrupt();
+        try {
+            writerThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("{} no terminó a tiempo; pendientes: {}", name, buffer.size());
+        }
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(flushSize);
+        try {
+            while (running) {
+                T first = buffer.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Acumula hasta completar el lote o agotar el intervalo desde el primer elemento
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < flushSize) {
+                    buffer.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    T next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Apagado: escribir el lote en curso y todo lo que quede en el buffer
+            do {
+                buffer.drainTo(batch, flushSize - batch.size());
+                flush(batch);
+            } while (!buffer.isEmpty());
+        }
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flusher.accept(batch);
+        } catch (Exception e) {
+            log.warn("{}: error escribiendo un lote de {}: {}", name, batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+}
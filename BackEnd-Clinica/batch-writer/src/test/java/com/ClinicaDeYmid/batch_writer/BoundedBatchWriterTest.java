@@ -0,0 +1,96 @@
+package com.ClinicaDeYmid.batch_writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedBatchWriterTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    private BoundedBatchWriter<Integer> newWriter(int capacity, int flushSize, Duration flushInterval) {
+        return new BoundedBatchWriter<>("test-writer", capacity, flushSize, flushInterval, Duration.ofSeconds(5),
+                batch -> batches.add(new ArrayList<>(batch)));
+    }
+
+    @Test
+    void stop_ShouldFlushPendingItemsInBatchesOfFlushSize() {
+        // Arrange
+        BoundedBatchWriter<Integer> writer = newWriter(100, 10, Duration.ofMinutes(1));
+        for (int i = 0; i < 25; i++) {
+            writer.offer(i);
+        }
+
+        // Act
+        writer.start();
+        writer.stop();
+
+        // Assert
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+        assertEquals(0, writer.size());
+    }
+
+    @Test
+    void offer_WhenBufferFull_ShouldReturnFalse() {
+        // Arrange
+        BoundedBatchWriter<Integer> writer = newWriter(2, 10, Duration.ofMinutes(1));
+
+        // Act & Assert
+        assertTrue(writer.offer(1));
+        assertTrue(writer.offer(2));
+        assertFalse(writer.offer(3));
+        assertEquals(2, writer.size());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void start_ShouldFlushPartialBatchAfterInterval() throws InterruptedException {
+        // Arrange
+        BoundedBatchWriter<Integer> writer = newWriter(100, 500, Duration.ofMillis(50));
+        writer.start();
+
+        try {
+            // Act
+            writer.offer(1);
+            writer.offer(2);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (batches.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assert
+            assertEquals(List.of(List.of(1, 2)), batches);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void flush_WhenFlusherFails_ShouldKeepWritingNextBatches() {
+        // Arrange
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BoundedBatchWriter<Integer> writer = new BoundedBatchWriter<>("test-writer", 100, 2, Duration.ofMinutes(1),
+                Duration.ofSeconds(5), batch -> {
+                    if (batch.contains(0)) {
+                        throw new IllegalStateException("BD no disponible");
+                    }
+                    written.addAll(batch);
+                });
+        for (int i = 0; i < 4; i++) {
+            writer.offer(i);
+        }
+
+        // Act
+        writer.start();
+        writer.stop();
+
+        // Assert
+        assertEquals(List.of(2, 3), written);
+    }
+}
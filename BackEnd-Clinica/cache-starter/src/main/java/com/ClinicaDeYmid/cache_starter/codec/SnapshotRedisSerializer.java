@@ -0,0 +1,192 @@
+package com.ClinicaDeYmid.cache_starter.codec;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Serializador Redis para los snapshots de caché.
+ *
+ * <p>Cada payload lleva una cabecera de 3 bytes: marca, formato y versión de esquema. Si la
+ * cabecera no coincide (payload JSON antiguo, otro formato o snapshot de una versión previa)
+ * el valor se trata como un fallo de caché y se recalcula, en lugar de romper la lectura.</p>
+ *
+ * <p>El tipo se escribe sólo en la raíz y en los valores declarados como {@code Object}
+ * ({@code JAVA_LANG_OBJECT}), y al leer únicamente se aceptan los tipos de la lista blanca: el
+ * paquete de DTOs del servicio, las colecciones de {@code java.util}, {@code java.time},
+ * y los números de {@code java.lang}/{@code java.math}. Un payload que nombre cualquier otra clase
+ * se descarta como fallo de caché. Las páginas de Spring Data no se reconstruyen desde JSON: se
+ * cachea un snapshot con el contenido y el total.</p>
+ *
+ * <p>Publica en Micrometer el tamaño de cada payload y el tiempo de (de)serialización por tipo.</p>
+ */
+@Slf4j
+public class SnapshotRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xCA;
+
+    private enum Format {
+        SMILE((byte) 'S'),
+        JSON((byte) 'J');
+
+        private final byte code;
+
+        Format(byte code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * Implementaciones internas de {@code java.util} que devuelven {@code List.of}, {@code toList()},
+     * {@code Collections.*} y {@code Arrays.asList}; no son públicas y se admiten por nombre exacto.
+     */
+    private static final Pattern JDK_COLLECTIONS = Pattern.compile(
+            "java\\.util\\.(ImmutableCollections\\$(List12|ListN|Set12|SetN|Map1|MapN)"
+                    + "|Collections\\$(Empty|Singleton|Unmodifiable|UnmodifiableRandomAccess)(List|Set|Map)"
+                    + "|Arrays\\$ArrayList)");
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Format format;
+    private final byte schemaVersion;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedPayloads;
+
+    /**
+     * @param mapper     ObjectMapper ya configurado; su factoría determina el formato (Smile o JSON)
+     * @param dtoPackage paquete de los DTOs cacheados por el servicio, p. ej.
+     *                   {@code com.ClinicaDeYmid.patient_service.module.dto}
+     */
+    public SnapshotRedisSerializer(ObjectMapper mapper, int schemaVersion, String dtoPackage,
+                                   MeterRegistry meterRegistry) {
+        this.format = mapper.getFactory() instanceof SmileFactory ? Format.SMILE : Format.JSON;
+        this.mapper = typedCopy(mapper, dtoPackage);
+        // La raíz se escribe como Object para que lleve su tipo aunque sea un record (final)
+        this.writer = this.mapper.writerFor(Object.class);
+        this.schemaVersion = (byte) schemaVersion;
+        this.meterRegistry = meterRegistry;
+        this.rejectedPayloads = Counter.builder("cache.codec.rejected")
+                .description("Payloads descartados por cabecera o versión de esquema incompatibles")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        String type = value.getClass().getSimpleName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            byte[] body = writer.writeValueAsBytes(value);
+            byte[] payload = new byte[body.length + 3];
+            payload[0] = MAGIC;
+            payload[1] = format.code;
+            payload[2] = schemaVersion;
+            System.arraycopy(body, 0, payload, 3, body.length);
+
+            payloadSize(type).record(payload.length);
+            return payload;
+        } catch (Exception e) {
+            throw new SerializationException("No se pudo serializar el valor de caché de tipo " + type, e);
+        } finally {
+            sample.stop(timer("cache.codec.serialize", type));
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        if (bytes.length < 3 || bytes[0] != MAGIC || bytes[1] != format.code || bytes[2] != schemaVersion) {
+            rejectedPayloads.increment();
+            log.debug("Payload de caché descartado: cabecera o versión de esquema incompatibles");
+            return null;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String type = "unknown";
+        try {
+            Object value = mapper.readValue(Arrays.copyOfRange(bytes, 3, bytes.length), Object.class);
+            type = value != null ? value.getClass().getSimpleName() : type;
+            return value;
+        } catch (Exception e) {
+            rejectedPayloads.increment();
+            log.warn("No se pudo deserializar un valor de caché ({} bytes): {}", bytes.length, e.getMessage());
+            return null;
+        } finally {
+            sample.stop(timer("cache.codec.deserialize", type));
+        }
+    }
+
+    private Timer timer(String name, String type) {
+        return Timer.builder(name)
+                .tag("format", format.name().toLowerCase())
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary payloadSize(String type) {
+        return DistributionSummary.builder("cache.codec.payload.size")
+                .baseUnit("bytes")
+                .tag("format", format.name().toLowerCase())
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Añade al mapper la información de tipo necesaria para deserializar sin conocer la clase
+     * de antemano, restringida a los tipos que realmente se cachean.
+     */
+    private static ObjectMapper typedCopy(ObjectMapper mapper, String dtoPackage) {
+        BasicPolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType(dtoPackage.endsWith(".") ? dtoPackage : dtoPackage + ".")
+                .allowIfSubType("java.time.")
+                .allowIfSubType(ArrayList.class)
+                .allowIfSubType(LinkedList.class)
+                .allowIfSubType(HashMap.class)
+                .allowIfSubType(LinkedHashMap.class)
+                .allowIfSubType(TreeMap.class)
+                .allowIfSubType(HashSet.class)
+                .allowIfSubType(LinkedHashSet.class)
+                .allowIfSubType(TreeSet.class)
+                .allowIfSubType(JDK_COLLECTIONS)
+                .allowIfSubType(Long.class)
+                .allowIfSubType(Short.class)
+                .allowIfSubType(Float.class)
+                .allowIfSubType(BigDecimal.class)
+                .allowIfSubType(BigInteger.class)
+                .build();
+
+        ObjectMapper typed = mapper.copy();
+        typed.activateDefaultTyping(validator, ObjectMapper.DefaultTyping.JAVA_LANG_OBJECT, JsonTypeInfo.As.PROPERTY);
+        return typed;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ClinicaDeYmid.cache_starter.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas idénticas concurrentes (single-flight): mientras una llamada con una clave está
+ * en curso, las demás con la misma clave esperan su resultado en lugar de repetirla. Pensado para
+ * lecturas remotas (p. ej. Feign) que muchos clientes piden a la vez.
+ *
+ * <p>La clave la decide quien llama y debe incluir todo lo que cambia la respuesta. La llamada
+ * se ejecuta con el contexto del primer hilo (token propagado incluido), así que si el servicio
+ * remoto autoriza por usuario o tenant la clave debe incluirlo.</p>
+ *
+ * <p>Un hilo que espera más de {@code maxWait} hace su propia llamada. Los errores del primer hilo
+ * se propagan a los que esperan. No hay caché: en cuanto la llamada termina, la siguiente con la
+ * misma clave vuelve a ejecutarse. Publica {@code singleflight.calls} con {@code name} y
+ * {@code result=leader|shared|timeout}.</p>
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del resultado
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+
+    private static final String CALLS_METRIC = "singleflight.calls";
+
+    private final String name;
+    private final Duration maxWait;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCounter;
+    private final Counter sharedCounter;
+    private final Counter timeoutCounter;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxWait = maxWait;
+        this.leaderCounter = callsCounter(meterRegistry, name, "leader");
+        this.sharedCounter = callsCounter(meterRegistry, name, "shared");
+        this.timeoutCounter = callsCounter(meterRegistry, name, "timeout");
+    }
+
+    private static Counter callsCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(CALLS_METRIC)
+                .description("Llamadas agrupadas por single-flight")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta {@code call}, o espera el resultado de la llamada en curso con la misma clave.
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, call);
+        }
+        return await(key, existing, call);
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> call) {
+        leaderCounter.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight, Supplier<V> call) {
+        try {
+            V result = flight.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            sharedCounter.increment();
+            return result;
+        } catch (TimeoutException e) {
+            timeoutCounter.increment();
+            log.debug("Single-flight {}: espera agotada para {}, se llama directamente", name, key);
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la llamada en curso de " + name, e);
+        } catch (ExecutionException e) {
+            sharedCounter.increment();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Llamadas en curso; solo para métricas y tests.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ClinicaDeYmid.cache_starter.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+/**
+ * Configuración del serializador de snapshots que se guarda en Redis.
+ *
+ * <pre>
+ * cache:
+ *   codec:
+ *     format: smile
+ *     schema-version: 2
+ * </pre>
+ *
+ * <p>{@code schema-version} se sube al cambiar cualquier record cacheado: los payloads anteriores
+ * se descartan como fallos de caché. {@code dto-package} sólo hace falta si los DTOs no viven en
+ * {@code <paquete de la aplicación>.module.dto}.</p>
+ */
+@ConfigurationProperties(prefix = "cache.codec")
+public record CacheCodecProperties(
+        @DefaultValue("smile") String format,
+        @DefaultValue("1") int schemaVersion,
+        @Nullable String dtoPackage
+) {
+}
@@ -0,0 +1,157 @@
+package com.ClinicaDeYmid.cache_starter.config;
+
+import com.ClinicaDeYmid.cache_starter.codec.SnapshotRedisSerializer;
+import com.ClinicaDeYmid.cache_starter.near.TwoLevelCacheManager;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Auto-configuración del near-cache compartido por los microservicios.
+ *
+ * <p>Publica el serializador de snapshots {@value #CACHE_VALUE_SERIALIZER} ({@code cache.codec}).
+ * Con {@code cache.redis.enabled=true} construye además el {@link RedisCacheManager} con los TTL de
+ * {@code cache.redis}, lo envuelve en un {@link TwoLevelCacheManager} ({@code cache.near}) y lo
+ * suscribe al canal de invalidaciones. Un servicio que declare su propio {@link CacheManager} o su
+ * propio {@value #CACHE_VALUE_SERIALIZER} sustituye la pieza correspondiente.</p>
+ */
+@AutoConfiguration(after = RedisAutoConfiguration.class, before = CacheAutoConfiguration.class)
+@ConditionalOnClass({RedisCacheManager.class, Caffeine.class})
+@EnableConfigurationProperties({NearCacheProperties.class, CacheCodecProperties.class, RemoteCacheProperties.class})
+public class CacheStarterAutoConfiguration {
+
+    public static final String CACHE_VALUE_SERIALIZER = "cacheValueSerializer";
+
+    @Bean(name = CACHE_VALUE_SERIALIZER)
+    @ConditionalOnMissingBean(name = CACHE_VALUE_SERIALIZER)
+    public RedisSerializer<Object> cacheValueSerializer(CacheCodecProperties properties,
+                                                        BeanFactory beanFactory,
+                                                        MeterRegistry meterRegistry) {
+        return new SnapshotRedisSerializer(codecMapper(properties.format()), properties.schemaVersion(),
+                dtoPackage(properties, beanFactory), meterRegistry);
+    }
+
+    private static String dtoPackage(CacheCodecProperties properties, BeanFactory beanFactory) {
+        if (properties.dtoPackage() != null) {
+            return properties.dtoPackage();
+        }
+        if (!AutoConfigurationPackages.has(beanFactory)) {
+            throw new IllegalStateException("No se pudo deducir el paquete de DTOs cacheados: configure cache.codec.dto-package");
+        }
+        return AutoConfigurationPackages.get(beanFactory).get(0) + ".module.dto";
+    }
+
+    /**
+     * Smile (JSON binario) por defecto; "json" queda como opción de diagnóstico.
+     */
+    static ObjectMapper codecMapper(String format) {
+        ObjectMapper mapper = "json".equalsIgnoreCase(format) ? new ObjectMapper() : new SmileMapper();
+        mapper.registerModule(new ParameterNamesModule());
+        mapper.registerModule(new Jdk8Module());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    @ConditionalOnProperty(prefix = "cache.redis", name = "enabled", havingValue = "true")
+    static class TwoLevelCacheConfiguration {
+
+        /**
+         * CacheManager de dos niveles: near-cache Caffeine (L1) delante de Redis (L2).
+         */
+        @Bean
+        @ConditionalOnMissingBean(CacheManager.class)
+        public TwoLevelCacheManager cacheManager(
+                RedisConnectionFactory connectionFactory,
+                RemoteCacheProperties remoteCacheProperties,
+                NearCacheProperties nearCacheProperties,
+                MeterRegistry meterRegistry,
+                @Qualifier(CACHE_VALUE_SERIALIZER) RedisSerializer<Object> valueSerializer) {
+
+            RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration
+                    .defaultCacheConfig()
+                    .entryTtl(remoteCacheProperties.defaultTtl())
+                    .disableCachingNullValues()
+                    .serializeKeysWith(
+                            RedisSerializationContext.SerializationPair
+                                    .fromSerializer(new StringRedisSerializer()))
+                    .serializeValuesWith(
+                            RedisSerializationContext.SerializationPair
+                                    .fromSerializer(valueSerializer));
+
+            Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+            remoteCacheProperties.caches().forEach((name, ttl) ->
+                    cacheConfigurations.put(name, defaultCacheConfig.entryTtl(ttl)));
+
+            RedisCacheManager redisCacheManager = RedisCacheManager
+                    .builder(connectionFactory)
+                    .cacheDefaults(defaultCacheConfig)
+                    .withInitialCacheConfigurations(cacheConfigurations)
+                    .build();
+
+            // La sincronización con la transacción se aplica sobre la caché de dos niveles,
+            // así L1, Redis y la notificación a otras instancias ocurren tras el commit.
+            TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager,
+                    new StringRedisTemplate(connectionFactory), nearCacheProperties, meterRegistry);
+            cacheManager.setTransactionAware(remoteCacheProperties.transactionAware());
+            return cacheManager;
+        }
+
+        /**
+         * Escucha las invalidaciones publicadas por otras instancias para mantener L1 coherente.
+         */
+        @Bean
+        @ConditionalOnBean(TwoLevelCacheManager.class)
+        @ConditionalOnMissingBean(name = "cacheInvalidationListenerContainer")
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+                RedisConnectionFactory connectionFactory,
+                TwoLevelCacheManager cacheManager,
+                NearCacheProperties nearCacheProperties) {
+
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.addMessageListener(cacheManager, new ChannelTopic(nearCacheProperties.channel()));
+            return container;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ClinicaDeYmid.cache_starter.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuración del near-cache (L1 Caffeine) que se ubica delante de Redis.
+ *
+ * <pre>
+ * cache:
+ *   near:
+ *     maximum-size: 1000
+ *     ttl: 60s
+ *     caches:
+ *       attention-entities:
+ *         maximum-size: 5000
+ *         ttl: 2m
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "cache.near")
+public record NearCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") long maximumSize,
+        @DefaultValue("60s") Duration ttl,
+        @DefaultValue("cache:invalidation") String channel,
+        Map<String, Spec> caches
+) {
+
+    public record Spec(Long maximumSize, Duration ttl) {}
+
+    public long maximumSizeFor(String cacheName) {
+        Spec spec = caches != null ? caches.get(cacheName) : null;
+        return spec != null && spec.maximumSize() != null ? spec.maximumSize() : maximumSize;
+    }
+
+    public Duration ttlFor(String cacheName) {
+        Spec spec = caches != null ? caches.get(cacheName) : null;
+        return spec != null && spec.ttl() != null ? spec.ttl() : ttl;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ClinicaDeYmid.cache_starter.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuración de la caché Redis (L2) que el starter construye detrás del near-cache.
+ *
+ * <pre>
+ * cache:
+ *   redis:
+ *     enabled: true
+ *     default-ttl: 10m
+ *     transaction-aware: false
+ *     caches:
+ *       attention-entities: 15m
+ * </pre>
+ *
+ * <p>Los nombres con guion bajo se escriben entre corchetes ({@code "[doctor_cache]": 15m}) para
+ * que Spring no los altere al enlazar el mapa.</p>
+ */
+@ConfigurationProperties(prefix = "cache.redis")
+public record RemoteCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10m") Duration defaultTtl,
+        @DefaultValue("false") boolean transactionAware,
+        Map<String, Duration> caches
+) {
+
+    public Map<String, Duration> caches() {
+        return caches != null ? caches : Map.of();
+    }
+}
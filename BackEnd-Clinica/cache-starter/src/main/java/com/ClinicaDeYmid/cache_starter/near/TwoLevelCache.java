@@ -0,0 +1,283 @@
+package com.ClinicaDeYmid.cache_starter.near;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché de dos niveles: un near-cache Caffeine en memoria (L1) delante de la caché Redis (L2).
+ *
+ * <p>Las lecturas se resuelven primero en L1 y sólo consultan Redis en caso de fallo. Toda
+ * escritura o invalidación se aplica en ambos niveles y se notifica al resto de instancias
+ * para que descarten su copia L1. Los valores de L1 se comparten por referencia entre
+ * llamadas, por lo que deben tratarse como de sólo lectura.</p>
+ *
+ * <p>Un valor leído de Redis no se queda en L1 si durante la lectura llegó una escritura o
+ * invalidación de la misma clave (o un vaciado de la caché): pudo leerse antes del cambio. Cada
+ * clave cae en una de {@value #GENERATION_STRIPES} generaciones, por lo que una invalidación
+ * puede descartar también la carga concurrente de otra clave del mismo grupo.</p>
+ *
+ * <p>Publica en Micrometer, etiquetado por nombre de caché, los aciertos y fallos de cada
+ * nivel ({@code cache.gets}), las escrituras ({@code cache.puts}), las invalidaciones
+ * originadas en esta instancia ({@code cache.evictions}) y el tamaño de L1.</p>
+ */
+public class TwoLevelCache implements Cache {
+
+    @FunctionalInterface
+    interface InvalidationPublisher {
+        /**
+         * @param key clave invalidada, o {@code null} si se vació la caché completa
+         */
+        void publish(String cacheName, @Nullable String key);
+    }
+
+    static final int GENERATION_STRIPES = 64;
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final InvalidationPublisher publisher;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter puts;
+    private final Counter evictions;
+
+    /** Se incrementan con cada escritura o invalidación de una clave del grupo, local o remota. */
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    /** Se incrementa con cada vaciado de la caché, local o remoto. */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    public TwoLevelCache(String name, Cache remote,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         InvalidationPublisher publisher,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.publisher = publisher;
+
+        this.localHits = getsCounter(meterRegistry, "local", "hit");
+        this.localMisses = getsCounter(meterRegistry, "local", "miss");
+        this.remoteHits = getsCounter(meterRegistry, "remote", "hit");
+        this.remoteMisses = getsCounter(meterRegistry, "remote", "miss");
+        this.puts = Counter.builder("cache.puts")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.local.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+
+        long generation = generation(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            fillLocal(localKey, wrapper.get(), generation);
+        } else {
+            remoteMisses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return (T) value;
+        }
+        localMisses.increment();
+
+        long generation = generation(localKey);
+        AtomicBoolean invoked = new AtomicBoolean();
+        T loaded = remote.get(key, () -> {
+            invoked.set(true);
+            return valueLoader.call();
+        });
+        (invoked.get() ? remoteMisses : remoteHits).increment();
+        if (loaded != null) {
+            fillLocal(localKey, loaded, generation);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        remote.put(key, value);
+        puts.increment();
+        String localKey = localKey(key);
+        bump(localKey);
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        bump(localKey);
+        local.invalidate(localKey);
+        if (existing == null) {
+            puts.increment();
+            publisher.publish(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocalAndPublish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        evictLocalAndPublish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearGeneration.incrementAndGet();
+        local.invalidateAll();
+        evictions.increment();
+        publisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearGeneration.incrementAndGet();
+        local.invalidateAll();
+        evictions.increment();
+        publisher.publish(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Descarta la copia L1 de una clave sin tocar Redis ni notificar (uso desde el listener pub/sub).
+     */
+    void evictLocal(String localKey) {
+        bump(localKey);
+        local.invalidate(localKey);
+    }
+
+    /**
+     * Vacía L1 sin tocar Redis ni notificar (uso desde el listener pub/sub).
+     */
+    void clearLocal() {
+        clearGeneration.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    private void evictLocalAndPublish(Object key) {
+        String localKey = localKey(key);
+        bump(localKey);
+        local.invalidate(localKey);
+        evictions.increment();
+        publisher.publish(name, localKey);
+    }
+
+    /**
+     * Copia en L1 un valor leído de Redis, salvo que la clave haya cambiado desde que empezó la
+     * lectura. La generación se comprueba después de escribir: una invalidación incrementa la
+     * generación antes de vaciar L1, así que o bien la ve esta comprobación o bien borra la copia.
+     */
+    private void fillLocal(String localKey, Object value, long generation) {
+        local.put(localKey, value);
+        if (generation(localKey) != generation) {
+            local.asMap().remove(localKey, value);
+        }
+    }
+
+    /** Suma de la generación de la clave y la de vaciados; ambas sólo crecen. */
+    private long generation(String localKey) {
+        return keyGenerations.get(stripe(localKey)) + clearGeneration.get();
+    }
+
+    private void bump(String localKey) {
+        keyGenerations.incrementAndGet(stripe(localKey));
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), GENERATION_STRIPES);
+    }
+
+    private Counter getsCounter(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder("cache.gets")
+                .tag("cache", name)
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Redis convierte las claves a String; L1 usa la misma representación para que las
+     * invalidaciones recibidas por pub/sub coincidan con las claves locales.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ClinicaDeYmid.cache_starter.near;
+
+import com.ClinicaDeYmid.cache_starter.config.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager que envuelve cada caché de {@link RedisCacheManager} con un near-cache Caffeine.
+ *
+ * <p>Mantiene los mismos nombres de caché que Redis, por lo que las anotaciones
+ * {@code @Cacheable}/{@code @CacheEvict} existentes no cambian. Las invalidaciones se
+ * publican en un canal Redis y cada instancia descarta su copia L1 al recibirlas.</p>
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private static final String OP_EVICT = "E";
+    private static final String OP_CLEAR = "C";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final NearCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                NearCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        redisCacheManager.initializeCaches();
+        return redisCacheManager.getCacheNames().stream()
+                .map(name -> wrap(name, redisCacheManager.getCache(name)))
+                .toList();
+    }
+
+    @Override
+    @Nullable
+    protected Cache getMissingCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        return remote != null ? wrap(name, remote) : null;
+    }
+
+    private Cache wrap(String name, Cache remote) {
+        if (!properties.enabled()) {
+            return remote;
+        }
+
+        TwoLevelCache cache = new TwoLevelCache(name, remote,
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSizeFor(name))
+                        .expireAfterWrite(properties.ttlFor(name))
+                        .recordStats()
+                        .build(),
+                this::publishInvalidation,
+                meterRegistry);
+        nearCaches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, TwoLevelCache> getNearCaches() {
+        return nearCaches;
+    }
+
+    private void publishInvalidation(String cacheName, @Nullable String key) {
+        String message = key != null
+                ? String.join("|", instanceId, OP_EVICT, cacheName, key)
+                : String.join("|", instanceId, OP_CLEAR, cacheName, "");
+        try {
+            redisTemplate.convertAndSend(properties.channel(), message);
+        } catch (Exception e) {
+            // Las demás instancias conservarán su copia L1 hasta que expire su TTL
+            log.warn("No se pudo publicar la invalidación de caché {} [{}]: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        TwoLevelCache cache = nearCaches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+
+        if (OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+        log.debug("Invalidación L1 recibida: caché={}, clave={}", parts[2], parts[3]);
+    }
+}
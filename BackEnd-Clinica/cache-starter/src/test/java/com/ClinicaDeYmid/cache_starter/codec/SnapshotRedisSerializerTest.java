@@ -0,0 +1,127 @@
+package com.ClinicaDeYmid.cache_starter.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotRedisSerializerTest {
+
+    private static final String DTO_PACKAGE = "com.ClinicaDeYmid.cache_starter.codec";
+
+    record Snapshot(Long id, String name, LocalDateTime updatedAt, List<Ref> refs) {}
+
+    record Ref(String code, Long version) {}
+
+    private SimpleMeterRegistry meterRegistry;
+    private SnapshotRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        serializer = new SnapshotRedisSerializer(smileMapper(), 1, DTO_PACKAGE, meterRegistry);
+    }
+
+    @Test
+    void roundTrip_PreservesSnapshot() {
+        // Arrange
+        Snapshot snapshot = snapshot();
+
+        // Act
+        byte[] payload = serializer.serialize(snapshot);
+        Object result = serializer.deserialize(payload);
+
+        // Assert
+        assertEquals(snapshot, result);
+        assertEquals(1, meterRegistry.get("cache.codec.payload.size").tag("type", "Snapshot").summary().count());
+        assertEquals(1, meterRegistry.get("cache.codec.deserialize").tag("type", "Snapshot").timer().count());
+    }
+
+    @Test
+    void roundTrip_PreservesListsAndObjectMaps() {
+        // Arrange
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", 12L);
+        stats.put("timestamp", LocalDateTime.of(2025, 1, 15, 8, 30));
+
+        // Act
+        Object list = serializer.deserialize(serializer.serialize(List.of(snapshot())));
+        Object map = serializer.deserialize(serializer.serialize(stats));
+
+        // Assert
+        assertEquals(List.of(snapshot()), list);
+        assertEquals(stats, map);
+    }
+
+    @Test
+    void deserialize_TypeOutsideAllowlist_ReturnsNull() {
+        // Arrange
+        SnapshotRedisSerializer jsonSerializer =
+                new SnapshotRedisSerializer(new ObjectMapper(), 1, DTO_PACKAGE, meterRegistry);
+        byte[] body = "{\"@class\":\"java.net.URL\",\"protocol\":\"http\",\"host\":\"attacker\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[body.length + 3];
+        payload[0] = (byte) 0xCA;
+        payload[1] = (byte) 'J';
+        payload[2] = 1;
+        System.arraycopy(body, 0, payload, 3, body.length);
+
+        // Act & Assert
+        assertNull(jsonSerializer.deserialize(payload));
+        assertEquals(1.0, meterRegistry.get("cache.codec.rejected").counter().count());
+    }
+
+    @Test
+    void deserialize_SpringDataPage_ReturnsNull() {
+        // Arrange
+        byte[] payload = serializer.serialize(new PageImpl<>(List.of(snapshot()), PageRequest.of(0, 10), 1));
+
+        // Act & Assert
+        assertNull(serializer.deserialize(payload));
+        assertEquals(1.0, meterRegistry.get("cache.codec.rejected").counter().count());
+    }
+
+    @Test
+    void deserialize_OtherSchemaVersion_ReturnsNull() {
+        // Arrange
+        SnapshotRedisSerializer previousVersion = new SnapshotRedisSerializer(smileMapper(), 0, DTO_PACKAGE, meterRegistry);
+        byte[] payload = previousVersion.serialize(snapshot());
+
+        // Act & Assert
+        assertNull(serializer.deserialize(payload));
+        assertEquals(1.0, meterRegistry.get("cache.codec.rejected").counter().count());
+    }
+
+    @Test
+    void deserialize_LegacyJsonPayload_ReturnsNull() {
+        // Arrange
+        byte[] legacy = "{\"@class\":\"com.ClinicaDeYmid.admissions_service.module.entity.Attention\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertNull(serializer.deserialize(legacy));
+    }
+
+    private static ObjectMapper smileMapper() {
+        ObjectMapper mapper = new SmileMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    private static Snapshot snapshot() {
+        return new Snapshot(1L, "Consulta", LocalDateTime.of(2025, 1, 15, 8, 30),
+                List.of(new Ref("900123456", 5L)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ClinicaDeYmid.cache_starter.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void execute_ShouldShareOneCall_BetweenConcurrentCallersWithSameKey() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("doctors", Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        CountDownLatch started = new CountDownLatch(callers);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    started.countDown();
+                    return singleFlight.execute("doctor:1", () -> {
+                        calls.incrementAndGet();
+                        await(release);
+                        return "Dr. House";
+                    });
+                }, executor));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // Margen para que todos lleguen a execute antes de liberar la llamada
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (CompletableFuture<String> result : results) {
+                assertEquals("Dr. House", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(1.0, count("leader"));
+        assertEquals(callers - 1.0, count("shared"));
+    }
+
+    @Test
+    void execute_ShouldCallDirectly_WhenWaitExceedsMaxWait() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("doctors", Duration.ofMillis(20), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("doctor:1", () -> {
+                    await(release);
+                    return "slow";
+                }));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        // Act
+        String result = singleFlight.execute("doctor:1", () -> "direct");
+
+        // Assert
+        assertEquals("direct", result);
+        assertEquals(1.0, count("timeout"));
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_ShouldPropagateLeaderFailure_AndAllowRetry() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("doctors", Duration.ofSeconds(1), meterRegistry);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("doctor:1", () -> {
+            throw new IllegalArgumentException("not found");
+        }));
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals("ok", singleFlight.execute("doctor:1", () -> "ok"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("singleflight.calls").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
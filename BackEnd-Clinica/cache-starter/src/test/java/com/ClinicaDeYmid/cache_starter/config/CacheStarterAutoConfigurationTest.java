@@ -0,0 +1,135 @@
+package com.ClinicaDeYmid.cache_starter.config;
+
+import com.ClinicaDeYmid.cache_starter.near.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CacheStarterAutoConfigurationTest {
+
+    record Snapshot(Long id, String name) {}
+
+    @Configuration
+    @AutoConfigurationPackage(basePackages = "com.ClinicaDeYmid.cache_starter")
+    static class Application {
+    }
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(CacheStarterAutoConfiguration.class))
+            .withUserConfiguration(Application.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheValueSerializer_UsesConfiguredSchemaVersionAndPackage() {
+        contextRunner
+                .withPropertyValues("cache.codec.schema-version=3",
+                        "cache.codec.dto-package=com.ClinicaDeYmid.cache_starter.config")
+                .run(context -> {
+                    // Arrange
+                    RedisSerializer<Object> serializer = context.getBean(
+                            CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER, RedisSerializer.class);
+                    Snapshot snapshot = new Snapshot(1L, "Consulta");
+
+                    // Act
+                    byte[] payload = serializer.serialize(snapshot);
+
+                    // Assert
+                    assertEquals(3, payload[2]);
+                    assertEquals(snapshot, serializer.deserialize(payload));
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheValueSerializer_WithoutPackage_OnlyAcceptsTheApplicationDtoPackage() {
+        contextRunner.run(context -> {
+            // Arrange
+            RedisSerializer<Object> serializer = context.getBean(
+                    CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER, RedisSerializer.class);
+
+            // Act
+            byte[] payload = serializer.serialize(new Snapshot(1L, "Consulta"));
+
+            // Assert: el paquete deducido es com.ClinicaDeYmid.cache_starter.module.dto
+            assertEquals(1, payload[2]);
+            assertNull(serializer.deserialize(payload));
+        });
+    }
+
+    @Test
+    void cacheValueSerializer_BacksOffWhenTheServiceDefinesOne() {
+        contextRunner
+                .withBean(CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER, RedisSerializer.class,
+                        StringRedisSerializer::new)
+                .run(context -> assertInstanceOf(StringRedisSerializer.class,
+                        context.getBean(CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER)));
+    }
+
+    @Test
+    void cacheManager_WhenEnabled_WrapsRedisAndListensForInvalidations() {
+        contextRunner
+                .withBean(RedisConnectionFactory.class, CacheStarterAutoConfigurationTest::subscribingConnectionFactory)
+                .withPropertyValues("cache.redis.enabled=true", "cache.redis.transaction-aware=true",
+                        "cache.redis.caches.[contract_cache]=1h")
+                .run(context -> {
+                    TwoLevelCacheManager cacheManager = context.getBean(TwoLevelCacheManager.class);
+                    assertTrue(cacheManager.isTransactionAware());
+                    assertNotNull(context.getBean("cacheInvalidationListenerContainer",
+                            RedisMessageListenerContainer.class));
+                });
+    }
+
+    @Test
+    void cacheManager_WhenNotEnabled_IsNotCreated() {
+        contextRunner
+                .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class))
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(CacheManager.class).isEmpty());
+                    assertTrue(context.getBeansOfType(RedisMessageListenerContainer.class).isEmpty());
+                });
+    }
+
+    @Test
+    void cacheManager_BacksOffWhenTheServiceDefinesOne() {
+        contextRunner
+                .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class))
+                .withBean(CacheManager.class, ConcurrentMapCacheManager::new)
+                .withPropertyValues("cache.redis.enabled=true")
+                .run(context -> {
+                    assertInstanceOf(ConcurrentMapCacheManager.class, context.getBean(CacheManager.class));
+                    assertTrue(context.getBeansOfType(RedisMessageListenerContainer.class).isEmpty());
+                });
+    }
+
+    /**
+     * Conexión simulada que confirma la suscripción, para que el contenedor de mensajes arranque.
+     */
+    private static RedisConnectionFactory subscribingConnectionFactory() {
+        RedisConnection connection = mock(RedisConnection.class);
+        doAnswer(invocation -> {
+            byte[] channel = invocation.getArgument(1);
+            ((SubscriptionListener) invocation.getArgument(0)).onChannelSubscribed(channel, 1);
+            return null;
+        }).when(connection).subscribe(any(), any());
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        return connectionFactory;
+    }
+}
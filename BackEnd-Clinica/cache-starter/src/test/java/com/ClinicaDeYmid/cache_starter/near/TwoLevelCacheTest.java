@@ -0,0 +1,219 @@
+package com.ClinicaDeYmid.cache_starter.near;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private Cache remote;
+    @Mock
+    private TwoLevelCache.InvalidationPublisher publisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache("attention-entities", remote,
+                Caffeine.newBuilder().maximumSize(100).build(), publisher, meterRegistry);
+    }
+
+    @Test
+    void get_ServesRepeatedReadsFromLocalCache() {
+        // Arrange
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("attention"));
+
+        // Act
+        Cache.ValueWrapper first = cache.get(1L);
+        Cache.ValueWrapper second = cache.get(1L);
+
+        // Assert
+        assertEquals("attention", first.get());
+        assertEquals("attention", second.get());
+        verify(remote, times(1)).get(1L);
+    }
+
+    @Test
+    void get_RemoteMiss_ReturnsNull() {
+        // Arrange
+        when(remote.get(1L)).thenReturn(null);
+
+        // Act & Assert
+        assertNull(cache.get(1L));
+        assertNull(cache.getLocalCache().getIfPresent("1"));
+    }
+
+    @Test
+    void evict_RemovesBothLevelsAndPublishes() {
+        // Arrange
+        cache.put(1L, "attention");
+
+        // Act
+        cache.evict(1L);
+
+        // Assert
+        assertNull(cache.getLocalCache().getIfPresent("1"));
+        verify(remote).evict(1L);
+        verify(publisher, times(2)).publish("attention-entities", "1");
+    }
+
+    @Test
+    void clear_ClearsBothLevelsAndPublishes() {
+        // Arrange
+        cache.put(1L, "attention");
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+        verify(remote).clear();
+        verify(publisher).publish("attention-entities", null);
+    }
+
+    @Test
+    void evictLocal_DoesNotTouchRemoteNorPublish() {
+        // Arrange
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("attention"));
+        cache.get(1L);
+
+        // Act
+        cache.evictLocal("1");
+        cache.get(1L);
+
+        // Assert
+        verify(remote, times(2)).get(1L);
+        verify(remote, never()).evict(any());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void get_EvictDuringRemoteRead_DoesNotKeepStaleValueLocally() throws Exception {
+        // Arrange
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        when(remote.get(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            assertTrue(evicted.await(5, TimeUnit.SECONDS));
+            return new SimpleValueWrapper("stale");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<Cache.ValueWrapper> read = executor.submit(() -> cache.get(1L));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            cache.evict(1L);
+            evicted.countDown();
+
+            // Assert
+            assertEquals("stale", read.get(5, TimeUnit.SECONDS).get());
+            assertNull(cache.getLocalCache().getIfPresent("1"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getWithLoader_InvalidationDuringLoad_DoesNotKeepStaleValueLocally() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        when(remote.get(eq(1L), any(Callable.class))).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+            return "stale";
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<String> load = executor.submit(() -> cache.get(1L, () -> "stale"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.evictLocal("1");
+            invalidated.countDown();
+
+            // Assert
+            assertEquals("stale", load.get(5, TimeUnit.SECONDS));
+            assertNull(cache.getLocalCache().getIfPresent("1"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ClearDuringRemoteRead_DoesNotKeepStaleValueLocally() throws Exception {
+        // Arrange
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch cleared = new CountDownLatch(1);
+        when(remote.get(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            assertTrue(cleared.await(5, TimeUnit.SECONDS));
+            return new SimpleValueWrapper("stale");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<Cache.ValueWrapper> read = executor.submit(() -> cache.get(1L));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            cache.clearLocal();
+            cleared.countDown();
+
+            // Assert
+            read.get(5, TimeUnit.SECONDS);
+            assertNull(cache.getLocalCache().getIfPresent("1"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void metrics_RecordHitsMissesAndEvictionsPerCache() {
+        // Arrange
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("attention"));
+        when(remote.get(2L)).thenReturn(null);
+
+        // Act
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+        cache.evict(1L);
+
+        // Assert
+        assertEquals(1.0, gets("local", "hit"));
+        assertEquals(2.0, gets("local", "miss"));
+        assertEquals(1.0, gets("remote", "hit"));
+        assertEquals(1.0, gets("remote", "miss"));
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "attention-entities").counter().count());
+    }
+
+    private double gets(String level, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "attention-entities")
+                .tag("level", level)
+                .tag("result", result)
+                .counter().count();
+    }
+}
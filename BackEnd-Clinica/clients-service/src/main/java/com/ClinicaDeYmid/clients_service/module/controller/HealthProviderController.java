@@ -268,6 +268,31 @@ public class HealthProviderController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Obtener varios pares proveedor/contrato en una sola petición
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN')")
+    @Operation(
+            summary = "Retrieve health providers with contracts in batch",
+            description = "Retrieves several NIT/contract pairs in a single request, keyed by \"nit:contractId\". " +
+                    "Pairs that do not match an existing contract are omitted. Requires ADMIN or SUPER_ADMIN role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Health providers retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<Map<String, GetHealthProviderDto>> getContractsByNitAndId(
+            @Valid @RequestBody HealthProviderBatchRequestDto request) {
+
+        log.info("Retrieving {} NIT/contract pairs in batch", request.items().size());
+
+        Map<String, GetHealthProviderDto> result = getHealthProviderContractService.getProvidersWithContracts(request.items());
+
+        log.info("Found {} of {} NIT/contract pairs", result.size(), request.items().size());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Actualizar un contrato
      */
@@ -0,0 +1,17 @@
+package com.ClinicaDeYmid.clients_service.module.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record HealthProviderBatchRequestDto(
+        @Schema(description = "NIT/contract pairs to retrieve")
+        @NotEmpty(message = "Se requiere al menos un par NIT/contrato")
+        @Size(max = HealthProviderBatchRequestDto.MAX_ITEMS, message = "Se permiten como máximo " + HealthProviderBatchRequestDto.MAX_ITEMS + " pares NIT/contrato por petición")
+        List<@Valid HealthProviderContractRefDto> items
+) {
+    public static final int MAX_ITEMS = 100;
+}
@@ -0,0 +1,24 @@
+package com.ClinicaDeYmid.clients_service.module.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record HealthProviderContractRefDto(
+        @Schema(description = "NIT (tax identification number)", example = "900123456-7")
+        @NotBlank(message = "El NIT no puede estar vacío")
+        String nit,
+
+        @Schema(description = "Contract identifier", example = "25")
+        @NotNull(message = "El ID del contrato no puede ser nulo")
+        @Min(value = 1, message = "El ID del contrato debe ser un número positivo")
+        Long contractId
+) {
+    /**
+     * Clave con la que se indexa este par en la respuesta del endpoint batch
+     */
+    public String key() {
+        return nit + ":" + contractId;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ClinicaDeYmid.clients_service.module.dto.cache;
+
+import com.ClinicaDeYmid.clients_service.module.dto.ContractDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Copia inmutable de una página de contratos, pensada para la caché: {@link PageImpl} no se
+ * puede reconstruir desde el payload, así que se guarda sólo el contenido y el total.
+ *
+ * <p>Cualquier cambio en la forma de este record (o de {@link ContractDto}) requiere subir
+ * {@code cache.codec.schema-version}.</p>
+ */
+public record ContractPageSnapshot(
+        List<ContractDto> content,
+        long totalElements
+) {
+
+    public ContractPageSnapshot {
+        content = content != null ? List.copyOf(content) : List.of();
+    }
+
+    public static ContractPageSnapshot from(Page<ContractDto> page) {
+        return new ContractPageSnapshot(page.getContent(), page.getTotalElements());
+    }
+
+    public Page<ContractDto> toPage(Pageable pageable) {
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+}
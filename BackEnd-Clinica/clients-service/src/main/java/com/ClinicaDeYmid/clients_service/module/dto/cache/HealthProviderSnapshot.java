@@ -0,0 +1,46 @@
+package com.ClinicaDeYmid.clients_service.module.dto.cache;
+
+import com.ClinicaDeYmid.clients_service.module.domain.Nit;
+import com.ClinicaDeYmid.clients_service.module.dto.ContractDto;
+import com.ClinicaDeYmid.clients_service.module.dto.HealthProviderResponseDto;
+import com.ClinicaDeYmid.clients_service.module.enums.ContractStatus;
+import com.ClinicaDeYmid.clients_service.module.enums.TypeProvider;
+
+import java.util.List;
+
+/**
+ * Copia inmutable de un proveedor de salud activo y sus contratos, pensada para la caché.
+ *
+ * <p>Cualquier cambio en la forma de este record (o de {@link ContractDto}) requiere subir
+ * {@code cache.codec.schema-version}.</p>
+ */
+public record HealthProviderSnapshot(
+        String nit,
+        String socialReason,
+        TypeProvider typeProvider,
+        List<ContractDto> contracts,
+        ContractStatus contractStatus
+) {
+
+    public HealthProviderSnapshot {
+        contracts = contracts != null ? List.copyOf(contracts) : List.of();
+    }
+
+    public static HealthProviderSnapshot from(HealthProviderResponseDto dto) {
+        return new HealthProviderSnapshot(
+                dto.nit() != null ? dto.nit().getValue() : null,
+                dto.socialReason(),
+                dto.typeProvider(),
+                dto.contracts(),
+                dto.contractStatus());
+    }
+
+    public HealthProviderResponseDto toResponseDto() {
+        return new HealthProviderResponseDto(
+                nit != null ? new Nit(nit) : null,
+                socialReason,
+                typeProvider,
+                contracts,
+                contractStatus);
+    }
+}
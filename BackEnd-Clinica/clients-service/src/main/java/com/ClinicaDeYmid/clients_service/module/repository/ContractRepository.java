@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,15 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     @Query("SELECT c FROM Contract c LEFT JOIN FETCH c.healthProvider WHERE c.id = :id AND c.deletedAt IS NULL")
     Optional<Contract> findByIdWithProvider(@Param("id") Long id);
 
+    /**
+     * Busca varios contratos por ID con su proveedor de salud (JOIN FETCH)
+     */
+    @Query("SELECT DISTINCT c FROM Contract c " +
+            "JOIN FETCH c.healthProvider hp " +
+            "LEFT JOIN FETCH hp.contracts " +
+            "WHERE c.id IN :ids AND c.deletedAt IS NULL")
+    List<Contract> findAllByIdInWithProvider(@Param("ids") Collection<Long> ids);
+
     /**
      * Obtiene todos los contratos de un proveedor específico
      */
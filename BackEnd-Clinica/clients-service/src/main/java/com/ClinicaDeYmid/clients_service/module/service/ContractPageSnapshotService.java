@@ -0,0 +1,65 @@
+package com.ClinicaDeYmid.clients_service.module.service;
+
+import com.ClinicaDeYmid.clients_service.infra.exception.ContractDataAccessException;
+import com.ClinicaDeYmid.clients_service.module.dto.cache.ContractPageSnapshot;
+import com.ClinicaDeYmid.clients_service.module.entity.Contract;
+import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
+import com.ClinicaDeYmid.clients_service.module.repository.ContractRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Carga y cachea snapshots de páginas de contratos. Vive en un bean propio para que
+ * {@code @Cacheable} se aplique a través del proxy desde {@link GetContractService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContractPageSnapshotService {
+
+    private final ContractRepository contractRepository;
+    private final HealthProviderMapper healthProviderMapper;
+
+    @Cacheable(value = "contracts_list_cache", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+    @Transactional(readOnly = true)
+    public ContractPageSnapshot getAllContracts(Pageable pageable) {
+        log.info("Consultando todos los contratos - Página: {}, Tamaño: {}",
+                pageable.getPageNumber(), pageable.getPageSize());
+
+        try {
+            Page<Contract> contractsPage = contractRepository.findAllActive(pageable);
+
+            log.info("Se encontraron {} contratos activos", contractsPage.getTotalElements());
+
+            return ContractPageSnapshot.from(contractsPage.map(healthProviderMapper::toContractDto));
+
+        } catch (DataAccessException ex) {
+            log.error("Error al consultar todos los contratos", ex);
+            throw new ContractDataAccessException("consultar todos los contratos", ex);
+        }
+    }
+
+    @Cacheable(value = "contracts_search_cache", key = "#searchTerm + '-' + #pageable.pageNumber")
+    @Transactional(readOnly = true)
+    public ContractPageSnapshot searchContractsByName(String searchTerm, Pageable pageable) {
+        log.info("Buscando contratos por nombre: {}", searchTerm);
+
+        try {
+            Page<Contract> searchResults = contractRepository.searchByName(searchTerm, pageable);
+
+            log.info("Se encontraron {} resultados para '{}'", searchResults.getTotalElements(), searchTerm);
+
+            return ContractPageSnapshot.from(searchResults.map(healthProviderMapper::toContractDto));
+
+        } catch (DataAccessException ex) {
+            log.error("Error al buscar contratos por nombre: {}", searchTerm, ex);
+            throw new ContractDataAccessException("buscar contratos por nombre", ex);
+        }
+    }
+}
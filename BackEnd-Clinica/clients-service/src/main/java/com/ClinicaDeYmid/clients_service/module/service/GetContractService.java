@@ -30,6 +30,7 @@ public class GetContractService {
     private final ContractRepository contractRepository;
     private final HealthProviderMapper healthProviderMapper;
     private final HealthProviderRepository healthProviderRepository;
+    private final ContractPageSnapshotService contractPageSnapshotService;
 
     /**
      * Obtener un contrato por ID (para uso interno - retorna entidad)
@@ -129,23 +130,9 @@ public class GetContractService {
     /**
      * Obtener todos los contratos con paginación
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "contracts_list_cache", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
     public Page<ContractDto> getAllContracts(Pageable pageable) {
-        log.info("Consultando todos los contratos - Página: {}, Tamaño: {}",
-                pageable.getPageNumber(), pageable.getPageSize());
-
-        try {
-            Page<Contract> contractsPage = contractRepository.findAllActive(pageable);
-
-            log.info("Se encontraron {} contratos activos", contractsPage.getTotalElements());
-
-            return contractsPage.map(healthProviderMapper::toContractDto);
-
-        } catch (DataAccessException ex) {
-            log.error("Error al consultar todos los contratos", ex);
-            throw new ContractDataAccessException("consultar todos los contratos", ex);
-        }
+        // Usa el snapshot cacheado (L1 en memoria / Redis)
+        return contractPageSnapshotService.getAllContracts(pageable).toPage(pageable);
     }
 
     /**
@@ -245,21 +232,8 @@ public class GetContractService {
     /**
      * Busca contratos por nombre
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "contracts_search_cache", key = "#searchTerm + '-' + #pageable.pageNumber")
     public Page<ContractDto> searchContractsByName(String searchTerm, Pageable pageable) {
-        log.info("Buscando contratos por nombre: {}", searchTerm);
-
-        try {
-            Page<Contract> searchResults = contractRepository.searchByName(searchTerm, pageable);
-
-            log.info("Se encontraron {} resultados para '{}'", searchResults.getTotalElements(), searchTerm);
-
-            return searchResults.map(healthProviderMapper::toContractDto);
-
-        } catch (DataAccessException ex) {
-            log.error("Error al buscar contratos por nombre: {}", searchTerm, ex);
-            throw new ContractDataAccessException("buscar contratos por nombre", ex);
-        }
+        // Usa el snapshot cacheado (L1 en memoria / Redis)
+        return contractPageSnapshotService.searchContractsByName(searchTerm, pageable).toPage(pageable);
     }
-}
\ No newline at end of file
+}
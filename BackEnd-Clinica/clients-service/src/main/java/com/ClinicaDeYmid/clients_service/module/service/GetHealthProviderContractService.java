@@ -1,19 +1,29 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
 import com.ClinicaDeYmid.clients_service.module.dto.GetHealthProviderDto;
+import com.ClinicaDeYmid.clients_service.module.dto.HealthProviderContractRefDto;
 import com.ClinicaDeYmid.clients_service.module.entity.Contract;
 import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
 import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
+import com.ClinicaDeYmid.clients_service.module.repository.ContractRepository;
 import com.ClinicaDeYmid.clients_service.module.repository.HealthProviderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class GetHealthProviderContractService {
 
     private final HealthProviderRepository healthProviderRepository;
+    private final ContractRepository contractRepository;
     private final HealthProviderMapper healthProviderMapper;
 
     @Transactional(readOnly = true)
@@ -22,4 +32,35 @@ public class GetHealthProviderContractService {
                 .orElseThrow(() -> new RuntimeException("Proveedor no encontrado con NIT: " + nit));
         return healthProviderMapper.toGetHealthProviderDto(provider, contract);
     }
+
+    /**
+     * Obtiene varios pares proveedor/contrato en una sola consulta, indexados por "nit:contractId".
+     * Los pares cuyo contrato no existe o no pertenece al NIT indicado se omiten.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, GetHealthProviderDto> getProvidersWithContracts(List<HealthProviderContractRefDto> refs) {
+        Set<Long> contractIds = refs.stream()
+                .map(HealthProviderContractRefDto::contractId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Contract> contracts = contractRepository.findAllByIdInWithProvider(contractIds).stream()
+                .collect(Collectors.toMap(Contract::getId, Function.identity()));
+
+        Map<String, GetHealthProviderDto> result = new LinkedHashMap<>();
+        for (HealthProviderContractRefDto ref : refs) {
+            Contract contract = contracts.get(ref.contractId());
+            if (contract != null && belongsToNit(contract.getHealthProvider(), ref.nit())) {
+                result.put(ref.key(), healthProviderMapper.toGetHealthProviderDto(contract.getHealthProvider(), contract));
+            }
+        }
+        return result;
+    }
+
+    private boolean belongsToNit(HealthProvider provider, String nit) {
+        if (provider == null || provider.getNit() == null || nit == null) {
+            return false;
+        }
+        String normalizedNit = nit.trim().replace(".", "").replace("-", "");
+        return normalizedNit.equals(provider.getNit().getValue());
+    }
 }
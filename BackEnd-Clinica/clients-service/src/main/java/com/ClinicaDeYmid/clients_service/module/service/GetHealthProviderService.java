@@ -1,8 +1,6 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderDataAccessException;
-import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotActiveException;
-import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotFoundException;
 import com.ClinicaDeYmid.clients_service.module.dto.HealthProviderListDto;
 import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
 import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
@@ -28,40 +26,16 @@ public class GetHealthProviderService {
 
     private final HealthProviderRepository healthProviderRepository;
     private final HealthProviderMapper healthProviderMapper;
+    private final HealthProviderSnapshotService healthProviderSnapshotService;
 
-    @Cacheable(value = "health-provider-entities", key = "#nit")
     @Transactional(readOnly = true)
-    public HealthProvider findEntityByNit(String nit) {
+    public HealthProviderResponseDto getHealthProviderByNit(String nit) {
         validateNitInput(nit);
 
-        log.debug("🔍 Cache MISS - Consultando DB para health provider: {}", nit);
-
-        try {
-            HealthProvider healthProvider = healthProviderRepository.findByNit_Value(nit)
-                    .orElseThrow(() -> new HealthProviderNotFoundException(nit));
-
-            if (!healthProvider.getActive()) {
-                log.warn("Proveedor de salud inactivo con NIT: {}", nit);
-                throw new HealthProviderNotActiveException(nit, healthProvider.getSocialReason());
-            }
-
-            return healthProvider;
-
-        } catch (HealthProviderNotFoundException | HealthProviderNotActiveException e) {
-            throw e;
-        } catch (DataAccessException ex) {
-            log.error("Error de acceso a datos al consultar proveedor con NIT: {}", nit, ex);
-            throw new HealthProviderDataAccessException("consultar proveedor de salud con NIT: " + nit, ex);
-        }
-    }
-
-    @Transactional(readOnly = true)
-    public HealthProviderResponseDto getHealthProviderByNit(String nit) {
         log.info("📦 Construyendo HealthProviderResponseDto completo para proveedor: {}", nit);
 
-        HealthProvider healthProvider = findEntityByNit(nit);
-
-        return healthProviderMapper.toResponseDto(healthProvider);
+        // Usa el snapshot cacheado (L1 en memoria / Redis)
+        return healthProviderSnapshotService.getSnapshot(nit).toResponseDto();
     }
 
     @Transactional(readOnly = true)
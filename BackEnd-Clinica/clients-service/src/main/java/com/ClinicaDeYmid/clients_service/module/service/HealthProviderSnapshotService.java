@@ -0,0 +1,52 @@
+package com.ClinicaDeYmid.clients_service.module.service;
+
+import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderDataAccessException;
+import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotActiveException;
+import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotFoundException;
+import com.ClinicaDeYmid.clients_service.module.dto.cache.HealthProviderSnapshot;
+import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
+import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
+import com.ClinicaDeYmid.clients_service.module.repository.HealthProviderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Carga y cachea snapshots inmutables de proveedores de salud activos. Vive en un bean propio
+ * para que {@code @Cacheable} se aplique a través del proxy también desde {@link GetHealthProviderService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HealthProviderSnapshotService {
+
+    private final HealthProviderRepository healthProviderRepository;
+    private final HealthProviderMapper healthProviderMapper;
+
+    @Cacheable(value = "health-provider-entities", key = "#nit")
+    @Transactional(readOnly = true)
+    public HealthProviderSnapshot getSnapshot(String nit) {
+        log.debug("🔍 Cache MISS - Consultando DB para health provider: {}", nit);
+
+        try {
+            HealthProvider healthProvider = healthProviderRepository.findByNit_Value(nit)
+                    .orElseThrow(() -> new HealthProviderNotFoundException(nit));
+
+            if (!healthProvider.getActive()) {
+                log.warn("Proveedor de salud inactivo con NIT: {}", nit);
+                throw new HealthProviderNotActiveException(nit, healthProvider.getSocialReason());
+            }
+
+            return HealthProviderSnapshot.from(healthProviderMapper.toResponseDto(healthProvider));
+
+        } catch (HealthProviderNotFoundException | HealthProviderNotActiveException e) {
+            throw e;
+        } catch (DataAccessException ex) {
+            log.error("Error de acceso a datos al consultar proveedor con NIT: {}", nit, ex);
+            throw new HealthProviderDataAccessException("consultar proveedor de salud con NIT: " + nit, ex);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
-import com.ClinicaDeYmid.clients_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.clients_service.module.dto.CreateHealthProviderDto;
 import com.ClinicaDeYmid.clients_service.module.entity.Contract;
 import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
@@ -11,6 +10,7 @@ import com.ClinicaDeYmid.clients_service.infra.exception.DuplicateHealthProvider
 import com.ClinicaDeYmid.clients_service.infra.exception.DuplicateContractNumberException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderValidationException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderDataAccessException;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
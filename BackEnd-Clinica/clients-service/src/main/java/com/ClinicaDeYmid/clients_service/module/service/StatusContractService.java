@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
-import com.ClinicaDeYmid.clients_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.clients_service.module.entity.Contract;
 import com.ClinicaDeYmid.clients_service.module.repository.ContractRepository;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractNotFoundForStatusException;
@@ -8,6 +7,7 @@ import com.ClinicaDeYmid.clients_service.infra.exception.ContractAlreadyActiveEx
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractAlreadyInactiveException;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractDeletionRestrictedException;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractDataAccessException;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
-import com.ClinicaDeYmid.clients_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
 import com.ClinicaDeYmid.clients_service.module.repository.HealthProviderRepository;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotFoundForStatusException;
@@ -8,6 +7,7 @@ import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderAlreadyAc
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderAlreadyInactiveException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderWithActiveContractsException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderDataAccessException;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
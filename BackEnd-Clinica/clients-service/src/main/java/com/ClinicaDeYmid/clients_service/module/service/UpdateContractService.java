@@ -1,12 +1,12 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
-import com.ClinicaDeYmid.clients_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractDataAccessException;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractNotFoundException;
 import com.ClinicaDeYmid.clients_service.infra.exception.ContractValidationException;
 import com.ClinicaDeYmid.clients_service.infra.exception.DuplicateContractNumberException;
 import com.ClinicaDeYmid.clients_service.module.entity.Contract;
 import com.ClinicaDeYmid.clients_service.module.repository.ContractRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -1,12 +1,12 @@
 package com.ClinicaDeYmid.clients_service.module.service;
 
-import com.ClinicaDeYmid.clients_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
 import com.ClinicaDeYmid.clients_service.module.repository.HealthProviderRepository;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotFoundException;
 import com.ClinicaDeYmid.clients_service.infra.exception.UpdateHealthProviderNitConflictException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderUpdateException;
 import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderDataAccessException;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -1,12 +1,12 @@
 package com.ClinicaDeYmid.clients_service.module.controller;
 
-import com.ClinicaDeYmid.clients_service.infra.security.JwtAuthenticationFilter;
 import com.ClinicaDeYmid.clients_service.infra.security.SecurityConfig;
 import com.ClinicaDeYmid.clients_service.module.domain.Nit;
 import com.ClinicaDeYmid.clients_service.module.dto.HealthProviderResponseDto;
 import com.ClinicaDeYmid.clients_service.module.enums.ContractStatus;
 import com.ClinicaDeYmid.clients_service.module.enums.TypeProvider;
 import com.ClinicaDeYmid.clients_service.module.service.*;
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
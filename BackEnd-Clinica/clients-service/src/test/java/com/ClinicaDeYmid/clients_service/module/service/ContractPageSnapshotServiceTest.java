@@ -0,0 +1,78 @@
+package com.ClinicaDeYmid.clients_service.module.service;
+
+import com.ClinicaDeYmid.clients_service.infra.exception.ContractDataAccessException;
+import com.ClinicaDeYmid.clients_service.module.dto.ContractDto;
+import com.ClinicaDeYmid.clients_service.module.dto.cache.ContractPageSnapshot;
+import com.ClinicaDeYmid.clients_service.module.entity.Contract;
+import com.ClinicaDeYmid.clients_service.module.enums.ContractStatus;
+import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
+import com.ClinicaDeYmid.clients_service.module.repository.ContractRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContractPageSnapshotServiceTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private HealthProviderMapper healthProviderMapper;
+
+    @InjectMocks
+    private ContractPageSnapshotService snapshotService;
+
+    @Test
+    @DisplayName("Debe guardar el contenido y el total de la página para reconstruirla")
+    void getAllContracts_ReturnsSnapshotThatRebuildsThePage() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 2);
+        Contract contract = new Contract();
+        ContractDto dto = new ContractDto(25L, "Contrato EPS Salud Total 2025", "CNTR-2025-005",
+                new BigDecimal("350000.00"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                ContractStatus.ACTIVE, true);
+        when(contractRepository.findAllActive(pageable)).thenReturn(new PageImpl<>(List.of(contract), pageable, 3));
+        when(healthProviderMapper.toContractDto(contract)).thenReturn(dto);
+
+        // Act
+        ContractPageSnapshot snapshot = snapshotService.getAllContracts(pageable);
+        Page<ContractDto> page = snapshot.toPage(pageable);
+
+        // Assert
+        assertEquals(List.of(dto), snapshot.content());
+        assertEquals(3, snapshot.totalElements());
+        assertEquals(List.of(dto), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(1, page.getNumber());
+    }
+
+    @Test
+    @DisplayName("Debe traducir los errores de acceso a datos de la búsqueda")
+    void searchContractsByName_DataAccessError_ThrowsContractDataAccessException() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        when(contractRepository.searchByName("Salud", pageable)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThrows(ContractDataAccessException.class,
+                () -> snapshotService.searchContractsByName("Salud", pageable));
+        verifyNoInteractions(healthProviderMapper);
+    }
+}
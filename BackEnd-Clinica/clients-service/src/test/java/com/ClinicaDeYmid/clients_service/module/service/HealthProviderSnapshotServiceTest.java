@@ -0,0 +1,87 @@
+package com.ClinicaDeYmid.clients_service.module.service;
+
+import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotActiveException;
+import com.ClinicaDeYmid.clients_service.infra.exception.HealthProviderNotFoundException;
+import com.ClinicaDeYmid.clients_service.module.domain.Nit;
+import com.ClinicaDeYmid.clients_service.module.dto.HealthProviderResponseDto;
+import com.ClinicaDeYmid.clients_service.module.dto.cache.HealthProviderSnapshot;
+import com.ClinicaDeYmid.clients_service.module.entity.HealthProvider;
+import com.ClinicaDeYmid.clients_service.module.enums.TypeProvider;
+import com.ClinicaDeYmid.clients_service.module.mapper.HealthProviderMapper;
+import com.ClinicaDeYmid.clients_service.module.repository.HealthProviderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HealthProviderSnapshotServiceTest {
+
+    private static final String NIT = "9001234567";
+
+    @Mock
+    private HealthProviderRepository healthProviderRepository;
+
+    @Mock
+    private HealthProviderMapper healthProviderMapper;
+
+    @InjectMocks
+    private HealthProviderSnapshotService snapshotService;
+
+    @Test
+    @DisplayName("Debe construir el snapshot de un proveedor activo")
+    void getSnapshot_ActiveProvider_ReturnsSnapshot() {
+        // Arrange
+        HealthProvider provider = HealthProvider.builder()
+                .nit(new Nit(NIT))
+                .socialReason("Salud Total S.A.")
+                .typeProvider(TypeProvider.EPS)
+                .build();
+        HealthProviderResponseDto dto = new HealthProviderResponseDto(
+                new Nit(NIT), "Salud Total S.A.", TypeProvider.EPS, List.of(), null);
+        when(healthProviderRepository.findByNit_Value(NIT)).thenReturn(Optional.of(provider));
+        when(healthProviderMapper.toResponseDto(provider)).thenReturn(dto);
+
+        // Act
+        HealthProviderSnapshot snapshot = snapshotService.getSnapshot(NIT);
+
+        // Assert
+        assertEquals(NIT, snapshot.nit());
+        assertEquals("Salud Total S.A.", snapshot.socialReason());
+        assertEquals(NIT, snapshot.toResponseDto().nit().getValue());
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el proveedor está inactivo")
+    void getSnapshot_InactiveProvider_ThrowsException() {
+        // Arrange
+        HealthProvider provider = HealthProvider.builder()
+                .nit(new Nit(NIT))
+                .socialReason("Salud Total S.A.")
+                .active(false)
+                .build();
+        when(healthProviderRepository.findByNit_Value(NIT)).thenReturn(Optional.of(provider));
+
+        // Act & Assert
+        assertThrows(HealthProviderNotActiveException.class, () -> snapshotService.getSnapshot(NIT));
+        verifyNoInteractions(healthProviderMapper);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el proveedor no existe")
+    void getSnapshot_NotFound_ThrowsException() {
+        // Arrange
+        when(healthProviderRepository.findByNit_Value(NIT)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(HealthProviderNotFoundException.class, () -> snapshotService.getSnapshot(NIT));
+    }
+}
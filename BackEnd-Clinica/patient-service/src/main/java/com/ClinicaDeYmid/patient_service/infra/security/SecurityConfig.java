@@ -1,5 +1,6 @@
 package com.ClinicaDeYmid.patient_service.infra.security;
 
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
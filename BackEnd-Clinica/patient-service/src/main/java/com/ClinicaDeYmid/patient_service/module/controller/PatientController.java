@@ -2,6 +2,7 @@ package com.ClinicaDeYmid.patient_service.module.controller;
 
 import com.ClinicaDeYmid.patient_service.module.dto.*;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
+import com.ClinicaDeYmid.patient_service.module.dto.patient.PatientBatchRequestDto;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.PatientResponseDto;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.PatientsListDto;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.UpdatePatientDto;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Map;
 
 @Slf4j
 @Validated
@@ -78,6 +80,17 @@ public class PatientController {
 
 
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN', 'DOCTOR', 'NURSE', 'RECEPTIONIST')")
+    @Operation(summary = "Get patients in batch", description = "Retrieves several patients by identification number in a single request. Missing or inactive patients are omitted from the result.")
+    public ResponseEntity<Map<String, GetPatientDto>> getPatients(
+            @Valid @RequestBody PatientBatchRequestDto request) {
+
+        log.info("Batch retrieval of {} patients", request.identificationNumbers().size());
+
+        return ResponseEntity.ok(getPatientInformationService.getPatientDtos(request.identificationNumbers()));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN', 'DOCTOR', 'NURSE', 'RECEPTIONIST')")
     @Operation(summary = "Search patients", description = "Searches for patients based on a query string.")
@@ -0,0 +1,16 @@
+package com.ClinicaDeYmid.patient_service.module.dto.cache;
+
+import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
+
+/**
+ * Copia inmutable de un paciente activo pensada para la caché. Los datos del prestador de salud
+ * no se incluyen: se consultan al construir la respuesta a partir de {@code healthProviderNit}.
+ *
+ * <p>Cualquier cambio en la forma de este record (o de {@link GetPatientDto}) requiere subir
+ * {@code cache.codec.schema-version}.</p>
+ */
+public record PatientSnapshot(
+        String identificationNumber,
+        String healthProviderNit,
+        GetPatientDto patient
+) {}
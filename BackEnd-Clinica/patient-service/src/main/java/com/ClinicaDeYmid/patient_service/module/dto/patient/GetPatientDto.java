@@ -82,4 +82,12 @@ public record GetPatientDto(
 
         @Schema(description = "Email address", example = "yamid@example.com")
         String email
-) {}
+) {
+
+    public GetPatientDto withClientInfo(GetClientDto clientInfo) {
+        return new GetPatientDto(uuid, identificationType, identificationNumber, name, lastName, dateOfBirth,
+                placeOfBirthName, placeOfIssuanceName, disability, language, gender, occupationName,
+                maritalStatus, religion, typeOfAffiliation, affiliationNumber, clientInfo, healthPolicyNumber,
+                mothersName, fathersName, zone, localityName, address, phone, mobile, email);
+    }
+}
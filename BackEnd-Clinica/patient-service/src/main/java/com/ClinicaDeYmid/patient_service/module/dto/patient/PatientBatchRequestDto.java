@@ -0,0 +1,17 @@
+package com.ClinicaDeYmid.patient_service.module.dto.patient;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PatientBatchRequestDto(
+        @Schema(description = "Identification numbers of the patients to retrieve", example = "[\"1234567890\", \"9876543210\"]")
+        @NotEmpty(message = "At least one identification number is required")
+        @Size(max = PatientBatchRequestDto.MAX_IDS, message = "A maximum of " + PatientBatchRequestDto.MAX_IDS + " identification numbers is allowed per request")
+        List<@NotBlank String> identificationNumbers
+) {
+    public static final int MAX_IDS = 100;
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +18,16 @@ public interface PatientRepository extends JpaRepository <Patient, Long> {
 
     Optional<Patient> findByIdentificationNumber(String identificationNumber);
 
+    @Query("""
+    SELECT p FROM Patient p
+    LEFT JOIN FETCH p.placeOfBirth
+    LEFT JOIN FETCH p.placeOfIssuance
+    LEFT JOIN FETCH p.occupation
+    LEFT JOIN FETCH p.locality
+    WHERE p.identificationNumber IN :identificationNumbers
+""")
+    List<Patient> findAllByIdentificationNumberIn(@Param("identificationNumbers") Collection<String> identificationNumbers);
+
     @Query("""
     SELECT p FROM Patient p
     WHERE LOWER(CONCAT(p.name, ' ', p.lastName)) LIKE %:search%
@@ -2,7 +2,6 @@ package com.ClinicaDeYmid.patient_service.module.service;
 
 import com.ClinicaDeYmid.patient_service.infra.exception.BusinessException;
 import com.ClinicaDeYmid.patient_service.infra.exception.ResourceNotFoundException;
-import com.ClinicaDeYmid.patient_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.patient_service.module.dto.allergy.AllergyRequestDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.allergy.AllergyResponseDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.allergy.AllergySummaryDTO;
@@ -13,6 +12,7 @@ import com.ClinicaDeYmid.patient_service.module.enums.AllergySeverity;
 import com.ClinicaDeYmid.patient_service.module.mapper.AllergyMapper;
 import com.ClinicaDeYmid.patient_service.module.repository.AllergyRepository;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -2,7 +2,6 @@ package com.ClinicaDeYmid.patient_service.module.service;
 
 import com.ClinicaDeYmid.patient_service.infra.exception.BusinessException;
 import com.ClinicaDeYmid.patient_service.infra.exception.ResourceNotFoundException;
-import com.ClinicaDeYmid.patient_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.patient_service.module.dto.chronic.ChronicDiseaseRequestDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.chronic.ChronicDiseaseResponseDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.chronic.ChronicDiseaseSummaryDTO;
@@ -13,6 +12,7 @@ import com.ClinicaDeYmid.patient_service.module.enums.DiseaseSeverity;
 import com.ClinicaDeYmid.patient_service.module.mapper.ChronicDiseaseMapper;
 import com.ClinicaDeYmid.patient_service.module.repository.ChronicDiseaseRepository;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -2,7 +2,6 @@ package com.ClinicaDeYmid.patient_service.module.service;
 
 import com.ClinicaDeYmid.patient_service.infra.exception.BusinessException;
 import com.ClinicaDeYmid.patient_service.infra.exception.ResourceNotFoundException;
-import com.ClinicaDeYmid.patient_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.patient_service.module.dto.medication.CurrentMedicationRequestDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.medication.CurrentMedicationResponseDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.medication.CurrentMedicationUpdateDTO;
@@ -12,6 +11,7 @@ import com.ClinicaDeYmid.patient_service.module.entity.Patient;
 import com.ClinicaDeYmid.patient_service.module.mapper.CurrentMedicationMapper;
 import com.ClinicaDeYmid.patient_service.module.repository.CurrentMedicationRepository;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
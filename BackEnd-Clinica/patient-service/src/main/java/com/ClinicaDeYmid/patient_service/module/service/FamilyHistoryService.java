@@ -2,7 +2,6 @@ package com.ClinicaDeYmid.patient_service.module.service;
 
 import com.ClinicaDeYmid.patient_service.infra.exception.BusinessException;
 import com.ClinicaDeYmid.patient_service.infra.exception.ResourceNotFoundException;
-import com.ClinicaDeYmid.patient_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.patient_service.module.dto.family.FamilyHistoryRequestDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.family.FamilyHistoryResponseDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.family.FamilyHistorySummaryDTO;
@@ -12,6 +11,7 @@ import com.ClinicaDeYmid.patient_service.module.entity.Patient;
 import com.ClinicaDeYmid.patient_service.module.mapper.FamilyHistoryMapper;
 import com.ClinicaDeYmid.patient_service.module.repository.FamilyHistoryRepository;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -4,6 +4,7 @@ import com.ClinicaDeYmid.patient_service.infra.exception.PatientDataAccessExcept
 import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotActiveException;
 import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotFoundException;
 import com.ClinicaDeYmid.patient_service.module.dto.HealthProviderNitDto;
+import com.ClinicaDeYmid.patient_service.module.dto.cache.PatientSnapshot;
 import com.ClinicaDeYmid.patient_service.module.feignclient.HealthProviderClient;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
 import com.ClinicaDeYmid.patient_service.module.mapper.PatientMapper;
@@ -12,11 +13,17 @@ import com.ClinicaDeYmid.patient_service.module.enums.Status;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -25,11 +32,11 @@ public class GetPatientInformationService {
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
     private final HealthProviderClient healthProviderClient;
+    private final PatientSnapshotService patientSnapshotService;
 
-    @Cacheable(value = "patient-entities", key = "#identificationNumber")
     @Transactional(readOnly = true)
     public Patient findEntityByIdentificationNumber(String identificationNumber) {
-        log.debug("🔍 Cache MISS - Consultando DB para patient: {}", identificationNumber);
+        log.debug("🔍 Consultando DB para patient: {}", identificationNumber);
 
         try {
             Patient patient = patientRepository.findByIdentificationNumber(identificationNumber)
@@ -52,15 +59,58 @@ public class GetPatientInformationService {
 
         try {
 
-            Patient patient = findEntityByIdentificationNumber(identificationNumber);
+            // Usa el snapshot cacheado (L1 en memoria / Redis)
+            PatientSnapshot snapshot = patientSnapshotService.getSnapshot(identificationNumber);
 
             HealthProviderNitDto provider = healthProviderClient
-                    .getHealthProviderByNit(patient.getHealthProviderNit());
+                    .getHealthProviderByNit(snapshot.healthProviderNit());
 
-            return patientMapper.toGetPatientDto(patient, provider);
+            return snapshot.patient().withClientInfo(patientMapper.healthProviderToClientInfo(provider));
 
         } catch (DataAccessException ex) {
             throw new PatientDataAccessException("obtener información del paciente", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene varios pacientes en una sola consulta. Los pacientes inexistentes o no activos se omiten,
+     * y cada prestador de salud distinto se consulta una única vez.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, GetPatientDto> getPatientDtos(Collection<String> identificationNumbers) {
+        log.debug("📦 Construyendo GetPatientDto en lote para {} pacientes", identificationNumbers.size());
+
+        try {
+            List<Patient> patients = patientRepository.findAllByIdentificationNumberIn(new HashSet<>(identificationNumbers)).stream()
+                    .filter(patient -> patient.getStatus() == Status.ALIVE)
+                    .toList();
+
+            Map<String, HealthProviderNitDto> providers = new HashMap<>();
+            for (Patient patient : patients) {
+                String nit = patient.getHealthProviderNit();
+                if (nit != null && !providers.containsKey(nit)) {
+                    providers.put(nit, fetchHealthProvider(nit));
+                }
+            }
+
+            Map<String, GetPatientDto> result = new LinkedHashMap<>();
+            for (Patient patient : patients) {
+                result.put(patient.getIdentificationNumber(),
+                        patientMapper.toGetPatientDto(patient, providers.get(patient.getHealthProviderNit())));
+            }
+            return result;
+
+        } catch (DataAccessException ex) {
+            throw new PatientDataAccessException("obtener información de pacientes en lote", ex);
+        }
+    }
+
+    private HealthProviderNitDto fetchHealthProvider(String nit) {
+        try {
+            return healthProviderClient.getHealthProviderByNit(nit);
+        } catch (Exception ex) {
+            log.warn("No se pudo obtener el prestador de salud con NIT {}: {}", nit, ex.getMessage());
+            return null;
+        }
+    }
+}
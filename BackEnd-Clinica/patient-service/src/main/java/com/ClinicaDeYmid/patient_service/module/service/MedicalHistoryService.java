@@ -1,7 +1,6 @@
 package com.ClinicaDeYmid.patient_service.module.service;
 
 import com.ClinicaDeYmid.patient_service.infra.exception.ResourceNotFoundException;
-import com.ClinicaDeYmid.patient_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.patient_service.module.dto.medical.MedicalHistoryRequestDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.medical.MedicalHistoryResponseDTO;
 import com.ClinicaDeYmid.patient_service.module.dto.medical.MedicalHistoryUpdateDTO;
@@ -10,6 +9,7 @@ import com.ClinicaDeYmid.patient_service.module.entity.Patient;
 import com.ClinicaDeYmid.patient_service.module.mapper.MedicalHistoryMapper;
 import com.ClinicaDeYmid.patient_service.module.repository.MedicalHistoryRepository;
 import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -0,0 +1,45 @@
+package com.ClinicaDeYmid.patient_service.module.service;
+
+import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotActiveException;
+import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotFoundException;
+import com.ClinicaDeYmid.patient_service.module.dto.cache.PatientSnapshot;
+import com.ClinicaDeYmid.patient_service.module.entity.Patient;
+import com.ClinicaDeYmid.patient_service.module.enums.Status;
+import com.ClinicaDeYmid.patient_service.module.mapper.PatientMapper;
+import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Carga y cachea snapshots inmutables de pacientes activos. Vive en un bean propio para que
+ * {@code @Cacheable} se aplique a través del proxy también desde {@link GetPatientInformationService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientSnapshotService {
+
+    private final PatientRepository patientRepository;
+    private final PatientMapper patientMapper;
+
+    @Cacheable(value = "patient-entities", key = "#identificationNumber")
+    @Transactional(readOnly = true)
+    public PatientSnapshot getSnapshot(String identificationNumber) {
+        log.debug("🔍 Cache MISS - Consultando DB para patient: {}", identificationNumber);
+
+        Patient patient = patientRepository.findByIdentificationNumber(identificationNumber)
+                .orElseThrow(() -> new PatientNotFoundException(identificationNumber));
+
+        if (patient.getStatus() != Status.ALIVE) {
+            throw new PatientNotActiveException(patient.getStatus().getDisplayName());
+        }
+
+        return new PatientSnapshot(
+                patient.getIdentificationNumber(),
+                patient.getHealthProviderNit(),
+                patientMapper.toGetPatientDto(patient, null));
+    }
+}
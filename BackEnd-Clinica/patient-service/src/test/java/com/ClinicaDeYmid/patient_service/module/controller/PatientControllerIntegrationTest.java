@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.patient_service.module.controller;
 
-import com.ClinicaDeYmid.patient_service.infra.security.JwtAuthenticationFilter;
 import com.ClinicaDeYmid.patient_service.infra.security.SecurityConfig;
 import com.ClinicaDeYmid.patient_service.module.dto.GetClientDto;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
@@ -8,6 +7,7 @@ import com.ClinicaDeYmid.patient_service.module.service.GetPatientInformationSer
 import com.ClinicaDeYmid.patient_service.module.service.PatientRecordService;
 import com.ClinicaDeYmid.patient_service.module.service.PatientSearchService;
 import com.ClinicaDeYmid.patient_service.module.service.UpdatePatientInformationService;
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
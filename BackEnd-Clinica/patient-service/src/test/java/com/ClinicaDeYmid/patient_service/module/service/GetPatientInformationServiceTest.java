@@ -3,7 +3,9 @@ package com.ClinicaDeYmid.patient_service.module.service;
 import com.ClinicaDeYmid.patient_service.infra.exception.PatientDataAccessException;
 import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotActiveException;
 import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotFoundException;
+import com.ClinicaDeYmid.patient_service.module.dto.GetClientDto;
 import com.ClinicaDeYmid.patient_service.module.dto.HealthProviderNitDto;
+import com.ClinicaDeYmid.patient_service.module.dto.cache.PatientSnapshot;
 import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
 import com.ClinicaDeYmid.patient_service.module.entity.Patient;
 import com.ClinicaDeYmid.patient_service.module.enums.Status;
@@ -18,9 +20,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +40,9 @@ class GetPatientInformationServiceTest {
     @Mock
     private HealthProviderClient healthProviderClient;
 
+    @Mock
+    private PatientSnapshotService patientSnapshotService;
+
     @InjectMocks
     private GetPatientInformationService getPatientInformationService;
 
@@ -97,9 +105,11 @@ class GetPatientInformationServiceTest {
     @Test
     void getPatientDto_Success() {
         // Arrange
-        when(patientRepository.findByIdentificationNumber("123456789")).thenReturn(Optional.of(patient));
+        GetClientDto clientInfo = new GetClientDto("HealthProvider", "EPS");
+        when(patientSnapshotService.getSnapshot("123456789")).thenReturn(new PatientSnapshot("123456789", "NIT800", getPatientDto));
         when(healthProviderClient.getHealthProviderByNit("NIT800")).thenReturn(healthProviderNitDto);
-        when(patientMapper.toGetPatientDto(patient, healthProviderNitDto)).thenReturn(getPatientDto);
+        when(patientMapper.healthProviderToClientInfo(healthProviderNitDto)).thenReturn(clientInfo);
+        when(getPatientDto.withClientInfo(clientInfo)).thenReturn(getPatientDto);
 
         // Act
         GetPatientDto result = getPatientInformationService.getPatientDto("123456789");
@@ -107,14 +117,35 @@ class GetPatientInformationServiceTest {
         // Assert
         assertNotNull(result);
         verify(healthProviderClient).getHealthProviderByNit("NIT800");
+        verifyNoInteractions(patientRepository);
     }
     
     @Test
     void getPatientDto_DataAccessException_ThrowsException() {
         // Arrange
-         when(patientRepository.findByIdentificationNumber("123456789")).thenThrow(new DataAccessException("DB Error") {});
+         when(patientSnapshotService.getSnapshot("123456789")).thenThrow(new DataAccessException("DB Error") {});
 
         // Act & Assert
         assertThrows(PatientDataAccessException.class, () -> getPatientInformationService.getPatientDto("123456789"));
     }
+
+    @Test
+    void getPatientDtos_FetchesEachHealthProviderOnce() {
+        // Arrange
+        Patient second = new Patient();
+        second.setIdentificationNumber("987654321");
+        second.setStatus(Status.ALIVE);
+        second.setHealthProviderNit("NIT800");
+
+        when(patientRepository.findAllByIdentificationNumberIn(anyCollection())).thenReturn(List.of(patient, second));
+        when(healthProviderClient.getHealthProviderByNit("NIT800")).thenReturn(healthProviderNitDto);
+        when(patientMapper.toGetPatientDto(any(Patient.class), eq(healthProviderNitDto))).thenReturn(getPatientDto);
+
+        // Act
+        Map<String, GetPatientDto> result = getPatientInformationService.getPatientDtos(List.of("123456789", "987654321"));
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(healthProviderClient, times(1)).getHealthProviderByNit("NIT800");
+    }
 }
@@ -0,0 +1,80 @@
+package com.ClinicaDeYmid.patient_service.module.service;
+
+import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotActiveException;
+import com.ClinicaDeYmid.patient_service.infra.exception.PatientNotFoundException;
+import com.ClinicaDeYmid.patient_service.module.dto.cache.PatientSnapshot;
+import com.ClinicaDeYmid.patient_service.module.dto.patient.GetPatientDto;
+import com.ClinicaDeYmid.patient_service.module.entity.Patient;
+import com.ClinicaDeYmid.patient_service.module.enums.Status;
+import com.ClinicaDeYmid.patient_service.module.mapper.PatientMapper;
+import com.ClinicaDeYmid.patient_service.module.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientSnapshotServiceTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private PatientMapper patientMapper;
+
+    @InjectMocks
+    private PatientSnapshotService patientSnapshotService;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient();
+        patient.setIdentificationNumber("123456789");
+        patient.setStatus(Status.ALIVE);
+        patient.setHealthProviderNit("NIT800");
+    }
+
+    @Test
+    void getSnapshot_Success() {
+        // Arrange
+        GetPatientDto patientDto = mock(GetPatientDto.class);
+        when(patientRepository.findByIdentificationNumber("123456789")).thenReturn(Optional.of(patient));
+        when(patientMapper.toGetPatientDto(patient, null)).thenReturn(patientDto);
+
+        // Act
+        PatientSnapshot result = patientSnapshotService.getSnapshot("123456789");
+
+        // Assert
+        assertEquals("123456789", result.identificationNumber());
+        assertEquals("NIT800", result.healthProviderNit());
+        assertSame(patientDto, result.patient());
+    }
+
+    @Test
+    void getSnapshot_NotFound_ThrowsException() {
+        // Arrange
+        when(patientRepository.findByIdentificationNumber("999")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(PatientNotFoundException.class, () -> patientSnapshotService.getSnapshot("999"));
+    }
+
+    @Test
+    void getSnapshot_NotActive_ThrowsException() {
+        // Arrange
+        patient.setStatus(Status.DECEASED);
+        when(patientRepository.findByIdentificationNumber("123456789")).thenReturn(Optional.of(patient));
+
+        // Act & Assert
+        assertThrows(PatientNotActiveException.class, () -> patientSnapshotService.getSnapshot("123456789"));
+        verifyNoInteractions(patientMapper);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ClinicaDeYmid.security_starter.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuración de la validación de JWT emitidos por auth-service.
+ *
+ * <pre>
+ * jwt:
+ *   algorithm: RS256
+ *   secret: ${JWT_SECRET}
+ *   rsa:
+ *     public-key: ${JWT_PUBLIC_KEY:}
+ *     public-key-path:
+ *     previous-public-keys: ${JWT_PREVIOUS_PUBLIC_KEYS:}
+ *     previous-public-key-paths:
+ *   claims-cache:
+ *     maximum-size: 10000
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "jwt")
+public record JwtProperties(
+        @DefaultValue("RS256") String algorithm,
+        String secret,
+        @DefaultValue Rsa rsa,
+        @DefaultValue ClaimsCache claimsCache
+) {
+
+    /**
+     * Clave pública activa y, durante una rotación, las anteriores que auth-service aún acepta
+     * ({@code jwt.rsa.previous-public-key-paths} en auth-service).
+     */
+    public record Rsa(String publicKey, String publicKeyPath,
+                      List<String> previousPublicKeys, List<String> previousPublicKeyPaths) {}
+
+    /**
+     * Máximo de tokens verificados en memoria; 0 desactiva la caché.
+     */
+    public record ClaimsCache(@DefaultValue("10000") long maximumSize) {}
+}
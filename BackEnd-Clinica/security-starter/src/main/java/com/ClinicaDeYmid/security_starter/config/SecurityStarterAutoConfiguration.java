@@ -0,0 +1,72 @@
+package com.ClinicaDeYmid.security_starter.config;
+
+import com.ClinicaDeYmid.security_starter.feign.FeignClientInterceptor;
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
+import com.ClinicaDeYmid.security_starter.jwt.JwtTokenProvider;
+import com.ClinicaDeYmid.security_starter.jwt.PropertiesVerificationKeySource;
+import com.ClinicaDeYmid.security_starter.jwt.VerificationKeySource;
+import feign.RequestInterceptor;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Auto-configuración de la validación de JWT compartida por los microservicios servlet.
+ *
+ * <p>Registra el {@link JwtTokenProvider}, el {@link JwtAuthenticationFilter} y, si Feign está en
+ * el classpath, el interceptor que propaga el token a las llamadas entre servicios. Cada bean
+ * puede sustituirse declarando uno propio; la cadena de seguridad ({@code SecurityConfig}) sigue
+ * siendo responsabilidad de cada servicio.</p>
+ */
+@AutoConfiguration
+@ConditionalOnClass(Jwts.class)
+@EnableConfigurationProperties(JwtProperties.class)
+public class SecurityStarterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VerificationKeySource verificationKeySource(JwtProperties properties, ResourceLoader resourceLoader) {
+        return new PropertiesVerificationKeySource(properties, resourceLoader);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtTokenProvider jwtTokenProvider(JwtProperties properties,
+                                             VerificationKeySource verificationKeySource,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new JwtTokenProvider(properties, verificationKeySource,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletSecurityConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+            return new JwtAuthenticationFilter(jwtTokenProvider);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class FeignPropagationConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public FeignClientInterceptor feignClientInterceptor() {
+            return new FeignClientInterceptor();
+        }
+    }
+}
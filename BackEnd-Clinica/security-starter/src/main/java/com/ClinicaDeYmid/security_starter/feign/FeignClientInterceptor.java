@@ -1,11 +1,11 @@
-package com.ClinicaDeYmid.patient_service.infra.security;
+package com.ClinicaDeYmid.security_starter.feign;
 
+import com.ClinicaDeYmid.security_starter.user.CustomUserDetails;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +19,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  * Lee el token del contexto de seguridad de Spring Security y lo añade
  * al header Authorization de las peticiones Feign.
  */
-@Component
 @Slf4j
 public class FeignClientInterceptor implements RequestInterceptor {
 
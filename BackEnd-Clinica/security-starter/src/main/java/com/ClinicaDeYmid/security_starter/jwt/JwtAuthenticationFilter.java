@@ -1,5 +1,6 @@
-package com.ClinicaDeYmid.patient_service.infra.security;
+package com.ClinicaDeYmid.security_starter.jwt;
 
+import com.ClinicaDeYmid.security_starter.user.CustomUserDetails;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,18 +11,17 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtro de autenticación JWT que intercepta todas las peticiones.
  * Valida el token JWT y establece el contexto de seguridad si el token es válido.
  */
-@Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -37,20 +37,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                
+            // Una sola verificación por token; las peticiones repetidas usan los claims cacheados
+            Optional<VerifiedToken> verified = StringUtils.hasText(jwt)
+                    ? jwtTokenProvider.verify(jwt)
+                    : Optional.empty();
+
+            if (verified.isPresent()) {
+                VerifiedToken token = verified.get();
+
                 // Verificar que sea un access token
-                if (!jwtTokenProvider.isAccessToken(jwt)) {
+                if (!token.isAccessToken()) {
                     log.warn("Token recibido no es un access token");
                     filterChain.doFilter(request, response);
                     return;
                 }
 
                 // Extraer información del token
-                String uuid = jwtTokenProvider.getUuidFromToken(jwt);
-                String email = jwtTokenProvider.getEmailFromToken(jwt);
-                String role = jwtTokenProvider.getRoleFromToken(jwt);
-                List<String> permissions = jwtTokenProvider.getPermissionsFromToken(jwt);
+                String uuid = token.uuid();
+                String email = token.email();
+                String role = token.role();
+                List<String> permissions = token.permissions();
 
                 log.debug("Usuario autenticado: {} (UUID: {}) con rol: {}", email, uuid, role);
 
@@ -102,4 +108,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
-}
\ No newline at end of file
+}
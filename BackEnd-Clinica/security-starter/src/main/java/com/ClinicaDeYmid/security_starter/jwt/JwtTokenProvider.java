@@ -0,0 +1,229 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import com.ClinicaDeYmid.security_starter.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proveedor de JWT que valida tokens generados por auth-service usando JJWT.
+ * Soporta algoritmos RS256 y HS256 según configuración.
+ *
+ * <p>El parser se construye una sola vez y obtiene la clave de {@link VerificationKeySource} en
+ * cada verificación, de modo que una rotación no exige reconstruirlo. Cada token se verifica una
+ * sola vez: el resultado se guarda como {@link VerifiedToken} en una caché acotada, indexada por
+ * el hash SHA-256 del token y válida hasta su {@code exp}.</p>
+ *
+ * <p>Publica el timer {@code jwt.verification} con {@code result=cached|verified|invalid}.</p>
+ */
+@Slf4j
+public class JwtTokenProvider {
+
+    private static final String ISSUER = "ClinicaDeYmid";
+    private static final String VERIFICATION_METRIC = "jwt.verification";
+
+    private final VerificationKeySource keySource;
+    private final long claimsCacheMaximumSize;
+    private final JwtParser jwtParser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer invalidTimer;
+
+    public JwtTokenProvider(JwtProperties properties, VerificationKeySource keySource, MeterRegistry meterRegistry) {
+        this.keySource = keySource;
+        this.claimsCacheMaximumSize = properties.claimsCache().maximumSize();
+
+        // El parser es inmutable y thread-safe: se construye una vez y se reutiliza
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return keySource.resolve(header.getKeyId());
+                    }
+                })
+                .requireIssuer(ISSUER)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, claimsCacheMaximumSize))
+                .expireAfter(new UntilTokenExpiration())
+                .build();
+
+        this.cachedTimer = verificationTimer(meterRegistry, "cached");
+        this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+        this.invalidTimer = verificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder(VERIFICATION_METRIC)
+                .description("Verificación de JWT entrantes")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifica el token una única vez y devuelve sus claims.
+     *
+     * @param token JWT a verificar
+     * @return claims verificados, o vacío si el token no es válido
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        if (claimsCacheMaximumSize <= 0) {
+            return parseAndVerify(token, start);
+        }
+
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
+
+        Optional<VerifiedToken> verified = parseAndVerify(token, start);
+        // Los tokens sin exp no se cachean: no hay un límite seguro de validez
+        verified.filter(claims -> claims.expiresAt() != null)
+                .ifPresent(claims -> verifiedTokens.put(cacheKey, claims));
+        return verified;
+    }
+
+    private Optional<VerifiedToken> parseAndVerify(String token, long start) {
+        try {
+            VerifiedToken verified = VerifiedToken.from(jwtParser.parseSignedClaims(token).getPayload());
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Token JWT inválido: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Recarga las claves de verificación y descarta los tokens verificados con las anteriores,
+     * para que una clave retirada deje de aceptarse de inmediato.
+     */
+    public void reloadKeys() {
+        keySource.reload();
+        verifiedTokens.invalidateAll();
+        log.info("🔑 Claves de verificación JWT recargadas; caché de tokens verificados vaciada");
+    }
+
+    /**
+     * Valida el token JWT.
+     *
+     * @param token JWT a validar
+     * @return true si el token es válido, false en caso contrario
+     */
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Extrae el UUID del usuario desde el token (subject).
+     *
+     * @param token JWT
+     * @return UUID del usuario
+     */
+    public String getUuidFromToken(String token) {
+        return verify(token).map(VerifiedToken::uuid).orElse(null);
+    }
+
+    /**
+     * Extrae el email del usuario desde el token.
+     *
+     * @param token JWT
+     * @return Email del usuario
+     */
+    public String getEmailFromToken(String token) {
+        return verify(token).map(VerifiedToken::email).orElse(null);
+    }
+
+    /**
+     * Extrae el rol del usuario desde el token.
+     *
+     * @param token JWT
+     * @return Rol del usuario
+     */
+    public String getRoleFromToken(String token) {
+        return verify(token).map(VerifiedToken::role).orElse(null);
+    }
+
+    /**
+     * Extrae los permisos del usuario desde el token.
+     *
+     * @param token JWT
+     * @return Lista de permisos o lista vacía si no hay
+     */
+    public List<String> getPermissionsFromToken(String token) {
+        return verify(token).map(VerifiedToken::permissions).orElse(Collections.emptyList());
+    }
+
+    /**
+     * Verifica si el token es de tipo access token.
+     *
+     * @param token JWT
+     * @return true si es access token, false en caso contrario
+     */
+    public boolean isAccessToken(String token) {
+        return verify(token).map(VerifiedToken::isAccessToken).orElse(false);
+    }
+
+    /**
+     * La caché guarda el hash y no el token, para no retener credenciales en memoria.
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Cada entrada expira exactamente cuando expira su token.
+     */
+    private static final class UntilTokenExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import com.ClinicaDeYmid.security_starter.config.JwtProperties;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claves configuradas en {@code jwt.*}.
+ *
+ * <p>Con RS256 se indexan por {@code kid} la clave pública activa y las anteriores de
+ * {@code jwt.rsa.previous-public-keys}/{@code previous-public-key-paths}, con el mismo {@code kid}
+ * que calcula auth-service (SHA-256 de la codificación X.509 en Base64 URL). Así los tokens
+ * firmados con la clave anterior siguen validando durante la rotación, y un {@code kid}
+ * desconocido no resuelve ninguna clave. Un token sin {@code kid} (emitido antes de firmar con él)
+ * se valida con la activa. Con HS256 el secreto compartido es la única clave.</p>
+ *
+ * <p>{@link #reload()} vuelve a leer toda la configuración y sustituye el conjunto entero, por
+ * ejemplo cuando se han reemplazado los ficheros de claves.</p>
+ */
+@Slf4j
+public class PropertiesVerificationKeySource implements VerificationKeySource {
+
+    private static final String ALGORITHM_TYPE = "RSA";
+
+    private final JwtProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    private volatile KeySet keySet;
+
+    public PropertiesVerificationKeySource(JwtProperties properties, ResourceLoader resourceLoader) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.keySet = loadKeys();
+    }
+
+    @Override
+    public Key resolve(String keyId) {
+        return keySet.resolve(keyId);
+    }
+
+    @Override
+    public void reload() {
+        this.keySet = loadKeys();
+    }
+
+    private KeySet loadKeys() {
+        String algorithm = properties.algorithm();
+        try {
+            if ("RS256".equalsIgnoreCase(algorithm)) {
+                KeySet rsaKeys = loadRSAPublicKeys();
+                log.info("JWT TokenProvider inicializado con algoritmo RS256: kid activo {}, {} claves",
+                        rsaKeys.activeKeyId(), rsaKeys.keys().size());
+                return rsaKeys;
+            }
+            if ("HS256".equalsIgnoreCase(algorithm)) {
+                String hmacSecret = properties.secret();
+                if (hmacSecret == null || hmacSecret.trim().isEmpty()) {
+                    throw new IllegalStateException("JWT secret es requerido para algoritmo HS256");
+                }
+                if (hmacSecret.length() < 32) {
+                    throw new IllegalStateException("JWT secret debe tener al menos 32 caracteres para HS256");
+                }
+                log.info("JWT TokenProvider inicializado con algoritmo HS256");
+                return KeySet.single(Keys.hmacShaKeyFor(hmacSecret.getBytes(StandardCharsets.UTF_8)));
+            }
+            throw new IllegalStateException("Algoritmo no soportado: " + algorithm + ". Use RS256 o HS256");
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error inicializando JwtTokenProvider", e);
+            throw new IllegalStateException("Error inicializando JwtTokenProvider", e);
+        }
+    }
+
+    /**
+     * Clave activa primero y después las anteriores, sin repetir {@code kid}.
+     */
+    private KeySet loadRSAPublicKeys() throws IOException, NoSuchAlgorithmException, InvalidKeySpecException {
+        PublicKey active = parsePublicKey(readActivePublicKey());
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put(keyIdOf(active), active);
+
+        JwtProperties.Rsa rsa = properties.rsa();
+        for (String content : nonBlank(rsa.previousPublicKeys())) {
+            PublicKey previous = parsePublicKey(content);
+            keys.putIfAbsent(keyIdOf(previous), previous);
+        }
+        for (String path : nonBlank(rsa.previousPublicKeyPaths())) {
+            PublicKey previous = parsePublicKey(readResource(path.trim()));
+            keys.putIfAbsent(keyIdOf(previous), previous);
+        }
+        return new KeySet(keyIdOf(active), Collections.unmodifiableMap(keys));
+    }
+
+    private String readActivePublicKey() throws IOException {
+        String publicKeyContent = properties.rsa().publicKey();
+        String publicKeyPath = properties.rsa().publicKeyPath();
+
+        // Prioridad 1: Variable de entorno con el contenido de la clave
+        if (publicKeyContent != null && !publicKeyContent.trim().isEmpty()) {
+            log.info("Clave pública RSA cargada desde variable de entorno");
+            return publicKeyContent;
+        }
+        // Prioridad 2: Archivo en el classpath
+        if (publicKeyPath != null && !publicKeyPath.trim().isEmpty()) {
+            String keyContent = readResource(publicKeyPath);
+            log.info("Clave pública RSA cargada desde archivo: {}", publicKeyPath);
+            return keyContent;
+        }
+        throw new IllegalStateException("No se ha configurado jwt.rsa.public-key ni jwt.rsa.public-key-path");
+    }
+
+    private String readResource(String path) throws IOException {
+        Resource resource = resourceLoader.getResource(path);
+        if (!resource.exists()) {
+            throw new IllegalStateException("Archivo de clave pública no encontrado: " + path);
+        }
+        return new String(resource.getInputStream().readAllBytes());
+    }
+
+    private static PublicKey parsePublicKey(String keyContent) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        // Limpiar el contenido de la clave
+        String cleanedKeyContent = keyContent
+                .replaceAll("-----BEGIN PUBLIC KEY-----", "")
+                .replaceAll("-----END PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+
+        byte[] publicKeyBytes = Base64.getDecoder().decode(cleanedKeyContent);
+        X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
+        KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM_TYPE);
+        return keyFactory.generatePublic(publicKeySpec);
+    }
+
+    /**
+     * kid de una clave pública, igual al que pone auth-service en la cabecera de sus tokens.
+     */
+    static String keyIdOf(PublicKey key) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static List<String> nonBlank(List<String> values) {
+        return values == null ? List.of() : values.stream().filter(value -> !value.isBlank()).toList();
+    }
+
+    /**
+     * Conjunto inmutable de claves por {@code kid}; se sustituye entero en cada recarga.
+     */
+    private record KeySet(String activeKeyId, Map<String, Key> keys) {
+
+        static KeySet single(Key key) {
+            return new KeySet(null, Map.of("", key));
+        }
+
+        Key resolve(String keyId) {
+            if (activeKeyId == null) {
+                return keys.get("");
+            }
+            return keys.get(keyId != null ? keyId : activeKeyId);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import java.security.Key;
+
+/**
+ * Origen de las claves con las que se verifican las firmas de los JWT.
+ *
+ * <p>La implementación por defecto ({@link PropertiesVerificationKeySource}) expone por
+ * {@code kid} la clave activa y las anteriores configuradas en {@code jwt.*}. Un servicio que
+ * consuma un JWKS puede registrar su propio bean y llamar a {@link JwtTokenProvider#reloadKeys()}
+ * tras cada rotación.</p>
+ */
+public interface VerificationKeySource {
+
+    /**
+     * Devuelve la clave para el {@code kid} de la cabecera del token.
+     *
+     * @param keyId identificador de la clave, o null si el token no lo incluye
+     * @return clave de verificación, o null si no se conoce ninguna para ese {@code kid}
+     */
+    Key resolve(String keyId);
+
+    /**
+     * Vuelve a cargar las claves desde su origen. Por defecto no hace nada.
+     */
+    default void reload() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Claims de un JWT ya verificado (firma, emisor y expiración). Es inmutable para poder
+ * reutilizarse entre peticiones mientras el token no expire.
+ */
+public record VerifiedToken(
+        String uuid,
+        String email,
+        String role,
+        List<String> permissions,
+        String type,
+        Instant expiresAt
+) {
+
+    private static final String ACCESS_TOKEN_TYPE = "access";
+
+    public VerifiedToken {
+        permissions = permissions != null ? List.copyOf(permissions) : Collections.emptyList();
+    }
+
+    @SuppressWarnings("unchecked")
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.get("permissions", List.class),
+                claims.get("type", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isAccessToken() {
+        return ACCESS_TOKEN_TYPE.equals(type);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ClinicaDeYmid.security_starter.config;
+
+import com.ClinicaDeYmid.security_starter.feign.FeignClientInterceptor;
+import com.ClinicaDeYmid.security_starter.jwt.JwtAuthenticationFilter;
+import com.ClinicaDeYmid.security_starter.jwt.JwtTokenProvider;
+import com.ClinicaDeYmid.security_starter.jwt.VerificationKeySource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la auto-configuración: beans registrados y sustitución por los del servicio.
+ */
+class SecurityStarterAutoConfigurationTest {
+
+    private static final String HMAC_SECRET = "clave-de-pruebas-de-al-menos-32-caracteres";
+
+    @Test
+    void servletApplication_RegistersProviderFilterAndFeignInterceptor() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SecurityStarterAutoConfiguration.class))
+                .withPropertyValues("jwt.algorithm=HS256", "jwt.secret=" + HMAC_SECRET)
+                .run(context -> {
+                    // Assert
+                    assertThat(context).hasSingleBean(JwtTokenProvider.class);
+                    assertThat(context).hasSingleBean(JwtAuthenticationFilter.class);
+                    assertThat(context).hasSingleBean(FeignClientInterceptor.class);
+                    assertThat(context.getBean(JwtProperties.class).claimsCache().maximumSize()).isEqualTo(10_000L);
+                });
+    }
+
+    @Test
+    void customKeySource_ReplacesDefault() {
+        VerificationKeySource custom = keyId -> null;
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SecurityStarterAutoConfiguration.class))
+                .withBean(VerificationKeySource.class, () -> custom)
+                .run(context -> {
+                    // Assert
+                    assertThat(context.getBean(VerificationKeySource.class)).isSameAs(custom);
+                    assertThat(context).hasSingleBean(JwtTokenProvider.class);
+                    assertThat(context).doesNotHaveBean(JwtAuthenticationFilter.class);
+                });
+    }
+}
@@ -1,4 +1,4 @@
-package com.ClinicaDeYmid.patient_service.infra.security;
+package com.ClinicaDeYmid.security_starter.feign;
 
 import feign.RequestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
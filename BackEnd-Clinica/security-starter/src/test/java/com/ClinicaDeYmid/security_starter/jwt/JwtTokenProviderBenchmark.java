@@ -0,0 +1,119 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import com.ClinicaDeYmid.security_starter.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de autenticar un JWT RS256 en {@link JwtAuthenticationFilter}.
+ *
+ * <ul>
+ *     <li>{@code legacyFilterParsing}: comportamiento anterior, seis parseos con verificación
+ *     de firma y un parser nuevo en cada llamada.</li>
+ *     <li>{@code verifyUncached}: una sola verificación con el parser reutilizado.</li>
+ *     <li>{@code verifyCached}: petición repetida de la misma sesión (acierto de caché).</li>
+ * </ul>
+ *
+ * <p>Ejecutar con: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ClinicaDeYmid.security_starter.jwt.JwtTokenProviderBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private PublicKey publicKey;
+    private String token;
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = keyPair.getPublic();
+
+        token = Jwts.builder()
+                .subject("user-uuid")
+                .issuer("ClinicaDeYmid")
+                .claim("email", "user@clinica.com")
+                .claim("role", "ADMIN")
+                .claim("permissions", List.of("PATIENT_READ", "PATIENT_WRITE"))
+                .claim("type", "access")
+                .expiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        String encodedKey = Base64.getEncoder().encodeToString(publicKey.getEncoded());
+        cachedProvider = provider(encodedKey, 10_000L);
+        uncachedProvider = provider(encodedKey, 0L);
+    }
+
+    @Benchmark
+    public void legacyFilterParsing(Blackhole blackhole) {
+        // validateToken + isAccessToken + 4 getters, cada uno con su propio parser
+        for (int i = 0; i < 6; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(publicKey)
+                    .requireIssuer("ClinicaDeYmid")
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            blackhole.consume(claims);
+        }
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        return uncachedProvider.verify(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        return cachedProvider.verify(token).orElseThrow();
+    }
+
+    private static JwtTokenProvider provider(String encodedKey, long cacheSize) {
+        JwtProperties properties = new JwtProperties("RS256", null,
+                new JwtProperties.Rsa(encodedKey, null, null, null), new JwtProperties.ClaimsCache(cacheSize));
+        return new JwtTokenProvider(properties,
+                new PropertiesVerificationKeySource(properties, new DefaultResourceLoader()),
+                new SimpleMeterRegistry());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
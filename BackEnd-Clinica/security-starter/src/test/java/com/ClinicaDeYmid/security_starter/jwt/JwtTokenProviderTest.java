@@ -0,0 +1,240 @@
+package com.ClinicaDeYmid.security_starter.jwt;
+
+import com.ClinicaDeYmid.security_starter.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para JwtTokenProvider.
+ * Verifica la verificación única de tokens, la caché de claims y la rotación de claves.
+ */
+class JwtTokenProviderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider jwtTokenProvider;
+    private PrivateKey privateKey;
+    private PublicKey publicKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        privateKey = keyPair.getPrivate();
+
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenProvider = provider(keyPair, 100L);
+    }
+
+    @Test
+    void verify_ValidAccessToken_ReturnsClaims() {
+        // Arrange
+        String token = token("access", Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        // Act
+        Optional<VerifiedToken> result = jwtTokenProvider.verify(token);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("user-uuid", result.get().uuid());
+        assertEquals("user@clinica.com", result.get().email());
+        assertEquals("ADMIN", result.get().role());
+        assertEquals(List.of("PATIENT_READ"), result.get().permissions());
+        assertTrue(result.get().isAccessToken());
+    }
+
+    @Test
+    void verify_SameToken_ReusesCachedClaims() {
+        // Arrange
+        String token = token("access", Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        // Act
+        VerifiedToken first = jwtTokenProvider.verify(token).orElseThrow();
+        VerifiedToken second = jwtTokenProvider.verify(token).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("result", "verified").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("result", "cached").timer().count());
+    }
+
+    @Test
+    void verify_TamperedToken_ReturnsEmpty() {
+        // Arrange
+        String token = token("access", Instant.now().plus(15, ChronoUnit.MINUTES));
+        String tampered = token.substring(0, token.length() - 4) + "abcd";
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.verify(tampered).isEmpty());
+        assertFalse(jwtTokenProvider.validateToken(tampered));
+        assertEquals(2, meterRegistry.get("jwt.verification").tag("result", "invalid").timer().count());
+    }
+
+    @Test
+    void verify_ExpiredToken_ReturnsEmpty() {
+        // Arrange
+        String token = token("access", Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.verify(token).isEmpty());
+    }
+
+    @Test
+    void isAccessToken_RefreshToken_ReturnsFalse() {
+        // Arrange
+        String token = token("refresh", Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        // Act & Assert
+        assertFalse(jwtTokenProvider.isAccessToken(token));
+    }
+
+    @Test
+    void reloadKeys_RotatedKey_RejectsTokensVerifiedWithPreviousKey() throws Exception {
+        // Arrange
+        String token = token("access", Instant.now().plus(15, ChronoUnit.MINUTES));
+        RotatingKeySource keySource = new RotatingKeySource(publicKey);
+        JwtTokenProvider provider = new JwtTokenProvider(properties(100L), keySource, meterRegistry);
+        assertTrue(provider.verify(token).isPresent());
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keySource.next = generator.generateKeyPair().getPublic();
+
+        // Act
+        provider.reloadKeys();
+
+        // Assert
+        assertTrue(provider.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_TokenSignedWithPreviousKey_AcceptedByKid() throws Exception {
+        // Arrange
+        KeyPair previous = newKeyPair();
+        KeyPair active = newKeyPair();
+        JwtProperties properties = new JwtProperties("RS256", null,
+                new JwtProperties.Rsa(encode(active.getPublic()), null,
+                        List.of(encode(previous.getPublic())), null),
+                new JwtProperties.ClaimsCache(100L));
+        JwtTokenProvider provider = new JwtTokenProvider(properties,
+                new PropertiesVerificationKeySource(properties, new DefaultResourceLoader()), meterRegistry);
+
+        String previousToken = token(previous.getPrivate(),
+                PropertiesVerificationKeySource.keyIdOf(previous.getPublic()));
+        String activeToken = token(active.getPrivate(),
+                PropertiesVerificationKeySource.keyIdOf(active.getPublic()));
+        String unknownKidToken = token(previous.getPrivate(),
+                PropertiesVerificationKeySource.keyIdOf(active.getPublic()));
+
+        // Act & Assert
+        assertTrue(provider.verify(previousToken).isPresent());
+        assertTrue(provider.verify(activeToken).isPresent());
+        assertTrue(provider.verify(unknownKidToken).isEmpty());
+    }
+
+    @Test
+    void verify_TokenWithoutKid_UsesActiveKey() throws Exception {
+        // Arrange
+        KeyPair previous = newKeyPair();
+        KeyPair active = newKeyPair();
+        JwtProperties properties = new JwtProperties("RS256", null,
+                new JwtProperties.Rsa(encode(active.getPublic()), null,
+                        List.of(encode(previous.getPublic())), null),
+                new JwtProperties.ClaimsCache(100L));
+        JwtTokenProvider provider = new JwtTokenProvider(properties,
+                new PropertiesVerificationKeySource(properties, new DefaultResourceLoader()), meterRegistry);
+
+        // Act & Assert
+        assertTrue(provider.verify(token(active.getPrivate(), null)).isPresent());
+        assertTrue(provider.verify(token(previous.getPrivate(), null)).isEmpty());
+    }
+
+    private JwtTokenProvider provider(KeyPair keyPair, long cacheSize) {
+        publicKey = keyPair.getPublic();
+        JwtProperties properties = properties(cacheSize, encode(publicKey));
+        return new JwtTokenProvider(properties,
+                new PropertiesVerificationKeySource(properties, new DefaultResourceLoader()), meterRegistry);
+    }
+
+    private static JwtProperties properties(long cacheSize) {
+        return properties(cacheSize, null);
+    }
+
+    private static JwtProperties properties(long cacheSize, String encodedPublicKey) {
+        return new JwtProperties("RS256", null,
+                new JwtProperties.Rsa(encodedPublicKey, null, null, null),
+                new JwtProperties.ClaimsCache(cacheSize));
+    }
+
+    private static final class RotatingKeySource implements VerificationKeySource {
+
+        private Key current;
+        private Key next;
+
+        private RotatingKeySource(Key current) {
+            this.current = current;
+        }
+
+        @Override
+        public Key resolve(String keyId) {
+            return current;
+        }
+
+        @Override
+        public void reload() {
+            current = next;
+        }
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String encode(PublicKey key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    private static String token(PrivateKey signingKey, String keyId) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("user-uuid")
+                .issuer("ClinicaDeYmid")
+                .claim("type", "access")
+                .expiration(Date.from(Instant.now().plus(15, ChronoUnit.MINUTES)))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    private String token(String type, Instant expiration) {
+        return Jwts.builder()
+                .subject("user-uuid")
+                .issuer("ClinicaDeYmid")
+                .claim("email", "user@clinica.com")
+                .claim("role", "ADMIN")
+                .claim("permissions", List.of("PATIENT_READ"))
+                .claim("type", type)
+                .issuedAt(Date.from(Instant.now().minus(1, ChronoUnit.MINUTES)))
+                .expiration(Date.from(expiration))
+                .signWith(privateKey)
+                .compact();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ClinicaDeYmid.suppliers_service.module.config;
 
+import com.ClinicaDeYmid.cache_starter.config.CacheStarterAutoConfiguration;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -14,18 +15,12 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-
 @Slf4j
 @Configuration
 @EnableCaching
@@ -57,45 +52,14 @@ public class RedisCacheConfig {
         return mapper;
     }
 
-    @Bean
-    public RedisCacheManager cacheManager(
-            RedisConnectionFactory connectionFactory,
+    /**
+     * Las cachés de suppliers guardan entidades Doctor en JSON, no snapshots del codec compartido.
+     * El near-cache y el CacheManager los configura el cache-starter ({@code cache.redis}).
+     */
+    @Bean(name = CacheStarterAutoConfiguration.CACHE_VALUE_SERIALIZER)
+    public RedisSerializer<Object> cacheValueSerializer(
             @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
-
-        log.info("🔧 Configurando Redis Cache Manager para suppliers-service");
-
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(redisObjectMapper);
-
-        // Configuración por defecto
-        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration
-                .defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues()
-                .serializeKeysWith(
-                        RedisSerializationContext.SerializationPair
-                                .fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair
-                                .fromSerializer(serializer));
-
-        // Configuraciones específicas por caché
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-
-        cacheConfigurations.put("doctor-entities", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("doctor_cache", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("all_doctors_by_specialty", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("all_doctors_by_subspecialty", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-
-        log.info("✅ Redis Cache Manager configurado con GenericJackson2JsonRedisSerializer");
-        log.info("✅ Módulos Jackson: ParameterNamesModule, Jdk8Module, JavaTimeModule");
-        log.info("💡 Estrategia: Cachear solo entidades Doctor, construir DTOs frescos");
-
-        return RedisCacheManager
-                .builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .build();
+        return new GenericJackson2JsonRedisSerializer(redisObjectMapper);
     }
 
     @Bean
@@ -1,5 +1,6 @@
 package com.ClinicaDeYmid.suppliers_service.module.controller;
 
+import com.ClinicaDeYmid.suppliers_service.module.dto.DoctorBatchRequestDto;
 import com.ClinicaDeYmid.suppliers_service.module.dto.DoctorCreateRequestDTO;
 import com.ClinicaDeYmid.suppliers_service.module.dto.DoctorResponseDto;
 import com.ClinicaDeYmid.suppliers_service.module.dto.DoctorUpdateRequestDTO;
@@ -19,6 +20,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Validated
@@ -80,6 +82,18 @@ public class DoctorController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @Operation(
+            summary = "Get doctors by IDs",
+            description = "Retrieve several doctors in a single request, keyed by ID. IDs that do not exist are omitted. " +
+                    "Accessible by ADMIN, DOCTOR, and RECEPTIONIST roles.")
+    public ResponseEntity<Map<Long, DoctorResponseDto>> getDoctorsByIds(
+            @Valid @RequestBody DoctorBatchRequestDto request) {
+        log.info("Fetching {} doctors in batch", request.ids().size());
+        return ResponseEntity.ok(doctorGetService.getDoctorsByIds(request.ids()));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN', 'DOCTOR', 'RECEPTIONIST')")
     @Operation(
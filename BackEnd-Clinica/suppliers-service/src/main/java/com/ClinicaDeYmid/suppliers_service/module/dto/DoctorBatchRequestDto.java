@@ -0,0 +1,17 @@
+package com.ClinicaDeYmid.suppliers_service.module.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record DoctorBatchRequestDto(
+        @Schema(description = "IDs of the doctors to retrieve", example = "[1, 2, 3]")
+        @NotEmpty(message = "At least one doctor ID is required")
+        @Size(max = DoctorBatchRequestDto.MAX_IDS, message = "A maximum of " + DoctorBatchRequestDto.MAX_IDS + " doctor IDs is allowed per request")
+        List<@NotNull Long> ids
+) {
+    public static final int MAX_IDS = 100;
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,18 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
         """)
     Optional<Doctor> findByIdWithSpecialtiesAndSubSpecialties(@Param("id") Long id);
 
+    /**
+     * Encuentra varios doctores por ID en una sola consulta, con especialidades y subespecialidades
+     */
+    @Query("""
+        SELECT DISTINCT d FROM Doctor d
+        LEFT JOIN FETCH d.specialties s
+        LEFT JOIN FETCH s.subSpecialties ss
+        LEFT JOIN FETCH d.subSpecialties ds
+        WHERE d.id IN :ids
+        """)
+    List<Doctor> findAllByIdInWithSpecialtiesAndSubSpecialties(@Param("ids") Collection<Long> ids);
+
     @Query("""
         SELECT DISTINCT d FROM Doctor d
         LEFT JOIN FETCH d.specialties s
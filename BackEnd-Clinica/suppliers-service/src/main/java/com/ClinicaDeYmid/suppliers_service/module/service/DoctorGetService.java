@@ -11,7 +11,10 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -40,6 +43,14 @@ public class DoctorGetService {
         return doctorMapper.toDoctorResponseDto(doctor);
     }
 
+    @Transactional(readOnly = true)
+    public Map<Long, DoctorResponseDto> getDoctorsByIds(Collection<Long> ids) {
+        log.info("Fetching {} doctors in batch", ids.size());
+
+        return doctorRepository.findAllByIdInWithSpecialtiesAndSubSpecialties(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Doctor::getId, doctorMapper::toDoctorResponseDto));
+    }
+
     @Transactional(readOnly = true)
     public List<DoctorResponseDto> getAllDoctors() {
         log.info("Fetching all active doctors");
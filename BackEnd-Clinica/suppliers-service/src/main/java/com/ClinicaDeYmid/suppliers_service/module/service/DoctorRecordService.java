@@ -1,6 +1,5 @@
 package com.ClinicaDeYmid.suppliers_service.module.service;
 
-import com.ClinicaDeYmid.suppliers_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.suppliers_service.module.dto.*;
 import com.ClinicaDeYmid.suppliers_service.module.entity.Doctor;
 import com.ClinicaDeYmid.suppliers_service.module.entity.Speciality;
@@ -9,6 +8,7 @@ import com.ClinicaDeYmid.suppliers_service.module.mapper.DoctorMapper;
 import com.ClinicaDeYmid.suppliers_service.module.repository.DoctorRepository;
 import com.ClinicaDeYmid.suppliers_service.module.repository.SpecialtyRepository;
 import com.ClinicaDeYmid.suppliers_service.module.repository.SubSpecialtyRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
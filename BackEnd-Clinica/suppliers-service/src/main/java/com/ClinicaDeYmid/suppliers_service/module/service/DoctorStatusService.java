@@ -1,8 +1,8 @@
 package com.ClinicaDeYmid.suppliers_service.module.service;
 
-import com.ClinicaDeYmid.suppliers_service.infra.security.UserContextHolder;
 import com.ClinicaDeYmid.suppliers_service.module.entity.Doctor;
 import com.ClinicaDeYmid.suppliers_service.module.repository.DoctorRepository;
+import com.ClinicaDeYmid.security_starter.user.UserContextHolder;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;